@@ -0,0 +1,90 @@
+package com.vehicleoem.security;
+
+import com.vehicleoem.security.BatchSignatureVerifier.SignedItem;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.test.util.ReflectionTestUtils;
+import java.security.KeyPair;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Signature verification throughput at different batch sizes: a plain loop over
+ * {@link CryptographyService#checkSignature} against {@link BatchSignatureVerifier#verifyAll}.
+ * Scores are batches per second; multiply by {@code batchSize} for signatures per second.
+ * <pre>
+ * mvn -Pjmh test-compile exec:exec -Djmh.args="BatchVerificationBenchmark"
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class BatchVerificationBenchmark {
+
+    // Verifying with several keys keeps per-key caching from flattering the results
+    private static final int KEYS = 16;
+
+    @Param({"1", "10", "100", "1000", "10000"})
+    private int batchSize;
+
+    private CryptographyService cryptographyService;
+    private BatchSignatureVerifier batchSignatureVerifier;
+    private List<SignedItem> items;
+
+    @Setup
+    public void setUp() {
+        cryptographyService = new CryptographyService();
+        batchSignatureVerifier = new BatchSignatureVerifier();
+        ReflectionTestUtils.setField(batchSignatureVerifier, "cryptographyService", cryptographyService);
+        ReflectionTestUtils.setField(batchSignatureVerifier, "meterRegistry", new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(batchSignatureVerifier, "sequentialThreshold", 32);
+        ReflectionTestUtils.invokeMethod(batchSignatureVerifier, "init");
+
+        List<KeyPair> keyPairs = new ArrayList<>();
+        for (int i = 0; i < KEYS; i++) {
+            keyPairs.add(cryptographyService.generateECKeyPair());
+        }
+        items = new ArrayList<>(batchSize);
+        for (int i = 0; i < batchSize; i++) {
+            KeyPair keyPair = keyPairs.get(i % KEYS);
+            byte[] data = ("device-certificate-" + i).getBytes();
+            items.add(new SignedItem(data, cryptographyService.signData(data, keyPair.getPrivate()), keyPair.getPublic()));
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        ReflectionTestUtils.invokeMethod(batchSignatureVerifier, "shutdown");
+    }
+
+    @Benchmark
+    public int sequential() {
+        int valid = 0;
+        for (SignedItem item : items) {
+            if (cryptographyService.checkSignature(item.data(), item.signature(), item.publicKey()) == SignatureStatus.VALID) {
+                valid++;
+            }
+        }
+        return valid;
+    }
+
+    @Benchmark
+    public BatchVerificationResult batch() {
+        return batchSignatureVerifier.verifyAll(items);
+    }
+}
@@ -0,0 +1,83 @@
+package com.vehicleoem.security;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.test.util.ReflectionTestUtils;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Fleet certificate issuance throughput against the number of issuance workers. Scores are
+ * certificates per second; divide by {@code workers} for certificates per second per core.
+ * With {@code workers} at or below the CPU count, a flat per-core rate means issuance scales
+ * linearly.
+ * <pre>
+ * mvn -Pjmh test-compile exec:exec -Djmh.args="CertificateIssuanceBenchmark"
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class CertificateIssuanceBenchmark {
+
+    private static final int BATCH_SIZE = 1000;
+
+    @Param({"1", "2", "4", "8"})
+    private int workers;
+
+    private CryptoExecutor cryptoExecutor;
+    private CertificateService certificateService;
+    private List<String> vins;
+
+    @Setup
+    public void setUp() {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        cryptoExecutor = new CryptoExecutor();
+        ReflectionTestUtils.setField(cryptoExecutor, "meterRegistry", meterRegistry);
+        ReflectionTestUtils.setField(cryptoExecutor, "enabled", true);
+        ReflectionTestUtils.setField(cryptoExecutor, "threads", workers);
+        ReflectionTestUtils.setField(cryptoExecutor, "queueCapacity", 256);
+        ReflectionTestUtils.invokeMethod(cryptoExecutor, "init");
+
+        certificateService = new CertificateService();
+        ReflectionTestUtils.setField(certificateService, "cryptographyService", new CryptographyService());
+        ReflectionTestUtils.setField(certificateService, "cryptoExecutor", cryptoExecutor);
+        ReflectionTestUtils.setField(certificateService, "meterRegistry", meterRegistry);
+        ReflectionTestUtils.setField(certificateService, "parallelism", workers);
+        ReflectionTestUtils.setField(certificateService, "chunkSize", 64);
+        ReflectionTestUtils.invokeMethod(certificateService, "init");
+
+        vins = new ArrayList<>(BATCH_SIZE);
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            vins.add(String.format("1HGBH41JXMN%06d", i));
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        ReflectionTestUtils.invokeMethod(cryptoExecutor, "shutdown");
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    public CertificateService.FleetIssuanceSummary issueFleet(Blackhole blackhole) {
+        return certificateService.issueVehicleCertificates(vins, blackhole::consume);
+    }
+}
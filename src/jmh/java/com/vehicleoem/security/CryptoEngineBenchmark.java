@@ -0,0 +1,122 @@
+package com.vehicleoem.security;
+
+import org.bouncycastle.jce.spec.IESParameterSpec;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import javax.crypto.Cipher;
+import java.nio.charset.StandardCharsets;
+import java.security.KeyPair;
+import java.security.MessageDigest;
+import java.security.Signature;
+import java.util.Base64;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the per-thread engines in {@link CryptoEngines} ("pooled") with the previous
+ * approach of looking up a fresh engine and parameter spec on every call ("fresh").
+ * Runs with 4 threads by default; override with {@code -t}.
+ * <pre>
+ * mvn -Pjmh test-compile exec:exec -Djmh.args="CryptoEngineBenchmark -t 8"
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Threads(4)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class CryptoEngineBenchmark {
+
+    private static final String PAYLOAD = "{\"keyId\":\"KEY-0001\",\"vin\":\"1HGBH41JXMN109186\",\"permissions\":[\"UNLOCK\",\"START\"]}";
+
+    private CryptographyService cryptographyService;
+    private KeyPair keyPair;
+    private byte[] data;
+    private String encrypted;
+    private String signature;
+
+    @Setup
+    public void setUp() {
+        cryptographyService = new CryptographyService();
+        keyPair = cryptographyService.generateECKeyPair();
+        data = PAYLOAD.getBytes(StandardCharsets.UTF_8);
+        encrypted = cryptographyService.encryptWithECIES(PAYLOAD, keyPair.getPublic());
+        signature = cryptographyService.signData(data, keyPair.getPrivate());
+    }
+
+    @Benchmark
+    public String eciesEncryptPooled() {
+        return cryptographyService.encryptWithECIES(PAYLOAD, keyPair.getPublic());
+    }
+
+    @Benchmark
+    public String eciesEncryptFresh() throws Exception {
+        Cipher cipher = Cipher.getInstance("ECIES", "BC");
+        cipher.init(Cipher.ENCRYPT_MODE, keyPair.getPublic(), freshIesParameters());
+        return Base64.getEncoder().encodeToString(cipher.doFinal(data));
+    }
+
+    @Benchmark
+    public String eciesDecryptPooled() {
+        return cryptographyService.decryptWithECIES(encrypted, keyPair.getPrivate());
+    }
+
+    @Benchmark
+    public String eciesDecryptFresh() throws Exception {
+        Cipher cipher = Cipher.getInstance("ECIES", "BC");
+        cipher.init(Cipher.DECRYPT_MODE, keyPair.getPrivate(), freshIesParameters());
+        return new String(cipher.doFinal(Base64.getDecoder().decode(encrypted)), StandardCharsets.UTF_8);
+    }
+
+    @Benchmark
+    public String signPooled() {
+        return cryptographyService.signData(data, keyPair.getPrivate());
+    }
+
+    @Benchmark
+    public String signFresh() throws Exception {
+        Signature engine = Signature.getInstance("SHA256withECDSA", "BC");
+        engine.initSign(keyPair.getPrivate());
+        engine.update(data);
+        return Base64.getEncoder().encodeToString(engine.sign());
+    }
+
+    @Benchmark
+    public boolean verifyPooled() {
+        return cryptographyService.verifySignature(data, signature, keyPair.getPublic());
+    }
+
+    @Benchmark
+    public boolean verifyFresh() throws Exception {
+        Signature engine = Signature.getInstance("SHA256withECDSA", "BC");
+        engine.initVerify(keyPair.getPublic());
+        engine.update(data);
+        return engine.verify(Base64.getDecoder().decode(signature));
+    }
+
+    @Benchmark
+    public String verifierPooled() {
+        return cryptographyService.generatePairingVerifier(PAYLOAD);
+    }
+
+    @Benchmark
+    public String verifierFresh() throws Exception {
+        MessageDigest digest = MessageDigest.getInstance("SHA-256");
+        return Base64.getEncoder().encodeToString(digest.digest(PAYLOAD.getBytes()));
+    }
+
+    private static IESParameterSpec freshIesParameters() {
+        return new IESParameterSpec(new byte[]{1, 2, 3, 4, 5, 6, 7, 8}, new byte[]{8, 7, 6, 5, 4, 3, 2, 1},
+            128, 128, null, false);
+    }
+}
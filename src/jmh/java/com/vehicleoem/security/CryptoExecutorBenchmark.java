@@ -0,0 +1,75 @@
+package com.vehicleoem.security;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.test.util.ReflectionTestUtils;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.KeyPair;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of handing an ECDSA verification to the {@link CryptoExecutor} and waiting for it,
+ * against running it on the calling thread. The difference is the per-operation price of
+ * bounding crypto concurrency. Run with {@code -t} above the CPU count to see queue time
+ * grow while throughput stays flat.
+ * <pre>
+ * mvn -Pjmh test-compile exec:exec -Djmh.args="CryptoExecutorBenchmark -t 4"
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class CryptoExecutorBenchmark {
+
+    private static final byte[] DATA = "unlock|1HGBH41JXMN109186|driver-door".getBytes(StandardCharsets.UTF_8);
+
+    private CryptoExecutor cryptoExecutor;
+    private CryptographyService inline;
+    private CryptographyService offloaded;
+    private KeyPair keyPair;
+    private byte[] signature;
+
+    @Setup
+    public void setUp() {
+        cryptoExecutor = new CryptoExecutor();
+        ReflectionTestUtils.setField(cryptoExecutor, "meterRegistry", new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(cryptoExecutor, "enabled", true);
+        ReflectionTestUtils.setField(cryptoExecutor, "queueCapacity", 1024);
+        ReflectionTestUtils.invokeMethod(cryptoExecutor, "init");
+
+        inline = new CryptographyService();
+        offloaded = new CryptographyService();
+        ReflectionTestUtils.setField(offloaded, "cryptoExecutor", cryptoExecutor);
+        keyPair = inline.generateECKeyPair();
+        signature = inline.signDataRaw(ByteBuffer.wrap(DATA), keyPair.getPrivate());
+    }
+
+    @TearDown
+    public void tearDown() {
+        ReflectionTestUtils.invokeMethod(cryptoExecutor, "shutdown");
+    }
+
+    @Benchmark
+    public boolean verifyInline() {
+        return inline.verifySignatureRaw(ByteBuffer.wrap(DATA), signature, keyPair.getPublic());
+    }
+
+    @Benchmark
+    public boolean verifyOnExecutor() {
+        return offloaded.verifySignatureRaw(ByteBuffer.wrap(DATA), signature, keyPair.getPublic());
+    }
+}
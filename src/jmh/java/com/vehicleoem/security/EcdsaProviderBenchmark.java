@@ -0,0 +1,81 @@
+package com.vehicleoem.security;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.Signature;
+import java.security.spec.ECGenParameterSpec;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * P-256 key generation, ECDSA signing and verification with BouncyCastle against the JDK's
+ * SunEC provider, using the same curve and algorithm as {@link CryptographyService}. Each
+ * thread keeps its own engines, as {@link CryptoEngines} does, so the scores compare the
+ * providers and not engine lookup.
+ * <pre>
+ * mvn -Pjmh test-compile exec:exec -Djmh.args="EcdsaProviderBenchmark -prof gc"
+ * </pre>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class EcdsaProviderBenchmark {
+
+    private static final byte[] DATA =
+        "VIN:1HGBH41JXMN109186|PublicKey:MFkwEwYHKoZIzj0CAQYIKoZIzj0DAQcDQgAE|Issuer:Vehicle OEM CA".getBytes(StandardCharsets.UTF_8);
+
+    @Param({"BC", "SunEC"})
+    private String provider;
+
+    private KeyPairGenerator keyPairGenerator;
+    private Signature signer;
+    private Signature verifier;
+    private KeyPair keyPair;
+    private byte[] signature;
+
+    @Setup
+    public void setUp() throws GeneralSecurityException {
+        // Registers BouncyCastle if it isn't already
+        String providerName = "BC".equals(provider) ? CryptoEngines.BC.getName() : provider;
+        keyPairGenerator = KeyPairGenerator.getInstance("EC", providerName);
+        keyPairGenerator.initialize(new ECGenParameterSpec(CryptoEngines.CURVE_NAME));
+        signer = Signature.getInstance(CryptoEngines.SIGNATURE_ALGORITHM, providerName);
+        verifier = Signature.getInstance(CryptoEngines.SIGNATURE_ALGORITHM, providerName);
+        keyPair = keyPairGenerator.generateKeyPair();
+        signature = sign();
+    }
+
+    @Benchmark
+    public KeyPair generateKeyPair() {
+        return keyPairGenerator.generateKeyPair();
+    }
+
+    @Benchmark
+    public byte[] sign() throws GeneralSecurityException {
+        signer.initSign(keyPair.getPrivate());
+        signer.update(DATA);
+        return signer.sign();
+    }
+
+    @Benchmark
+    public boolean verify() throws GeneralSecurityException {
+        verifier.initVerify(keyPair.getPublic());
+        verifier.update(DATA);
+        return verifier.verify(signature);
+    }
+}
@@ -0,0 +1,65 @@
+package com.vehicleoem.security;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import java.security.KeyPair;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ECIES encrypt and decrypt through {@link CryptographyService} across payload sizes, from a
+ * key handle to a large telematics blob, in both {@link EciesFormat}s. A compact ciphertext
+ * is 30 bytes shorter but its point has to be decompressed on decryption. Only BouncyCastle
+ * implements ECIES, so there is no provider comparison here. Scores are operations per
+ * second; multiply by {@code payloadSize} for bytes per second.
+ * <pre>
+ * mvn -Pjmh test-compile exec:exec -Djmh.args="EciesBenchmark -prof gc"
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class EciesBenchmark {
+
+    @Param({"64", "1024", "16384", "262144"})
+    private int payloadSize;
+
+    @Param({"LEGACY", "COMPACT"})
+    private EciesFormat format;
+
+    private CryptographyService cryptographyService;
+    private KeyPair keyPair;
+    private byte[] plaintext;
+    private byte[] ciphertext;
+
+    @Setup
+    public void setUp() {
+        cryptographyService = new CryptographyService();
+        keyPair = cryptographyService.generateECKeyPair();
+        plaintext = new byte[payloadSize];
+        new Random(payloadSize).nextBytes(plaintext);
+        ciphertext = cryptographyService.encryptWithECIESRaw(plaintext, keyPair.getPublic(), format);
+    }
+
+    @Benchmark
+    public byte[] encrypt() {
+        return cryptographyService.encryptWithECIESRaw(plaintext, keyPair.getPublic(), format);
+    }
+
+    @Benchmark
+    public byte[] decrypt() {
+        return cryptographyService.decryptWithECIESRaw(ciphertext, keyPair.getPrivate());
+    }
+}
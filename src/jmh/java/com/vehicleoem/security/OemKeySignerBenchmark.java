@@ -0,0 +1,56 @@
+package com.vehicleoem.security;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import java.nio.charset.StandardCharsets;
+import java.security.KeyPair;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latency of one OEM-key signature, as on the pairing completion path: the general
+ * {@link CryptographyService#signData} against {@link OemKeySigner}. Add {@code -t} to
+ * check that the per-thread engines hold up under contention.
+ * <pre>
+ * mvn -Pjmh test-compile exec:exec -Djmh.args="OemKeySignerBenchmark -prof gc"
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class OemKeySignerBenchmark {
+
+    private static final byte[] DEVICE_OEM_CERTIFICATE =
+        "MIIBszCCAVmgAwIBAgIUDeviceOemCertificate".getBytes(StandardCharsets.UTF_8);
+
+    private CryptographyService cryptographyService;
+    private KeyPair oemKeyPair;
+    private OemKeySigner oemKeySigner;
+
+    @Setup
+    public void setUp() {
+        cryptographyService = new CryptographyService();
+        oemKeyPair = cryptographyService.generateECKeyPair();
+        oemKeySigner = new OemKeySigner(oemKeyPair);
+    }
+
+    @Benchmark
+    public String signData() {
+        return cryptographyService.signData(DEVICE_OEM_CERTIFICATE, oemKeyPair.getPrivate());
+    }
+
+    @Benchmark
+    public String oemKeySigner() {
+        return oemKeySigner.sign(DEVICE_OEM_CERTIFICATE);
+    }
+}
@@ -0,0 +1,60 @@
+package com.vehicleoem.security;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import java.io.File;
+
+/**
+ * Runs the security package benchmarks ({@link EciesBenchmark}, {@link EcdsaProviderBenchmark}
+ * and {@link SecurityServiceBenchmark}) once on a single thread and once with one thread per
+ * available processor, with the GC profiler attached so every score comes with its
+ * allocation rate ({@code gc.alloc.rate.norm} is bytes per operation). Each run writes JMH
+ * JSON to {@code target/jmh/security-threads-<n>.json}, for comparing one release with the
+ * next.
+ * <p>
+ * Arguments are passed on to JMH, so a benchmark pattern or {@code -i}, {@code -wi} and
+ * {@code -f} can narrow or shorten the run:
+ * <pre>
+ * mvn -Pjmh test-compile exec:exec -Djmh.main=com.vehicleoem.security.SecurityBenchmarks -Djmh.args=""
+ * mvn -Pjmh test-compile exec:exec -Djmh.main=com.vehicleoem.security.SecurityBenchmarks -Djmh.args="Ecdsa -wi 1 -i 2"
+ * </pre>
+ */
+public final class SecurityBenchmarks {
+
+    private static final String[] BENCHMARKS = {
+        EciesBenchmark.class.getSimpleName(),
+        EcdsaProviderBenchmark.class.getSimpleName(),
+        SecurityServiceBenchmark.class.getSimpleName()
+    };
+
+    private SecurityBenchmarks() {
+    }
+
+    public static void main(String[] args) throws CommandLineOptionException, RunnerException {
+        CommandLineOptions commandLine = new CommandLineOptions(args);
+        File output = new File("target/jmh");
+        output.mkdirs();
+
+        int processors = Runtime.getRuntime().availableProcessors();
+        int[] threadCounts = processors > 1 ? new int[]{1, processors} : new int[]{1};
+        for (int threads : threadCounts) {
+            OptionsBuilder options = new OptionsBuilder();
+            options.parent(commandLine);
+            if (commandLine.getIncludes().isEmpty()) {
+                for (String benchmark : BENCHMARKS) {
+                    options.include("com\\.vehicleoem\\.security\\." + benchmark + "\\.");
+                }
+            }
+            options.threads(threads)
+                .addProfiler(GCProfiler.class)
+                .resultFormat(ResultFormatType.JSON)
+                .result(new File(output, "security-threads-" + threads + ".json").getPath());
+            new Runner(options.build()).run();
+        }
+    }
+}
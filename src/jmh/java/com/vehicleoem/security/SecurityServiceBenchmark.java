@@ -0,0 +1,106 @@
+package com.vehicleoem.security;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.test.util.ReflectionTestUtils;
+import java.nio.charset.StandardCharsets;
+import java.security.KeyPair;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The public operations of {@link CryptographyService} and {@link CertificateService} as the
+ * application calls them, including Base64 encoding. The key pair pool is disabled, so
+ * {@code vehicleCertificate} includes generating the vehicle key pair; with the pool enabled
+ * that cost moves to the background refill thread.
+ * <pre>
+ * mvn -Pjmh test-compile exec:exec -Djmh.args="SecurityServiceBenchmark -prof gc"
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class SecurityServiceBenchmark {
+
+    private static final String PASSWORD = "483920";
+    private static final String DEVICE_OEM_CERTIFICATE = "MIIBszCCAVmgAwIBAgIUDeviceOemCertificate";
+
+    private CryptographyService cryptographyService;
+    private CertificateService certificateService;
+    private KeyPair keyPair;
+    private byte[] data;
+    private String signature;
+
+    @Setup
+    public void setUp() {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        cryptographyService = new CryptographyService();
+
+        KeyPairPool keyPairPool = new KeyPairPool();
+        ReflectionTestUtils.setField(keyPairPool, "cryptographyService", cryptographyService);
+        ReflectionTestUtils.setField(keyPairPool, "meterRegistry", meterRegistry);
+        ReflectionTestUtils.setField(keyPairPool, "enabled", false);
+        ReflectionTestUtils.setField(keyPairPool, "capacity", 1);
+        ReflectionTestUtils.invokeMethod(keyPairPool, "start");
+
+        // Disabled, so operations run on the benchmark thread; CryptoExecutorBenchmark covers the hand-off
+        CryptoExecutor cryptoExecutor = new CryptoExecutor();
+        ReflectionTestUtils.setField(cryptoExecutor, "meterRegistry", meterRegistry);
+        ReflectionTestUtils.setField(cryptoExecutor, "enabled", false);
+        ReflectionTestUtils.invokeMethod(cryptoExecutor, "init");
+
+        certificateService = new CertificateService();
+        ReflectionTestUtils.setField(certificateService, "cryptographyService", cryptographyService);
+        ReflectionTestUtils.setField(certificateService, "cryptoExecutor", cryptoExecutor);
+        ReflectionTestUtils.setField(certificateService, "keyPairPool", keyPairPool);
+        ReflectionTestUtils.setField(certificateService, "meterRegistry", meterRegistry);
+        ReflectionTestUtils.setField(certificateService, "parallelism", 1);
+        ReflectionTestUtils.setField(certificateService, "chunkSize", 64);
+        ReflectionTestUtils.invokeMethod(certificateService, "init");
+
+        keyPair = cryptographyService.generateECKeyPair();
+        data = DEVICE_OEM_CERTIFICATE.getBytes(StandardCharsets.UTF_8);
+        signature = cryptographyService.signData(data, keyPair.getPrivate());
+    }
+
+    @Benchmark
+    public KeyPair generateKeyPair() {
+        return cryptographyService.generateECKeyPair();
+    }
+
+    @Benchmark
+    public String sign() {
+        return cryptographyService.signData(data, keyPair.getPrivate());
+    }
+
+    @Benchmark
+    public boolean verify() {
+        return cryptographyService.verifySignature(data, signature, keyPair.getPublic());
+    }
+
+    @Benchmark
+    public String pairingVerifier() {
+        return cryptographyService.generatePairingVerifier(PASSWORD);
+    }
+
+    @Benchmark
+    public String vehicleCertificate() {
+        return certificateService.generateVehiclePublicKeyCertificate("1HGBH41JXMN109186");
+    }
+
+    @Benchmark
+    public String crossSignedCertificate() {
+        return certificateService.generateDeviceOemCrossSignedCertificate(DEVICE_OEM_CERTIFICATE);
+    }
+}
@@ -1,5 +1,9 @@
 package com.vehicleoem.api;
 
+import com.vehicleoem.dto.BatchTrackKeyRequest;
+import com.vehicleoem.dto.BatchTrackKeyResponse;
+import com.vehicleoem.dto.DigitalKeyView;
+import com.vehicleoem.dto.KeyOperationResponse;
 import com.vehicleoem.dto.ManageKeyRequest;
 import com.vehicleoem.dto.ManageKeyResponse;
 import com.vehicleoem.dto.TrackKeyRequest;
@@ -14,8 +18,11 @@ import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestParam;
 
 @Tag(name = "Digital Key Management", description = "APIs for managing digital vehicle keys lifecycle")
 public interface DigitalKeyApi {
@@ -150,6 +157,60 @@ public interface DigitalKeyApi {
         @Parameter(description = "Digital key tracking request", required = true)
         @Valid @RequestBody TrackKeyRequest request);
 
+    @Operation(
+        summary = "Track Digital Keys in Bulk",
+        description = """
+            Tracks up to 5000 digital keys in a single call. Each entry has the same shape and
+            business rules as the single Track Digital Key endpoint.
+
+            **Behaviour:**
+            - Keys are grouped by VIN; each vehicle and owner account is validated once per batch
+            - New keys are inserted with a single batched write and each vehicle's key count
+              is updated once
+            - Keys that are already tracked are reported as successful (idempotent replay)
+            - A failing entry does not fail the batch; every entry gets its own result, returned
+              in submission order
+            """
+    )
+    @ApiResponses(value = {
+        @ApiResponse(
+            responseCode = "200",
+            description = "Batch processed; see per-key results",
+            content = @Content(
+                mediaType = "application/json",
+                schema = @Schema(implementation = BatchTrackKeyResponse.class),
+                examples = @ExampleObject(
+                    name = "Partial Success",
+                    value = """
+                        {
+                          "total": 3,
+                          "tracked": 1,
+                          "alreadyTracked": 1,
+                          "failed": 1,
+                          "results": [
+                            {"success": true, "message": "Key tracked successfully", "keyId": "OWNER-KEY-12345678", "trackingId": "OWNER-KEY-12345678"},
+                            {"success": true, "message": "Key already tracked", "keyId": "OWNER-KEY-87654321", "trackingId": "OWNER-KEY-87654321"},
+                            {"success": false, "message": "Maximum number of keys reached for this vehicle (5)", "keyId": "FRIEND-KEY-11112222", "trackingId": null}
+                          ]
+                        }
+                        """
+                )
+            )
+        ),
+        @ApiResponse(
+            responseCode = "400",
+            description = "Empty batch or batch larger than 5000 keys"
+        ),
+        @ApiResponse(
+            responseCode = "401",
+            description = "Authentication required"
+        )
+    })
+    @PostMapping("/batch")
+    ResponseEntity<BatchTrackKeyResponse> trackKeys(
+        @Parameter(description = "Bulk key tracking request", required = true)
+        @Valid @RequestBody BatchTrackKeyRequest request);
+
     @Operation(
         summary = "Manage Digital Key Lifecycle",
         description = """
@@ -269,5 +330,92 @@ public interface DigitalKeyApi {
     @PostMapping("/manage")
     ResponseEntity<ManageKeyResponse> manageKey(
         @Parameter(description = "Key management request", required = true)
-        @Valid @RequestBody ManageKeyRequest request);
+        @Valid @RequestBody ManageKeyRequest request,
+        @Parameter(description = "Respond with 202 Accepted as soon as the status change is committed")
+        @RequestParam(name = "async", defaultValue = "false") boolean async);
+
+    @Operation(
+        summary = "Get Key Operation Status",
+        description = """
+            Reports the progress of a key management operation. The key status change is committed
+            when the operation is accepted; the vehicle command, KTS update and device OEM
+            notification are delivered in the background and reported here as individual steps.
+            
+            **Long-polling:**
+            - Pass `waitSeconds` to hold the request until the operation finishes or the wait elapses
+            - The wait is capped at 30 seconds
+            - `status` is IN_PROGRESS until every step is delivered (COMPLETED) or a step gives up (FAILED)
+            """
+    )
+    @ApiResponses(value = {
+        @ApiResponse(
+            responseCode = "200",
+            description = "Current operation status",
+            content = @Content(
+                mediaType = "application/json",
+                schema = @Schema(implementation = KeyOperationResponse.class),
+                examples = @ExampleObject(
+                    name = "In Progress",
+                    value = """
+                        {
+                          "operationId": "3f6c1a52-7c1e-4a8e-9a53-2f1d1c0b9e77",
+                          "keyId": "OWNER-KEY-12345678",
+                          "action": "SUSPEND",
+                          "newStatus": "SUSPENDED",
+                          "status": "IN_PROGRESS",
+                          "createdAt": "2024-01-15T10:30:00",
+                          "steps": [
+                            {"step": "TELEMATICS_COMMAND", "status": "DISPATCHED", "attempts": 1, "acknowledgement": "CMD-12345", "completedAt": "2024-01-15T10:30:01"},
+                            {"step": "KTS_UPDATE_KEY_STATUS", "status": "PENDING", "attempts": 2, "lastError": "Read timed out"},
+                            {"step": "DEVICE_OEM_NOTIFICATION", "status": "PENDING", "attempts": 0}
+                          ]
+                        }
+                        """
+                )
+            )
+        ),
+        @ApiResponse(
+            responseCode = "404",
+            description = "Unknown or purged operation"
+        ),
+        @ApiResponse(
+            responseCode = "401",
+            description = "Authentication required"
+        )
+    })
+    @GetMapping("/operations/{operationId}")
+    ResponseEntity<KeyOperationResponse> getKeyOperation(
+        @Parameter(description = "Operation identifier returned by the manage endpoint", required = true)
+        @PathVariable("operationId") String operationId,
+        @Parameter(description = "Seconds to wait for the operation to finish (long-poll), 0 to return immediately")
+        @RequestParam(name = "waitSeconds", defaultValue = "0") long waitSeconds);
+
+    @Operation(
+        summary = "Get Digital Key",
+        description = """
+            Returns a summary of a digital key. Key material and UI bundles are not included.
+            """
+    )
+    @ApiResponses(value = {
+        @ApiResponse(
+            responseCode = "200",
+            description = "Key found",
+            content = @Content(
+                mediaType = "application/json",
+                schema = @Schema(implementation = DigitalKeyView.class)
+            )
+        ),
+        @ApiResponse(
+            responseCode = "404",
+            description = "Key not found"
+        ),
+        @ApiResponse(
+            responseCode = "401",
+            description = "Authentication required"
+        )
+    })
+    @GetMapping("/{keyId}")
+    ResponseEntity<DigitalKeyView> getKey(
+        @Parameter(description = "Unique identifier of the digital key", required = true, example = "OWNER-KEY-12345678")
+        @PathVariable("keyId") String keyId);
 }
@@ -1,5 +1,6 @@
 package com.vehicleoem.api;
 
+import com.vehicleoem.dto.DigitalKeyPageResponse;
 import com.vehicleoem.model.Vehicle;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -11,6 +12,8 @@ import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import java.util.List;
 
 @Tag(name = "Vehicle Management", description = "APIs for managing vehicles and their configurations")
 public interface VehicleApi {
@@ -198,4 +201,67 @@ public interface VehicleApi {
         @PathVariable String vin,
         @Parameter(description = "Subscription tier (BASIC, PREMIUM, ENTERPRISE)", required = true, example = "PREMIUM")
         @RequestParam String tier);
+
+    @Operation(
+        summary = "List Vehicle Keys",
+        description = """
+            Lists the digital keys of a vehicle, oldest first, as lightweight summaries.
+            
+            **Paging:**
+            - Pages are keyset (seek) based: pass the returned `nextCursor` to get the next page
+            - `nextCursor` is absent on the last page
+            - Page size defaults to 50 and is capped at 200
+            
+            **Filters:**
+            - `status`: ACTIVE, SUSPENDED, TERMINATED, EXPIRED or PENDING
+            - `type`: OWNER or FRIEND
+            """
+    )
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Page of keys",
+            content = @Content(mediaType = "application/json",
+                schema = @Schema(implementation = DigitalKeyPageResponse.class))),
+        @ApiResponse(responseCode = "400", description = "Invalid filter, limit or cursor"),
+        @ApiResponse(responseCode = "404", description = "Vehicle not found"),
+        @ApiResponse(responseCode = "401", description = "Authentication required")
+    })
+    ResponseEntity<DigitalKeyPageResponse> getVehicleKeys(
+        @Parameter(description = "Vehicle Identification Number", required = true, example = "1HGBH41JXMN109186")
+        @PathVariable String vin,
+        @Parameter(description = "Only keys with this status", example = "ACTIVE")
+        @RequestParam(required = false) String status,
+        @Parameter(description = "Only keys of this type", example = "FRIEND")
+        @RequestParam(required = false) String type,
+        @Parameter(description = "Cursor returned as nextCursor by the previous page")
+        @RequestParam(required = false) String cursor,
+        @Parameter(description = "Maximum number of keys to return (1-200)", example = "50")
+        @RequestParam(required = false) Integer limit);
+
+    @Operation(
+        summary = "Issue Fleet Certificates",
+        description = """
+            Issues vehicle public key certificates for a batch of VINs, for fleet onboarding.
+            Certificates are generated and signed in parallel and streamed back as newline-delimited
+            JSON while the batch runs.
+            
+            **Response lines:**
+            - One line per VIN, in completion order: `{"vin": ..., "certificate": ...}` or `{"vin": ..., "error": ...}`
+            - A final summary line: issued and failed counts, elapsed time and certificates per second
+              overall and per worker
+            """,
+        requestBody = @io.swagger.v3.oas.annotations.parameters.RequestBody(
+            description = "VINs to issue certificates for",
+            content = @Content(
+                mediaType = "application/json",
+                examples = @ExampleObject(value = "[\"1HGBH41JXMN109186\", \"4T1BF1FK5GU123456\"]")
+            )
+        )
+    )
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Stream of issued certificates",
+            content = @Content(mediaType = "application/x-ndjson")),
+        @ApiResponse(responseCode = "400", description = "Missing or empty VIN list"),
+        @ApiResponse(responseCode = "401", description = "Authentication required")
+    })
+    ResponseEntity<StreamingResponseBody> issueFleetCertificates(@RequestBody List<String> vins);
 }
@@ -0,0 +1,71 @@
+package com.vehicleoem.config;
+
+import com.vehicleoem.service.TaskSpillService;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.aop.interceptor.AsyncUncaughtExceptionHandler;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.scheduling.annotation.AsyncConfigurer;
+import java.util.concurrent.Executor;
+
+/**
+ * One {@link BoundedTaskExecutor} per {@code @Async} subsystem, selected with
+ * {@code @Async("<bean name>")}; unqualified {@code @Async} methods use {@code taskExecutor}.
+ * Each executor is configured under {@code async.executors.<name>}.
+ */
+@Configuration
+public class AsyncExecutorConfig implements AsyncConfigurer {
+
+    @Autowired
+    private Environment environment;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private ObjectProvider<TaskSpillService> taskSpillService;
+
+    @Bean
+    public BoundedTaskExecutor taskExecutor() {
+        return executor("default", 2, 4, 500, RejectionPolicy.CALLER_RUNS);
+    }
+
+    // Audit rows are cheap inserts; when saturated, slowing the request down beats losing them
+    @Bean
+    public BoundedTaskExecutor auditExecutor() {
+        return executor("audit", 2, 4, 10000, RejectionPolicy.CALLER_RUNS);
+    }
+
+    // Email and SMS providers can stall for seconds; overflow waits in the database instead
+    @Bean
+    public BoundedTaskExecutor notificationExecutor() {
+        return executor("notification", 2, 8, 1000, RejectionPolicy.SPILL_TO_DB);
+    }
+
+    @Override
+    public Executor getAsyncExecutor() {
+        return taskExecutor();
+    }
+
+    @Override
+    public AsyncUncaughtExceptionHandler getAsyncUncaughtExceptionHandler() {
+        return (ex, method, params) ->
+            System.err.println("Async method " + method.getName() + " failed: " + ex.getMessage());
+    }
+
+    private BoundedTaskExecutor executor(String name, int coreSize, int maxSize, int queueCapacity,
+                                         RejectionPolicy rejectionPolicy) {
+        String prefix = "async.executors." + name + ".";
+        return new BoundedTaskExecutor(name,
+            environment.getProperty(prefix + "core-size", Integer.class, coreSize),
+            environment.getProperty(prefix + "max-size", Integer.class, maxSize),
+            environment.getProperty(prefix + "queue-capacity", Integer.class, queueCapacity),
+            environment.getProperty(prefix + "rejection-policy", RejectionPolicy.class, rejectionPolicy),
+            environment.getProperty(prefix + "virtual-threads", Boolean.class, false),
+            (executorName, task) -> taskSpillService.getObject().spill(executorName, task),
+            meterRegistry);
+    }
+}
@@ -0,0 +1,272 @@
+package com.vehicleoem.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.core.task.AsyncTaskExecutor;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiConsumer;
+
+/**
+ * Executor for one {@code @Async} subsystem, so that a slow downstream can only back up its
+ * own work. The queue is bounded and a full queue is handled by the configured
+ * {@link RejectionPolicy} instead of growing the heap.
+ * <p>
+ * Two modes are offered:
+ * <ul>
+ *   <li>Pooled: a fixed platform thread pool in front of a bounded queue.</li>
+ *   <li>Virtual: one virtual thread per task, with at most {@code maxSize} tasks in flight
+ *       and no queue. This requires JDK 21; on older runtimes the executor falls back to
+ *       the pooled mode. With no queue there is nothing older to drop, so DROP_OLDEST
+ *       drops the rejected task instead.</li>
+ * </ul>
+ * Metrics are tagged with the executor name:
+ * <ul>
+ *   <li>{@code async.executor.queue.depth} and {@code async.executor.active}</li>
+ *   <li>{@code async.executor.task.latency}: time spent queued</li>
+ *   <li>{@code async.executor.task.duration}: run time</li>
+ *   <li>{@code async.executor.rejected}: rejected tasks, tagged by outcome</li>
+ * </ul>
+ */
+public class BoundedTaskExecutor implements AsyncTaskExecutor, DisposableBean {
+
+    private static final long SHUTDOWN_TIMEOUT_SECONDS = 30;
+
+    private final String name;
+    private final RejectionPolicy rejectionPolicy;
+    private final BiConsumer<String, SpillableTask> spill;
+
+    // Exactly one of pool and virtualExecutor is set
+    private final ThreadPoolExecutor pool;
+    private final ExecutorService virtualExecutor;
+    private final Semaphore virtualPermits;
+
+    private final AtomicInteger active = new AtomicInteger();
+    private final Timer queueLatency;
+    private final Timer taskDuration;
+    private final Counter callerRuns;
+    private final Counter dropped;
+    private final Counter spilled;
+
+    /**
+     * @param spill persists a task rejected under {@link RejectionPolicy#SPILL_TO_DB}; may be
+     *              {@code null} for other policies
+     */
+    public BoundedTaskExecutor(String name, int coreSize, int maxSize, int queueCapacity,
+                               RejectionPolicy rejectionPolicy, boolean virtualThreads,
+                               BiConsumer<String, SpillableTask> spill, MeterRegistry meterRegistry) {
+        this.name = name;
+        this.rejectionPolicy = rejectionPolicy;
+        this.spill = spill;
+
+        ExecutorService virtual = virtualThreads ? newVirtualThreadPerTaskExecutor() : null;
+        if (virtualThreads && virtual == null) {
+            System.err.println("Virtual threads are not available on Java " + Runtime.version().feature() +
+                "; executor '" + name + "' uses a platform thread pool");
+        }
+        if (virtual != null) {
+            this.virtualExecutor = virtual;
+            this.virtualPermits = new Semaphore(maxSize);
+            this.pool = null;
+        } else {
+            this.virtualExecutor = null;
+            this.virtualPermits = null;
+            this.pool = new ThreadPoolExecutor(coreSize, maxSize, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), threadFactory(name), (task, executor) -> reject(task));
+        }
+
+        Gauge.builder("async.executor.queue.depth", this, BoundedTaskExecutor::getQueueDepth)
+            .description("Tasks waiting for a thread")
+            .tag("name", name)
+            .register(meterRegistry);
+        Gauge.builder("async.executor.active", active, AtomicInteger::get)
+            .description("Tasks currently running")
+            .tag("name", name)
+            .register(meterRegistry);
+        queueLatency = Timer.builder("async.executor.task.latency")
+            .description("Time from submission until a task starts running")
+            .tag("name", name)
+            .register(meterRegistry);
+        taskDuration = Timer.builder("async.executor.task.duration").tag("name", name).register(meterRegistry);
+        callerRuns = rejectedCounter(meterRegistry, "caller_runs");
+        dropped = rejectedCounter(meterRegistry, "dropped");
+        spilled = rejectedCounter(meterRegistry, "spilled");
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public boolean isVirtual() {
+        return virtualExecutor != null;
+    }
+
+    public int getQueueDepth() {
+        return pool != null ? pool.getQueue().size() : 0;
+    }
+
+    public int getActiveCount() {
+        return active.get();
+    }
+
+    /**
+     * Whether a task submitted now would start or queue without being rejected.
+     */
+    public boolean hasCapacity() {
+        if (pool != null) {
+            return pool.getQueue().remainingCapacity() > 0 || pool.getPoolSize() < pool.getMaximumPoolSize();
+        }
+        return virtualPermits.availablePermits() > 0;
+    }
+
+    @Override
+    public void execute(Runnable task) {
+        TimedTask timed = new TimedTask(task);
+        if (pool != null) {
+            pool.execute(timed);
+        } else if (virtualPermits.tryAcquire()) {
+            try {
+                virtualExecutor.execute(() -> {
+                    try {
+                        timed.run();
+                    } finally {
+                        virtualPermits.release();
+                    }
+                });
+            } catch (RejectedExecutionException e) {
+                virtualPermits.release();
+                throw e;
+            }
+        } else {
+            reject(timed);
+        }
+    }
+
+    @Override
+    public Future<?> submit(Runnable task) {
+        FutureTask<Object> future = new FutureTask<>(task, null);
+        execute(future);
+        return future;
+    }
+
+    @Override
+    public <T> Future<T> submit(Callable<T> task) {
+        FutureTask<T> future = new FutureTask<>(task);
+        execute(future);
+        return future;
+    }
+
+    @Override
+    public void destroy() throws InterruptedException {
+        ExecutorService executor = pool != null ? pool : virtualExecutor;
+        executor.shutdown();
+        if (!executor.awaitTermination(SHUTDOWN_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+            System.err.println("Executor '" + name + "' did not finish queued tasks within " +
+                SHUTDOWN_TIMEOUT_SECONDS + " seconds");
+        }
+    }
+
+    private void reject(Runnable task) {
+        if (pool != null && pool.isShutdown()) {
+            throw new RejectedExecutionException("Executor '" + name + "' has been shut down");
+        }
+        switch (rejectionPolicy) {
+            case DROP_OLDEST:
+                dropped.increment();
+                if (pool != null) {
+                    BlockingQueue<Runnable> queue = pool.getQueue();
+                    Runnable oldest = queue.poll();
+                    if (oldest instanceof TimedTask timed && timed.delegate instanceof Future<?> future) {
+                        // Don't leave anyone waiting on a result that will never come
+                        future.cancel(false);
+                    }
+                    pool.execute(task);
+                }
+                return;
+            case SPILL_TO_DB:
+                Runnable delegate = task instanceof TimedTask timed ? timed.delegate : task;
+                if (delegate instanceof SpillableTask spillable && spill != null) {
+                    try {
+                        spill.accept(name, spillable);
+                        spilled.increment();
+                        return;
+                    } catch (RuntimeException e) {
+                        System.err.println("Failed to spill task from executor '" + name + "', running it on the caller: " +
+                            e.getMessage());
+                    }
+                }
+                runOnCaller(task);
+                return;
+            case CALLER_RUNS:
+            default:
+                runOnCaller(task);
+        }
+    }
+
+    private void runOnCaller(Runnable task) {
+        callerRuns.increment();
+        task.run();
+    }
+
+    private Counter rejectedCounter(MeterRegistry meterRegistry, String outcome) {
+        return Counter.builder("async.executor.rejected")
+            .description("Tasks that found the executor saturated")
+            .tag("name", name)
+            .tag("outcome", outcome)
+            .register(meterRegistry);
+    }
+
+    private static ThreadFactory threadFactory(String name) {
+        AtomicInteger sequence = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, name + "-" + sequence.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    // Looked up reflectively so the code still compiles and runs on JDK 17
+    private static ExecutorService newVirtualThreadPerTaskExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return null;
+        }
+    }
+
+    private final class TimedTask implements Runnable {
+        private final Runnable delegate;
+        private final long submittedAt = System.nanoTime();
+
+        private TimedTask(Runnable delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public void run() {
+            long startedAt = System.nanoTime();
+            queueLatency.record(startedAt - submittedAt, TimeUnit.NANOSECONDS);
+            active.incrementAndGet();
+            try {
+                delegate.run();
+            } finally {
+                active.decrementAndGet();
+                taskDuration.record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
+            }
+        }
+    }
+}
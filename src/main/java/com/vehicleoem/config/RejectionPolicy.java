@@ -0,0 +1,16 @@
+package com.vehicleoem.config;
+
+/**
+ * What a {@link BoundedTaskExecutor} does with a task once its queue is full.
+ */
+public enum RejectionPolicy {
+    /** Run the task on the submitting thread, slowing the producer down to the executor's pace. */
+    CALLER_RUNS,
+    /** Discard the oldest queued task to make room; the newest work wins. */
+    DROP_OLDEST,
+    /**
+     * Persist the task so it is replayed once the executor has capacity again. Only tasks that
+     * implement {@link SpillableTask} can be persisted; any other task runs on the caller.
+     */
+    SPILL_TO_DB
+}
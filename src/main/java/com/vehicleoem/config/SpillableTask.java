@@ -0,0 +1,13 @@
+package com.vehicleoem.config;
+
+/**
+ * A task that can be written to the database instead of being run, and rebuilt later from
+ * its payload by the handler registered for its type with
+ * {@link com.vehicleoem.service.TaskSpillService#registerHandler}.
+ */
+public interface SpillableTask extends Runnable {
+
+    String spillType();
+
+    String spillPayload();
+}
@@ -1,13 +1,19 @@
 package com.vehicleoem.controller;
 
 import com.vehicleoem.api.DigitalKeyApi;
+import com.vehicleoem.dto.BatchTrackKeyRequest;
+import com.vehicleoem.dto.BatchTrackKeyResponse;
+import com.vehicleoem.dto.DigitalKeyView;
+import com.vehicleoem.dto.KeyOperationResponse;
 import com.vehicleoem.dto.TrackKeyRequest;
 import com.vehicleoem.dto.TrackKeyResponse;
 import com.vehicleoem.dto.ManageKeyRequest;
 import com.vehicleoem.dto.ManageKeyResponse;
 import com.vehicleoem.service.DigitalKeyService;
+import com.vehicleoem.service.KeyOperationService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
+import java.net.URI;
 import org.springframework.web.bind.annotation.*;
 import jakarta.validation.Valid;
 
@@ -18,6 +24,9 @@ public class DigitalKeyController implements DigitalKeyApi {
     @Autowired
     private DigitalKeyService digitalKeyService;
     
+    @Autowired
+    private KeyOperationService keyOperationService;
+    
     @Override
     public ResponseEntity<TrackKeyResponse> trackKey(@Valid @RequestBody TrackKeyRequest request) {
         TrackKeyResponse response = digitalKeyService.trackKey(request);
@@ -30,13 +39,38 @@ public class DigitalKeyController implements DigitalKeyApi {
     }
     
     @Override
-    public ResponseEntity<ManageKeyResponse> manageKey(@Valid @RequestBody ManageKeyRequest request) {
+    public ResponseEntity<BatchTrackKeyResponse> trackKeys(@Valid @RequestBody BatchTrackKeyRequest request) {
+        return ResponseEntity.ok(digitalKeyService.trackKeys(request.getKeys()));
+    }
+    
+    @Override
+    public ResponseEntity<ManageKeyResponse> manageKey(@Valid @RequestBody ManageKeyRequest request,
+                                                       @RequestParam(name = "async", defaultValue = "false") boolean async) {
         ManageKeyResponse response = digitalKeyService.manageKey(request);
 
-        if (response.isSuccess()) {
-            return ResponseEntity.ok(response);
-        } else {
+        if (!response.isSuccess()) {
             return ResponseEntity.badRequest().body(response);
+        } else if (async && response.getOperationId() != null) {
+            return ResponseEntity.accepted()
+                .location(URI.create("/api/v1/keys/operations/" + response.getOperationId()))
+                .body(response);
+        } else {
+            return ResponseEntity.ok(response);
         }
     }
+    
+    @Override
+    public ResponseEntity<KeyOperationResponse> getKeyOperation(@PathVariable("operationId") String operationId,
+                                                                @RequestParam(name = "waitSeconds", defaultValue = "0") long waitSeconds) {
+        return keyOperationService.awaitOperation(operationId, waitSeconds)
+            .map(ResponseEntity::ok)
+            .orElse(ResponseEntity.notFound().build());
+    }
+    
+    @Override
+    public ResponseEntity<DigitalKeyView> getKey(@PathVariable("keyId") String keyId) {
+        return digitalKeyService.getKey(keyId)
+            .map(ResponseEntity::ok)
+            .orElse(ResponseEntity.notFound().build());
+    }
 }
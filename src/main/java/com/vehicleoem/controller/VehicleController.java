@@ -1,12 +1,26 @@
 package com.vehicleoem.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.vehicleoem.api.VehicleApi;
+import com.vehicleoem.dto.DigitalKeyPageResponse;
 import com.vehicleoem.model.Vehicle;
+import com.vehicleoem.security.CertificateService;
+import com.vehicleoem.security.CertificateService.FleetIssuanceSummary;
+import com.vehicleoem.service.DigitalKeyService;
 import com.vehicleoem.service.VehicleService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Map;
 
 @RestController
@@ -16,6 +30,15 @@ public class VehicleController implements VehicleApi {
     @Autowired
     private VehicleService vehicleService;
     
+    @Autowired
+    private DigitalKeyService digitalKeyService;
+    
+    @Autowired
+    private CertificateService certificateService;
+    
+    @Autowired
+    private ObjectMapper objectMapper;
+    
     @PostMapping
     @Override
     public ResponseEntity<?> createVehicle(
@@ -114,4 +137,48 @@ public class VehicleController implements VehicleApi {
             return ResponseEntity.badRequest().body("Failed to update subscription tier: " + e.getMessage());
         }
     }
+
+    @GetMapping("/{vin}/keys")
+    @Override
+    public ResponseEntity<DigitalKeyPageResponse> getVehicleKeys(
+            @PathVariable String vin,
+            @RequestParam(required = false) String status,
+            @RequestParam(required = false) String type,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
+
+        return ResponseEntity.ok(digitalKeyService.getVehicleKeys(vin, status, type, cursor, limit));
+    }
+
+    @PostMapping(value = "/certificates", produces = "application/x-ndjson")
+    @Override
+    public ResponseEntity<StreamingResponseBody> issueFleetCertificates(@RequestBody List<String> vins) {
+        if (vins == null || vins.isEmpty()) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        StreamingResponseBody body = out -> {
+            Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+            FleetIssuanceSummary summary = certificateService.issueVehicleCertificates(vins, result -> {
+                try {
+                    writer.write(objectMapper.writeValueAsString(result.isIssued()
+                        ? Map.of("vin", result.vin(), "certificate", result.certificate())
+                        : Map.of("vin", String.valueOf(result.vin()), "error", String.valueOf(result.error()))));
+                    writer.write('\n');
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            writer.write(objectMapper.writeValueAsString(Map.of("summary", Map.of(
+                "issued", summary.issued(),
+                "failed", summary.failed(),
+                "workers", summary.workers(),
+                "elapsedMillis", summary.elapsedNanos() / 1_000_000,
+                "certificatesPerSecond", summary.getCertificatesPerSecond(),
+                "certificatesPerSecondPerWorker", summary.getCertificatesPerSecondPerWorker()))));
+            writer.write('\n');
+            writer.flush();
+        };
+        return ResponseEntity.ok().contentType(MediaType.parseMediaType("application/x-ndjson")).body(body);
+    }
 }
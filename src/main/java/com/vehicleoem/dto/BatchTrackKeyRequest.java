@@ -0,0 +1,30 @@
+package com.vehicleoem.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import java.util.ArrayList;
+import java.util.List;
+
+@Schema(description = "Request to track many digital keys in a single call")
+public class BatchTrackKeyRequest {
+    public static final int MAX_BATCH_SIZE = 5000;
+
+    @NotEmpty
+    @Size(max = MAX_BATCH_SIZE)
+    @JsonProperty("keys")
+    @Schema(description = "Keys to track (at most 5000); each entry has the same shape as a single track request")
+    private List<TrackKeyRequest> keys = new ArrayList<>();
+
+    // Constructors
+    public BatchTrackKeyRequest() {}
+
+    public BatchTrackKeyRequest(List<TrackKeyRequest> keys) {
+        this.keys = keys;
+    }
+
+    // Getters and Setters
+    public List<TrackKeyRequest> getKeys() { return keys; }
+    public void setKeys(List<TrackKeyRequest> keys) { this.keys = keys; }
+}
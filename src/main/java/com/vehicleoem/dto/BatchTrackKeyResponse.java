@@ -0,0 +1,55 @@
+package com.vehicleoem.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import io.swagger.v3.oas.annotations.media.Schema;
+import java.util.ArrayList;
+import java.util.List;
+
+@Schema(description = "Response from bulk digital key tracking operation")
+public class BatchTrackKeyResponse {
+    @JsonProperty("total")
+    @Schema(description = "Number of keys submitted in the batch", example = "3")
+    private int total;
+
+    @JsonProperty("tracked")
+    @Schema(description = "Number of keys newly tracked by this batch", example = "1")
+    private int tracked;
+
+    @JsonProperty("alreadyTracked")
+    @Schema(description = "Number of keys that were already tracked (idempotent replays)", example = "1")
+    private int alreadyTracked;
+
+    @JsonProperty("failed")
+    @Schema(description = "Number of keys rejected by validation or business rules", example = "1")
+    private int failed;
+
+    @JsonProperty("results")
+    @Schema(description = "Per-key results, in the same order as the submitted keys")
+    private List<TrackKeyResponse> results = new ArrayList<>();
+
+    public BatchTrackKeyResponse() {}
+
+    public BatchTrackKeyResponse(List<TrackKeyResponse> results, int tracked, int alreadyTracked) {
+        this.results = results;
+        this.total = results.size();
+        this.tracked = tracked;
+        this.alreadyTracked = alreadyTracked;
+        this.failed = total - tracked - alreadyTracked;
+    }
+
+    // Getters and Setters
+    public int getTotal() { return total; }
+    public void setTotal(int total) { this.total = total; }
+
+    public int getTracked() { return tracked; }
+    public void setTracked(int tracked) { this.tracked = tracked; }
+
+    public int getAlreadyTracked() { return alreadyTracked; }
+    public void setAlreadyTracked(int alreadyTracked) { this.alreadyTracked = alreadyTracked; }
+
+    public int getFailed() { return failed; }
+    public void setFailed(int failed) { this.failed = failed; }
+
+    public List<TrackKeyResponse> getResults() { return results; }
+    public void setResults(List<TrackKeyResponse> results) { this.results = results; }
+}
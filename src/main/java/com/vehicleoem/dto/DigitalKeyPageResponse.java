@@ -0,0 +1,40 @@
+package com.vehicleoem.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import io.swagger.v3.oas.annotations.media.Schema;
+import java.util.ArrayList;
+import java.util.List;
+
+@Schema(description = "One page of a vehicle's digital keys, oldest first")
+public class DigitalKeyPageResponse {
+    @JsonProperty("keys")
+    @Schema(description = "Keys on this page")
+    private List<DigitalKeyView> keys = new ArrayList<>();
+
+    @JsonProperty("nextCursor")
+    @Schema(description = "Opaque cursor for the next page; absent on the last page",
+            example = "MjAyNC0wMS0xNVQxMDozMDowMC4xMjM0NTZ8NDI")
+    private String nextCursor;
+
+    @JsonProperty("limit")
+    @Schema(description = "Maximum number of keys per page", example = "50")
+    private int limit;
+
+    public DigitalKeyPageResponse() {}
+
+    public DigitalKeyPageResponse(List<DigitalKeyView> keys, String nextCursor, int limit) {
+        this.keys = keys;
+        this.nextCursor = nextCursor;
+        this.limit = limit;
+    }
+
+    // Getters and Setters
+    public List<DigitalKeyView> getKeys() { return keys; }
+    public void setKeys(List<DigitalKeyView> keys) { this.keys = keys; }
+
+    public String getNextCursor() { return nextCursor; }
+    public void setNextCursor(String nextCursor) { this.nextCursor = nextCursor; }
+
+    public int getLimit() { return limit; }
+    public void setLimit(int limit) { this.limit = limit; }
+}
@@ -0,0 +1,33 @@
+package com.vehicleoem.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import io.swagger.v3.oas.annotations.media.Schema;
+import java.time.LocalDateTime;
+
+/**
+ * Read-only projection of a digital key. Only the listed columns are selected, so key
+ * material and UI bundles are never loaded, and the vehicle VIN comes from the same join
+ * rather than a lazy association.
+ */
+@Schema(description = "Digital key summary")
+public record DigitalKeyView(
+    @JsonIgnore Long id,
+    @Schema(description = "Unique identifier of the digital key", example = "OWNER-KEY-12345678") String keyId,
+    @Schema(description = "Vehicle identification number", example = "1HGBH41JXMN109186") String vehicleId,
+    @Schema(description = "Key type", example = "OWNER", allowableValues = {"OWNER", "FRIEND"}) String keyType,
+    @Schema(description = "Key status", example = "ACTIVE",
+            allowableValues = {"PENDING", "ACTIVE", "SUSPENDED", "TERMINATED", "EXPIRED"}) String status,
+    @Schema(description = "Device identifier", example = "DEVICE-001") String deviceId,
+    @Schema(description = "Device OEM", example = "Apple") String deviceOem,
+    @Schema(description = "Friend email, for friend keys", example = "friend@example.com") String friendEmail,
+    @Schema(description = "Friend name, for friend keys", example = "Jane Doe") String friendName,
+    @Schema(description = "Permission level", example = "FULL_ACCESS") String permissionLevel,
+    @Schema(description = "Number of recorded uses", example = "42") Long usageCount,
+    @Schema(description = "Usage limit, if any", example = "100") Long maxUsageCount,
+    @Schema(description = "When the key was last used") LocalDateTime lastUsedAt,
+    @Schema(description = "When the key was activated") LocalDateTime activatedAt,
+    @Schema(description = "Start of the validity period") LocalDateTime validFrom,
+    @Schema(description = "End of the validity period") LocalDateTime expiresAt,
+    @Schema(description = "When the key was tracked") LocalDateTime createdAt
+) {
+}
@@ -0,0 +1,72 @@
+package com.vehicleoem.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import io.swagger.v3.oas.annotations.media.Schema;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+@Schema(description = "Status of an asynchronous key management operation")
+public class KeyOperationResponse {
+    public static final String IN_PROGRESS = "IN_PROGRESS";
+    public static final String COMPLETED = "COMPLETED";
+    public static final String FAILED = "FAILED";
+
+    @JsonProperty("operationId")
+    @Schema(description = "Identifier of the operation", example = "3f6c1a52-7c1e-4a8e-9a53-2f1d1c0b9e77")
+    private String operationId;
+
+    @JsonProperty("keyId")
+    @Schema(description = "The digital key the operation was applied to", example = "OWNER-KEY-12345678")
+    private String keyId;
+
+    @JsonProperty("action")
+    @Schema(description = "Requested action", example = "SUSPEND")
+    private String action;
+
+    @JsonProperty("newStatus")
+    @Schema(description = "Key status committed by the operation", example = "SUSPENDED")
+    private String newStatus;
+
+    @JsonProperty("status")
+    @Schema(description = "Overall progress: COMPLETED once every step is delivered, FAILED if any step gave up",
+            example = "IN_PROGRESS",
+            allowableValues = {IN_PROGRESS, COMPLETED, FAILED})
+    private String status;
+
+    @JsonProperty("createdAt")
+    @Schema(description = "When the status change was committed")
+    private LocalDateTime createdAt;
+
+    @JsonProperty("steps")
+    @Schema(description = "Downstream steps in delivery order")
+    private List<KeyOperationStepResponse> steps = new ArrayList<>();
+
+    public KeyOperationResponse() {}
+
+    // Getters and Setters
+    public String getOperationId() { return operationId; }
+    public void setOperationId(String operationId) { this.operationId = operationId; }
+
+    public String getKeyId() { return keyId; }
+    public void setKeyId(String keyId) { this.keyId = keyId; }
+
+    public String getAction() { return action; }
+    public void setAction(String action) { this.action = action; }
+
+    public String getNewStatus() { return newStatus; }
+    public void setNewStatus(String newStatus) { this.newStatus = newStatus; }
+
+    public String getStatus() { return status; }
+    public void setStatus(String status) { this.status = status; }
+
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+
+    public List<KeyOperationStepResponse> getSteps() { return steps; }
+    public void setSteps(List<KeyOperationStepResponse> steps) { this.steps = steps; }
+
+    public boolean isFinished() {
+        return !IN_PROGRESS.equals(status);
+    }
+}
@@ -0,0 +1,68 @@
+package com.vehicleoem.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import io.swagger.v3.oas.annotations.media.Schema;
+import java.time.LocalDateTime;
+
+@Schema(description = "Progress of one downstream step of a key operation")
+public class KeyOperationStepResponse {
+    @JsonProperty("step")
+    @Schema(description = "Downstream step",
+            example = "TELEMATICS_COMMAND",
+            allowableValues = {"TELEMATICS_COMMAND", "KTS_UPDATE_KEY_STATUS", "DEVICE_OEM_NOTIFICATION"})
+    private String step;
+
+    @JsonProperty("status")
+    @Schema(description = "Delivery status of the step",
+            example = "DISPATCHED",
+            allowableValues = {"PENDING", "DISPATCHED", "FAILED"})
+    private String status;
+
+    @JsonProperty("attempts")
+    @Schema(description = "Number of delivery attempts so far", example = "1")
+    private int attempts;
+
+    @JsonProperty("lastError")
+    @Schema(description = "Error from the most recent failed attempt, if any")
+    private String lastError;
+
+    @JsonProperty("acknowledgement")
+    @Schema(description = "Reference returned by the downstream system, e.g. the vehicle command id",
+            example = "CMD-12345")
+    private String acknowledgement;
+
+    @JsonProperty("completedAt")
+    @Schema(description = "When the step was delivered")
+    private LocalDateTime completedAt;
+
+    public KeyOperationStepResponse() {}
+
+    public KeyOperationStepResponse(String step, String status, int attempts, String lastError,
+                                    String acknowledgement, LocalDateTime completedAt) {
+        this.step = step;
+        this.status = status;
+        this.attempts = attempts;
+        this.lastError = lastError;
+        this.acknowledgement = acknowledgement;
+        this.completedAt = completedAt;
+    }
+
+    // Getters and Setters
+    public String getStep() { return step; }
+    public void setStep(String step) { this.step = step; }
+
+    public String getStatus() { return status; }
+    public void setStatus(String status) { this.status = status; }
+
+    public int getAttempts() { return attempts; }
+    public void setAttempts(int attempts) { this.attempts = attempts; }
+
+    public String getLastError() { return lastError; }
+    public void setLastError(String lastError) { this.lastError = lastError; }
+
+    public String getAcknowledgement() { return acknowledgement; }
+    public void setAcknowledgement(String acknowledgement) { this.acknowledgement = acknowledgement; }
+
+    public LocalDateTime getCompletedAt() { return completedAt; }
+    public void setCompletedAt(LocalDateTime completedAt) { this.completedAt = completedAt; }
+}
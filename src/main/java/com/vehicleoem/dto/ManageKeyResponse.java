@@ -25,6 +25,11 @@ public class ManageKeyResponse {
             example = "SUSPENDED",
             allowableValues = {"ACTIVE", "SUSPENDED", "TERMINATED", "EXPIRED"})
     private String newStatus;
+
+    @JsonProperty("operationId")
+    @Schema(description = "Identifier for tracking the downstream steps via /api/v1/keys/operations/{operationId}",
+            example = "3f6c1a52-7c1e-4a8e-9a53-2f1d1c0b9e77")
+    private String operationId;
     
     public ManageKeyResponse() {}
     
@@ -47,4 +52,7 @@ public class ManageKeyResponse {
     
     public String getNewStatus() { return newStatus; }
     public void setNewStatus(String newStatus) { this.newStatus = newStatus; }
+    
+    public String getOperationId() { return operationId; }
+    public void setOperationId(String operationId) { this.operationId = operationId; }
 }
@@ -0,0 +1,12 @@
+package com.vehicleoem.exception;
+
+public class CryptoSaturatedException extends BusinessException {
+    public CryptoSaturatedException(String message) {
+        super("CRYPTO_SATURATED", message);
+    }
+    
+    public static CryptoSaturatedException saturated(String priority, int queued) {
+        return new CryptoSaturatedException("Crypto workers are saturated (" + queued + " " + priority +
+            "-or-higher tasks queued); retry later");
+    }
+}
@@ -24,4 +24,8 @@ public class KeyManagementException extends BusinessException {
     public static KeyManagementException usageLimitReached(String keyId) {
         return new KeyManagementException("Usage limit reached for key: " + keyId);
     }
+    
+    public static KeyManagementException keyLimitReached(int maxKeysAllowed) {
+        return new KeyManagementException("Maximum number of keys reached for this vehicle (" + maxKeysAllowed + ")");
+    }
 }
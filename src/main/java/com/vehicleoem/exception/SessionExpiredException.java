@@ -0,0 +1,15 @@
+package com.vehicleoem.exception;
+
+public class SessionExpiredException extends BusinessException {
+    public SessionExpiredException(String message) {
+        super("SESSION_EXPIRED", message);
+    }
+    
+    public static SessionExpiredException unknownSession(String sessionId) {
+        return new SessionExpiredException("Unknown or evicted session: " + sessionId);
+    }
+    
+    public static SessionExpiredException expired(String sessionId) {
+        return new SessionExpiredException("Session has expired: " + sessionId);
+    }
+}
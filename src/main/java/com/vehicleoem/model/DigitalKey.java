@@ -9,9 +9,11 @@ import java.time.LocalDateTime;
 
 @Entity
 @Table(name = "digital_keys")
+@EntityListeners(EntityChangeListener.class)
 public class DigitalKey {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "digital_keys_seq")
+    @SequenceGenerator(name = "digital_keys_seq", sequenceName = "digital_keys_seq", allocationSize = 50)
     private Long id;
     
     @NotBlank
@@ -67,10 +69,11 @@ public class DigitalKey {
     @Column(name = "permission_level")
     private PermissionLevel permissionLevel = PermissionLevel.FULL_ACCESS;
 
-    @Column(name = "usage_count")
+    // Usage statistics are written only through SQL deltas (see CounterService)
+    @Column(name = "usage_count", updatable = false)
     private Long usageCount = 0L;
 
-    @Column(name = "last_used_at")
+    @Column(name = "last_used_at", updatable = false)
     private LocalDateTime lastUsedAt;
 
     @Column(name = "activated_at")
@@ -100,7 +103,7 @@ public class DigitalKey {
     @Column(name = "expires_at")
     private LocalDateTime expiresAt;
     
-    @Column(name = "created_at")
+    @Column(name = "created_at", nullable = false)
     private LocalDateTime createdAt;
     
     @Column(name = "updated_at")
@@ -239,6 +242,14 @@ public class DigitalKey {
         return maxUsageCount != null && usageCount >= maxUsageCount;
     }
 
+    /**
+     * Whether this key counts against its vehicle's key limit. Expired and terminated keys
+     * have already returned their slot.
+     */
+    public boolean holdsKeySlot() {
+        return status == KeyStatus.ACTIVE || status == KeyStatus.SUSPENDED;
+    }
+
     public boolean isFriendKey() {
         return keyType == KeyType.FRIEND;
     }
@@ -258,16 +269,6 @@ public class DigitalKey {
         this.revocationReason = reason;
     }
 
-    public void incrementUsage() {
-        this.usageCount++;
-        this.lastUsedAt = LocalDateTime.now();
-
-        // Auto-revoke if usage limit reached
-        if (isUsageLimitReached()) {
-            this.status = KeyStatus.EXPIRED;
-        }
-    }
-
     public long getRemainingUsages() {
         if (maxUsageCount == null) {
             return Long.MAX_VALUE;
@@ -280,6 +281,17 @@ public class DigitalKey {
                (expiresAt == null || !expiresAt.isBefore(dateTime));
     }
 
+    @PrePersist
+    void prePersist() {
+        // Keys built with the no-arg constructor still need a created_at for keyset pagination
+        if (this.createdAt == null) {
+            this.createdAt = LocalDateTime.now();
+        }
+        if (this.updatedAt == null) {
+            this.updatedAt = this.createdAt;
+        }
+    }
+
     @PreUpdate
     void preUpdate() {
         this.updatedAt = LocalDateTime.now();
@@ -0,0 +1,26 @@
+package com.vehicleoem.model;
+
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+
+/**
+ * JPA listener on {@link DigitalKey} and {@link Vehicle} that publishes an
+ * {@link EntityChangedEvent} on every update or delete, so caches of entity state can evict
+ * without any service having to remember to, and without the model depending on them.
+ * Hibernate creates it through Spring; outside Spring nothing is published.
+ */
+public class EntityChangeListener {
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @PostUpdate
+    @PostRemove
+    public void changed(Object entity) {
+        if (eventPublisher != null) {
+            eventPublisher.publishEvent(new EntityChangedEvent(entity));
+        }
+    }
+}
@@ -0,0 +1,8 @@
+package com.vehicleoem.model;
+
+/**
+ * Published by {@link EntityChangeListener} after an entity it listens on is updated or
+ * deleted through JPA.
+ */
+public record EntityChangedEvent(Object entity) {
+}
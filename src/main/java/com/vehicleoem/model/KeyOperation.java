@@ -0,0 +1,85 @@
+package com.vehicleoem.model;
+
+import jakarta.persistence.*;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import org.springframework.data.domain.Persistable;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * A key management action whose downstream steps (vehicle command, KTS update, device OEM
+ * notification) are delivered asynchronously through the outbox. The steps themselves are
+ * the outbox events carrying this operation's id.
+ */
+@Entity
+@Table(name = "key_operations")
+public class KeyOperation implements Persistable<String> {
+    @Id
+    @Column(name = "id", length = 36)
+    private String id;
+
+    @NotBlank
+    @Column(name = "key_id", length = 100, nullable = false)
+    private String keyId;
+
+    @NotBlank
+    @Column(name = "action", length = 20, nullable = false)
+    private String action;
+
+    @NotNull
+    @Enumerated(EnumType.STRING)
+    @Column(name = "resulting_status", length = 20, nullable = false)
+    private KeyStatus resultingStatus;
+
+    @Column(name = "requested_by", length = 100)
+    private String requestedBy;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    // Ids are assigned up front, so tell Spring Data to persist instead of merge (no pre-insert SELECT)
+    @Transient
+    private boolean isNew = true;
+
+    // Constructors
+    public KeyOperation() {}
+
+    public KeyOperation(String keyId, String action, KeyStatus resultingStatus, String requestedBy) {
+        this.id = UUID.randomUUID().toString();
+        this.keyId = keyId;
+        this.action = action;
+        this.resultingStatus = resultingStatus;
+        this.requestedBy = requestedBy;
+        this.createdAt = LocalDateTime.now();
+    }
+
+    @PostLoad
+    @PostPersist
+    void markNotNew() {
+        this.isNew = false;
+    }
+
+    // Getters and Setters
+    @Override
+    public String getId() { return id; }
+    public void setId(String id) { this.id = id; }
+
+    public String getKeyId() { return keyId; }
+    public void setKeyId(String keyId) { this.keyId = keyId; }
+
+    public String getAction() { return action; }
+    public void setAction(String action) { this.action = action; }
+
+    public KeyStatus getResultingStatus() { return resultingStatus; }
+    public void setResultingStatus(KeyStatus resultingStatus) { this.resultingStatus = resultingStatus; }
+
+    public String getRequestedBy() { return requestedBy; }
+    public void setRequestedBy(String requestedBy) { this.requestedBy = requestedBy; }
+
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+
+    @Override
+    public boolean isNew() { return isNew; }
+}
@@ -9,7 +9,8 @@ import java.time.LocalDateTime;
 @Table(name = "key_sharing_invitations")
 public class KeySharingInvitation {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "key_sharing_invitations_seq")
+    @SequenceGenerator(name = "key_sharing_invitations_seq", sequenceName = "key_sharing_invitations_seq", allocationSize = 50)
     private Long id;
     
     @ManyToOne(fetch = FetchType.LAZY)
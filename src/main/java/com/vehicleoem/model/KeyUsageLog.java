@@ -9,7 +9,8 @@ import java.time.LocalDateTime;
 @Table(name = "key_usage_logs")
 public class KeyUsageLog {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "key_usage_logs_seq")
+    @SequenceGenerator(name = "key_usage_logs_seq", sequenceName = "key_usage_logs_seq", allocationSize = 50)
     private Long id;
     
     @NotBlank
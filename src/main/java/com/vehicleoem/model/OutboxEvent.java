@@ -0,0 +1,113 @@
+package com.vehicleoem.model;
+
+import jakarta.persistence.*;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import java.time.LocalDateTime;
+
+/**
+ * A downstream side effect (KTS, telematics, device OEM) recorded in the same transaction
+ * as the business change that caused it, and delivered afterwards by the outbox relay.
+ * Events sharing an aggregate key are delivered strictly in id order.
+ */
+@Entity
+@Table(name = "outbox_events")
+public class OutboxEvent {
+    @Id
+    // IDENTITY rather than a pooled sequence: per-key delivery order relies on ids following
+    // creation order across instances
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @NotBlank
+    @Column(name = "aggregate_key", length = 100, nullable = false)
+    private String aggregateKey; // key ID the event belongs to; ordering is per aggregate key
+
+    @NotNull
+    @Enumerated(EnumType.STRING)
+    @Column(name = "event_type", length = 50, nullable = false)
+    private OutboxEventType eventType;
+
+    @NotNull
+    @Column(name = "payload", columnDefinition = "TEXT", nullable = false)
+    private String payload; // JSON request body for the downstream call
+
+    @NotNull
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", length = 20, nullable = false)
+    private OutboxStatus status = OutboxStatus.PENDING;
+
+    @Column(name = "attempts", nullable = false)
+    private Integer attempts = 0;
+
+    @Column(name = "next_attempt_at", nullable = false)
+    private LocalDateTime nextAttemptAt;
+
+    @Column(name = "last_error", length = 500)
+    private String lastError;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "dispatched_at")
+    private LocalDateTime dispatchedAt;
+
+    @Column(name = "operation_id", length = 36)
+    private String operationId; // key operation this event is a step of, if any
+
+    @Column(name = "acknowledgement", length = 100)
+    private String acknowledgement; // reference returned by the downstream system on delivery
+
+    // Constructors
+    public OutboxEvent() {}
+
+    public OutboxEvent(String aggregateKey, OutboxEventType eventType, String payload) {
+        this.aggregateKey = aggregateKey;
+        this.eventType = eventType;
+        this.payload = payload;
+        this.createdAt = LocalDateTime.now();
+        this.nextAttemptAt = this.createdAt;
+    }
+
+    // Getters and Setters
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public String getAggregateKey() { return aggregateKey; }
+    public void setAggregateKey(String aggregateKey) { this.aggregateKey = aggregateKey; }
+
+    public OutboxEventType getEventType() { return eventType; }
+    public void setEventType(OutboxEventType eventType) { this.eventType = eventType; }
+
+    public String getPayload() { return payload; }
+    public void setPayload(String payload) { this.payload = payload; }
+
+    public OutboxStatus getStatus() { return status; }
+    public void setStatus(OutboxStatus status) { this.status = status; }
+
+    public Integer getAttempts() { return attempts; }
+    public void setAttempts(Integer attempts) { this.attempts = attempts; }
+
+    public LocalDateTime getNextAttemptAt() { return nextAttemptAt; }
+    public void setNextAttemptAt(LocalDateTime nextAttemptAt) { this.nextAttemptAt = nextAttemptAt; }
+
+    public String getLastError() { return lastError; }
+    public void setLastError(String lastError) { this.lastError = lastError; }
+
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+
+    public LocalDateTime getDispatchedAt() { return dispatchedAt; }
+    public void setDispatchedAt(LocalDateTime dispatchedAt) { this.dispatchedAt = dispatchedAt; }
+
+    public String getOperationId() { return operationId; }
+    public void setOperationId(String operationId) { this.operationId = operationId; }
+
+    public String getAcknowledgement() { return acknowledgement; }
+    public void setAcknowledgement(String acknowledgement) { this.acknowledgement = acknowledgement; }
+
+    // Business methods
+    public boolean isPending() {
+        return status == OutboxStatus.PENDING;
+    }
+}
@@ -0,0 +1,18 @@
+package com.vehicleoem.model;
+
+public enum OutboxEventType {
+    KTS_REGISTER_KEY("Register key with Key Tracking Service"),
+    KTS_UPDATE_KEY_STATUS("Update key status in Key Tracking Service"),
+    TELEMATICS_COMMAND("Send command to vehicle telematics"),
+    DEVICE_OEM_NOTIFICATION("Send event notification to device OEM");
+
+    private final String description;
+
+    OutboxEventType(String description) {
+        this.description = description;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+}
@@ -0,0 +1,7 @@
+package com.vehicleoem.model;
+
+public enum OutboxStatus {
+    PENDING,
+    DISPATCHED,
+    FAILED
+}
@@ -9,7 +9,8 @@ import java.time.LocalDateTime;
 @Table(name = "pairing_sessions")
 public class PairingSession {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "pairing_sessions_seq")
+    @SequenceGenerator(name = "pairing_sessions_seq", sequenceName = "pairing_sessions_seq", allocationSize = 50)
     private Long id;
     
     @ManyToOne(fetch = FetchType.LAZY)
@@ -0,0 +1,60 @@
+package com.vehicleoem.model;
+
+import jakarta.persistence.*;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import java.time.LocalDateTime;
+
+/**
+ * A task that an executor rejected while saturated and wrote to the database instead, to be
+ * rebuilt from its payload and run once the executor has capacity again.
+ */
+@Entity
+@Table(name = "spilled_tasks")
+public class SpilledTask {
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "spilled_tasks_seq")
+    @SequenceGenerator(name = "spilled_tasks_seq", sequenceName = "spilled_tasks_seq", allocationSize = 50)
+    private Long id;
+
+    @NotBlank
+    @Column(name = "executor", length = 50, nullable = false)
+    private String executor; // name of the executor that rejected the task
+
+    @NotBlank
+    @Column(name = "task_type", length = 100, nullable = false)
+    private String taskType; // selects the handler that rebuilds the task
+
+    @NotNull
+    @Column(name = "payload", columnDefinition = "TEXT", nullable = false)
+    private String payload;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    // Constructors
+    public SpilledTask() {}
+
+    public SpilledTask(String executor, String taskType, String payload) {
+        this.executor = executor;
+        this.taskType = taskType;
+        this.payload = payload;
+        this.createdAt = LocalDateTime.now();
+    }
+
+    // Getters and Setters
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public String getExecutor() { return executor; }
+    public void setExecutor(String executor) { this.executor = executor; }
+
+    public String getTaskType() { return taskType; }
+    public void setTaskType(String taskType) { this.taskType = taskType; }
+
+    public String getPayload() { return payload; }
+    public void setPayload(String payload) { this.payload = payload; }
+
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+}
@@ -12,6 +12,7 @@ import java.util.List;
 
 @Entity
 @Table(name = "vehicles")
+@EntityListeners(EntityChangeListener.class)
 public class Vehicle {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -82,13 +83,15 @@ public class Vehicle {
     @Column(name = "max_keys_allowed")
     private Integer maxKeysAllowed = 5;
 
-    @Column(name = "current_key_count")
+    // Counters are written only through atomic SQL deltas (see CounterService), never by
+    // flushing the entity, so a stale copy cannot overwrite concurrent increments
+    @Column(name = "current_key_count", updatable = false)
     private Integer currentKeyCount = 0;
 
-    @Column(name = "last_activity_at")
+    @Column(name = "last_activity_at", updatable = false)
     private LocalDateTime lastActivityAt;
 
-    @Column(name = "total_key_usage_count")
+    @Column(name = "total_key_usage_count", updatable = false)
     private Long totalKeyUsageCount = 0L;
 
     @Column(name = "warranty_expires_at")
@@ -236,21 +239,6 @@ public class Vehicle {
         return subscriptionTier.isFriendKeysAllowed() && isSubscriptionValid();
     }
 
-    public void incrementKeyCount() {
-        this.currentKeyCount++;
-    }
-
-    public void decrementKeyCount() {
-        if (this.currentKeyCount > 0) {
-            this.currentKeyCount--;
-        }
-    }
-
-    public void incrementKeyUsage() {
-        this.totalKeyUsageCount++;
-        this.lastActivityAt = LocalDateTime.now();
-    }
-
     public boolean isVinValid() {
         return vin != null && vin.matches("^[A-HJ-NPR-Z0-9]{17}$");
     }
@@ -5,12 +5,15 @@ import com.vehicleoem.model.Vehicle;
 import com.vehicleoem.model.KeyStatus;
 import com.vehicleoem.model.KeyType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import java.util.Collection;
 import java.util.Optional;
 import java.util.List;
 
 @Repository
-public interface DigitalKeyRepository extends JpaRepository<DigitalKey, Long> {
+public interface DigitalKeyRepository extends JpaRepository<DigitalKey, Long>, DigitalKeyRepositoryCustom {
     Optional<DigitalKey> findByKeyId(String keyId);
     List<DigitalKey> findByVehicle(Vehicle vehicle);
     List<DigitalKey> findByDeviceId(String deviceId);
@@ -19,4 +22,10 @@ public interface DigitalKeyRepository extends JpaRepository<DigitalKey, Long> {
     List<DigitalKey> findByVehicleVinAndKeyType(String vin, KeyType keyType);
     List<DigitalKey> findByKeyType(KeyType keyType);
     boolean existsByKeyId(String keyId);
+
+    @Query("SELECT dk FROM DigitalKey dk JOIN FETCH dk.vehicle WHERE dk.keyId = :keyId")
+    Optional<DigitalKey> findByKeyIdWithVehicle(@Param("keyId") String keyId);
+
+    @Query("SELECT dk.keyId FROM DigitalKey dk WHERE dk.keyId IN :keyIds")
+    List<String> findExistingKeyIds(@Param("keyIds") Collection<String> keyIds);
 }
@@ -0,0 +1,92 @@
+package com.vehicleoem.repository;
+
+import com.vehicleoem.dto.DigitalKeyView;
+import com.vehicleoem.model.DigitalKey;
+import com.vehicleoem.model.KeyStatus;
+import com.vehicleoem.model.KeyType;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+public interface DigitalKeyRepositoryCustom {
+
+    /**
+     * Inserts the given keys with one multi-row INSERT per chunk. Rows whose key_id already
+     * exists, or repeats an earlier key in the list, are skipped rather than failing the batch.
+     *
+     * @return one flag per input key, {@code true} when that row was inserted
+     */
+    boolean[] batchInsert(List<DigitalKey> digitalKeys);
+
+    /**
+     * Adds accumulated usage to many keys with a single batched
+     * {@code UPDATE ... SET usage_count = usage_count + ?}. last_used_at only moves forward.
+     */
+    void addUsageCounts(Map<Long, UsageDelta> usageByKeyId);
+
+    /**
+     * Streams every key_id through a server-side cursor so the full set is never held in
+     * memory. Must be called inside a transaction for the cursor to be used.
+     *
+     * @return number of key ids streamed
+     */
+    long streamKeyIds(Consumer<String> consumer);
+
+    /**
+     * Consumes one use of a key with a usage limit, expiring it when the limit is reached.
+     *
+     * @return the key's status after the update, or {@code null} when the key is not active
+     *         or has no uses left
+     */
+    KeyStatus consumeLimitedUsage(Long id, LocalDateTime usedAt);
+
+    /**
+     * Marks up to {@code limit} slot-holding keys (ACTIVE or SUSPENDED) whose expires_at has
+     * passed as EXPIRED, oldest expiry first, in one {@code UPDATE ... RETURNING}. Rows locked
+     * by another sweeper are skipped rather than waited on.
+     *
+     * @return the keys that were expired by this call
+     */
+    List<ExpiredKey> expireDueKeys(LocalDateTime now, int limit);
+
+    /**
+     * Number of slot-holding keys whose expires_at has passed but are not yet marked EXPIRED.
+     */
+    long countDueForExpiry(LocalDateTime now);
+
+    Optional<DigitalKeyView> findViewByKeyId(String keyId);
+
+    /**
+     * Keyset page of a vehicle's keys ordered by (created_at, id), seeking past the given
+     * position instead of using an offset. Status and type filters are optional.
+     *
+     * @param afterCreatedAt created_at of the last key on the previous page, or {@code null} for the first page
+     * @param afterId id of the last key on the previous page
+     */
+    List<DigitalKeyView> findViewsByVehicleVin(String vin, KeyStatus status, KeyType keyType,
+                                               LocalDateTime afterCreatedAt, Long afterId, int limit);
+
+    record ExpiredKey(Long id, String keyId, Long vehicleId) {
+    }
+
+    final class UsageDelta {
+        private final long count;
+        private final LocalDateTime lastUsedAt;
+
+        public UsageDelta(long count, LocalDateTime lastUsedAt) {
+            this.count = count;
+            this.lastUsedAt = lastUsedAt;
+        }
+
+        public long getCount() { return count; }
+        public LocalDateTime getLastUsedAt() { return lastUsedAt; }
+
+        public UsageDelta plus(UsageDelta other) {
+            LocalDateTime latest = lastUsedAt == null || (other.lastUsedAt != null && other.lastUsedAt.isAfter(lastUsedAt))
+                ? other.lastUsedAt : lastUsedAt;
+            return new UsageDelta(count + other.count, latest);
+        }
+    }
+}
@@ -0,0 +1,230 @@
+package com.vehicleoem.repository;
+
+import com.vehicleoem.dto.DigitalKeyView;
+import com.vehicleoem.model.DigitalKey;
+import com.vehicleoem.model.KeyStatus;
+import com.vehicleoem.model.KeyType;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementSetter;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.RowMapper;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+
+public class DigitalKeyRepositoryCustomImpl implements DigitalKeyRepositoryCustom {
+
+    static final int BATCH_SIZE = 500;
+
+    private static final String INSERT_SQL =
+        "INSERT INTO digital_keys (id, key_id, device_id, device_oem, key_type, status, public_key, ui_bundle, " +
+        "vehicle_mobilization_data, friend_email, permission_level, usage_count, max_usage_count, " +
+        "activated_at, valid_from, expires_at, created_at, updated_at, vehicle_id) VALUES ";
+
+    private static final String INSERT_ROW =
+        "(nextval('digital_keys_seq'), ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private static final int INSERT_COLUMNS = 18;
+
+    private static final String INSERT_CONFLICT = " ON CONFLICT (key_id) DO NOTHING RETURNING key_id";
+
+    private static final String ADD_USAGE_SQL =
+        "UPDATE digital_keys SET usage_count = usage_count + ?, last_used_at = GREATEST(last_used_at, ?) WHERE id = ?";
+
+    private static final String CONSUME_LIMITED_USAGE_SQL =
+        "UPDATE digital_keys SET usage_count = usage_count + 1, last_used_at = ?, " +
+        "status = CASE WHEN usage_count + 1 >= max_usage_count THEN 'EXPIRED' ELSE status END " +
+        "WHERE id = ? AND status = 'ACTIVE' AND usage_count < max_usage_count RETURNING status";
+
+    // Slot-holding statuses only, matching DigitalKey#holdsKeySlot; the range on expires_at
+    // is served by idx_digital_keys_expires_at
+    private static final String DUE_FOR_EXPIRY =
+        "FROM digital_keys WHERE expires_at < ? AND status IN ('ACTIVE', 'SUSPENDED') ";
+
+    private static final String EXPIRE_DUE_SQL =
+        "UPDATE digital_keys dk SET status = 'EXPIRED', updated_at = ? " +
+        "FROM (SELECT id " + DUE_FOR_EXPIRY + "ORDER BY expires_at LIMIT ? FOR UPDATE SKIP LOCKED) due " +
+        "WHERE dk.id = due.id RETURNING dk.id, dk.key_id, dk.vehicle_id";
+
+    static final int KEY_ID_FETCH_SIZE = 10_000;
+
+    private static final String VIEW_SELECT =
+        "SELECT dk.id, dk.key_id, v.vin, dk.key_type, dk.status, dk.device_id, dk.device_oem, dk.friend_email, " +
+        "dk.friend_name, dk.permission_level, dk.usage_count, dk.max_usage_count, dk.last_used_at, dk.activated_at, " +
+        "dk.valid_from, dk.expires_at, dk.created_at " +
+        "FROM digital_keys dk JOIN vehicles v ON v.id = dk.vehicle_id ";
+
+    private static final RowMapper<DigitalKeyView> VIEW_MAPPER = DigitalKeyRepositoryCustomImpl::mapView;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Override
+    public boolean[] batchInsert(List<DigitalKey> digitalKeys) {
+        boolean[] inserted = new boolean[digitalKeys.size()];
+        if (digitalKeys.isEmpty()) {
+            return inserted;
+        }
+
+        // One multi-row INSERT per chunk. RETURNING names exactly the rows that were inserted,
+        // which batched statements cannot: their update counts may be SUCCESS_NO_INFO, and
+        // that says nothing about whether ON CONFLICT skipped the row.
+        LocalDateTime now = LocalDateTime.now();
+        for (int from = 0; from < digitalKeys.size(); from += BATCH_SIZE) {
+            List<DigitalKey> chunk = digitalKeys.subList(from, Math.min(from + BATCH_SIZE, digitalKeys.size()));
+            String sql = INSERT_SQL + String.join(", ", Collections.nCopies(chunk.size(), INSERT_ROW)) + INSERT_CONFLICT;
+            Set<String> returned = new HashSet<>();
+            jdbcTemplate.query(sql, (PreparedStatementSetter) ps -> {
+                for (int i = 0; i < chunk.size(); i++) {
+                    bindKey(ps, i * INSERT_COLUMNS, chunk.get(i), now);
+                }
+            }, (RowCallbackHandler) rs -> returned.add(rs.getString(1)));
+            for (int i = 0; i < chunk.size(); i++) {
+                // remove() so a key_id repeated within the chunk counts as inserted only once
+                inserted[from + i] = returned.remove(chunk.get(i).getKeyId());
+            }
+        }
+        return inserted;
+    }
+
+    @Override
+    public void addUsageCounts(Map<Long, UsageDelta> usageByKeyId) {
+        List<Object[]> batchArgs = new ArrayList<>(usageByKeyId.size());
+        usageByKeyId.forEach((keyId, usage) ->
+            batchArgs.add(new Object[] { usage.getCount(), toTimestamp(usage.getLastUsedAt()), keyId }));
+        if (!batchArgs.isEmpty()) {
+            jdbcTemplate.batchUpdate(ADD_USAGE_SQL, batchArgs);
+        }
+    }
+
+    @Override
+    public long streamKeyIds(Consumer<String> consumer) {
+        long[] count = new long[1];
+        jdbcTemplate.query(con -> {
+            PreparedStatement ps = con.prepareStatement("SELECT key_id FROM digital_keys");
+            ps.setFetchSize(KEY_ID_FETCH_SIZE);
+            return ps;
+        }, rs -> {
+            consumer.accept(rs.getString(1));
+            count[0]++;
+        });
+        return count[0];
+    }
+
+    @Override
+    public KeyStatus consumeLimitedUsage(Long id, LocalDateTime usedAt) {
+        return jdbcTemplate.query(CONSUME_LIMITED_USAGE_SQL,
+                (rs, rowNum) -> KeyStatus.valueOf(rs.getString(1)), toTimestamp(usedAt), id)
+            .stream().findFirst().orElse(null);
+    }
+
+    @Override
+    public List<ExpiredKey> expireDueKeys(LocalDateTime now, int limit) {
+        Timestamp timestamp = Timestamp.valueOf(now);
+        return jdbcTemplate.query(EXPIRE_DUE_SQL,
+            (rs, rowNum) -> new ExpiredKey(rs.getLong("id"), rs.getString("key_id"), rs.getLong("vehicle_id")),
+            timestamp, timestamp, limit);
+    }
+
+    @Override
+    public long countDueForExpiry(LocalDateTime now) {
+        Long count = jdbcTemplate.queryForObject("SELECT count(*) " + DUE_FOR_EXPIRY, Long.class, Timestamp.valueOf(now));
+        return count != null ? count : 0L;
+    }
+
+    @Override
+    public Optional<DigitalKeyView> findViewByKeyId(String keyId) {
+        return jdbcTemplate.query(VIEW_SELECT + "WHERE dk.key_id = ?", VIEW_MAPPER, keyId).stream().findFirst();
+    }
+
+    @Override
+    public List<DigitalKeyView> findViewsByVehicleVin(String vin, KeyStatus status, KeyType keyType,
+                                                      LocalDateTime afterCreatedAt, Long afterId, int limit) {
+        StringBuilder sql = new StringBuilder(VIEW_SELECT).append("WHERE v.vin = ?");
+        List<Object> args = new ArrayList<>();
+        args.add(vin);
+        if (status != null) {
+            sql.append(" AND dk.status = ?");
+            args.add(status.name());
+        }
+        if (keyType != null) {
+            sql.append(" AND dk.key_type = ?");
+            args.add(keyType.name());
+        }
+        if (afterCreatedAt != null) {
+            // Row-value comparison lets the seek use idx_digital_keys_vehicle_created directly
+            sql.append(" AND (dk.created_at, dk.id) > (?, ?)");
+            args.add(Timestamp.valueOf(afterCreatedAt));
+            args.add(afterId);
+        }
+        sql.append(" ORDER BY dk.created_at, dk.id LIMIT ?");
+        args.add(limit);
+        return jdbcTemplate.query(sql.toString(), VIEW_MAPPER, args.toArray());
+    }
+
+    private static DigitalKeyView mapView(ResultSet rs, int rowNum) throws SQLException {
+        return new DigitalKeyView(
+            rs.getLong("id"),
+            rs.getString("key_id"),
+            rs.getString("vin"),
+            rs.getString("key_type"),
+            rs.getString("status"),
+            rs.getString("device_id"),
+            rs.getString("device_oem"),
+            rs.getString("friend_email"),
+            rs.getString("friend_name"),
+            rs.getString("permission_level"),
+            rs.getObject("usage_count", Long.class),
+            rs.getObject("max_usage_count", Long.class),
+            toLocalDateTime(rs.getTimestamp("last_used_at")),
+            toLocalDateTime(rs.getTimestamp("activated_at")),
+            toLocalDateTime(rs.getTimestamp("valid_from")),
+            toLocalDateTime(rs.getTimestamp("expires_at")),
+            toLocalDateTime(rs.getTimestamp("created_at")));
+    }
+
+    private void bindKey(PreparedStatement ps, int offset, DigitalKey key, LocalDateTime now) throws SQLException {
+        if (key.getCreatedAt() == null) {
+            key.setCreatedAt(now);
+        }
+        key.setUpdatedAt(now);
+
+        ps.setString(offset + 1, key.getKeyId());
+        ps.setString(offset + 2, key.getDeviceId());
+        ps.setString(offset + 3, key.getDeviceOem());
+        ps.setString(offset + 4, key.getKeyType() != null ? key.getKeyType().name() : null);
+        ps.setString(offset + 5, key.getStatus() != null ? key.getStatus().name() : null);
+        ps.setString(offset + 6, key.getPublicKey());
+        ps.setString(offset + 7, key.getUiBundle());
+        ps.setString(offset + 8, key.getVehicleMobilizationData());
+        ps.setString(offset + 9, key.getFriendEmail());
+        ps.setString(offset + 10, key.getPermissionLevel() != null ? key.getPermissionLevel().name() : null);
+        ps.setLong(offset + 11, key.getUsageCount() != null ? key.getUsageCount() : 0L);
+        ps.setObject(offset + 12, key.getMaxUsageCount());
+        ps.setTimestamp(offset + 13, toTimestamp(key.getActivatedAt()));
+        ps.setTimestamp(offset + 14, toTimestamp(key.getValidFrom()));
+        ps.setTimestamp(offset + 15, toTimestamp(key.getExpiresAt()));
+        ps.setTimestamp(offset + 16, toTimestamp(key.getCreatedAt()));
+        ps.setTimestamp(offset + 17, toTimestamp(key.getUpdatedAt()));
+        ps.setLong(offset + 18, key.getVehicle().getId());
+    }
+
+    private static Timestamp toTimestamp(LocalDateTime dateTime) {
+        return dateTime != null ? Timestamp.valueOf(dateTime) : null;
+    }
+
+    private static LocalDateTime toLocalDateTime(Timestamp timestamp) {
+        return timestamp != null ? timestamp.toLocalDateTime() : null;
+    }
+}
@@ -0,0 +1,17 @@
+package com.vehicleoem.repository;
+
+import com.vehicleoem.model.KeyOperation;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import java.time.LocalDateTime;
+
+@Repository
+public interface KeyOperationRepository extends JpaRepository<KeyOperation, String> {
+
+    @Modifying
+    @Query("DELETE FROM KeyOperation o WHERE o.createdAt < :before")
+    int deleteCreatedBefore(@Param("before") LocalDateTime before);
+}
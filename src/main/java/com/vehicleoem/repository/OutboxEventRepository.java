@@ -0,0 +1,43 @@
+package com.vehicleoem.repository;
+
+import com.vehicleoem.model.OutboxEvent;
+import com.vehicleoem.model.OutboxStatus;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+    List<OutboxEvent> findByAggregateKeyOrderByIdAsc(String aggregateKey);
+    List<OutboxEvent> findByOperationIdOrderByIdAsc(String operationId);
+    long countByStatus(OutboxStatus status);
+
+    /**
+     * Locks due pending events that are the oldest pending event for their aggregate key,
+     * so later events for a key are never delivered ahead of earlier ones. Rows locked by
+     * another relay instance are skipped rather than waited on.
+     */
+    @Query(value = "SELECT e.* FROM outbox_events e " +
+                   "WHERE e.status = 'PENDING' AND e.next_attempt_at <= :now " +
+                   "AND NOT EXISTS (SELECT 1 FROM outbox_events p " +
+                   "WHERE p.aggregate_key = e.aggregate_key AND p.status = 'PENDING' AND p.id < e.id) " +
+                   "ORDER BY e.id LIMIT :limit FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    List<OutboxEvent> lockDispatchableEvents(@Param("now") LocalDateTime now, @Param("limit") int limit);
+
+    @Query("SELECT MIN(e.createdAt) FROM OutboxEvent e WHERE e.status = 'PENDING'")
+    LocalDateTime findOldestPendingCreatedAt();
+
+    @Modifying
+    @Query("UPDATE OutboxEvent e SET e.status = 'DISPATCHED', e.dispatchedAt = :dispatchedAt, e.lastError = null, " +
+           "e.acknowledgement = :acknowledgement WHERE e.id = :id")
+    int markDispatched(@Param("id") Long id, @Param("dispatchedAt") LocalDateTime dispatchedAt,
+                       @Param("acknowledgement") String acknowledgement);
+
+    @Modifying
+    @Query("DELETE FROM OutboxEvent e WHERE e.status = 'DISPATCHED' AND e.dispatchedAt < :before")
+    int deleteDispatchedBefore(@Param("before") LocalDateTime before);
+}
@@ -8,19 +8,32 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface PairingSessionRepository extends JpaRepository<PairingSession, Long> {
+public interface PairingSessionRepository extends JpaRepository<PairingSession, Long>, PairingSessionRepositoryCustom {
     Optional<PairingSession> findBySessionId(String sessionId);
     Optional<PairingSession> findByVehicleAndStatus(Vehicle vehicle, PairingStatus status);
     List<PairingSession> findByVehicle(Vehicle vehicle);
     List<PairingSession> findByStatus(PairingStatus status);
     List<PairingSession> findByInitiatedBy(String initiatedBy);
     
-    @Query("SELECT p FROM PairingSession p WHERE p.status = 'INITIATED' AND p.expiresAt < :date")
-    List<PairingSession> findExpiredSessions(@Param("date") LocalDateTime date);
+    /**
+     * Sessions in one of {@code statuses} that have not expired, with their vehicle, for
+     * reloading the in-memory session store on startup.
+     */
+    @Query("SELECT p FROM PairingSession p JOIN FETCH p.vehicle WHERE p.status IN :statuses AND p.expiresAt > :now")
+    List<PairingSession> findInFlightSessions(@Param("statuses") Collection<PairingStatus> statuses,
+                                              @Param("now") LocalDateTime now);
+    
+    /**
+     * The newest unexpired session for a vehicle in {@code status}, for sessions the in-memory
+     * session store does not hold.
+     */
+    Optional<PairingSession> findFirstByVehicleIdAndStatusAndExpiresAtAfterOrderByCreatedAtDesc(
+        Long vehicleId, PairingStatus status, LocalDateTime now);
     
     @Query("SELECT p FROM PairingSession p WHERE p.vehicle.vin = :vin ORDER BY p.createdAt DESC")
     List<PairingSession> findByVehicleVinOrderByCreatedAtDesc(@Param("vin") String vin);
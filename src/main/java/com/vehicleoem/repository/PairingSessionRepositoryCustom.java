@@ -0,0 +1,23 @@
+package com.vehicleoem.repository;
+
+import java.time.LocalDateTime;
+
+public interface PairingSessionRepositoryCustom {
+
+    /**
+     * Marks up to {@code limit} INITIATED sessions whose expires_at has passed as EXPIRED,
+     * oldest expiry first, and wipes their ephemeral private key in the same statement. Rows
+     * locked by another reaper are skipped rather than waited on.
+     *
+     * @return number of sessions expired
+     */
+    int expireDueSessions(LocalDateTime now, int limit);
+
+    /**
+     * Deletes up to {@code limit} sessions in a terminal status (COMPLETED, FAILED, EXPIRED or
+     * REVOKED) created before {@code cutoff}.
+     *
+     * @return number of sessions deleted
+     */
+    int purgeTerminalSessions(LocalDateTime cutoff, int limit);
+}
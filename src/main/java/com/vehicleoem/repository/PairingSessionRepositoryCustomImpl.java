@@ -0,0 +1,36 @@
+package com.vehicleoem.repository;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+
+public class PairingSessionRepositoryCustomImpl implements PairingSessionRepositoryCustom {
+
+    // PostgreSQL has no UPDATE/DELETE ... LIMIT, so each statement bounds itself through a
+    // locked subquery. The expiry range is served by the partial idx_pairing_sessions_initiated_expires_at.
+    private static final String EXPIRE_DUE_SQL =
+        "UPDATE pairing_sessions ps SET status = 'EXPIRED', vehicle_private_key = NULL, updated_at = ? " +
+        "FROM (SELECT id FROM pairing_sessions WHERE status = 'INITIATED' AND expires_at < ? " +
+        "ORDER BY expires_at LIMIT ? FOR UPDATE SKIP LOCKED) due " +
+        "WHERE ps.id = due.id";
+
+    private static final String PURGE_TERMINAL_SQL =
+        "DELETE FROM pairing_sessions WHERE id IN (SELECT id FROM pairing_sessions " +
+        "WHERE status IN ('COMPLETED', 'FAILED', 'EXPIRED', 'REVOKED') AND created_at < ? " +
+        "LIMIT ? FOR UPDATE SKIP LOCKED)";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Override
+    public int expireDueSessions(LocalDateTime now, int limit) {
+        Timestamp timestamp = Timestamp.valueOf(now);
+        return jdbcTemplate.update(EXPIRE_DUE_SQL, timestamp, timestamp, limit);
+    }
+
+    @Override
+    public int purgeTerminalSessions(LocalDateTime cutoff, int limit) {
+        return jdbcTemplate.update(PURGE_TERMINAL_SQL, Timestamp.valueOf(cutoff), limit);
+    }
+}
@@ -0,0 +1,21 @@
+package com.vehicleoem.repository;
+
+import com.vehicleoem.model.SpilledTask;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import java.util.List;
+
+@Repository
+public interface SpilledTaskRepository extends JpaRepository<SpilledTask, Long> {
+    long countByExecutor(String executor);
+
+    /**
+     * Locks the oldest spilled tasks of one executor. Rows locked by another instance are
+     * skipped rather than waited on, so each task is replayed by one instance.
+     */
+    @Query(value = "SELECT t.* FROM spilled_tasks t WHERE t.executor = :executor " +
+                   "ORDER BY t.id LIMIT :limit FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    List<SpilledTask> lockOldest(@Param("executor") String executor, @Param("limit") int limit);
+}
@@ -3,14 +3,30 @@ package com.vehicleoem.repository;
 import com.vehicleoem.model.Vehicle;
 import com.vehicleoem.model.OwnerAccount;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import java.util.Collection;
 import java.util.Optional;
 import java.util.List;
 
 @Repository
-public interface VehicleRepository extends JpaRepository<Vehicle, Long> {
+public interface VehicleRepository extends JpaRepository<Vehicle, Long>, VehicleRepositoryCustom {
     Optional<Vehicle> findByVin(String vin);
     List<Vehicle> findByOwner(OwnerAccount owner);
     List<Vehicle> findByOwnerAccountId(String accountId);
     boolean existsByVin(String vin);
+
+    @Query("SELECT v FROM Vehicle v LEFT JOIN FETCH v.owner WHERE v.vin IN :vins")
+    List<Vehicle> findAllByVinInWithOwner(@Param("vins") Collection<String> vins);
+
+    @Modifying
+    @Query("UPDATE Vehicle v SET v.currentKeyCount = v.currentKeyCount + 1 " +
+           "WHERE v.id = :id AND v.currentKeyCount < v.maxKeysAllowed")
+    int tryReserveKeySlot(@Param("id") Long id);
+
+    @Modifying
+    @Query("UPDATE Vehicle v SET v.currentKeyCount = v.currentKeyCount - 1 WHERE v.id = :id AND v.currentKeyCount > 0")
+    int releaseKeySlot(@Param("id") Long id);
 }
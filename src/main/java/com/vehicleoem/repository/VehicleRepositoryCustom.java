@@ -0,0 +1,39 @@
+package com.vehicleoem.repository;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+public interface VehicleRepositoryCustom {
+
+    /**
+     * Applies key count deltas to many vehicles with a single batched
+     * {@code UPDATE ... SET current_key_count = current_key_count + ?}.
+     *
+     * @param deltasByVehicleId key count delta to apply, keyed by vehicle id
+     */
+    void applyKeyCountDeltas(Map<Long, Integer> deltasByVehicleId);
+
+    /**
+     * Atomically reserves up to {@code requested} key slots without exceeding max_keys_allowed.
+     *
+     * @return the number of slots actually reserved
+     */
+    int reserveKeySlots(Long vehicleId, int requested);
+
+    /**
+     * Adds accumulated key usage to many vehicles with a single batched
+     * {@code UPDATE ... SET total_key_usage_count = total_key_usage_count + ?}.
+     */
+    void addKeyUsageCounts(Map<Long, Long> usageByVehicleId, LocalDateTime lastActivityAt);
+
+    /**
+     * Adds a trip's distance to mileage with a single {@code UPDATE ... SET mileage = mileage + ?},
+     * keeping whole kilometres. A vehicle with no recorded mileage is left alone.
+     */
+    void addMileage(Long vehicleId, double distanceKm);
+
+    /**
+     * Moves last_activity_at forward to {@code at}, leaving a later value in place.
+     */
+    void recordActivity(Long vehicleId, LocalDateTime at);
+}
@@ -0,0 +1,79 @@
+package com.vehicleoem.repository;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+public class VehicleRepositoryCustomImpl implements VehicleRepositoryCustom {
+
+    private static final String APPLY_KEY_COUNT_DELTA_SQL =
+        "UPDATE vehicles SET current_key_count = GREATEST(current_key_count + ?, 0), updated_at = ? WHERE id = ?";
+
+    private static final String RESERVE_KEY_SLOTS_SQL =
+        "WITH locked AS (SELECT id, current_key_count FROM vehicles WHERE id = ? FOR UPDATE) " +
+        "UPDATE vehicles v SET current_key_count = LEAST(locked.current_key_count + ?, " +
+        "GREATEST(v.max_keys_allowed, locked.current_key_count)), updated_at = ? " +
+        "FROM locked WHERE v.id = locked.id " +
+        "RETURNING v.current_key_count - locked.current_key_count";
+
+    private static final String ADD_KEY_USAGE_SQL =
+        "UPDATE vehicles SET total_key_usage_count = total_key_usage_count + ?, " +
+        "last_activity_at = GREATEST(last_activity_at, ?) WHERE id = ?";
+
+    private static final String ADD_MILEAGE_SQL =
+        "UPDATE vehicles SET mileage = CAST(FLOOR(mileage + ?) AS INTEGER) WHERE id = ? AND mileage IS NOT NULL";
+
+    private static final String RECORD_ACTIVITY_SQL =
+        "UPDATE vehicles SET last_activity_at = GREATEST(last_activity_at, ?) WHERE id = ?";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Override
+    public void applyKeyCountDeltas(Map<Long, Integer> deltasByVehicleId) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> batchArgs = new ArrayList<>(deltasByVehicleId.size());
+        deltasByVehicleId.forEach((vehicleId, delta) -> {
+            if (delta != 0) {
+                batchArgs.add(new Object[] { delta, now, vehicleId });
+            }
+        });
+        if (!batchArgs.isEmpty()) {
+            jdbcTemplate.batchUpdate(APPLY_KEY_COUNT_DELTA_SQL, batchArgs);
+        }
+    }
+
+    @Override
+    public int reserveKeySlots(Long vehicleId, int requested) {
+        if (requested <= 0) {
+            return 0;
+        }
+        List<Integer> reserved = jdbcTemplate.queryForList(RESERVE_KEY_SLOTS_SQL, Integer.class,
+            vehicleId, requested, Timestamp.valueOf(LocalDateTime.now()));
+        return reserved.isEmpty() ? 0 : reserved.get(0);
+    }
+
+    @Override
+    public void addKeyUsageCounts(Map<Long, Long> usageByVehicleId, LocalDateTime lastActivityAt) {
+        Timestamp lastActivity = Timestamp.valueOf(lastActivityAt);
+        List<Object[]> batchArgs = new ArrayList<>(usageByVehicleId.size());
+        usageByVehicleId.forEach((vehicleId, usage) -> batchArgs.add(new Object[] { usage, lastActivity, vehicleId }));
+        if (!batchArgs.isEmpty()) {
+            jdbcTemplate.batchUpdate(ADD_KEY_USAGE_SQL, batchArgs);
+        }
+    }
+
+    @Override
+    public void addMileage(Long vehicleId, double distanceKm) {
+        jdbcTemplate.update(ADD_MILEAGE_SQL, distanceKm, vehicleId);
+    }
+
+    @Override
+    public void recordActivity(Long vehicleId, LocalDateTime at) {
+        jdbcTemplate.update(RECORD_ACTIVITY_SQL, Timestamp.valueOf(at), vehicleId);
+    }
+}
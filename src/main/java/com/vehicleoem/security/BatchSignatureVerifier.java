@@ -0,0 +1,141 @@
+package com.vehicleoem.security;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import java.security.PublicKey;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Verifies many ECDSA signatures at once, for device certificate checks and KTS
+ * reconciliation. The batch is split into ranges on a dedicated {@link ForkJoinPool} sized to
+ * the CPU count, so a large batch neither runs single-threaded nor competes with the common
+ * pool used by parallel streams. Batches up to {@code sequential-threshold} items are
+ * verified on the calling thread.
+ * <p>
+ * Signatures are verified where the range runs, not on the {@link CryptoExecutor}, so a batch
+ * never queues ahead of interactive crypto and is never refused part-way as saturated.
+ */
+@Component
+public class BatchSignatureVerifier {
+
+    @Autowired
+    private CryptographyService cryptographyService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    // 0 means one worker per available processor
+    @Value("${signature-verification.parallelism:0}")
+    private int parallelism;
+
+    @Value("${signature-verification.sequential-threshold:32}")
+    private int sequentialThreshold;
+
+    private ForkJoinPool pool;
+    private Timer batchTimer;
+    private Counter validCounter;
+    private Counter invalidCounter;
+    private Counter malformedCounter;
+
+    @PostConstruct
+    void init() {
+        sequentialThreshold = Math.max(1, sequentialThreshold);
+        int workers = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+        pool = new ForkJoinPool(workers, forkJoinPool -> {
+            ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(forkJoinPool);
+            thread.setName("signature-verify-" + thread.getPoolIndex());
+            thread.setDaemon(true);
+            return thread;
+        }, null, false);
+
+        batchTimer = Timer.builder("signature_verification.batch.duration")
+            .description("Time to verify one batch of signatures")
+            .register(meterRegistry);
+        validCounter = itemCounter("valid");
+        invalidCounter = itemCounter("invalid");
+        malformedCounter = itemCounter("malformed");
+    }
+
+    @PreDestroy
+    void shutdown() {
+        pool.shutdownNow();
+    }
+
+    /**
+     * @return one result per item, in request order
+     */
+    public BatchVerificationResult verifyAll(List<SignedItem> items) {
+        if (items == null) {
+            throw new IllegalArgumentException("Items cannot be null");
+        }
+        SignedItem[] batch = items.toArray(new SignedItem[0]);
+        SignatureStatus[] statuses = new SignatureStatus[batch.length];
+        batchTimer.record(() -> {
+            VerifyRange task = new VerifyRange(batch, statuses, 0, batch.length);
+            if (statuses.length <= sequentialThreshold) {
+                task.compute();
+            } else {
+                pool.invoke(task);
+            }
+        });
+
+        BatchVerificationResult result = new BatchVerificationResult(statuses);
+        validCounter.increment(result.getValidCount());
+        invalidCounter.increment(result.getInvalidCount());
+        malformedCounter.increment(result.getMalformedCount());
+        return result;
+    }
+
+    private Counter itemCounter(String outcome) {
+        return Counter.builder("signature_verification.items")
+            .description("Signatures checked in batches")
+            .tag("outcome", outcome)
+            .register(meterRegistry);
+    }
+
+    /**
+     * One signature to check. The signature is Base64 DER, as produced by
+     * {@link CryptographyService#signData}.
+     */
+    public record SignedItem(byte[] data, String signature, PublicKey publicKey) {
+    }
+
+    // Each leaf writes only its own slice of statuses; invoke() publishes them to the caller
+    private final class VerifyRange extends RecursiveAction {
+        private final SignedItem[] items;
+        private final SignatureStatus[] statuses;
+        private final int from;
+        private final int to;
+
+        private VerifyRange(SignedItem[] items, SignatureStatus[] statuses, int from, int to) {
+            this.items = items;
+            this.statuses = statuses;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= sequentialThreshold) {
+                for (int i = from; i < to; i++) {
+                    SignedItem item = items[i];
+                    statuses[i] = item == null
+                        ? SignatureStatus.MALFORMED
+                        : cryptographyService.checkSignatureInline(item.data(), item.signature(), item.publicKey());
+                }
+                return;
+            }
+            int mid = (from + to) >>> 1;
+            invokeAll(new VerifyRange(items, statuses, from, mid), new VerifyRange(items, statuses, mid, to));
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package com.vehicleoem.security;
+
+import java.util.BitSet;
+
+/**
+ * Per-item outcome of {@link BatchSignatureVerifier#verifyAll}, indexed like the request list.
+ * Bit {@code i} of {@link #getValid()} is set when item {@code i} verified, and bit {@code i}
+ * of {@link #getMalformed()} when it could not be decoded. An item with neither bit set
+ * was well-formed but its signature didn't match.
+ */
+public final class BatchVerificationResult {
+
+    private final int size;
+    private final BitSet valid;
+    private final BitSet malformed;
+
+    BatchVerificationResult(SignatureStatus[] statuses) {
+        this.size = statuses.length;
+        this.valid = new BitSet(size);
+        this.malformed = new BitSet(size);
+        for (int i = 0; i < size; i++) {
+            if (statuses[i] == SignatureStatus.VALID) {
+                valid.set(i);
+            } else if (statuses[i] == SignatureStatus.MALFORMED) {
+                malformed.set(i);
+            }
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public SignatureStatus getStatus(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index " + index + " out of bounds for batch of " + size);
+        }
+        if (valid.get(index)) {
+            return SignatureStatus.VALID;
+        }
+        return malformed.get(index) ? SignatureStatus.MALFORMED : SignatureStatus.INVALID;
+    }
+
+    public boolean isValid(int index) {
+        return getStatus(index) == SignatureStatus.VALID;
+    }
+
+    public boolean allValid() {
+        return valid.cardinality() == size;
+    }
+
+    public int getValidCount() {
+        return valid.cardinality();
+    }
+
+    public int getMalformedCount() {
+        return malformed.cardinality();
+    }
+
+    public int getInvalidCount() {
+        return size - getValidCount() - getMalformedCount();
+    }
+
+    /**
+     * @return a copy of the valid-item bitmap
+     */
+    public BitSet getValid() {
+        return (BitSet) valid.clone();
+    }
+
+    /**
+     * @return a copy of the malformed-item bitmap
+     */
+    public BitSet getMalformed() {
+        return (BitSet) malformed.clone();
+    }
+}
@@ -1,50 +1,200 @@
 package com.vehicleoem.security;
 
+import com.vehicleoem.exception.CryptoSaturatedException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import java.nio.charset.StandardCharsets;
 import java.security.KeyPair;
-import java.security.PrivateKey;
+import java.security.PublicKey;
 import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
 import java.util.Base64;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
 
 @Service
 public class CertificateService {
     
+    private static final long SATURATED_RETRY_DELAY_MS = 10;
+    private static final String PUBLIC_KEY_FIELD = "PublicKey:";
+    
     @Autowired
     private CryptographyService cryptographyService;
     
-    // This would typically load from HSM or secure storage
-    private KeyPair vehicleOemKeyPair;
+    @Autowired
+    private KeyPairPool keyPairPool;
+    
+    @Autowired
+    private CryptoExecutor cryptoExecutor;
+    
+    @Autowired
+    private MeterRegistry meterRegistry;
+    
+    // Crypto workers a fleet batch may use at once; 0 means all of them but one
+    @Value("${certificate-issuance.parallelism:0}")
+    private int parallelism;
+    
+    // VINs handed to a worker at a time
+    @Value("${certificate-issuance.chunk-size:64}")
+    private int chunkSize;
+    
+    // This would typically load from HSM or secure storage. Created once under the lock and
+    // published through the volatile field, so every certificate is signed by the same key.
+    private volatile OemKeySigner vehicleOemSigner;
+    
+    private int workers;
+    private Timer batchTimer;
+    private Counter issuedCounter;
+    private Counter failedCounter;
+    
+    @PostConstruct
+    void init() {
+        chunkSize = Math.max(1, chunkSize);
+        int threads = cryptoExecutor.getThreads();
+        workers = parallelism > 0 ? Math.min(parallelism, threads) : Math.max(1, threads - 1);
+        
+        batchTimer = Timer.builder("certificate_issuance.batch.duration")
+            .description("Time to issue one fleet batch of vehicle certificates")
+            .register(meterRegistry);
+        issuedCounter = certificateCounter("issued");
+        failedCounter = certificateCounter("failed");
+    }
     
     public String generateVehiclePublicKeyCertificate(String vin) {
+        return cryptoExecutor.call(CryptoPriority.INTERACTIVE, () -> {
+            try {
+                // Take a pre-generated key pair for the vehicle
+                return issueCertificate(vin, keyPairPool.take(), getVehicleOemSigner());
+            } catch (Exception e) {
+                throw new RuntimeException("Failed to generate vehicle certificate", e);
+            }
+        });
+    }
+    
+    /**
+     * Issues a certificate for each VIN, for fleet onboarding. VINs are split into chunks of
+     * {@code chunk-size} and issued as {@link CryptoPriority#BULK} work on the
+     * {@link CryptoExecutor}, all signing with the one Vehicle OEM key. Results are passed to
+     * {@code sink} on the calling thread chunk by chunk, in request order, so the caller never
+     * sees two results at once. At most two chunks per worker, with {@code parallelism}
+     * workers, are in flight, which bounds memory for any batch size and leaves the other
+     * crypto workers to interactive requests. By default that is one worker, unless the
+     * executor has only one.
+     * <p>
+     * A batch that finds the crypto queue full before its first chunk fails with
+     * {@link com.vehicleoem.exception.CryptoSaturatedException}. Once started, it waits for
+     * its own chunks, or briefly when it has none in flight, and tries again.
+     * <p>
+     * A VIN that fails is reported with its error and does not stop the batch. Vehicle key
+     * pairs are generated by the workers rather than taken from the {@link KeyPairPool}, which
+     * is sized for interactive pairing and would only be drained by a batch.
+     *
+     * @return counts and timing for the whole batch
+     */
+    public FleetIssuanceSummary issueVehicleCertificates(List<String> vins, Consumer<IssuedCertificate> sink) {
+        if (vins == null || sink == null) {
+            throw new IllegalArgumentException("VINs and sink cannot be null");
+        }
+        OemKeySigner oemSigner = getVehicleOemSigner();
+        Deque<Future<List<IssuedCertificate>>> inFlight = new ArrayDeque<>();
+        int maxInFlight = 2 * workers;
+        int issued = 0;
+        int failed = 0;
+        long start = System.nanoTime();
+        long elapsed;
         try {
-            // Generate key pair for vehicle
-            KeyPair vehicleKeyPair = cryptographyService.generateECKeyPair();
-            
-            // Create certificate (simplified - real implementation would use proper X.509)
-            VehicleCertificate cert = new VehicleCertificate();
-            cert.setVin(vin);
-            cert.setPublicKey(Base64.getEncoder().encodeToString(vehicleKeyPair.getPublic().getEncoded()));
-            cert.setIssuer("Vehicle OEM CA");
-            cert.setValidFrom(LocalDateTime.now());
-            cert.setValidUntil(LocalDateTime.now().plusYears(5));
-            
-            // Sign certificate with Vehicle OEM private key
-            String certData = cert.toString();
-            String signature = cryptographyService.signData(certData.getBytes(), getVehicleOemPrivateKey());
-            cert.setSignature(signature);
-            
-            return Base64.getEncoder().encodeToString(cert.toString().getBytes());
-        } catch (Exception e) {
-            throw new RuntimeException("Failed to generate vehicle certificate", e);
+            int next = 0;
+            while (next < vins.size() || !inFlight.isEmpty()) {
+                while (next < vins.size() && inFlight.size() < maxInFlight) {
+                    List<String> chunk = vins.subList(next, Math.min(next + chunkSize, vins.size()));
+                    try {
+                        inFlight.add(cryptoExecutor.submit(CryptoPriority.BULK, () -> issueChunk(chunk, oemSigner)));
+                    } catch (CryptoSaturatedException e) {
+                        if (next == 0) {
+                            throw e;
+                        }
+                        break;
+                    }
+                    next += chunk.size();
+                }
+                if (inFlight.isEmpty()) {
+                    // Saturated with none of our own chunks to wait for
+                    Thread.sleep(SATURATED_RETRY_DELAY_MS);
+                    continue;
+                }
+                for (IssuedCertificate result : inFlight.poll().get()) {
+                    if (result.isIssued()) {
+                        issued++;
+                    } else {
+                        failed++;
+                    }
+                    sink.accept(result);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while issuing vehicle certificates", e);
+        } catch (ExecutionException e) {
+            throw new RuntimeException("Failed to issue vehicle certificates", e.getCause());
+        } finally {
+            inFlight.forEach(future -> future.cancel(false));
+            elapsed = System.nanoTime() - start;
+            batchTimer.record(elapsed, TimeUnit.NANOSECONDS);
+            issuedCounter.increment(issued);
+            failedCounter.increment(failed);
+        }
+        return new FleetIssuanceSummary(issued, failed, workers, elapsed);
+    }
+    
+    private List<IssuedCertificate> issueChunk(List<String> vins, OemKeySigner oemSigner) {
+        List<IssuedCertificate> results = new ArrayList<>(vins.size());
+        for (String vin : vins) {
+            try {
+                String certificate = issueCertificate(vin, cryptographyService.generateECKeyPair(), oemSigner);
+                results.add(new IssuedCertificate(vin, certificate, null));
+            } catch (RuntimeException e) {
+                results.add(new IssuedCertificate(vin, null, e.getMessage()));
+            }
         }
+        return results;
+    }
+    
+    private String issueCertificate(String vin, KeyPair vehicleKeyPair, OemKeySigner oemSigner) {
+        if (vin == null || vin.isBlank()) {
+            throw new IllegalArgumentException("VIN cannot be null or empty");
+        }
+        
+        // Create certificate (simplified - real implementation would use proper X.509)
+        VehicleCertificate cert = new VehicleCertificate();
+        cert.setVin(vin);
+        cert.setPublicKey(Base64.getEncoder().encodeToString(vehicleKeyPair.getPublic().getEncoded()));
+        cert.setIssuer("Vehicle OEM CA");
+        cert.setValidFrom(LocalDateTime.now());
+        cert.setValidUntil(LocalDateTime.now().plusYears(5));
+        
+        // Sign certificate with Vehicle OEM private key
+        String certData = cert.toString();
+        String signature = oemSigner.sign(certData.getBytes());
+        cert.setSignature(signature);
+        
+        return Base64.getEncoder().encodeToString(cert.toString().getBytes());
     }
     
     public String generateDeviceOemCrossSignedCertificate(String deviceOemCertificate) {
         try {
             // Cross-sign the Device OEM certificate with Vehicle OEM private key
-            String signature = cryptographyService.signData(deviceOemCertificate.getBytes(), 
-                getVehicleOemPrivateKey());
+            OemKeySigner signer = getVehicleOemSigner();
+            String signature = cryptoExecutor.call(CryptoPriority.INTERACTIVE, () -> signer.sign(deviceOemCertificate.getBytes()));
             
             CrossSignedCertificate crossCert = new CrossSignedCertificate();
             crossCert.setOriginalCertificate(deviceOemCertificate);
@@ -58,12 +208,85 @@ public class CertificateService {
         }
     }
     
-    private PrivateKey getVehicleOemPrivateKey() {
+    /**
+     * Signs with the Vehicle OEM key, which vehicles already trust through their certificates.
+     *
+     * @return the Base64 DER-encoded signature, checked with {@link #getVehicleOemPublicKey}
+     */
+    public String signAsVehicleOem(byte[] data) {
+        OemKeySigner signer = getVehicleOemSigner();
+        return cryptoExecutor.call(CryptoPriority.INTERACTIVE, () -> signer.sign(data));
+    }
+    
+    /**
+     * @param certificate a certificate from {@link #generateVehiclePublicKeyCertificate}
+     * @return the certified vehicle public key, Base64 X.509
+     * @throws IllegalArgumentException if the certificate carries no public key
+     */
+    public String getCertifiedPublicKey(String certificate) {
+        if (certificate == null) {
+            throw new IllegalArgumentException("Certificate cannot be null");
+        }
+        String decoded = new String(Base64.getDecoder().decode(certificate), StandardCharsets.UTF_8);
+        for (String field : decoded.split("\\|")) {
+            if (field.startsWith(PUBLIC_KEY_FIELD)) {
+                return field.substring(PUBLIC_KEY_FIELD.length());
+            }
+        }
+        throw new IllegalArgumentException("Certificate has no public key");
+    }
+    
+    /**
+     * @return the Vehicle OEM public key, for checking the signatures on issued certificates
+     */
+    public PublicKey getVehicleOemPublicKey() {
+        return getVehicleOemSigner().getPublicKey();
+    }
+    
+    private OemKeySigner getVehicleOemSigner() {
         // In production, this would be loaded from HSM
-        if (vehicleOemKeyPair == null) {
-            vehicleOemKeyPair = cryptographyService.generateECKeyPair();
+        OemKeySigner signer = vehicleOemSigner;
+        if (signer == null) {
+            synchronized (this) {
+                signer = vehicleOemSigner;
+                if (signer == null) {
+                    signer = new OemKeySigner(cryptographyService.generateECKeyPair());
+                    vehicleOemSigner = signer;
+                }
+            }
+        }
+        return signer;
+    }
+    
+    private Counter certificateCounter(String outcome) {
+        return Counter.builder("certificate_issuance.certificates")
+            .description("Vehicle certificates issued in fleet batches")
+            .tag("outcome", outcome)
+            .register(meterRegistry);
+    }
+    
+    /**
+     * The outcome for one VIN: {@code certificate} is set if it was issued, {@code error}
+     * otherwise.
+     */
+    public record IssuedCertificate(String vin, String certificate, String error) {
+        public boolean isIssued() {
+            return certificate != null;
+        }
+    }
+    
+    /**
+     * Totals for one fleet batch. Throughput per worker is the batch rate divided by the
+     * number of issuance workers, which is the CPU count unless {@code parallelism} is set.
+     */
+    public record FleetIssuanceSummary(int issued, int failed, int workers, long elapsedNanos) {
+        public double getCertificatesPerSecond() {
+            return elapsedNanos == 0 ? 0 : (issued + failed) * 1_000_000_000.0 / elapsedNanos;
+        }
+        
+        public double getCertificatesPerSecondPerWorker() {
+            return getCertificatesPerSecond() / workers;
         }
-        return vehicleOemKeyPair.getPrivate();
     }
     
     private static class VehicleCertificate {
@@ -0,0 +1,158 @@
+package com.vehicleoem.security;
+
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Base64 (RFC 4648, standard alphabet) encoding into and decoding from caller-supplied buffers.
+ * {@link java.util.Base64} always allocates a new array or String for its result, which
+ * shows up on hot paths that encode a signature or key for every request. These helpers let
+ * a caller reuse one buffer instead. The output is identical to {@code Base64.getEncoder()},
+ * and decoding accepts the same input as {@code Base64.getDecoder()}.
+ */
+public final class CryptoBuffers {
+
+    private static final byte[] ALPHABET =
+        "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789+/".getBytes(StandardCharsets.US_ASCII);
+    private static final int[] DECODE = new int[128];
+
+    static {
+        Arrays.fill(DECODE, -1);
+        for (int i = 0; i < ALPHABET.length; i++) {
+            DECODE[ALPHABET[i]] = i;
+        }
+    }
+
+    private CryptoBuffers() {
+    }
+
+    /**
+     * @return the number of Base64 characters, including padding, for {@code length} bytes
+     */
+    public static int base64Length(int length) {
+        return 4 * ((length + 2) / 3);
+    }
+
+    /**
+     * @return an upper bound on the number of bytes {@code base64} decodes to
+     */
+    public static int maxDecodedLength(CharSequence base64) {
+        return (base64.length() + 3) / 4 * 3;
+    }
+
+    /**
+     * Encodes the remaining bytes of {@code src} into {@code dst} as ASCII. Both buffers'
+     * positions are advanced.
+     *
+     * @return the number of bytes written to {@code dst}
+     * @throws BufferOverflowException if {@code dst} has less than
+     *         {@code base64Length(src.remaining())} bytes remaining; neither buffer is modified
+     */
+    public static int encodeBase64(ByteBuffer src, ByteBuffer dst) {
+        int length = src.remaining();
+        int encodedLength = base64Length(length);
+        if (dst.remaining() < encodedLength) {
+            throw new BufferOverflowException();
+        }
+        int full = length / 3 * 3;
+        for (int i = 0; i < full; i += 3) {
+            int bits = (src.get() & 0xFF) << 16 | (src.get() & 0xFF) << 8 | (src.get() & 0xFF);
+            dst.put(ALPHABET[bits >>> 18 & 0x3F]);
+            dst.put(ALPHABET[bits >>> 12 & 0x3F]);
+            dst.put(ALPHABET[bits >>> 6 & 0x3F]);
+            dst.put(ALPHABET[bits & 0x3F]);
+        }
+        int rest = length - full;
+        if (rest > 0) {
+            int bits = (src.get() & 0xFF) << 16 | (rest == 2 ? (src.get() & 0xFF) << 8 : 0);
+            dst.put(ALPHABET[bits >>> 18 & 0x3F]);
+            dst.put(ALPHABET[bits >>> 12 & 0x3F]);
+            dst.put(rest == 2 ? ALPHABET[bits >>> 6 & 0x3F] : (byte) '=');
+            dst.put((byte) '=');
+        }
+        return encodedLength;
+    }
+
+    /**
+     * Encodes {@code src} into {@code dst}, which is reused for the result.
+     *
+     * @return {@code dst}, cleared and filled with the encoding of {@code src}
+     */
+    public static StringBuilder encodeBase64(byte[] src, StringBuilder dst) {
+        dst.setLength(0);
+        dst.ensureCapacity(base64Length(src.length));
+        int full = src.length / 3 * 3;
+        for (int i = 0; i < full; i += 3) {
+            int bits = (src[i] & 0xFF) << 16 | (src[i + 1] & 0xFF) << 8 | (src[i + 2] & 0xFF);
+            dst.append((char) ALPHABET[bits >>> 18 & 0x3F])
+                .append((char) ALPHABET[bits >>> 12 & 0x3F])
+                .append((char) ALPHABET[bits >>> 6 & 0x3F])
+                .append((char) ALPHABET[bits & 0x3F]);
+        }
+        int rest = src.length - full;
+        if (rest > 0) {
+            int bits = (src[full] & 0xFF) << 16 | (rest == 2 ? (src[full + 1] & 0xFF) << 8 : 0);
+            dst.append((char) ALPHABET[bits >>> 18 & 0x3F])
+                .append((char) ALPHABET[bits >>> 12 & 0x3F])
+                .append(rest == 2 ? (char) ALPHABET[bits >>> 6 & 0x3F] : '=')
+                .append('=');
+        }
+        return dst;
+    }
+
+    /**
+     * Decodes {@code src} into {@code dst}, advancing its position.
+     *
+     * @return the number of bytes written to {@code dst}
+     * @throws IllegalArgumentException if {@code src} is not valid Base64; {@code dst} may
+     *         then hold part of the output
+     * @throws BufferOverflowException if {@code dst} is too small for the decoded bytes;
+     *         {@code dst} is not modified
+     */
+    public static int decodeBase64(CharSequence src, ByteBuffer dst) {
+        int length = src.length();
+        if (length > 0 && src.charAt(length - 1) == '=') {
+            length--;
+            if (length > 0 && src.charAt(length - 1) == '=') {
+                length--;
+            }
+            if (src.length() % 4 != 0) {
+                throw new IllegalArgumentException("Base64 input with padding must be a multiple of 4 characters");
+            }
+        }
+        if (length % 4 == 1) {
+            throw new IllegalArgumentException("Last unit does not have enough valid bits");
+        }
+        int decodedLength = length / 4 * 3 + (length % 4 == 0 ? 0 : length % 4 - 1);
+        if (dst.remaining() < decodedLength) {
+            throw new BufferOverflowException();
+        }
+        int full = length / 4 * 4;
+        for (int i = 0; i < full; i += 4) {
+            int bits = sextet(src, i) << 18 | sextet(src, i + 1) << 12 | sextet(src, i + 2) << 6 | sextet(src, i + 3);
+            dst.put((byte) (bits >>> 16));
+            dst.put((byte) (bits >>> 8));
+            dst.put((byte) bits);
+        }
+        int rest = length - full;
+        if (rest >= 2) {
+            int bits = sextet(src, full) << 18 | sextet(src, full + 1) << 12 | (rest == 3 ? sextet(src, full + 2) << 6 : 0);
+            dst.put((byte) (bits >>> 16));
+            if (rest == 3) {
+                dst.put((byte) (bits >>> 8));
+            }
+        }
+        return decodedLength;
+    }
+
+    private static int sextet(CharSequence src, int index) {
+        char c = src.charAt(index);
+        int value = c < 128 ? DECODE[c] : -1;
+        if (value < 0) {
+            throw new IllegalArgumentException("Illegal base64 character " + Integer.toHexString(c));
+        }
+        return value;
+    }
+}
@@ -0,0 +1,208 @@
+package com.vehicleoem.security;
+
+import org.bouncycastle.jce.provider.BouncyCastleProvider;
+import org.bouncycastle.jce.spec.IESParameterSpec;
+import javax.crypto.Cipher;
+import java.nio.ByteBuffer;
+import java.security.GeneralSecurityException;
+import java.security.KeyPairGenerator;
+import java.security.MessageDigest;
+import java.security.Provider;
+import java.security.Security;
+import java.security.Signature;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Per-thread cipher, signature and digest engines for {@link CryptographyService}.
+ * <p>
+ * {@code Cipher.getInstance("ECIES", "BC")} and friends resolve the provider by name and
+ * build a new engine on every call, which costs more than signing a short message. JCE
+ * engines are not thread-safe, so each thread keeps its own instance instead. An engine is
+ * always re-initialized ({@code init}, {@code initSign}, {@code initVerify} or
+ * {@code reset}) before use, so a call that failed half way never leaks state into the next.
+ * Callers must not hold on to an engine beyond the current call.
+ * <p>
+ * Each {@link CryptoOperation} has a selected provider, BouncyCastle except for SHA-256,
+ * which keeps the JDK default, until {@link CryptoProviders} selects another at startup.
+ * AES-GCM is not selectable: it always comes from the JDK default provider, whose AES and
+ * GHASH intrinsics BouncyCastle cannot use. A
+ * thread whose cached engine comes from a different provider replaces it on its next call.
+ * Every engine handed out is counted against the operation and provider that served it.
+ */
+final class CryptoEngines {
+
+    static final String CURVE_NAME = "secp256r1"; // NIST P-256
+    static final String SIGNATURE_ALGORITHM = "SHA256withECDSA";
+
+    // ECIES parameters; IESParameterSpec is immutable (its getters return copies)
+    private static final byte[] DERIVATION_VECTOR = new byte[]{1, 2, 3, 4, 5, 6, 7, 8};
+    private static final byte[] ENCODING_VECTOR = new byte[]{8, 7, 6, 5, 4, 3, 2, 1};
+    private static final int MAC_KEY_SIZE = 128; // bits
+    private static final int CIPHER_KEY_SIZE = 128; // bits
+
+    // IESParameterSpec(derivation, encoding, macKeySize, cipherKeySize, nonce, usePointCompression)
+    static final IESParameterSpec IES_PARAMETERS = new IESParameterSpec(
+        DERIVATION_VECTOR, ENCODING_VECTOR, MAC_KEY_SIZE, CIPHER_KEY_SIZE, null, false);
+    // Same parameters with a compressed ephemeral point, for EciesFormat.COMPACT
+    static final IESParameterSpec IES_COMPACT_PARAMETERS = new IESParameterSpec(
+        DERIVATION_VECTOR, ENCODING_VECTOR, MAC_KEY_SIZE, CIPHER_KEY_SIZE, null, true);
+
+    static final Provider BC = bouncyCastle();
+
+    private static final ConcurrentMap<String, LongAdder> SERVED = new ConcurrentHashMap<>();
+    private static final AtomicReferenceArray<Selection> SELECTIONS = initialSelections();
+
+    private static final ThreadLocal<Cipher> ECIES = new ThreadLocal<>();
+    private static final ThreadLocal<Signature> SIGNER = new ThreadLocal<>();
+    private static final ThreadLocal<Signature> VERIFIER = new ThreadLocal<>();
+    // Large enough for a DER-encoded ECDSA signature on any NIST curve up to P-521 (139 bytes)
+    private static final ThreadLocal<ByteBuffer> SIGNATURE_BUFFER = ThreadLocal.withInitial(() -> ByteBuffer.allocate(160));
+    private static final ThreadLocal<MessageDigest> SHA256 = new ThreadLocal<>();
+    private static final ThreadLocal<Cipher> AES_GCM = ThreadLocal.withInitial(() -> create(() -> Cipher.getInstance("AES/GCM/NoPadding")));
+
+    private CryptoEngines() {
+    }
+
+    /**
+     * @return this thread's ECIES cipher; the caller must {@code init} it
+     */
+    static Cipher ecies() {
+        Selection selection = served(CryptoOperation.ECIES);
+        Cipher cipher = ECIES.get();
+        if (cipher == null || cipher.getProvider() != selection.provider()) {
+            cipher = create(() -> Cipher.getInstance("ECIES", selection.provider()));
+            ECIES.set(cipher);
+        }
+        return cipher;
+    }
+
+    /**
+     * @return this thread's SHA256withECDSA signing engine; the caller must {@code initSign} it
+     */
+    static Signature signer() {
+        return signature(SIGNER, served(CryptoOperation.SIGN));
+    }
+
+    /**
+     * @return this thread's SHA256withECDSA verification engine; the caller must
+     *         {@code initVerify} it
+     */
+    static Signature verifier() {
+        return signature(VERIFIER, served(CryptoOperation.VERIFY));
+    }
+
+    /**
+     * @return a new P-256 key pair generator; generators hold a {@code SecureRandom} and
+     *         are cheap next to generating a key, so they are not cached
+     */
+    static KeyPairGenerator keyPairGenerator() {
+        Selection selection = served(CryptoOperation.KEY_GENERATION);
+        return create(() -> KeyPairGenerator.getInstance("EC", selection.provider()));
+    }
+
+    /**
+     * @return this thread's SHA-256 digest, reset and ready for input
+     */
+    static MessageDigest sha256() {
+        Selection selection = served(CryptoOperation.DIGEST);
+        MessageDigest digest = SHA256.get();
+        if (digest == null || digest.getProvider() != selection.provider()) {
+            digest = create(() -> MessageDigest.getInstance("SHA-256", selection.provider()));
+            SHA256.set(digest);
+        }
+        digest.reset();
+        return digest;
+    }
+
+    /**
+     * @return this thread's AES/GCM/NoPadding cipher; the caller must {@code init} it
+     */
+    static Cipher aesGcm() {
+        return AES_GCM.get();
+    }
+
+    static Provider provider(CryptoOperation operation) {
+        return SELECTIONS.get(operation.ordinal()).provider();
+    }
+
+    /**
+     * Makes {@code provider} serve {@code operation} from now on. Threads switch engines on
+     * their next call; calls already in progress finish on the old provider.
+     */
+    static void select(CryptoOperation operation, Provider provider) {
+        SELECTIONS.set(operation.ordinal(), new Selection(provider, servedCounter(operation, provider.getName())));
+    }
+
+    /**
+     * @return how many times {@code provider} has served {@code operation}
+     */
+    static long servedCount(CryptoOperation operation, String provider) {
+        return servedCounter(operation, provider).sum();
+    }
+
+    /**
+     * @return this thread's scratch buffer for decoding a signature, cleared
+     */
+    static ByteBuffer signatureBuffer() {
+        return SIGNATURE_BUFFER.get().clear();
+    }
+
+    private static Signature signature(ThreadLocal<Signature> engines, Selection selection) {
+        Signature engine = engines.get();
+        if (engine == null || engine.getProvider() != selection.provider()) {
+            engine = create(() -> Signature.getInstance(SIGNATURE_ALGORITHM, selection.provider()));
+            engines.set(engine);
+        }
+        return engine;
+    }
+
+    private static Selection served(CryptoOperation operation) {
+        Selection selection = SELECTIONS.get(operation.ordinal());
+        selection.served().increment();
+        return selection;
+    }
+
+    private static LongAdder servedCounter(CryptoOperation operation, String provider) {
+        return SERVED.computeIfAbsent(operation.name() + '/' + provider, key -> new LongAdder());
+    }
+
+    private static AtomicReferenceArray<Selection> initialSelections() {
+        CryptoOperation[] operations = CryptoOperation.values();
+        AtomicReferenceArray<Selection> selections = new AtomicReferenceArray<>(operations.length);
+        for (CryptoOperation operation : operations) {
+            Provider provider = operation == CryptoOperation.DIGEST
+                ? create(() -> MessageDigest.getInstance("SHA-256")).getProvider()
+                : BC;
+            selections.set(operation.ordinal(), new Selection(provider, servedCounter(operation, provider.getName())));
+        }
+        return selections;
+    }
+
+    private static Provider bouncyCastle() {
+        Provider provider = Security.getProvider(BouncyCastleProvider.PROVIDER_NAME);
+        if (provider == null) {
+            provider = new BouncyCastleProvider();
+            Security.addProvider(provider);
+        }
+        return provider;
+    }
+
+    private static <T> T create(EngineFactory<T> factory) {
+        try {
+            return factory.create();
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Crypto engine unavailable: " + e.getMessage(), e);
+        }
+    }
+
+    @FunctionalInterface
+    private interface EngineFactory<T> {
+        T create() throws GeneralSecurityException;
+    }
+
+    private record Selection(Provider provider, LongAdder served) {
+    }
+}
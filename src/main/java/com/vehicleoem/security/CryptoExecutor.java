@@ -0,0 +1,237 @@
+package com.vehicleoem.security;
+
+import com.vehicleoem.exception.CryptoSaturatedException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Worker pool for CPU-bound crypto: ECDSA, ECIES and key generation. Without it these run on
+ * Tomcat request threads, and a burst of pairing completions can occupy every core and
+ * starve cheap endpoints. With it, at most {@code threads} crypto operations run at once,
+ * one per available processor unless configured, and request threads wait for the result.
+ * <p>
+ * Queued tasks start in {@link CryptoPriority} order, oldest first within a priority. The
+ * queue is bounded: a task is refused with {@link CryptoSaturatedException} when its
+ * priority's share of {@code queue-capacity} is already taken, rather than queueing behind
+ * work that cannot finish in time. The exception maps to 503 so clients back off.
+ * <p>
+ * Work submitted from a crypto worker runs inline, so a task that itself calls
+ * {@link CryptographyService} cannot deadlock waiting for a free worker. With
+ * {@code enabled} false everything runs on the calling thread.
+ * <p>
+ * Metrics:
+ * <ul>
+ *   <li>{@code crypto.executor.queue.time}: time from submission until a task starts, by priority</li>
+ *   <li>{@code crypto.executor.rejected}: tasks refused because the queue was full, by priority</li>
+ *   <li>{@code crypto.executor.queue.depth} and {@code crypto.executor.active}</li>
+ * </ul>
+ */
+@Component
+public class CryptoExecutor {
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${crypto-executor.enabled:true}")
+    private boolean enabled;
+
+    // 0 means one per available processor
+    @Value("${crypto-executor.threads:0}")
+    private int threads;
+
+    @Value("${crypto-executor.queue-capacity:256}")
+    private int queueCapacity;
+
+    private final AtomicInteger queued = new AtomicInteger();
+    private final AtomicInteger active = new AtomicInteger();
+    private final AtomicLong sequence = new AtomicLong();
+
+    private ThreadPoolExecutor pool;
+    private Timer[] queueTime;
+    private Counter[] rejected;
+
+    @PostConstruct
+    void init() {
+        threads = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        queueCapacity = Math.max(1, queueCapacity);
+        if (enabled) {
+            AtomicInteger threadNumber = new AtomicInteger();
+            pool = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.SECONDS, new PriorityBlockingQueue<>(),
+                runnable -> new Worker(this, runnable, "crypto-" + threadNumber.getAndIncrement()));
+            pool.prestartAllCoreThreads();
+        }
+
+        CryptoPriority[] priorities = CryptoPriority.values();
+        queueTime = new Timer[priorities.length];
+        rejected = new Counter[priorities.length];
+        for (CryptoPriority priority : priorities) {
+            queueTime[priority.ordinal()] = Timer.builder("crypto.executor.queue.time")
+                .description("Time from submission until a crypto task starts running")
+                .tag("priority", priority.getTag())
+                .register(meterRegistry);
+            rejected[priority.ordinal()] = Counter.builder("crypto.executor.rejected")
+                .description("Crypto tasks refused because the queue was full")
+                .tag("priority", priority.getTag())
+                .register(meterRegistry);
+        }
+        Gauge.builder("crypto.executor.queue.depth", queued, AtomicInteger::get)
+            .description("Crypto tasks waiting for a worker")
+            .register(meterRegistry);
+        Gauge.builder("crypto.executor.active", active, AtomicInteger::get)
+            .description("Crypto tasks currently running")
+            .register(meterRegistry);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        if (pool != null) {
+            pool.shutdownNow();
+        }
+    }
+
+    /**
+     * Runs {@code task} on a crypto worker and waits for its result. Exceptions thrown by the
+     * task are rethrown as they are.
+     *
+     * @throws CryptoSaturatedException if the queue has no room for {@code priority}
+     */
+    public <T> T call(CryptoPriority priority, Supplier<T> task) {
+        if (pool == null || isWorkerThread()) {
+            return task.get();
+        }
+        Future<T> future = submit(priority, task::get);
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while waiting for a crypto worker", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            if (cause instanceof Error error) {
+                throw error;
+            }
+            throw new RuntimeException(cause.getMessage(), cause);
+        }
+    }
+
+    /**
+     * Queues {@code task} without waiting for it. Called from a crypto worker, or with the
+     * executor disabled, the task runs before this method returns.
+     *
+     * @throws CryptoSaturatedException if the queue has no room for {@code priority}
+     */
+    public <T> Future<T> submit(CryptoPriority priority, Callable<T> task) {
+        if (priority == null || task == null) {
+            throw new IllegalArgumentException("Priority and task cannot be null");
+        }
+        if (pool == null || isWorkerThread()) {
+            FutureTask<T> inline = new FutureTask<>(task);
+            inline.run();
+            return inline;
+        }
+        admit(priority);
+        PrioritizedTask<T> prioritized = new PrioritizedTask<>(priority, sequence.getAndIncrement(), task);
+        try {
+            pool.execute(prioritized);
+        } catch (RejectedExecutionException e) {
+            queued.decrementAndGet();
+            throw new RuntimeException("Crypto executor is shut down", e);
+        }
+        return prioritized;
+    }
+
+    /**
+     * @return whether a task of {@code priority} submitted now would be admitted
+     */
+    public boolean hasCapacity(CryptoPriority priority) {
+        return pool == null || isWorkerThread() || queued.get() < priority.queueLimit(queueCapacity);
+    }
+
+    public int getThreads() {
+        return threads;
+    }
+
+    public int getQueueDepth() {
+        return queued.get();
+    }
+
+    public boolean isWorkerThread() {
+        return Thread.currentThread() instanceof Worker worker && worker.owner == this;
+    }
+
+    private void admit(CryptoPriority priority) {
+        int limit = priority.queueLimit(queueCapacity);
+        while (true) {
+            int current = queued.get();
+            if (current >= limit) {
+                rejected[priority.ordinal()].increment();
+                throw CryptoSaturatedException.saturated(priority.getTag(), current);
+            }
+            if (queued.compareAndSet(current, current + 1)) {
+                return;
+            }
+        }
+    }
+
+    private static final class Worker extends Thread {
+        private final CryptoExecutor owner;
+
+        private Worker(CryptoExecutor owner, Runnable runnable, String name) {
+            super(runnable, name);
+            this.owner = owner;
+            setDaemon(true);
+        }
+    }
+
+    private final class PrioritizedTask<T> extends FutureTask<T> implements Comparable<PrioritizedTask<?>> {
+        private final CryptoPriority priority;
+        private final long sequence;
+        private final long submittedAt = System.nanoTime();
+
+        private PrioritizedTask(CryptoPriority priority, long sequence, Callable<T> task) {
+            super(task);
+            this.priority = priority;
+            this.sequence = sequence;
+        }
+
+        @Override
+        public void run() {
+            queued.decrementAndGet();
+            queueTime[priority.ordinal()].record(System.nanoTime() - submittedAt, TimeUnit.NANOSECONDS);
+            active.incrementAndGet();
+            try {
+                super.run();
+            } finally {
+                active.decrementAndGet();
+            }
+        }
+
+        @Override
+        public int compareTo(PrioritizedTask<?> other) {
+            int byPriority = Integer.compare(priority.ordinal(), other.priority.ordinal());
+            return byPriority != 0 ? byPriority : Long.compare(sequence, other.sequence);
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package com.vehicleoem.security;
+
+/**
+ * The classes of operation whose JCE provider can be chosen independently (see
+ * {@link CryptoProviders}). Candidates are the providers that implement the operation for
+ * P-256 and are tried when the configured provider is {@code auto}.
+ */
+public enum CryptoOperation {
+
+    KEY_GENERATION("key-generation", "BC", "SunEC"),
+    SIGN("sign", "BC", "SunEC"),
+    VERIFY("verify", "BC", "SunEC"),
+    ECIES("ecies", "BC"),
+    DIGEST("digest", "SUN", "BC");
+
+    private final String propertyName;
+    private final String[] candidates;
+
+    CryptoOperation(String propertyName, String... candidates) {
+        this.propertyName = propertyName;
+        this.candidates = candidates;
+    }
+
+    /**
+     * @return the key under {@code crypto.providers} and the {@code operation} metric tag
+     */
+    public String getPropertyName() {
+        return propertyName;
+    }
+
+    public String[] getCandidates() {
+        return candidates.clone();
+    }
+}
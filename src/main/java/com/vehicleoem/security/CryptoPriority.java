@@ -0,0 +1,40 @@
+package com.vehicleoem.security;
+
+/**
+ * Priority of work on the {@link CryptoExecutor}, highest first. A queued task of a higher
+ * priority always starts before one of a lower priority. Lower priorities may also fill
+ * less of the queue, so that a batch cannot take the room vehicle-critical work needs.
+ */
+public enum CryptoPriority {
+
+    /** Vehicle-critical work, such as verifying a pairing or command signature */
+    CRITICAL("critical", 100),
+
+    /** Signing, encryption and key generation on request paths */
+    INTERACTIVE("interactive", 75),
+
+    /** Batch and background work, such as fleet certificate issuance */
+    BULK("bulk", 50);
+
+    private final String tag;
+    private final int queueSharePercent;
+
+    CryptoPriority(String tag, int queueSharePercent) {
+        this.tag = tag;
+        this.queueSharePercent = queueSharePercent;
+    }
+
+    /**
+     * @return the {@code priority} metric tag
+     */
+    public String getTag() {
+        return tag;
+    }
+
+    /**
+     * @return how many tasks may be queued when one of this priority is admitted
+     */
+    int queueLimit(int queueCapacity) {
+        return Math.max(1, queueCapacity * queueSharePercent / 100);
+    }
+}
@@ -0,0 +1,320 @@
+package com.vehicleoem.security;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import javax.crypto.Cipher;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.MessageDigest;
+import java.security.Provider;
+import java.security.Security;
+import java.security.Signature;
+import java.security.SignatureException;
+import java.security.interfaces.ECPublicKey;
+import java.security.spec.ECGenParameterSpec;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Chooses the JCE provider for each {@link CryptoOperation} at startup. Each operation is
+ * configured under {@code crypto.providers} with a provider name, such as {@code BC} or
+ * {@code SunEC}, or with {@code auto}.
+ * <p>
+ * Every provider considered must first pass a self-test: a known-answer test for SHA-256,
+ * and for the others a round trip with BouncyCastle, which has always served them, on the
+ * code paths {@link CryptographyService} uses. A configured provider that is missing or
+ * fails fails startup. With {@code auto}, the candidates that pass are timed for
+ * {@code benchmark-millis} each, after a warm-up of the same length, and the fastest is
+ * selected. The timing is a rough single-threaded guide, not a substitute for the JMH
+ * benchmarks.
+ * <p>
+ * {@code crypto.operations} counts the calls each provider served, and
+ * {@code crypto.provider.selected} is 1 for the provider currently serving an operation.
+ */
+@Component
+public class CryptoProviders {
+
+    static final String AUTO = "auto";
+
+    private static final byte[] MESSAGE = "vehicle-oem provider self-test".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] SHA256_ABC =
+        HexFormat.of().parseHex("ba7816bf8f01cfea414140de5dae2223b00361a396177a9cb410ff61f20015ad");
+
+    @Autowired
+    private CryptographyService cryptographyService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${crypto.providers.key-generation:BC}")
+    private String keyGenerationProvider;
+
+    @Value("${crypto.providers.sign:BC}")
+    private String signProvider;
+
+    @Value("${crypto.providers.verify:BC}")
+    private String verifyProvider;
+
+    @Value("${crypto.providers.ecies:BC}")
+    private String eciesProvider;
+
+    @Value("${crypto.providers.digest:SUN}")
+    private String digestProvider;
+
+    @Value("${crypto.providers.benchmark-millis:100}")
+    private long benchmarkMillis;
+
+    private KeyPair referenceKeyPair;
+
+    @PostConstruct
+    void init() {
+        try {
+            KeyPairGenerator generator = KeyPairGenerator.getInstance("EC", CryptoEngines.BC);
+            generator.initialize(new ECGenParameterSpec(CryptoEngines.CURVE_NAME));
+            referenceKeyPair = generator.generateKeyPair();
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("BouncyCastle cannot generate " + CryptoEngines.CURVE_NAME + " keys", e);
+        }
+
+        // Key generation goes last: its self-test runs through the engines selected before it
+        for (CryptoOperation operation : List.of(CryptoOperation.DIGEST, CryptoOperation.ECIES,
+                CryptoOperation.SIGN, CryptoOperation.VERIFY, CryptoOperation.KEY_GENERATION)) {
+            List<String> considered = new ArrayList<>(Arrays.asList(operation.getCandidates()));
+            considered.add(CryptoEngines.provider(operation).getName());
+            Provider provider = choose(operation, configured(operation));
+            CryptoEngines.select(operation, provider);
+            considered.add(provider.getName());
+            registerMetrics(operation, considered);
+        }
+    }
+
+    /**
+     * @return the provider serving {@code operation}
+     */
+    public String getProvider(CryptoOperation operation) {
+        return CryptoEngines.provider(operation).getName();
+    }
+
+    private String configured(CryptoOperation operation) {
+        return switch (operation) {
+            case KEY_GENERATION -> keyGenerationProvider;
+            case SIGN -> signProvider;
+            case VERIFY -> verifyProvider;
+            case ECIES -> eciesProvider;
+            case DIGEST -> digestProvider;
+        };
+    }
+
+    private Provider choose(CryptoOperation operation, String configured) {
+        if (!AUTO.equalsIgnoreCase(configured)) {
+            Provider provider = lookup(configured);
+            if (provider == null) {
+                throw new IllegalStateException("Crypto provider " + configured + " for "
+                    + operation.getPropertyName() + " is not installed");
+            }
+            try {
+                selfTest(operation, provider);
+            } catch (Exception e) {
+                throw new IllegalStateException("Crypto provider " + configured + " failed the "
+                    + operation.getPropertyName() + " self-test: " + e.getMessage(), e);
+            }
+            System.err.println("Crypto provider for " + operation.getPropertyName() + ": " + provider.getName());
+            return provider;
+        }
+
+        List<Provider> compliant = new ArrayList<>();
+        for (String candidate : operation.getCandidates()) {
+            Provider provider = lookup(candidate);
+            if (provider == null) {
+                System.err.println("Crypto provider " + candidate + " for " + operation.getPropertyName() + " is not installed");
+                continue;
+            }
+            try {
+                selfTest(operation, provider);
+                compliant.add(provider);
+            } catch (Exception e) {
+                System.err.println("Crypto provider " + candidate + " failed the " + operation.getPropertyName()
+                    + " self-test: " + e.getMessage());
+            }
+        }
+        if (compliant.isEmpty()) {
+            throw new IllegalStateException("No crypto provider passed the " + operation.getPropertyName() + " self-test");
+        }
+        if (compliant.size() == 1) {
+            System.err.println("Crypto provider for " + operation.getPropertyName() + ": " + compliant.get(0).getName());
+            return compliant.get(0);
+        }
+
+        Map<String, Double> rates = new LinkedHashMap<>();
+        Provider fastest = null;
+        double fastestRate = -1;
+        for (Provider provider : compliant) {
+            double rate;
+            try {
+                rate = benchmark(operation, provider);
+            } catch (Exception e) {
+                rate = 0;
+            }
+            rates.put(provider.getName(), Math.round(rate * 10) / 10.0);
+            if (rate > fastestRate) {
+                fastest = provider;
+                fastestRate = rate;
+            }
+        }
+        System.err.println("Crypto provider for " + operation.getPropertyName() + ": " + fastest.getName()
+            + " (ops/s " + rates + ")");
+        return fastest;
+    }
+
+    private static Provider lookup(String name) {
+        return "BC".equals(name) ? CryptoEngines.BC : Security.getProvider(name);
+    }
+
+    void selfTest(CryptoOperation operation, Provider provider) throws GeneralSecurityException {
+        switch (operation) {
+            case DIGEST -> {
+                byte[] digest = MessageDigest.getInstance("SHA-256", provider).digest("abc".getBytes(StandardCharsets.US_ASCII));
+                require(Arrays.equals(SHA256_ABC, digest), "SHA-256 known answer mismatch");
+            }
+            case ECIES -> {
+                Cipher cipher = Cipher.getInstance("ECIES", provider);
+                cipher.init(Cipher.ENCRYPT_MODE, referenceKeyPair.getPublic(), CryptoEngines.IES_PARAMETERS);
+                byte[] ciphertext = cipher.doFinal(MESSAGE);
+                require(ciphertext.length == CryptographyService.eciesCiphertextLength(MESSAGE.length),
+                    "unexpected ECIES ciphertext length " + ciphertext.length);
+                Cipher reference = Cipher.getInstance("ECIES", CryptoEngines.BC);
+                reference.init(Cipher.DECRYPT_MODE, referenceKeyPair.getPrivate(), CryptoEngines.IES_PARAMETERS);
+                require(Arrays.equals(MESSAGE, reference.doFinal(ciphertext)), "ECIES round trip mismatch");
+            }
+            case SIGN -> {
+                byte[] signature = sign(provider);
+                require(verify(CryptoEngines.BC, MESSAGE, signature), "signature rejected by BouncyCastle");
+                require(!verify(CryptoEngines.BC, "tampered".getBytes(StandardCharsets.UTF_8), signature),
+                    "signature accepted for another message");
+            }
+            case VERIFY -> {
+                byte[] signature = sign(CryptoEngines.BC);
+                require(verify(provider, MESSAGE, signature), "BouncyCastle signature rejected");
+                require(!verify(provider, "tampered".getBytes(StandardCharsets.UTF_8), signature),
+                    "signature accepted for another message");
+                boolean garbage;
+                try {
+                    garbage = verify(provider, MESSAGE, new byte[]{0x30, 0x02, 0x01, 0x00});
+                } catch (SignatureException e) {
+                    garbage = false;
+                }
+                require(!garbage, "malformed signature accepted");
+            }
+            case KEY_GENERATION -> {
+                KeyPairGenerator generator = KeyPairGenerator.getInstance("EC", provider);
+                generator.initialize(new ECGenParameterSpec(CryptoEngines.CURVE_NAME));
+                KeyPair keyPair = generator.generateKeyPair();
+                require(keyPair.getPublic() instanceof ECPublicKey publicKey
+                    && publicKey.getParams().getCurve().getField().getFieldSize() == 256, "not a P-256 key");
+                ECPublicKey parsed = (ECPublicKey) PublicKeyCache.parse(keyPair.getPublic().getEncoded());
+                require(parsed.getW().equals(((ECPublicKey) keyPair.getPublic()).getW()),
+                    "public key encoding does not round-trip");
+                // The key must work everywhere the application uses generated keys
+                try {
+                    byte[] signature = cryptographyService.signDataRaw(ByteBuffer.wrap(MESSAGE), keyPair.getPrivate());
+                    require(cryptographyService.verifySignatureRaw(ByteBuffer.wrap(MESSAGE), signature, keyPair.getPublic()),
+                        "signature with generated key rejected");
+                    byte[] ciphertext = cryptographyService.encryptWithECIESRaw(MESSAGE, keyPair.getPublic());
+                    require(Arrays.equals(MESSAGE, cryptographyService.decryptWithECIESRaw(ciphertext, keyPair.getPrivate())),
+                        "ECIES round trip with generated key mismatch");
+                } catch (RuntimeException e) {
+                    throw new GeneralSecurityException(e.getMessage(), e);
+                }
+            }
+        }
+    }
+
+    private double benchmark(CryptoOperation operation, Provider provider) throws GeneralSecurityException {
+        Operation task = switch (operation) {
+            case DIGEST -> {
+                MessageDigest digest = MessageDigest.getInstance("SHA-256", provider);
+                yield () -> digest.digest(MESSAGE);
+            }
+            case SIGN -> () -> sign(provider);
+            case VERIFY -> {
+                byte[] signature = sign(CryptoEngines.BC);
+                yield () -> verify(provider, MESSAGE, signature);
+            }
+            case KEY_GENERATION -> {
+                KeyPairGenerator generator = KeyPairGenerator.getInstance("EC", provider);
+                generator.initialize(new ECGenParameterSpec(CryptoEngines.CURVE_NAME));
+                yield generator::generateKeyPair;
+            }
+            case ECIES -> () -> selfTest(CryptoOperation.ECIES, provider);
+        };
+        long budget = Math.max(1, benchmarkMillis) * 1_000_000;
+        run(task, budget);
+        long start = System.nanoTime();
+        long operations = run(task, budget);
+        return operations * 1_000_000_000.0 / (System.nanoTime() - start);
+    }
+
+    private static long run(Operation task, long nanos) throws GeneralSecurityException {
+        long deadline = System.nanoTime() + nanos;
+        long operations = 0;
+        do {
+            task.run();
+            operations++;
+        } while (System.nanoTime() < deadline);
+        return operations;
+    }
+
+    private byte[] sign(Provider provider) throws GeneralSecurityException {
+        Signature signer = Signature.getInstance(CryptoEngines.SIGNATURE_ALGORITHM, provider);
+        signer.initSign(referenceKeyPair.getPrivate());
+        signer.update(MESSAGE);
+        return signer.sign();
+    }
+
+    private boolean verify(Provider provider, byte[] message, byte[] signature) throws GeneralSecurityException {
+        Signature verifier = Signature.getInstance(CryptoEngines.SIGNATURE_ALGORITHM, provider);
+        verifier.initVerify(referenceKeyPair.getPublic());
+        verifier.update(message);
+        return verifier.verify(signature);
+    }
+
+    private static void require(boolean condition, String failure) throws GeneralSecurityException {
+        if (!condition) {
+            throw new GeneralSecurityException(failure);
+        }
+    }
+
+    private void registerMetrics(CryptoOperation operation, List<String> providers) {
+        for (String provider : providers.stream().distinct().toList()) {
+            FunctionCounter.builder("crypto.operations", operation,
+                    op -> CryptoEngines.servedCount(op, provider))
+                .description("Cryptographic operations served, by provider")
+                .tag("operation", operation.getPropertyName())
+                .tag("provider", provider)
+                .register(meterRegistry);
+            Gauge.builder("crypto.provider.selected", operation,
+                    op -> provider.equals(CryptoEngines.provider(op).getName()) ? 1 : 0)
+                .description("1 for the provider serving the operation, 0 otherwise")
+                .tag("operation", operation.getPropertyName())
+                .tag("provider", provider)
+                .register(meterRegistry);
+        }
+    }
+
+    @FunctionalInterface
+    private interface Operation {
+        void run() throws GeneralSecurityException;
+    }
+}
@@ -1,40 +1,32 @@
 package com.vehicleoem.security;
 
-import org.bouncycastle.crypto.engines.IESEngine;
-import org.bouncycastle.crypto.generators.KDF2BytesGenerator;
-import org.bouncycastle.crypto.macs.HMac;
-import org.bouncycastle.crypto.digests.SHA256Digest;
-import org.bouncycastle.crypto.params.IESParameters;
-import org.bouncycastle.crypto.params.IESWithCipherParameters;
 import org.bouncycastle.jce.interfaces.ECPrivateKey;
 import org.bouncycastle.jce.interfaces.ECPublicKey;
-import org.bouncycastle.jce.provider.BouncyCastleProvider;
-import org.bouncycastle.jce.spec.IESParameterSpec;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import javax.crypto.Cipher;
 import javax.crypto.KeyGenerator;
 import javax.crypto.SecretKey;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
 import java.security.*;
 import java.security.spec.ECGenParameterSpec;
 import java.util.Base64;
 import java.util.UUID;
+import java.util.function.Supplier;
 
 @Service
 public class CryptographyService {
-    
-    private static final String CURVE_NAME = "secp256r1"; // NIST P-256
-    private static final String ECIES_ALGORITHM = "ECIES";
-
-    // ECIES parameters for secure encryption
-    private static final byte[] DERIVATION_VECTOR = new byte[]{1, 2, 3, 4, 5, 6, 7, 8};
-    private static final byte[] ENCODING_VECTOR = new byte[]{8, 7, 6, 5, 4, 3, 2, 1};
-    private static final int MAC_KEY_SIZE = 128; // bits
-    private static final int CIPHER_KEY_SIZE = 128; // bits
 
-    static {
-        Security.addProvider(new BouncyCastleProvider());
-    }
+    // Optional so the service can still be used outside Spring; keys are then parsed every time
+    @Autowired(required = false)
+    private PublicKeyCache publicKeyCache;
     
+    // Optional for the same reason; without it operations run on the calling thread
+    @Autowired(required = false)
+    private CryptoExecutor cryptoExecutor;
+    
+
     public String generatePairingPassword() {
         return UUID.randomUUID().toString().replace("-", "").substring(0, 16);
     }
@@ -44,8 +36,7 @@ public class CryptographyService {
             throw new RuntimeException("Password cannot be null or empty");
         }
         try {
-            MessageDigest digest = MessageDigest.getInstance("SHA-256");
-            byte[] hash = digest.digest(password.getBytes());
+            byte[] hash = CryptoEngines.sha256().digest(password.getBytes());
             return Base64.getEncoder().encodeToString(hash);
         } catch (Exception e) {
             throw new RuntimeException("Failed to generate pairing verifier", e);
@@ -53,13 +44,42 @@ public class CryptographyService {
     }
     
     public KeyPair generateECKeyPair() {
+        return generateECKeyPair(CryptoPriority.INTERACTIVE);
+    }
+    
+    /**
+     * As {@link #generateECKeyPair()}, queued at {@code priority}, such as
+     * {@link CryptoPriority#BULK} for keys generated ahead of demand.
+     */
+    public KeyPair generateECKeyPair(CryptoPriority priority) {
+        return offload(priority, () -> {
+            try {
+                KeyPairGenerator keyGen = CryptoEngines.keyPairGenerator();
+                ECGenParameterSpec ecSpec = new ECGenParameterSpec(CryptoEngines.CURVE_NAME);
+                keyGen.initialize(ecSpec, new SecureRandom());
+                return keyGen.generateKeyPair();
+            } catch (Exception e) {
+                throw new RuntimeException("Failed to generate EC key pair", e);
+            }
+        });
+    }
+    
+    /**
+     * Parses a Base64 X.509 public key, such as {@code DigitalKey.publicKey} or
+     * {@code PairingSession.devicePublicKey}, for {@link #verifySignature} or
+     * {@link #encryptWithECIES}. Keys seen before come from {@link PublicKeyCache}.
+     */
+    public PublicKey decodePublicKey(String encodedPublicKey) {
         try {
-            KeyPairGenerator keyGen = KeyPairGenerator.getInstance("EC", "BC");
-            ECGenParameterSpec ecSpec = new ECGenParameterSpec(CURVE_NAME);
-            keyGen.initialize(ecSpec, new SecureRandom());
-            return keyGen.generateKeyPair();
-        } catch (Exception e) {
-            throw new RuntimeException("Failed to generate EC key pair", e);
+            if (publicKeyCache != null) {
+                return publicKeyCache.get(encodedPublicKey);
+            }
+            if (encodedPublicKey == null) {
+                throw new IllegalArgumentException("Public key cannot be null");
+            }
+            return PublicKeyCache.parse(Base64.getDecoder().decode(encodedPublicKey));
+        } catch (IllegalArgumentException e) {
+            throw new RuntimeException("Failed to decode public key: " + e.getMessage(), e);
         }
     }
     
@@ -67,29 +87,118 @@ public class CryptographyService {
         if (data == null || data.length == 0) {
             throw new RuntimeException("Data cannot be null or empty");
         }
+        return Base64.getEncoder().encodeToString(signDataRaw(ByteBuffer.wrap(data), privateKey));
+    }
+    
+    /**
+     * Signs the remaining bytes of {@code data} and advances its position to the limit.
+     *
+     * @return the DER-encoded signature
+     */
+    public byte[] signDataRaw(ByteBuffer data, PrivateKey privateKey) {
+        if (data == null || !data.hasRemaining()) {
+            throw new RuntimeException("Data cannot be null or empty");
+        }
         if (privateKey == null) {
             throw new RuntimeException("Private key cannot be null");
         }
+        return offload(CryptoPriority.INTERACTIVE, () -> {
+            try {
+                Signature signature = CryptoEngines.signer();
+                signature.initSign(privateKey);
+                signature.update(data);
+                return signature.sign();
+            } catch (Exception e) {
+                throw new RuntimeException("Failed to sign data", e);
+            }
+        });
+    }
+    
+    public boolean verifySignature(byte[] data, String signatureStr, PublicKey publicKey) {
+        return checkSignature(data, signatureStr, publicKey) == SignatureStatus.VALID;
+    }
+    
+    /**
+     * As {@link #verifySignature(byte[], String, PublicKey)}, for a key stored as Base64 X.509
+     * such as {@code DigitalKey.publicKey}. A key that cannot be decoded verifies nothing.
+     */
+    public boolean verifySignature(byte[] data, String signatureStr, String encodedPublicKey) {
+        PublicKey publicKey;
         try {
-            Signature signature = Signature.getInstance("SHA256withECDSA", "BC");
-            signature.initSign(privateKey);
-            signature.update(data);
-            byte[] signatureBytes = signature.sign();
-            return Base64.getEncoder().encodeToString(signatureBytes);
-        } catch (Exception e) {
-            throw new RuntimeException("Failed to sign data", e);
+            publicKey = decodePublicKey(encodedPublicKey);
+        } catch (RuntimeException e) {
+            return false;
         }
+        return verifySignature(data, signatureStr, publicKey);
     }
     
-    public boolean verifySignature(byte[] data, String signatureStr, PublicKey publicKey) {
+    public boolean verifySignatureRaw(ByteBuffer data, byte[] signature, PublicKey publicKey) {
+        return signature != null
+            && checkSignature(data, signature, 0, signature.length, publicKey) == SignatureStatus.VALID;
+    }
+    
+    /**
+     * Like {@link #verifySignature}, but tells a signature that doesn't match apart from input
+     * that could not be checked at all: a signature that isn't Base64 or DER, or a missing or
+     * unusable key.
+     */
+    public SignatureStatus checkSignature(byte[] data, String signatureStr, PublicKey publicKey) {
+        return checkSignature(data, signatureStr, publicKey, true);
+    }
+    
+    /**
+     * As {@link #checkSignature(byte[], String, PublicKey)}, but verifies on the calling thread
+     * rather than a crypto worker. For callers that run on a pool of their own, such as
+     * {@link BatchSignatureVerifier}; it is never refused as saturated.
+     */
+    public SignatureStatus checkSignatureInline(byte[] data, String signatureStr, PublicKey publicKey) {
+        return checkSignature(data, signatureStr, publicKey, false);
+    }
+    
+    /**
+     * Checks the DER-encoded signature in {@code signature[offset, offset + length)} over the
+     * remaining bytes of {@code data}, advancing its position to the limit.
+     */
+    public SignatureStatus checkSignature(ByteBuffer data, byte[] signature, int offset, int length,
+                                          PublicKey publicKey) {
+        if (data == null || signature == null || publicKey == null) {
+            return SignatureStatus.MALFORMED;
+        }
+        return offload(CryptoPriority.CRITICAL, () -> verify(data, signature, offset, length, publicKey));
+    }
+    
+    private SignatureStatus checkSignature(byte[] data, String signatureStr, PublicKey publicKey, boolean offload) {
+        if (data == null || signatureStr == null || publicKey == null) {
+            return SignatureStatus.MALFORMED;
+        }
+        // Decoded into a per-thread buffer; anything that doesn't fit is too long to be an ECDSA signature
+        ByteBuffer signatureBytes = CryptoEngines.signatureBuffer();
+        if (CryptoBuffers.maxDecodedLength(signatureStr) > signatureBytes.capacity()) {
+            return SignatureStatus.MALFORMED;
+        }
+        int length;
         try {
-            Signature signature = Signature.getInstance("SHA256withECDSA", "BC");
-            signature.initVerify(publicKey);
-            signature.update(data);
-            byte[] signatureBytes = Base64.getDecoder().decode(signatureStr);
-            return signature.verify(signatureBytes);
+            length = CryptoBuffers.decodeBase64(signatureStr, signatureBytes);
+        } catch (IllegalArgumentException e) {
+            return SignatureStatus.MALFORMED;
+        }
+        return offload
+            ? checkSignature(ByteBuffer.wrap(data), signatureBytes.array(), 0, length, publicKey)
+            : verify(ByteBuffer.wrap(data), signatureBytes.array(), 0, length, publicKey);
+    }
+    
+    private static SignatureStatus verify(ByteBuffer data, byte[] signature, int offset, int length,
+                                          PublicKey publicKey) {
+        try {
+            Signature engine = CryptoEngines.verifier();
+            engine.initVerify(publicKey);
+            engine.update(data);
+            return engine.verify(signature, offset, length) ? SignatureStatus.VALID : SignatureStatus.INVALID;
+        } catch (InvalidKeyException | SignatureException e) {
+            // BC and SunEC only throw from verify() when the signature bytes are not a DER-encoded (r, s) pair
+            return SignatureStatus.MALFORMED;
         } catch (Exception e) {
-            return false;
+            return SignatureStatus.INVALID;
         }
     }
     
@@ -103,46 +212,101 @@ public class CryptographyService {
      *
      * @param data The plaintext data to encrypt
      * @param publicKey The recipient's EC public key
-     * @return Base64-encoded encrypted data
+     * @return Base64-encoded encrypted data in the {@link EciesFormat#LEGACY} format
      */
     public String encryptWithECIES(String data, PublicKey publicKey) {
+        return encryptWithECIES(data, publicKey, EciesFormat.LEGACY);
+    }
+    
+    /**
+     * As {@link #encryptWithECIES(String, PublicKey)}, to a key stored as Base64 X.509 such as
+     * {@code PairingSession.devicePublicKey}.
+     */
+    public String encryptWithECIES(String data, String encodedPublicKey) {
+        return encryptWithECIES(data, decodePublicKey(encodedPublicKey), EciesFormat.LEGACY);
+    }
+    
+    /**
+     * As {@link #encryptWithECIES(String, PublicKey)}, in the given format. A
+     * {@link EciesFormat#COMPACT} ciphertext is 30 bytes shorter, and as unpadded Base64url
+     * about 40 characters shorter; only send it to peers that can decrypt it.
+     */
+    public String encryptWithECIES(String data, PublicKey publicKey, EciesFormat format) {
         if (data == null) {
             throw new RuntimeException("Data cannot be null");
         }
-        if (publicKey == null) {
-            throw new RuntimeException("Public key cannot be null");
+        byte[] ciphertext = encryptWithECIESRaw(data.getBytes(StandardCharsets.UTF_8), publicKey, format);
+        return format == EciesFormat.COMPACT
+            ? Base64.getUrlEncoder().withoutPadding().encodeToString(ciphertext)
+            : Base64.getEncoder().encodeToString(ciphertext);
+    }
+    
+    /**
+     * Binary form of {@link #encryptWithECIES(String, PublicKey)}.
+     *
+     * @return the raw ciphertext, {@link #eciesCiphertextLength} bytes long
+     */
+    public byte[] encryptWithECIESRaw(byte[] data, PublicKey publicKey) {
+        return encryptWithECIESRaw(data, publicKey, EciesFormat.LEGACY);
+    }
+    
+    /**
+     * Binary form of {@link #encryptWithECIES(String, PublicKey, EciesFormat)}.
+     *
+     * @return the raw ciphertext, {@link EciesFormat#ciphertextLength} bytes long
+     */
+    public byte[] encryptWithECIESRaw(byte[] data, PublicKey publicKey, EciesFormat format) {
+        if (data == null) {
+            throw new RuntimeException("Data cannot be null");
         }
-        if (!(publicKey instanceof ECPublicKey)) {
-            throw new RuntimeException("Public key must be an EC public key");
+        byte[] ciphertext = new byte[requireFormat(format).ciphertextLength(data.length)];
+        return offload(CryptoPriority.INTERACTIVE, () -> {
+            try {
+                int offset = writeEciesHeader(format, ciphertext);
+                eciesCipher(Cipher.ENCRYPT_MODE, requireECPublicKey(publicKey), format).doFinal(data, 0, data.length, ciphertext, offset);
+                return ciphertext;
+            } catch (GeneralSecurityException e) {
+                throw new RuntimeException("Failed to encrypt data with ECIES: " + e.getMessage(), e);
+            }
+        });
+    }
+    
+    /**
+     * Encrypts the remaining bytes of {@code plaintext} into {@code ciphertext}, advancing both
+     * positions. {@code ciphertext} needs {@link #eciesCiphertextLength} bytes remaining.
+     *
+     * @return the number of bytes written to {@code ciphertext}
+     */
+    public int encryptWithECIES(ByteBuffer plaintext, ByteBuffer ciphertext, PublicKey publicKey) {
+        return encryptWithECIES(plaintext, ciphertext, publicKey, EciesFormat.LEGACY);
+    }
+    
+    /**
+     * As {@link #encryptWithECIES(ByteBuffer, ByteBuffer, PublicKey)}, in the given format.
+     * {@code ciphertext} needs {@link EciesFormat#ciphertextLength} bytes remaining.
+     */
+    public int encryptWithECIES(ByteBuffer plaintext, ByteBuffer ciphertext, PublicKey publicKey, EciesFormat format) {
+        if (plaintext == null || ciphertext == null) {
+            throw new RuntimeException("Data cannot be null");
         }
-
-        try {
-            // Create ECIES cipher with BouncyCastle provider
-            Cipher cipher = Cipher.getInstance(ECIES_ALGORITHM, "BC");
-
-            // Configure ECIES parameters for secure encryption
-            // IESParameterSpec(derivation, encoding, macKeySize, cipherKeySize, nonce, usePointCompression)
-            IESParameterSpec iesParams = new IESParameterSpec(
-                DERIVATION_VECTOR,  // derivation vector for KDF2
-                ENCODING_VECTOR,    // encoding vector for MAC
-                MAC_KEY_SIZE,       // MAC key size in bits
-                CIPHER_KEY_SIZE,    // cipher key size in bits
-                null,               // nonce (null for random)
-                false               // use point compression
-            );
-
-            // Initialize cipher for encryption
-            cipher.init(Cipher.ENCRYPT_MODE, publicKey, iesParams);
-
-            // Encrypt the data
-            byte[] encryptedBytes = cipher.doFinal(data.getBytes("UTF-8"));
-
-            // Return Base64-encoded result
-            return Base64.getEncoder().encodeToString(encryptedBytes);
-
-        } catch (Exception e) {
-            throw new RuntimeException("Failed to encrypt data with ECIES: " + e.getMessage(), e);
+        if (ciphertext.remaining() < requireFormat(format).ciphertextLength(plaintext.remaining())) {
+            throw new RuntimeException("Failed to encrypt data with ECIES: output buffer too short");
         }
+        return offload(CryptoPriority.INTERACTIVE, () -> {
+            try {
+                Cipher cipher = eciesCipher(Cipher.ENCRYPT_MODE, requireECPublicKey(publicKey), format);
+                if (format == EciesFormat.LEGACY) {
+                    return cipher.doFinal(plaintext, ciphertext);
+                }
+                // BouncyCastle sizes its output for an uncompressed point and would refuse an exact-size buffer
+                byte[] input = new byte[plaintext.remaining()];
+                plaintext.get(input);
+                ciphertext.put(EciesFormat.HEADER_MARKER).put(EciesFormat.COMPACT_SUITE).put(cipher.doFinal(input));
+                return format.ciphertextLength(input.length);
+            } catch (GeneralSecurityException e) {
+                throw new RuntimeException("Failed to encrypt data with ECIES: " + e.getMessage(), e);
+            }
+        });
     }
     
     /**
@@ -153,7 +317,8 @@ public class CryptographyService {
      * - Verifies the HMAC for authentication
      * - Decrypts the data using AES
      *
-     * @param encryptedData Base64-encoded encrypted data
+     * @param encryptedData encrypted data in either {@link EciesFormat}: standard Base64 or
+     *        Base64url, with or without padding
      * @param privateKey The recipient's EC private key
      * @return The decrypted plaintext data
      */
@@ -161,41 +326,128 @@ public class CryptographyService {
         if (encryptedData == null) {
             throw new RuntimeException("Encrypted data cannot be null");
         }
+        requireECPrivateKey(privateKey);
+        byte[] encryptedBytes;
+        try {
+            // Both decoders accept unpadded input, and agree on anything without '-' or '_'
+            boolean urlSafe = encryptedData.indexOf('-') >= 0 || encryptedData.indexOf('_') >= 0;
+            encryptedBytes = (urlSafe ? Base64.getUrlDecoder() : Base64.getDecoder()).decode(encryptedData);
+        } catch (IllegalArgumentException e) {
+            throw new RuntimeException("Failed to decrypt data with ECIES: " + e.getMessage(), e);
+        }
+        return new String(decryptWithECIESRaw(encryptedBytes, privateKey), StandardCharsets.UTF_8);
+    }
+    
+    /**
+     * Binary form of {@link #decryptWithECIES(String, PrivateKey)}; accepts either
+     * {@link EciesFormat}.
+     */
+    public byte[] decryptWithECIESRaw(byte[] encryptedData, PrivateKey privateKey) {
+        if (encryptedData == null) {
+            throw new RuntimeException("Encrypted data cannot be null");
+        }
+        return offload(CryptoPriority.INTERACTIVE, () -> {
+            try {
+                EciesFormat format = encryptedData.length < 2 ? EciesFormat.LEGACY : eciesFormat(encryptedData[0], encryptedData[1]);
+                int offset = format.headerLength();
+                return eciesCipher(Cipher.DECRYPT_MODE, requireECPrivateKey(privateKey), format)
+                    .doFinal(encryptedData, offset, encryptedData.length - offset);
+            } catch (GeneralSecurityException e) {
+                throw new RuntimeException("Failed to decrypt data with ECIES: " + e.getMessage(), e);
+            }
+        });
+    }
+    
+    /**
+     * Decrypts the remaining bytes of {@code ciphertext}, in either {@link EciesFormat}, into
+     * {@code plaintext}, advancing both positions. {@code plaintext} needs
+     * {@code ciphertext.remaining()} bytes remaining.
+     *
+     * @return the number of bytes written to {@code plaintext}
+     */
+    public int decryptWithECIES(ByteBuffer ciphertext, ByteBuffer plaintext, PrivateKey privateKey) {
+        if (ciphertext == null || plaintext == null) {
+            throw new RuntimeException("Encrypted data cannot be null");
+        }
+        return offload(CryptoPriority.INTERACTIVE, () -> {
+            try {
+                int position = ciphertext.position();
+                EciesFormat format = ciphertext.remaining() < 2
+                    ? EciesFormat.LEGACY
+                    : eciesFormat(ciphertext.get(position), ciphertext.get(position + 1));
+                Cipher cipher = eciesCipher(Cipher.DECRYPT_MODE, requireECPrivateKey(privateKey), format);
+                ciphertext.position(position + format.headerLength());
+                return cipher.doFinal(ciphertext, plaintext);
+            } catch (GeneralSecurityException e) {
+                throw new RuntimeException("Failed to decrypt data with ECIES: " + e.getMessage(), e);
+            }
+        });
+    }
+    
+    /**
+     * @return the {@link EciesFormat#LEGACY} ciphertext length for {@code plaintextLength}
+     *         bytes: the uncompressed ephemeral point, the encrypted bytes and the MAC
+     */
+    public static int eciesCiphertextLength(int plaintextLength) {
+        return EciesFormat.LEGACY.ciphertextLength(plaintextLength);
+    }
+    
+    // ECDSA, ECIES and key generation run on the crypto workers, which bound how many run at once
+    private <T> T offload(CryptoPriority priority, Supplier<T> operation) {
+        return cryptoExecutor != null ? cryptoExecutor.call(priority, operation) : operation.get();
+    }
+    
+    // Per-thread ECIES cipher, re-initialized for this call
+    private static Cipher eciesCipher(int mode, Key key, EciesFormat format) throws GeneralSecurityException {
+        Cipher cipher = CryptoEngines.ecies();
+        cipher.init(mode, key, format == EciesFormat.COMPACT ? CryptoEngines.IES_COMPACT_PARAMETERS : CryptoEngines.IES_PARAMETERS);
+        return cipher;
+    }
+    
+    // A ciphertext without the header marker is legacy; it starts with the point's 0x04 tag
+    private static EciesFormat eciesFormat(byte first, byte second) throws GeneralSecurityException {
+        if (first != EciesFormat.HEADER_MARKER) {
+            return EciesFormat.LEGACY;
+        }
+        if (second != EciesFormat.COMPACT_SUITE) {
+            throw new GeneralSecurityException("unsupported ciphersuite " + (second & 0xFF));
+        }
+        return EciesFormat.COMPACT;
+    }
+    
+    private static int writeEciesHeader(EciesFormat format, byte[] ciphertext) {
+        if (format == EciesFormat.COMPACT) {
+            ciphertext[0] = EciesFormat.HEADER_MARKER;
+            ciphertext[1] = EciesFormat.COMPACT_SUITE;
+        }
+        return format.headerLength();
+    }
+    
+    private static EciesFormat requireFormat(EciesFormat format) {
+        if (format == null) {
+            throw new RuntimeException("ECIES format cannot be null");
+        }
+        return format;
+    }
+    
+    private static PublicKey requireECPublicKey(PublicKey publicKey) {
+        if (publicKey == null) {
+            throw new RuntimeException("Public key cannot be null");
+        }
+        if (!(publicKey instanceof ECPublicKey)) {
+            throw new RuntimeException("Public key must be an EC public key");
+        }
+        return publicKey;
+    }
+    
+    private static PrivateKey requireECPrivateKey(PrivateKey privateKey) {
         if (privateKey == null) {
             throw new RuntimeException("Private key cannot be null");
         }
         if (!(privateKey instanceof ECPrivateKey)) {
             throw new RuntimeException("Private key must be an EC private key");
         }
-
-        try {
-            // Create ECIES cipher with BouncyCastle provider
-            Cipher cipher = Cipher.getInstance(ECIES_ALGORITHM, "BC");
-
-            // Configure ECIES parameters (must match encryption parameters)
-            // IESParameterSpec(derivation, encoding, macKeySize, cipherKeySize, nonce, usePointCompression)
-            IESParameterSpec iesParams = new IESParameterSpec(
-                DERIVATION_VECTOR,  // derivation vector for KDF2
-                ENCODING_VECTOR,    // encoding vector for MAC
-                MAC_KEY_SIZE,       // MAC key size in bits
-                CIPHER_KEY_SIZE,    // cipher key size in bits
-                null,               // nonce (null for random)
-                false               // use point compression
-            );
-
-            // Initialize cipher for decryption
-            cipher.init(Cipher.DECRYPT_MODE, privateKey, iesParams);
-
-            // Decode and decrypt the data
-            byte[] encryptedBytes = Base64.getDecoder().decode(encryptedData);
-            byte[] decryptedBytes = cipher.doFinal(encryptedBytes);
-
-            // Return the decrypted string
-            return new String(decryptedBytes, "UTF-8");
-
-        } catch (Exception e) {
-            throw new RuntimeException("Failed to decrypt data with ECIES: " + e.getMessage(), e);
-        }
+        return privateKey;
     }
 
     /**
@@ -0,0 +1,47 @@
+package com.vehicleoem.security;
+
+/**
+ * Wire formats of {@link CryptographyService} ECIES ciphertexts. Both use the same
+ * BouncyCastle ECIES (KDF2 and HMAC-SHA1 over P-256); they differ only in framing.
+ * Decryption tells them apart by the first byte, so callers never need to say which one
+ * they hold.
+ */
+public enum EciesFormat {
+
+    /**
+     * Bare ECIES output starting with the 65-byte uncompressed ephemeral point; standard
+     * Base64 as a string. Every ciphertext produced before compact framing existed.
+     */
+    LEGACY(0, 65),
+
+    /**
+     * A two-byte ciphersuite header (marker {@code 0xEC}, suite {@code 0x01}) followed by ECIES
+     * output with a 33-byte compressed ephemeral point; unpadded Base64url as a string. A
+     * legacy ciphertext always starts with {@code 0x04}, so the marker cannot be mistaken for one.
+     */
+    COMPACT(2, 33);
+
+    static final byte HEADER_MARKER = (byte) 0xEC;
+    static final byte COMPACT_SUITE = 0x01;
+
+    private static final int MAC_LENGTH = 20; // HMAC-SHA1
+
+    private final int headerLength;
+    private final int pointLength;
+
+    EciesFormat(int headerLength, int pointLength) {
+        this.headerLength = headerLength;
+        this.pointLength = pointLength;
+    }
+
+    /**
+     * @return the ciphertext length in this format for {@code plaintextLength} bytes
+     */
+    public int ciphertextLength(int plaintextLength) {
+        return headerLength + pointLength + plaintextLength + MAC_LENGTH;
+    }
+
+    int headerLength() {
+        return headerLength;
+    }
+}
@@ -0,0 +1,108 @@
+package com.vehicleoem.security;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import java.security.KeyPair;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * Keeps a bounded number of P-256 key pairs generated ahead of time, so that pairing and
+ * vehicle onboarding don't wait on EC key generation. A minimum-priority background thread
+ * tops the pool up whenever a key pair is taken, generating as {@link CryptoPriority#BULK}
+ * work so that it yields to requests waiting on crypto. When the pool is empty, {@link #take()}
+ * generates a key pair inline, exactly as callers did before, and counts a miss.
+ * <p>
+ * Each key pair is handed out once and never reused.
+ */
+@Component
+public class KeyPairPool {
+
+    private static final long RETRY_DELAY_MS = 1000;
+
+    @Autowired
+    private CryptographyService cryptographyService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${key-pair-pool.enabled:true}")
+    private boolean enabled;
+
+    @Value("${key-pair-pool.capacity:32}")
+    private int capacity;
+
+    private BlockingQueue<KeyPair> pool;
+    private Thread refiller;
+    private Counter hits;
+    private Counter misses;
+
+    @PostConstruct
+    void start() {
+        pool = new ArrayBlockingQueue<>(Math.max(1, capacity));
+        Gauge.builder("key_pair_pool.depth", this, KeyPairPool::getDepth)
+            .description("Pre-generated key pairs ready to hand out")
+            .register(meterRegistry);
+        hits = Counter.builder("key_pair_pool.hits")
+            .description("Key pairs served from the pool")
+            .register(meterRegistry);
+        misses = Counter.builder("key_pair_pool.misses")
+            .description("Key pairs generated inline because the pool was empty")
+            .register(meterRegistry);
+
+        if (enabled) {
+            refiller = new Thread(this::refill, "key-pair-pool-refill");
+            refiller.setDaemon(true);
+            refiller.setPriority(Thread.MIN_PRIORITY);
+            refiller.start();
+        }
+    }
+
+    @PreDestroy
+    void stop() {
+        if (refiller != null) {
+            refiller.interrupt();
+        }
+    }
+
+    /**
+     * @return a key pair no other caller has seen
+     */
+    public KeyPair take() {
+        KeyPair keyPair = pool.poll();
+        if (keyPair != null) {
+            hits.increment();
+            return keyPair;
+        }
+        misses.increment();
+        return cryptographyService.generateECKeyPair();
+    }
+
+    public int getDepth() {
+        return pool.size();
+    }
+
+    // Blocks on put() while the pool is full, so the thread only works after a take()
+    private void refill() {
+        while (!Thread.currentThread().isInterrupted()) {
+            try {
+                pool.put(cryptographyService.generateECKeyPair(CryptoPriority.BULK));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (RuntimeException e) {
+                System.err.println("Failed to pre-generate key pair: " + e.getMessage());
+                try {
+                    Thread.sleep(RETRY_DELAY_MS);
+                } catch (InterruptedException ie) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,202 @@
+package com.vehicleoem.security;
+
+import org.bouncycastle.asn1.x9.X9ECParameters;
+import org.bouncycastle.crypto.digests.SHA256Digest;
+import org.bouncycastle.crypto.ec.CustomNamedCurves;
+import org.bouncycastle.crypto.params.ECDomainParameters;
+import org.bouncycastle.crypto.params.ECPrivateKeyParameters;
+import org.bouncycastle.crypto.signers.ECDSASigner;
+import org.bouncycastle.crypto.signers.HMacDSAKCalculator;
+import org.bouncycastle.crypto.signers.StandardDSAEncoding;
+import org.bouncycastle.math.ec.ECCurve;
+import org.bouncycastle.math.ec.ECLookupTable;
+import org.bouncycastle.math.ec.ECMultiplier;
+import org.bouncycastle.math.ec.ECPoint;
+import org.bouncycastle.math.ec.FixedPointCombMultiplier;
+import org.bouncycastle.math.raw.Nat256;
+import java.io.IOException;
+import java.math.BigInteger;
+import java.security.KeyPair;
+import java.security.PublicKey;
+import java.security.interfaces.ECPrivateKey;
+import java.util.Base64;
+
+/**
+ * Signs with the one Vehicle OEM key that issues and cross-signs every certificate. The
+ * signatures are SHA256withECDSA in the same DER encoding as
+ * {@link CryptographyService#signData}, so the same verifiers accept them. Two things make
+ * them cheaper to produce:
+ * <ul>
+ *   <li>The nonce is derived from the key and message as in RFC 6979, so signing draws
+ *       nothing from {@code SecureRandom}, and signing the same data twice gives the same
+ *       signature.</li>
+ *   <li>The key is held as BouncyCastle parameters on its optimized P-256 curve. Each
+ *       signature's {@code k * G} uses a {@link BaseTable} precomputed once per process
+ *       and held for its lifetime, instead of BouncyCastle's default comb. The table has
+ *       more entries, so the multiplication needs no point doublings and fewer
+ *       additions.</li>
+ * </ul>
+ * The signer is safe for concurrent use. Each thread has its own digest and ECDSA engine,
+ * and the table is read-only once built.
+ */
+public final class OemKeySigner {
+
+    private static final X9ECParameters P256 = CustomNamedCurves.getByName(CryptoEngines.CURVE_NAME);
+
+    private final PublicKey publicKey;
+    private final ECPrivateKeyParameters privateKey;
+    private final ThreadLocal<Engine> engines;
+
+    public OemKeySigner(KeyPair keyPair) {
+        if (keyPair == null || !(keyPair.getPrivate() instanceof ECPrivateKey ecPrivateKey)) {
+            throw new IllegalArgumentException("OEM key must be an EC key pair");
+        }
+        if (!ecPrivateKey.getParams().getOrder().equals(P256.getN())) {
+            throw new IllegalArgumentException("OEM key must be on " + CryptoEngines.CURVE_NAME);
+        }
+        ECDomainParameters domain = new ECDomainParameters(P256.getCurve(), BaseTable.P256.base, P256.getN(), P256.getH());
+        this.publicKey = keyPair.getPublic();
+        this.privateKey = new ECPrivateKeyParameters(ecPrivateKey.getS(), domain);
+        this.engines = ThreadLocal.withInitial(() -> new Engine(privateKey));
+    }
+
+    public PublicKey getPublicKey() {
+        return publicKey;
+    }
+
+    /**
+     * @return the Base64 DER-encoded signature, as {@link CryptographyService#signData} returns
+     */
+    public String sign(byte[] data) {
+        return Base64.getEncoder().encodeToString(signRaw(data));
+    }
+
+    /**
+     * @return the DER-encoded signature
+     */
+    public byte[] signRaw(byte[] data) {
+        if (data == null || data.length == 0) {
+            throw new RuntimeException("Data cannot be null or empty");
+        }
+        try {
+            return engines.get().sign(data);
+        } catch (IOException | RuntimeException e) {
+            throw new RuntimeException("Failed to sign data", e);
+        }
+    }
+
+    // Not thread-safe: the digest and the RFC 6979 nonce generator carry state within a call
+    private static final class Engine {
+        private final SHA256Digest digest = new SHA256Digest();
+        private final byte[] hash = new byte[digest.getDigestSize()];
+        private final ECDSASigner signer = new ECDSASigner(new HMacDSAKCalculator(new SHA256Digest())) {
+            @Override
+            protected ECMultiplier createBasePointMultiplier() {
+                return BaseTable.P256;
+            }
+        };
+        private final BigInteger order;
+
+        private Engine(ECPrivateKeyParameters privateKey) {
+            signer.init(true, privateKey);
+            order = privateKey.getParameters().getN();
+        }
+
+        private byte[] sign(byte[] data) throws IOException {
+            digest.update(data, 0, data.length);
+            digest.doFinal(hash, 0);
+            BigInteger[] rs = signer.generateSignature(hash);
+            return StandardDSAEncoding.INSTANCE.encode(order, rs[0], rs[1]);
+        }
+    }
+
+    /**
+     * Fixed-base multiplication by signed windows. A scalar {@code k} is recoded into
+     * {@code steps + 1} odd digits {@code d_i} in {@code [-(2^w - 1), 2^w - 1]} with
+     * {@code k = sum(d_i * 2^(w * i))}, so that {@code k * G} is the sum of one entry from each
+     * window's table of {@code ±1, ±3, ..., ±(2^w - 1)} times {@code 2^(w * i) * G}. That is
+     * 53 additions of precomputed affine points for P-256 with {@code w = 5}, where the
+     * default comb needs 43 doublings and 43 additions. Every digit is non-zero, so every
+     * window is added, and entries are read with BouncyCastle's cache-safe lookup, which
+     * touches the whole window whichever digit is selected. Even scalars are replaced by
+     * {@code n - k}, which is odd, and the result negated.
+     * <p>
+     * The tables hold 53 x 32 points, about 100 KB.
+     */
+    static final class BaseTable implements ECMultiplier {
+
+        static final BaseTable P256 = new BaseTable(OemKeySigner.P256.getG(), OemKeySigner.P256.getN());
+
+        private static final int WIDTH = 5;
+        private static final int SIZE = 1 << WIDTH;
+
+        private final ECPoint base;
+        private final BigInteger order;
+        private final int steps;
+        private final ECLookupTable[] windows;
+        private final ECMultiplier fallback = new FixedPointCombMultiplier();
+
+        BaseTable(ECPoint base, BigInteger order) {
+            if (order.bitLength() > 256) {
+                throw new IllegalArgumentException("Base table supports orders up to 256 bits");
+            }
+            ECCurve curve = base.getCurve();
+            this.base = base.normalize();
+            this.order = order;
+            this.steps = (order.bitLength() + WIDTH - 1) / WIDTH;
+            this.windows = new ECLookupTable[steps + 1];
+            ECPoint windowBase = this.base;
+            for (int i = 0; i <= steps; i++) {
+                // Entry (d + SIZE - 1) / 2 holds d * windowBase for odd d
+                ECPoint[] points = new ECPoint[SIZE];
+                ECPoint twice = windowBase.twice();
+                ECPoint multiple = windowBase;
+                for (int j = 0; j < SIZE / 2; j++) {
+                    points[SIZE / 2 + j] = multiple;
+                    points[SIZE / 2 - 1 - j] = multiple.negate();
+                    multiple = multiple.add(twice);
+                }
+                curve.normalizeAll(points);
+                windows[i] = curve.createCacheSafeLookupTable(points, 0, SIZE);
+                windowBase = windowBase.timesPow2(WIDTH).normalize();
+            }
+        }
+
+        @Override
+        public ECPoint multiply(ECPoint point, BigInteger k) {
+            if (point != base && !point.equals(base)) {
+                return fallback.multiply(point, k);
+            }
+            BigInteger scalar = k.mod(order);
+            if (scalar.signum() == 0) {
+                return base.getCurve().getInfinity();
+            }
+            boolean negate = !scalar.testBit(0);
+            if (negate) {
+                scalar = order.subtract(scalar);
+            }
+
+            // Digit i is bits [w * i, w * i + w] of the scalar with the lowest forced to 1, less
+            // 2^w; the last is what remains above the top window, always 1 below the order
+            int[] words = Nat256.fromBigInteger(scalar);
+            ECPoint result = base.getCurve().getInfinity();
+            for (int i = 0; i <= steps; i++) {
+                int digit = (bits(words, WIDTH * i, WIDTH + 1) | 1) - (i < steps ? SIZE : 0);
+                result = result.add(windows[i].lookup((digit + SIZE - 1) >>> 1));
+            }
+            return negate ? result.negate() : result;
+        }
+
+        private static int bits(int[] words, int offset, int count) {
+            int word = offset >>> 5;
+            if (word >= words.length) {
+                return 0;
+            }
+            long value = words[word] & 0xFFFFFFFFL;
+            if (word + 1 < words.length) {
+                value |= (words[word + 1] & 0xFFFFFFFFL) << 32;
+            }
+            return (int) (value >>> (offset & 31)) & ((1 << count) - 1);
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package com.vehicleoem.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import java.nio.ByteBuffer;
+import java.security.GeneralSecurityException;
+import java.security.KeyFactory;
+import java.security.PublicKey;
+import java.security.interfaces.ECPublicKey;
+import java.security.spec.X509EncodedKeySpec;
+import java.util.Base64;
+
+/**
+ * Parsed public keys by fingerprint. Device and vehicle keys are stored as Base64 X.509
+ * SubjectPublicKeyInfo, and parsing one means ASN.1 decoding plus decoding and validating the
+ * curve point. A key seen again only costs a SHA-256 over its encoding.
+ * <p>
+ * The fingerprint is the SHA-256 of the DER encoding, so a key maps to the same entry whether
+ * it arrives as Base64 or as bytes. Entries are evicted by size only, as public keys never
+ * go stale.
+ */
+@Component
+public class PublicKeyCache {
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${public-key-cache.maximum-size:10000}")
+    private long maximumSize;
+
+    private Cache<Fingerprint, PublicKey> keys;
+
+    @PostConstruct
+    void init() {
+        keys = Caffeine.newBuilder()
+            .maximumSize(maximumSize)
+            .recordStats()
+            .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, keys, "public_keys");
+    }
+
+    /**
+     * @param encodedKey Base64 X.509 SubjectPublicKeyInfo, as stored on keys and pairing sessions
+     * @throws IllegalArgumentException if the encoding is not valid Base64 or not a valid EC
+     *         public key
+     */
+    public PublicKey get(String encodedKey) {
+        if (encodedKey == null) {
+            throw new IllegalArgumentException("Public key cannot be null");
+        }
+        return get(Base64.getDecoder().decode(encodedKey));
+    }
+
+    /**
+     * @param encodedKey DER X.509 SubjectPublicKeyInfo
+     * @throws IllegalArgumentException if the encoding is not a valid EC public key
+     */
+    public PublicKey get(byte[] encodedKey) {
+        if (encodedKey == null || encodedKey.length == 0) {
+            throw new IllegalArgumentException("Public key cannot be null or empty");
+        }
+        return keys.get(Fingerprint.of(encodedKey), fingerprint -> parse(encodedKey));
+    }
+
+    public long size() {
+        return keys.estimatedSize();
+    }
+
+    static PublicKey parse(byte[] encodedKey) {
+        try {
+            PublicKey key = KeyFactory.getInstance("EC", CryptoEngines.BC).generatePublic(new X509EncodedKeySpec(encodedKey));
+            if (!(key instanceof ECPublicKey)) {
+                throw new IllegalArgumentException("Public key must be an EC public key");
+            }
+            return key;
+        } catch (GeneralSecurityException | IllegalStateException e) {
+            throw new IllegalArgumentException("Invalid public key encoding: " + e.getMessage(), e);
+        }
+    }
+
+    private record Fingerprint(long a, long b, long c, long d) {
+        static Fingerprint of(byte[] encodedKey) {
+            ByteBuffer digest = ByteBuffer.wrap(CryptoEngines.sha256().digest(encodedKey));
+            return new Fingerprint(digest.getLong(), digest.getLong(), digest.getLong(), digest.getLong());
+        }
+    }
+}
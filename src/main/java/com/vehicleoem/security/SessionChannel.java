@@ -0,0 +1,397 @@
+package com.vehicleoem.security;
+
+import com.vehicleoem.exception.SessionExpiredException;
+import org.bouncycastle.crypto.digests.SHA256Digest;
+import org.bouncycastle.crypto.generators.HKDFBytesGenerator;
+import org.bouncycastle.crypto.params.HKDFParameters;
+import javax.crypto.Cipher;
+import javax.crypto.KeyAgreement;
+import javax.crypto.spec.GCMParameterSpec;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.PrivateKey;
+import java.security.PublicKey;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.function.LongSupplier;
+
+/**
+ * One end of a session-keyed channel between a vehicle and the OEM backend. A single ECDH
+ * agreement, between the OEM's ephemeral key and the vehicle's key, seeds one HKDF-SHA256
+ * key chain per direction. Each message is then only an AES-256-GCM seal or open, where an
+ * {@link CryptographyService#encryptWithECIES} message would pay for an ECDH and a KDF.
+ * <p>
+ * Message format, big-endian:
+ * <pre>
+ * version (1) | session id (16) | epoch (4) | counter (8) | ciphertext + 16-byte tag
+ * </pre>
+ * The header is authenticated as associated data, and the epoch and counter form the GCM
+ * nonce. The sender moves to the next epoch once {@link Policy#rekeyMessages()} messages or
+ * {@link Policy#rekeyInterval()} have passed on the current one. Each epoch's key and the next
+ * chain key come from the current chain key, which is then wiped. A key that leaks therefore
+ * exposes neither earlier epochs nor, once replaced, later ones. The receiver follows up to 16
+ * epochs ahead, but only once a message from the new epoch authenticates, and keeps the
+ * previous epoch's key for messages still in flight. Counters are checked against a 64-message
+ * window, so reordered messages are accepted and replayed ones are not. After
+ * {@link Policy#ttl()} the channel refuses all messages and a new handshake is needed.
+ * <p>
+ * Sealing and opening are each serialized per channel, so either can be called from any thread.
+ */
+public final class SessionChannel {
+
+    public enum Role { OEM, VEHICLE }
+
+    /**
+     * @param ttl how long the channel may be used after the handshake
+     * @param rekeyInterval the longest an epoch key is used for sending
+     * @param rekeyMessages the most messages sent under one epoch key
+     */
+    public record Policy(Duration ttl, Duration rekeyInterval, long rekeyMessages) {
+        public Policy {
+            if (ttl == null || rekeyInterval == null || ttl.isNegative() || ttl.isZero()
+                || rekeyInterval.isNegative() || rekeyInterval.isZero() || rekeyMessages <= 0) {
+                throw new IllegalArgumentException("TTL, rekey interval and rekey messages must be positive");
+            }
+        }
+    }
+
+    static final byte VERSION = 1;
+    static final int SESSION_ID_LENGTH = 16;
+    static final int HEADER_LENGTH = 1 + SESSION_ID_LENGTH + 4 + 8;
+    static final int TAG_LENGTH = 16; // bytes
+
+    private static final int NONCE_OFFSET = 1 + SESSION_ID_LENGTH;
+    private static final int NONCE_LENGTH = 12;
+    private static final int MAX_EPOCH_SKIP = 16;
+    private static final int REPLAY_WINDOW = 64;
+    private static final byte[] KDF_LABEL = "vehicle-oem session v1".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] VEHICLE_TO_OEM = "vehicle to oem".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] OEM_TO_VEHICLE = "oem to vehicle".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] KEY_INFO = "key".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] CHAIN_INFO = "chain".getBytes(StandardCharsets.US_ASCII);
+
+    private final byte[] sessionId;
+    private final String id;
+    private final Policy policy;
+    private final LongSupplier nanoTime;
+    private final Runnable onRekey;
+    private final long establishedAt;
+    private final Sender sender;
+    private final Receiver receiver;
+
+    private SessionChannel(byte[] sessionId, Policy policy, LongSupplier nanoTime, Runnable onRekey,
+                           byte[] sendChain, byte[] receiveChain) {
+        this.sessionId = sessionId.clone();
+        this.id = encodeSessionId(sessionId);
+        this.policy = policy;
+        this.nanoTime = nanoTime;
+        this.onRekey = onRekey;
+        this.establishedAt = nanoTime.getAsLong();
+        this.sender = new Sender(sendChain);
+        this.receiver = new Receiver(receiveChain);
+    }
+
+    /**
+     * Completes the handshake on one end. The OEM passes its ephemeral private key and the
+     * vehicle's public key, and the vehicle passes its private key and the OEM's ephemeral
+     * public key; both must use the session id chosen by the OEM.
+     */
+    public static SessionChannel establish(Role role, byte[] sessionId, PrivateKey ownKey, PublicKey peerKey,
+                                           Policy policy) {
+        return establish(role, sessionId, ownKey, peerKey, policy, System::nanoTime, () -> { });
+    }
+
+    static SessionChannel establish(Role role, byte[] sessionId, PrivateKey ownKey, PublicKey peerKey,
+                                    Policy policy, LongSupplier nanoTime, Runnable onRekey) {
+        if (role == null || policy == null) {
+            throw new IllegalArgumentException("Role and policy cannot be null");
+        }
+        if (sessionId == null || sessionId.length != SESSION_ID_LENGTH) {
+            throw new IllegalArgumentException("Session id must be " + SESSION_ID_LENGTH + " bytes");
+        }
+        if (ownKey == null || peerKey == null) {
+            throw new IllegalArgumentException("Keys cannot be null");
+        }
+        byte[] secret;
+        try {
+            KeyAgreement agreement = KeyAgreement.getInstance("ECDH", CryptoEngines.BC);
+            agreement.init(ownKey);
+            agreement.doPhase(peerKey, true);
+            secret = agreement.generateSecret();
+        } catch (GeneralSecurityException e) {
+            throw new RuntimeException("Failed to agree session key: " + e.getMessage(), e);
+        }
+        try {
+            byte[] toOem = hkdf(new HKDFParameters(secret, sessionId, concat(KDF_LABEL, VEHICLE_TO_OEM)));
+            byte[] toVehicle = hkdf(new HKDFParameters(secret, sessionId, concat(KDF_LABEL, OEM_TO_VEHICLE)));
+            return role == Role.OEM
+                ? new SessionChannel(sessionId, policy, nanoTime, onRekey, toVehicle, toOem)
+                : new SessionChannel(sessionId, policy, nanoTime, onRekey, toOem, toVehicle);
+        } finally {
+            Arrays.fill(secret, (byte) 0);
+        }
+    }
+
+    /**
+     * @return the session id as unpadded Base64url, as used in the session table
+     */
+    public String getId() {
+        return id;
+    }
+
+    public boolean isExpired() {
+        return nanoTime.getAsLong() - establishedAt >= policy.ttl().toNanos();
+    }
+
+    /**
+     * @throws SessionExpiredException if the channel's TTL has passed
+     */
+    public byte[] seal(byte[] plaintext) {
+        if (plaintext == null) {
+            throw new RuntimeException("Plaintext cannot be null");
+        }
+        requireLive();
+        return sender.seal(plaintext);
+    }
+
+    /**
+     * @throws SessionExpiredException if the channel's TTL has passed
+     * @throws RuntimeException if the message is malformed, for another session, replayed or
+     *         fails authentication
+     */
+    public byte[] open(byte[] message) {
+        if (message == null || message.length < HEADER_LENGTH + TAG_LENGTH || message[0] != VERSION) {
+            throw new RuntimeException("Failed to open session message: malformed message");
+        }
+        if (!Arrays.equals(message, 1, 1 + SESSION_ID_LENGTH, sessionId, 0, SESSION_ID_LENGTH)) {
+            throw new RuntimeException("Failed to open session message: wrong session");
+        }
+        requireLive();
+        return receiver.open(message);
+    }
+
+    /**
+     * Wipes the chain keys; the channel can no longer seal or open messages.
+     */
+    public void destroy() {
+        sender.destroy();
+        receiver.destroy();
+    }
+
+    /**
+     * @return the session id of a sealed message, or {@code null} if it is not one
+     */
+    static String sessionIdOf(byte[] message) {
+        if (message == null || message.length < HEADER_LENGTH || message[0] != VERSION) {
+            return null;
+        }
+        return encodeSessionId(Arrays.copyOfRange(message, 1, 1 + SESSION_ID_LENGTH));
+    }
+
+    static String encodeSessionId(byte[] sessionId) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(sessionId);
+    }
+
+    private void requireLive() {
+        if (isExpired()) {
+            throw SessionExpiredException.expired(id);
+        }
+    }
+
+    private static byte[] hkdf(HKDFParameters parameters) {
+        HKDFBytesGenerator generator = new HKDFBytesGenerator(new SHA256Digest());
+        generator.init(parameters);
+        byte[] output = new byte[32];
+        generator.generateBytes(output, 0, output.length);
+        return output;
+    }
+
+    private static SecretKeySpec epochKey(byte[] chain) {
+        byte[] key = hkdf(HKDFParameters.skipExtractParameters(chain, KEY_INFO));
+        try {
+            return new SecretKeySpec(key, "AES");
+        } finally {
+            Arrays.fill(key, (byte) 0);
+        }
+    }
+
+    // Replaces the chain key with the next one and wipes it
+    private static byte[] nextChain(byte[] chain) {
+        byte[] next = hkdf(HKDFParameters.skipExtractParameters(chain, CHAIN_INFO));
+        Arrays.fill(chain, (byte) 0);
+        return next;
+    }
+
+    private static byte[] concat(byte[] a, byte[] b) {
+        byte[] result = Arrays.copyOf(a, a.length + b.length);
+        System.arraycopy(b, 0, result, a.length, b.length);
+        return result;
+    }
+
+    private final class Sender {
+        private byte[] chain;
+        private SecretKeySpec key;
+        private int epoch;
+        private long counter;
+        private long epochStart;
+
+        private Sender(byte[] chain) {
+            this.key = epochKey(chain);
+            this.chain = nextChain(chain);
+            this.epochStart = nanoTime.getAsLong();
+        }
+
+        private synchronized byte[] seal(byte[] plaintext) {
+            if (chain == null) {
+                throw new RuntimeException("Failed to seal session message: channel destroyed");
+            }
+            long now = nanoTime.getAsLong();
+            if (counter >= policy.rekeyMessages() || now - epochStart >= policy.rekeyInterval().toNanos()) {
+                key = epochKey(chain);
+                chain = nextChain(chain);
+                epoch++;
+                counter = 0;
+                epochStart = now;
+                onRekey.run();
+            }
+
+            byte[] message = new byte[HEADER_LENGTH + plaintext.length + TAG_LENGTH];
+            ByteBuffer.wrap(message).put(VERSION).put(sessionId).putInt(epoch).putLong(counter++);
+            try {
+                Cipher cipher = CryptoEngines.aesGcm();
+                cipher.init(Cipher.ENCRYPT_MODE, key, new GCMParameterSpec(TAG_LENGTH * 8, message, NONCE_OFFSET, NONCE_LENGTH));
+                cipher.updateAAD(message, 0, HEADER_LENGTH);
+                cipher.doFinal(plaintext, 0, plaintext.length, message, HEADER_LENGTH);
+                return message;
+            } catch (GeneralSecurityException e) {
+                throw new RuntimeException("Failed to seal session message: " + e.getMessage(), e);
+            }
+        }
+
+        private synchronized void destroy() {
+            if (chain != null) {
+                Arrays.fill(chain, (byte) 0);
+                chain = null;
+            }
+            key = null;
+        }
+    }
+
+    private final class Receiver {
+        // Chain key for the epoch after current
+        private byte[] chain;
+        private EpochKey current;
+        private EpochKey previous;
+
+        private Receiver(byte[] chain) {
+            this.current = new EpochKey(0, epochKey(chain));
+            this.chain = nextChain(chain);
+        }
+
+        private synchronized byte[] open(byte[] message) {
+            if (chain == null) {
+                throw new RuntimeException("Failed to open session message: channel destroyed");
+            }
+            ByteBuffer header = ByteBuffer.wrap(message, NONCE_OFFSET, NONCE_LENGTH);
+            int epoch = header.getInt();
+            long counter = header.getLong();
+            if (counter < 0) {
+                throw new RuntimeException("Failed to open session message: malformed counter");
+            }
+
+            if (epoch == current.epoch || (previous != null && epoch == previous.epoch)) {
+                EpochKey epochKey = epoch == current.epoch ? current : previous;
+                if (epochKey.isReplay(counter)) {
+                    throw new RuntimeException("Failed to open session message: replayed counter");
+                }
+                byte[] plaintext = decrypt(epochKey.key, message);
+                epochKey.accept(counter);
+                return plaintext;
+            }
+            if (epoch <= current.epoch || epoch - current.epoch > MAX_EPOCH_SKIP) {
+                throw new RuntimeException("Failed to open session message: unexpected epoch " + epoch);
+            }
+
+            // Derive ahead on a copy, and only move on once the message authenticates
+            byte[] candidateChain = chain.clone();
+            SecretKeySpec skipped = current.key;
+            SecretKeySpec candidate = null;
+            for (int e = current.epoch + 1; e <= epoch; e++) {
+                if (candidate != null) {
+                    skipped = candidate;
+                }
+                candidate = epochKey(candidateChain);
+                candidateChain = nextChain(candidateChain);
+            }
+            byte[] plaintext;
+            try {
+                plaintext = decrypt(candidate, message);
+            } catch (RuntimeException e) {
+                Arrays.fill(candidateChain, (byte) 0);
+                throw e;
+            }
+            Arrays.fill(chain, (byte) 0);
+            chain = candidateChain;
+            // The epoch just left keeps its replay window; a skipped one has seen no messages
+            previous = epoch == current.epoch + 1 ? current : new EpochKey(epoch - 1, skipped);
+            current = new EpochKey(epoch, candidate);
+            current.accept(counter);
+            onRekey.run();
+            return plaintext;
+        }
+
+        private byte[] decrypt(SecretKeySpec key, byte[] message) {
+            try {
+                Cipher cipher = CryptoEngines.aesGcm();
+                cipher.init(Cipher.DECRYPT_MODE, key, new GCMParameterSpec(TAG_LENGTH * 8, message, NONCE_OFFSET, NONCE_LENGTH));
+                cipher.updateAAD(message, 0, HEADER_LENGTH);
+                return cipher.doFinal(message, HEADER_LENGTH, message.length - HEADER_LENGTH);
+            } catch (GeneralSecurityException e) {
+                throw new RuntimeException("Failed to open session message: authentication failed", e);
+            }
+        }
+
+        private synchronized void destroy() {
+            if (chain != null) {
+                Arrays.fill(chain, (byte) 0);
+                chain = null;
+            }
+            current = null;
+            previous = null;
+        }
+    }
+
+    // Highest counter seen in an epoch, and which of the REPLAY_WINDOW counters up to it were
+    private static final class EpochKey {
+        private final int epoch;
+        private final SecretKeySpec key;
+        private long highest = -1;
+        private long window;
+
+        private EpochKey(int epoch, SecretKeySpec key) {
+            this.epoch = epoch;
+            this.key = key;
+        }
+
+        private boolean isReplay(long counter) {
+            if (counter > highest) {
+                return false;
+            }
+            long age = highest - counter;
+            return age >= REPLAY_WINDOW || (window >>> age & 1) != 0;
+        }
+
+        private void accept(long counter) {
+            if (counter > highest) {
+                long shift = counter - highest;
+                window = shift >= REPLAY_WINDOW ? 1 : window << shift | 1;
+                highest = counter;
+            } else {
+                window |= 1L << (highest - counter);
+            }
+        }
+    }
+}
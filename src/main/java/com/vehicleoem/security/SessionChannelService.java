@@ -0,0 +1,242 @@
+package com.vehicleoem.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import com.vehicleoem.exception.BusinessException;
+import com.vehicleoem.exception.SessionExpiredException;
+import com.vehicleoem.exception.VehicleNotFoundException;
+import com.vehicleoem.model.Vehicle;
+import com.vehicleoem.repository.VehicleRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import java.nio.charset.StandardCharsets;
+import java.security.KeyPair;
+import java.security.PublicKey;
+import java.security.SecureRandom;
+import java.security.interfaces.ECPublicKey;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+
+/**
+ * OEM end of {@link SessionChannel}s. A vehicle that exchanges many small messages with the
+ * backend opens a session once, which costs one ephemeral key, one ECDH and one OEM
+ * signature, and then sends and receives AES-GCM messages under it until the session expires.
+ * <p>
+ * Sessions live in memory only, keyed by their id, and are evicted once their TTL has passed
+ * or when the table is full, least recently used first. An evicted session's keys are wiped,
+ * and a vehicle that hits {@link SessionExpiredException} simply opens a new session. Nothing
+ * survives a restart, which is the same as every session expiring at once.
+ */
+@Service
+public class SessionChannelService {
+
+    private static final SecureRandom RANDOM = new SecureRandom();
+
+    @Autowired
+    private KeyPairPool keyPairPool;
+
+    @Autowired
+    private CertificateService certificateService;
+
+    @Autowired
+    private CryptographyService cryptographyService;
+
+    @Autowired
+    private VehicleRepository vehicleRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${session-channel.ttl-seconds:3600}")
+    private long ttlSeconds;
+
+    @Value("${session-channel.rekey-interval-seconds:600}")
+    private long rekeyIntervalSeconds;
+
+    @Value("${session-channel.rekey-messages:100000}")
+    private long rekeyMessages;
+
+    @Value("${session-channel.maximum-sessions:100000}")
+    private long maximumSessions;
+
+    private SessionChannel.Policy policy;
+    private Cache<String, SessionChannel> sessions;
+    private Counter handshakes;
+    private Counter rekeys;
+    private Counter sealed;
+    private Counter opened;
+    private Counter rejected;
+
+    @PostConstruct
+    void init() {
+        policy = new SessionChannel.Policy(Duration.ofSeconds(ttlSeconds), Duration.ofSeconds(rekeyIntervalSeconds), rekeyMessages);
+        sessions = Caffeine.newBuilder()
+            .maximumSize(maximumSessions)
+            .expireAfterWrite(policy.ttl())
+            .removalListener((String id, SessionChannel channel, RemovalCause cause) -> {
+                if (channel != null) {
+                    channel.destroy();
+                }
+            })
+            .recordStats()
+            .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, sessions, "session_channels");
+        handshakes = Counter.builder("session_channel.handshakes")
+            .description("Sessions opened, each costing one ECDH")
+            .register(meterRegistry);
+        rekeys = Counter.builder("session_channel.rekeys")
+            .description("Epoch key changes, in either direction")
+            .register(meterRegistry);
+        sealed = Counter.builder("session_channel.messages")
+            .tag("direction", "sent")
+            .register(meterRegistry);
+        opened = Counter.builder("session_channel.messages")
+            .tag("direction", "received")
+            .register(meterRegistry);
+        rejected = Counter.builder("session_channel.rejected")
+            .description("Messages refused as malformed, replayed, forged or for an unknown session")
+            .register(meterRegistry);
+    }
+
+    /**
+     * Opens a session with a registered vehicle, which must present the public key from its
+     * certificate. The handshake is signed with the Vehicle OEM key over
+     * {@link Handshake#signedData}, so the vehicle can tell the server key came from the OEM
+     * and was issued for this request. The vehicle checks {@link Handshake#signature()} against
+     * {@link CertificateService#getVehicleOemPublicKey} and then completes the session with
+     * {@link SessionChannel#establish} using {@link Handshake#serverPublicKey()} and
+     * {@link Handshake#sessionId()}.
+     *
+     * @throws VehicleNotFoundException if no vehicle has this VIN
+     * @throws BusinessException if the key is not the one certified for the vehicle
+     */
+    public Handshake open(String vin, PublicKey vehiclePublicKey) {
+        if (vehiclePublicKey == null) {
+            throw new RuntimeException("Vehicle public key cannot be null");
+        }
+        Vehicle vehicle = vehicleRepository.findByVin(vin)
+            .orElseThrow(() -> new VehicleNotFoundException(vin));
+        requireCertifiedKey(vehicle, vehiclePublicKey);
+
+        byte[] sessionId = new byte[SessionChannel.SESSION_ID_LENGTH];
+        RANDOM.nextBytes(sessionId);
+        KeyPair ephemeral = keyPairPool.take();
+        SessionChannel channel = SessionChannel.establish(SessionChannel.Role.OEM, sessionId,
+            ephemeral.getPrivate(), vehiclePublicKey, policy, System::nanoTime, rekeys::increment);
+        String serverPublicKey = Base64.getEncoder().encodeToString(ephemeral.getPublic().getEncoded());
+        Instant expiresAt = Instant.now().plus(policy.ttl());
+        String signature;
+        try {
+            signature = certificateService.signAsVehicleOem(
+                Handshake.signedData(channel.getId(), serverPublicKey, expiresAt, vehiclePublicKey));
+        } catch (RuntimeException e) {
+            channel.destroy();
+            throw e;
+        }
+        sessions.put(channel.getId(), channel);
+        handshakes.increment();
+        return new Handshake(channel.getId(), serverPublicKey, expiresAt, signature);
+    }
+
+    /**
+     * @throws SessionExpiredException if the session is unknown, evicted or expired
+     */
+    public byte[] encrypt(String sessionId, byte[] plaintext) {
+        byte[] message = channel(sessionId).seal(plaintext);
+        sealed.increment();
+        return message;
+    }
+
+    /**
+     * Opens a message from a vehicle; the session is taken from the message header.
+     *
+     * @throws SessionExpiredException if the session is unknown, evicted or expired
+     * @throws RuntimeException if the message is malformed, replayed or fails authentication
+     */
+    public byte[] decrypt(byte[] message) {
+        String sessionId = SessionChannel.sessionIdOf(message);
+        if (sessionId == null) {
+            rejected.increment();
+            throw new RuntimeException("Failed to open session message: malformed message");
+        }
+        try {
+            byte[] plaintext = channel(sessionId).open(message);
+            opened.increment();
+            return plaintext;
+        } catch (RuntimeException e) {
+            rejected.increment();
+            throw e;
+        }
+    }
+
+    public void close(String sessionId) {
+        if (sessionId != null) {
+            sessions.invalidate(sessionId);
+        }
+    }
+
+    public long size() {
+        return sessions.estimatedSize();
+    }
+
+    private void requireCertifiedKey(Vehicle vehicle, PublicKey vehiclePublicKey) {
+        PublicKey certified;
+        try {
+            certified = cryptographyService.decodePublicKey(
+                certificateService.getCertifiedPublicKey(vehicle.getPublicKeyCertificate()));
+        } catch (RuntimeException e) {
+            throw new BusinessException("VEHICLE_CERTIFICATE_MISSING",
+                "Vehicle " + vehicle.getVin() + " has no usable public key certificate");
+        }
+        // Compared as curve points, as the two encodings may come from different providers
+        if (!(vehiclePublicKey instanceof ECPublicKey presented)
+                || !((ECPublicKey) certified).getW().equals(presented.getW())) {
+            throw new BusinessException("VEHICLE_KEY_NOT_CERTIFIED",
+                "Public key is not the one certified for vehicle " + vehicle.getVin());
+        }
+    }
+
+    private SessionChannel channel(String sessionId) {
+        SessionChannel channel = sessionId == null ? null : sessions.getIfPresent(sessionId);
+        if (channel == null) {
+            throw SessionExpiredException.unknownSession(sessionId);
+        }
+        if (channel.isExpired()) {
+            sessions.invalidate(sessionId);
+            throw SessionExpiredException.expired(sessionId);
+        }
+        return channel;
+    }
+
+    /**
+     * @param sessionId unpadded Base64url session id, also carried in every message header
+     * @param serverPublicKey the OEM's ephemeral public key, Base64 X.509
+     * @param expiresAt when the session stops accepting messages
+     * @param signature Base64 DER signature by the Vehicle OEM key over {@link #signedData}
+     */
+    public record Handshake(String sessionId, String serverPublicKey, Instant expiresAt, String signature) {
+
+        /**
+         * The signed bytes, which also cover the vehicle's own key so that a handshake can't
+         * be replayed to another vehicle.
+         */
+        public byte[] signedData(PublicKey vehiclePublicKey) {
+            return signedData(sessionId, serverPublicKey, expiresAt, vehiclePublicKey);
+        }
+
+        static byte[] signedData(String sessionId, String serverPublicKey, Instant expiresAt,
+                                 PublicKey vehiclePublicKey) {
+            return String.format("SessionId:%s|ServerPublicKey:%s|ExpiresAt:%s|VehiclePublicKey:%s",
+                    sessionId, serverPublicKey, expiresAt,
+                    Base64.getEncoder().encodeToString(vehiclePublicKey.getEncoded()))
+                .getBytes(StandardCharsets.UTF_8);
+        }
+    }
+}
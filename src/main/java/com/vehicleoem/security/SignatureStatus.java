@@ -0,0 +1,13 @@
+package com.vehicleoem.security;
+
+/**
+ * Outcome of checking one ECDSA signature.
+ */
+public enum SignatureStatus {
+    /** The signature matches the data and key */
+    VALID,
+    /** The signature is well-formed but does not match the data and key */
+    INVALID,
+    /** The signature or key could not be decoded, so nothing was verified */
+    MALFORMED
+}
@@ -0,0 +1,392 @@
+package com.vehicleoem.security;
+
+import org.bouncycastle.crypto.digests.SHA256Digest;
+import org.bouncycastle.crypto.generators.HKDFBytesGenerator;
+import org.bouncycastle.crypto.params.HKDFParameters;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import javax.crypto.AEADBadTagException;
+import javax.crypto.Cipher;
+import javax.crypto.KeyAgreement;
+import javax.crypto.spec.GCMParameterSpec;
+import javax.crypto.spec.SecretKeySpec;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.security.GeneralSecurityException;
+import java.security.KeyFactory;
+import java.security.KeyPair;
+import java.security.PrivateKey;
+import java.security.PublicKey;
+import java.security.SecureRandom;
+import java.security.interfaces.ECPrivateKey;
+import java.security.interfaces.ECPublicKey;
+import java.security.spec.X509EncodedKeySpec;
+import java.util.Arrays;
+
+/**
+ * Hybrid encryption for payloads too large to hold in memory, such as UI bundles and
+ * diagnostic blobs. Each stream does one ECDH key agreement between a fresh ephemeral key
+ * and the recipient's P-256 key. The payload is then sealed in fixed-size AES-256-GCM chunks,
+ * so memory use depends on the chunk size and not on the payload size.
+ * <p>
+ * Stream format, big-endian:
+ * <pre>
+ * header: magic "VSE" | version (1) | chunk size (4) | key length (2) | ephemeral public key (X.509) | nonce prefix (7)
+ * chunk:  final flag (1) | ciphertext length (4) | ciphertext + 16-byte tag
+ * </pre>
+ * The AES key is derived with HKDF-SHA256 from the ECDH secret, using the header as info, so a
+ * modified header fails authentication. Each chunk's nonce is the prefix, a chunk counter and
+ * the final flag. Reordered, dropped or truncated chunks are therefore detected, and a
+ * stream must end with a chunk flagged final.
+ * <p>
+ * Decrypted chunks are released as soon as they authenticate. A consumer must therefore
+ * discard its output if decryption fails part way through.
+ */
+@Service
+public class StreamingEncryptionService {
+
+    private static final byte[] MAGIC = {'V', 'S', 'E'};
+    private static final byte VERSION = 1;
+    private static final int TAG_LENGTH = 16; // bytes
+    private static final int NONCE_PREFIX_LENGTH = 7;
+    private static final int MAX_CHUNK_SIZE = 16 * 1024 * 1024;
+    private static final int MAX_KEY_LENGTH = 512;
+    private static final byte[] KDF_LABEL = "vehicle-oem stream v1".getBytes();
+
+    private static final SecureRandom RANDOM = new SecureRandom();
+
+    @Autowired
+    private KeyPairPool keyPairPool;
+
+    @Value("${streaming-encryption.chunk-size:65536}")
+    private int chunkSize;
+
+    /**
+     * @return a stream that encrypts everything written to it into {@code out}; closing it
+     *         writes the final chunk and closes {@code out}
+     */
+    public OutputStream encryptingStream(OutputStream out, PublicKey recipientKey) throws IOException {
+        if (out == null) {
+            throw new RuntimeException("Output stream cannot be null");
+        }
+        if (!(recipientKey instanceof ECPublicKey)) {
+            throw new RuntimeException("Public key must be an EC public key");
+        }
+        if (chunkSize <= 0 || chunkSize > MAX_CHUNK_SIZE) {
+            throw new IllegalStateException("Chunk size must be between 1 and " + MAX_CHUNK_SIZE + " bytes");
+        }
+        return new EncryptingOutputStream(out, keyPairPool.take(), recipientKey, chunkSize);
+    }
+
+    /**
+     * @return a stream of the plaintext sealed in {@code in}; closing it closes {@code in}
+     * @throws IOException if the header is malformed, uses an unsupported version or declares
+     *         a chunk size larger than the configured one
+     */
+    public InputStream decryptingStream(InputStream in, PrivateKey recipientKey) throws IOException {
+        if (in == null) {
+            throw new RuntimeException("Input stream cannot be null");
+        }
+        if (!(recipientKey instanceof ECPrivateKey)) {
+            throw new RuntimeException("Private key must be an EC private key");
+        }
+        return new DecryptingInputStream(in, recipientKey, chunkSize);
+    }
+
+    /**
+     * Encrypts all of {@code in} into {@code out}. Neither stream is closed.
+     */
+    public void encrypt(InputStream in, OutputStream out, PublicKey recipientKey) throws IOException {
+        try (OutputStream encrypting = encryptingStream(new NonClosingOutputStream(out), recipientKey)) {
+            in.transferTo(encrypting);
+        }
+    }
+
+    /**
+     * Decrypts all of {@code in} into {@code out}. Neither stream is closed.
+     */
+    public void decrypt(InputStream in, OutputStream out, PrivateKey recipientKey) throws IOException {
+        decryptingStream(in, recipientKey).transferTo(out);
+    }
+
+    public void encrypt(ReadableByteChannel in, WritableByteChannel out, PublicKey recipientKey) throws IOException {
+        encrypt(Channels.newInputStream(in), Channels.newOutputStream(out), recipientKey);
+    }
+
+    public void decrypt(ReadableByteChannel in, WritableByteChannel out, PrivateKey recipientKey) throws IOException {
+        decrypt(Channels.newInputStream(in), Channels.newOutputStream(out), recipientKey);
+    }
+
+    private static SecretKeySpec deriveKey(PrivateKey privateKey, PublicKey publicKey, byte[] header)
+            throws GeneralSecurityException {
+        KeyAgreement agreement = KeyAgreement.getInstance("ECDH", CryptoEngines.BC);
+        agreement.init(privateKey);
+        agreement.doPhase(publicKey, true);
+        byte[] secret = agreement.generateSecret();
+
+        byte[] info = new byte[KDF_LABEL.length + header.length];
+        System.arraycopy(KDF_LABEL, 0, info, 0, KDF_LABEL.length);
+        System.arraycopy(header, 0, info, KDF_LABEL.length, header.length);
+        HKDFBytesGenerator hkdf = new HKDFBytesGenerator(new SHA256Digest());
+        hkdf.init(new HKDFParameters(secret, null, info));
+        byte[] key = new byte[32];
+        hkdf.generateBytes(key, 0, key.length);
+        return new SecretKeySpec(key, "AES");
+    }
+
+    private static GCMParameterSpec nonce(byte[] prefix, long counter, boolean last) {
+        byte[] nonce = new byte[12];
+        System.arraycopy(prefix, 0, nonce, 0, NONCE_PREFIX_LENGTH);
+        nonce[7] = (byte) (counter >>> 24);
+        nonce[8] = (byte) (counter >>> 16);
+        nonce[9] = (byte) (counter >>> 8);
+        nonce[10] = (byte) counter;
+        nonce[11] = (byte) (last ? 1 : 0);
+        return new GCMParameterSpec(TAG_LENGTH * 8, nonce);
+    }
+
+    private static final class EncryptingOutputStream extends OutputStream {
+        private final DataOutputStream out;
+        private final SecretKeySpec key;
+        private final byte[] noncePrefix = new byte[NONCE_PREFIX_LENGTH];
+        private final Cipher cipher;
+        private final byte[] buffer;
+        private final byte[] sealed;
+        private int position;
+        private long counter;
+        private boolean closed;
+
+        private EncryptingOutputStream(OutputStream out, KeyPair ephemeral, PublicKey recipientKey, int chunkSize)
+                throws IOException {
+            this.out = new DataOutputStream(out);
+            this.buffer = new byte[chunkSize];
+            this.sealed = new byte[chunkSize + TAG_LENGTH];
+            RANDOM.nextBytes(noncePrefix);
+            try {
+                byte[] ephemeralKey = ephemeral.getPublic().getEncoded();
+
+                ByteArrayOutputStream headerBytes = new ByteArrayOutputStream();
+                DataOutputStream header = new DataOutputStream(headerBytes);
+                header.write(MAGIC);
+                header.writeByte(VERSION);
+                header.writeInt(chunkSize);
+                header.writeShort(ephemeralKey.length);
+                header.write(ephemeralKey);
+                header.write(noncePrefix);
+
+                this.key = deriveKey(ephemeral.getPrivate(), recipientKey, headerBytes.toByteArray());
+                this.cipher = Cipher.getInstance("AES/GCM/NoPadding");
+                headerBytes.writeTo(this.out);
+            } catch (GeneralSecurityException e) {
+                throw new IOException("Failed to set up stream encryption: " + e.getMessage(), e);
+            }
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            write(new byte[]{(byte) b}, 0, 1);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            if (closed) {
+                throw new IOException("Stream closed");
+            }
+            while (len > 0) {
+                // A full buffer is only sealed once more data arrives, since close() must seal the last chunk as final
+                if (position == buffer.length) {
+                    writeChunk(false);
+                }
+                int n = Math.min(len, buffer.length - position);
+                System.arraycopy(b, off, buffer, position, n);
+                position += n;
+                off += n;
+                len -= n;
+            }
+        }
+
+        @Override
+        public void flush() throws IOException {
+            out.flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            try {
+                writeChunk(true);
+                out.flush();
+            } finally {
+                out.close();
+            }
+        }
+
+        private void writeChunk(boolean last) throws IOException {
+            if (counter > 0xFFFFFFFFL) {
+                throw new IOException("Stream exceeds the maximum number of chunks");
+            }
+            try {
+                cipher.init(Cipher.ENCRYPT_MODE, key, nonce(noncePrefix, counter++, last));
+                int length = cipher.doFinal(buffer, 0, position, sealed, 0);
+                out.writeByte(last ? 1 : 0);
+                out.writeInt(length);
+                out.write(sealed, 0, length);
+                position = 0;
+            } catch (GeneralSecurityException e) {
+                throw new IOException("Failed to encrypt chunk: " + e.getMessage(), e);
+            }
+        }
+    }
+
+    private static final class DecryptingInputStream extends InputStream {
+        private final DataInputStream in;
+        private final SecretKeySpec key;
+        private final byte[] noncePrefix = new byte[NONCE_PREFIX_LENGTH];
+        private final Cipher cipher;
+        private final int chunkSize;
+        private byte[] sealed = new byte[0];
+        private byte[] buffer = new byte[0];
+        private int position;
+        private int limit;
+        private long counter;
+        private boolean finished;
+
+        private DecryptingInputStream(InputStream in, PrivateKey recipientKey, int maxChunkSize) throws IOException {
+            this.in = new DataInputStream(in);
+            ByteArrayOutputStream headerBytes = new ByteArrayOutputStream();
+            DataOutputStream header = new DataOutputStream(headerBytes);
+            try {
+                byte[] magic = new byte[MAGIC.length];
+                this.in.readFully(magic);
+                byte version = this.in.readByte();
+                if (!Arrays.equals(magic, MAGIC) || version != VERSION) {
+                    throw new IOException("Not an encrypted stream or unsupported version");
+                }
+                // The header is not authenticated until the first chunk is, so a forged chunk size
+                // may not be larger than what this service itself writes
+                chunkSize = this.in.readInt();
+                if (chunkSize <= 0 || chunkSize > Math.min(maxChunkSize, MAX_CHUNK_SIZE)) {
+                    throw new IOException("Invalid chunk size " + chunkSize);
+                }
+                int keyLength = this.in.readUnsignedShort();
+                if (keyLength == 0 || keyLength > MAX_KEY_LENGTH) {
+                    throw new IOException("Invalid ephemeral key length " + keyLength);
+                }
+                byte[] ephemeralKey = new byte[keyLength];
+                this.in.readFully(ephemeralKey);
+                this.in.readFully(noncePrefix);
+
+                header.write(magic);
+                header.writeByte(version);
+                header.writeInt(chunkSize);
+                header.writeShort(keyLength);
+                header.write(ephemeralKey);
+                header.write(noncePrefix);
+
+                PublicKey ephemeralPublicKey = KeyFactory.getInstance("EC", CryptoEngines.BC)
+                    .generatePublic(new X509EncodedKeySpec(ephemeralKey));
+                this.key = deriveKey(recipientKey, ephemeralPublicKey, headerBytes.toByteArray());
+                this.cipher = Cipher.getInstance("AES/GCM/NoPadding");
+            } catch (EOFException e) {
+                throw new IOException("Truncated stream header", e);
+            } catch (GeneralSecurityException e) {
+                throw new IOException("Failed to set up stream decryption: " + e.getMessage(), e);
+            }
+        }
+
+        @Override
+        public int read() throws IOException {
+            byte[] one = new byte[1];
+            int n = read(one, 0, 1);
+            return n == -1 ? -1 : one[0] & 0xFF;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            if (len == 0) {
+                return 0;
+            }
+            while (position == limit) {
+                if (finished) {
+                    return -1;
+                }
+                readChunk();
+            }
+            int n = Math.min(len, limit - position);
+            System.arraycopy(buffer, position, b, off, n);
+            position += n;
+            return n;
+        }
+
+        @Override
+        public int available() {
+            return limit - position;
+        }
+
+        @Override
+        public void close() throws IOException {
+            in.close();
+        }
+
+        private void readChunk() throws IOException {
+            int flag;
+            int length;
+            try {
+                flag = in.readUnsignedByte();
+                length = in.readInt();
+                if (flag > 1 || length < TAG_LENGTH || length > chunkSize + TAG_LENGTH) {
+                    throw new IOException("Malformed chunk " + counter);
+                }
+                // Buffers grow with chunks actually received rather than with the claimed size
+                if (sealed.length < length) {
+                    sealed = new byte[length];
+                    buffer = new byte[length - TAG_LENGTH];
+                }
+                in.readFully(sealed, 0, length);
+            } catch (EOFException e) {
+                throw new IOException("Truncated stream: missing final chunk", e);
+            }
+            boolean last = flag == 1;
+            try {
+                cipher.init(Cipher.DECRYPT_MODE, key, nonce(noncePrefix, counter, last));
+                limit = cipher.doFinal(sealed, 0, length, buffer, 0);
+                position = 0;
+                counter++;
+                finished = last;
+            } catch (AEADBadTagException e) {
+                throw new IOException("Authentication failed for chunk " + counter, e);
+            } catch (GeneralSecurityException e) {
+                throw new IOException("Failed to decrypt chunk " + counter + ": " + e.getMessage(), e);
+            }
+        }
+    }
+
+    private static final class NonClosingOutputStream extends FilterOutputStream {
+        private NonClosingOutputStream(OutputStream out) {
+            super(out);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+        }
+
+        @Override
+        public void close() throws IOException {
+            out.flush();
+        }
+    }
+}
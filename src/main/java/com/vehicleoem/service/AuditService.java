@@ -21,27 +21,27 @@ public class AuditService {
     
     private final ObjectMapper objectMapper = new ObjectMapper();
     
-    @Async
+    @Async("auditExecutor")
     public void logKeyAction(String keyId, String action, String performedBy, String reason) {
         logAudit("DIGITAL_KEY", keyId, action, performedBy, reason, AuditSeverity.INFO);
     }
     
-    @Async
+    @Async("auditExecutor")
     public void logVehicleAction(String vin, String action, String performedBy, String reason) {
         logAudit("VEHICLE", vin, action, performedBy, reason, AuditSeverity.INFO);
     }
     
-    @Async
+    @Async("auditExecutor")
     public void logOwnerAccountAction(String accountId, String action, String performedBy, String reason) {
         logAudit("OWNER_ACCOUNT", accountId, action, performedBy, reason, AuditSeverity.INFO);
     }
     
-    @Async
+    @Async("auditExecutor")
     public void logSecurityEvent(String entityType, String entityId, String action, String performedBy, String reason) {
         logAudit(entityType, entityId, action, performedBy, reason, AuditSeverity.WARNING);
     }
     
-    @Async
+    @Async("auditExecutor")
     public void logCriticalEvent(String entityType, String entityId, String action, String performedBy, String reason) {
         logAudit(entityType, entityId, action, performedBy, reason, AuditSeverity.CRITICAL);
     }
@@ -64,12 +64,12 @@ public class AuditService {
         }
     }
     
-    @Async
+    @Async("auditExecutor")
     public void logKeyUsage(String keyId, String vehicleVin, String deviceId, KeyUsageType usageType) {
         logKeyUsage(keyId, vehicleVin, deviceId, usageType, true, null);
     }
     
-    @Async
+    @Async("auditExecutor")
     public void logKeyUsage(String keyId, String vehicleVin, String deviceId, KeyUsageType usageType, boolean success, String errorMessage) {
         try {
             KeyUsageLog usageLog = new KeyUsageLog(keyId, vehicleVin, deviceId, usageType);
@@ -82,7 +82,7 @@ public class AuditService {
         }
     }
     
-    @Async
+    @Async("auditExecutor")
     public void logDetailedKeyUsage(String keyId, String vehicleVin, String deviceId, KeyUsageType usageType,
                                    Double latitude, Double longitude, String address,
                                    Integer sessionDuration, Double distance, Double maxSpeed) {
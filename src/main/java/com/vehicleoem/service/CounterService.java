@@ -0,0 +1,221 @@
+package com.vehicleoem.service;
+
+import com.vehicleoem.exception.KeyManagementException;
+import com.vehicleoem.model.DigitalKey;
+import com.vehicleoem.model.KeyStatus;
+import com.vehicleoem.model.Vehicle;
+import com.vehicleoem.repository.DigitalKeyRepository;
+import com.vehicleoem.repository.DigitalKeyRepositoryCustom.UsageDelta;
+import com.vehicleoem.repository.VehicleRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Vehicle and key counters. Two kinds of update are offered:
+ * <ul>
+ *   <li>Strict: key slots and limited-use keys are changed with a single conditional SQL
+ *       statement, so concurrent requests can never exceed max_keys_allowed or max_usage_count.</li>
+ *   <li>Write-behind: usage statistics are accumulated in memory, per vehicle and per key, and
+ *       flushed periodically as batched {@code UPDATE ... SET x = x + ?} deltas. The maps lock
+ *       per hash bin, so only updates to the same vehicle or key contend, and only in memory
+ *       rather than on the database row. At most one flush interval of statistics can be lost
+ *       if the process dies.</li>
+ * </ul>
+ * The counter columns are not updatable through the entities, so these are the only writers.
+ */
+@Service
+public class CounterService {
+
+    @Autowired
+    private VehicleRepository vehicleRepository;
+
+    @Autowired
+    private DigitalKeyRepository digitalKeyRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private KeyValidityCache keyValidityCache;
+
+    private final ConcurrentHashMap<Long, Long> pendingVehicleUsage = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<Long, UsageDelta> pendingKeyUsage = new ConcurrentHashMap<>();
+
+    private Timer flushTimer;
+    private Counter flushedRows;
+    private Counter flushFailures;
+
+    @PostConstruct
+    void registerMetrics() {
+        Gauge.builder("counters.pending", pendingVehicleUsage, Map::size)
+            .description("Vehicles with usage not yet flushed")
+            .tag("counter", "vehicle_usage")
+            .register(meterRegistry);
+        Gauge.builder("counters.pending", pendingKeyUsage, Map::size)
+            .description("Keys with usage not yet flushed")
+            .tag("counter", "key_usage")
+            .register(meterRegistry);
+        flushTimer = Timer.builder("counters.flush.duration").register(meterRegistry);
+        flushedRows = Counter.builder("counters.flush.rows").register(meterRegistry);
+        flushFailures = Counter.builder("counters.flush.failures").register(meterRegistry);
+    }
+
+    // Strict counters
+
+    /**
+     * Takes one key slot on the vehicle, failing if the vehicle is already at its key limit.
+     * Runs in the caller's transaction, so the slot is returned if that transaction rolls back.
+     */
+    @Transactional
+    public void reserveKeySlot(Vehicle vehicle) {
+        if (vehicleRepository.tryReserveKeySlot(vehicle.getId()) == 0) {
+            throw KeyManagementException.keyLimitReached(vehicle.getMaxKeysAllowed());
+        }
+    }
+
+    /**
+     * Takes up to {@code requested} key slots on the vehicle.
+     *
+     * @return the number of slots granted, possibly fewer than requested
+     */
+    @Transactional
+    public int reserveKeySlots(Vehicle vehicle, int requested) {
+        return vehicleRepository.reserveKeySlots(vehicle.getId(), requested);
+    }
+
+    @Transactional
+    public void releaseKeySlot(Vehicle vehicle) {
+        vehicleRepository.releaseKeySlot(vehicle.getId());
+    }
+
+    @Transactional
+    public void releaseKeySlots(Map<Long, Integer> slotsByVehicleId) {
+        Map<Long, Integer> deltas = new HashMap<>();
+        slotsByVehicleId.forEach((vehicleId, slots) -> deltas.put(vehicleId, -slots));
+        vehicleRepository.applyKeyCountDeltas(deltas);
+    }
+
+    // Usage counters
+
+    /**
+     * Records one use of a key. Keys with a usage limit are counted strictly, in the caller's
+     * transaction, and expire when the limit is reached; all other usage is write-behind, and
+     * queued only when the caller's transaction commits.
+     */
+    @Transactional
+    public void recordKeyUsage(DigitalKey digitalKey) {
+        recordKeyUsage(digitalKey.getId(), digitalKey.getKeyId(), digitalKey.getVehicle().getId(),
+            digitalKey.getMaxUsageCount() != null);
+    }
+
+    /**
+     * Same as {@link #recordKeyUsage(DigitalKey)} for callers that only hold the key's ids,
+     * such as the usage path working from {@link KeyValidityCache}.
+     */
+    @Transactional
+    public void recordKeyUsage(Long digitalKeyId, String keyId, Long vehicleId, boolean limited) {
+        LocalDateTime now = LocalDateTime.now();
+        if (limited) {
+            KeyStatus status = digitalKeyRepository.consumeLimitedUsage(digitalKeyId, now);
+            // The update may have expired the key, and it bypasses the entity listener
+            keyValidityCache.invalidateKey(keyId);
+            if (status == null) {
+                throw KeyManagementException.usageLimitReached(keyId);
+            }
+            if (status == KeyStatus.EXPIRED) {
+                // That was the last use, so the key no longer holds a slot
+                vehicleRepository.releaseKeySlot(vehicleId);
+            }
+        }
+        // Write-behind usage is only counted once the use itself has committed
+        Runnable count = () -> {
+            if (!limited) {
+                pendingKeyUsage.merge(digitalKeyId, new UsageDelta(1, now), UsageDelta::plus);
+            }
+            pendingVehicleUsage.merge(vehicleId, 1L, Long::sum);
+        };
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    count.run();
+                }
+            });
+        } else {
+            count.run();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${counters.flush-interval-ms:1000}")
+    public void flush() {
+        if (pendingVehicleUsage.isEmpty() && pendingKeyUsage.isEmpty()) {
+            return;
+        }
+        Timer.Sample sample = Timer.start(meterRegistry);
+        LocalDateTime now = LocalDateTime.now();
+        Map<Long, Long> vehicleDeltas = drainVehicleUsage();
+        Map<Long, UsageDelta> keyDeltas = drainKeyUsage();
+
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                vehicleRepository.addKeyUsageCounts(vehicleDeltas, now);
+                digitalKeyRepository.addUsageCounts(keyDeltas);
+            });
+            flushedRows.increment(vehicleDeltas.size() + keyDeltas.size());
+        } catch (Exception e) {
+            // Put the deltas back so the next flush retries them
+            vehicleDeltas.forEach((vehicleId, usage) -> pendingVehicleUsage.merge(vehicleId, usage, Long::sum));
+            keyDeltas.forEach((keyId, usage) -> pendingKeyUsage.merge(keyId, usage, UsageDelta::plus));
+            flushFailures.increment();
+            System.err.println("Failed to flush usage counters: " + e.getMessage());
+        } finally {
+            sample.stop(flushTimer);
+        }
+    }
+
+    @PreDestroy
+    void flushOnShutdown() {
+        flush();
+    }
+
+    private Map<Long, Long> drainVehicleUsage() {
+        // remove() is atomic with merge(), so every recorded use lands in exactly one flush
+        Map<Long, Long> deltas = new HashMap<>();
+        for (Long vehicleId : pendingVehicleUsage.keySet()) {
+            Long usage = pendingVehicleUsage.remove(vehicleId);
+            if (usage != null) {
+                deltas.put(vehicleId, usage);
+            }
+        }
+        return deltas;
+    }
+
+    private Map<Long, UsageDelta> drainKeyUsage() {
+        Map<Long, UsageDelta> deltas = new HashMap<>();
+        for (Long keyId : pendingKeyUsage.keySet()) {
+            UsageDelta usage = pendingKeyUsage.remove(keyId);
+            if (usage != null) {
+                deltas.put(keyId, usage);
+            }
+        }
+        return deltas;
+    }
+}
@@ -7,14 +7,26 @@ import com.vehicleoem.client.*;
 import com.vehicleoem.security.CryptographyService;
 import com.vehicleoem.security.CertificateService;
 import com.vehicleoem.exception.*;
+import com.vehicleoem.service.KeyValidityCache.KeyValidity;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import io.github.resilience4j.circuitbreaker.annotation.CircuitBreaker;
 import io.github.resilience4j.retry.annotation.Retry;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 @Service
 @Transactional
@@ -29,15 +41,9 @@ public class DigitalKeyService {
     @Autowired
     private OwnerAccountRepository ownerAccountRepository;
 
-    @Autowired
-    private KeyTrackingClient keyTrackingClient;
-
     @Autowired
     private DeviceOemClient deviceOemClient;
 
-    @Autowired
-    private VehicleTelematicsClient vehicleTelematicsClient;
-
     @Autowired
     private CryptographyService cryptographyService;
 
@@ -53,6 +59,25 @@ public class DigitalKeyService {
     @Autowired
     private AuditService auditService;
 
+    @Autowired
+    private OutboxService outboxService;
+
+    @Autowired
+    private CounterService counterService;
+
+    @Autowired
+    private KeyOperationService keyOperationService;
+
+    @Autowired
+    private KeyIdFilter keyIdFilter;
+
+    @Autowired
+    private KeyValidityCache keyValidityCache;
+
+    private static final int KEY_ID_LOOKUP_CHUNK_SIZE = 1000;
+    static final int DEFAULT_PAGE_SIZE = 50;
+    static final int MAX_PAGE_SIZE = 200;
+
     @CircuitBreaker(name = "trackKey", fallbackMethod = "trackKeyFallback")
     @Retry(name = "trackKey")
     public TrackKeyResponse trackKey(TrackKeyRequest request) {
@@ -67,24 +92,33 @@ public class DigitalKeyService {
             validationService.validateKeyLimits(vehicle);
             validationService.validateOwnerAccount(vehicle.getOwner());
 
-            // Check if key already exists (idempotency)
-            Optional<DigitalKey> existingKey = digitalKeyRepository.findByKeyId(request.getKeyId());
-            if (existingKey.isPresent()) {
-                return new TrackKeyResponse(true, "Key already tracked", request.getKeyId(),
-                    existingKey.get().getKeyId());
+            // Check if key already exists (idempotency); new key ids are ruled out in memory
+            if (keyIdFilter.mightExist(request.getKeyId())) {
+                Optional<DigitalKey> existingKey = digitalKeyRepository.findByKeyId(request.getKeyId());
+                if (existingKey.isPresent()) {
+                    return new TrackKeyResponse(true, "Key already tracked", request.getKeyId(),
+                        existingKey.get().getKeyId());
+                }
+                keyIdFilter.recordFalsePositive();
             }
 
             // Create digital key with business logic
             DigitalKey digitalKey = createDigitalKeyWithBusinessLogic(request, vehicle);
 
-            // Save to database
-            digitalKey = digitalKeyRepository.save(digitalKey);
+            // Save to database; flush so a key tracked concurrently elsewhere fails here
+            try {
+                digitalKey = digitalKeyRepository.saveAndFlush(digitalKey);
+            } catch (DataIntegrityViolationException e) {
+                // Make sure the retry takes the database path and reports the key as tracked
+                keyIdFilter.add(request.getKeyId());
+                throw KeyManagementException.keyAlreadyExists(request.getKeyId());
+            }
+            keyIdFilter.add(digitalKey.getKeyId());
 
-            // Update vehicle key count
-            vehicle.incrementKeyCount();
-            vehicleRepository.save(vehicle);
+            // Take a key slot; fails atomically if a concurrent request used the last one
+            counterService.reserveKeySlot(vehicle);
 
-            // Register with KTS
+            // Register with KTS (delivered by the outbox relay after commit)
             registerWithKTS(digitalKey);
 
             // Send event notification
@@ -104,6 +138,141 @@ public class DigitalKeyService {
         }
     }
 
+    /**
+     * Tracks many keys in one transaction. Keys are grouped by VIN so each vehicle and owner
+     * is loaded and validated once, each vehicle's key slots are reserved with one atomic update,
+     * and new keys are written with a single JDBC batch. Validation and
+     * business rule failures are reported per key instead of failing the whole batch.
+     */
+    public BatchTrackKeyResponse trackKeys(List<TrackKeyRequest> requests) {
+        TrackKeyResponse[] results = new TrackKeyResponse[requests.size()];
+
+        // Group keys by VIN, remembering each key's position in the batch
+        Map<String, List<Integer>> indexesByVin = new LinkedHashMap<>();
+        for (int i = 0; i < requests.size(); i++) {
+            TrackKeyRequest request = requests.get(i);
+            if (request == null || request.getVehicleId() == null || request.getVehicleId().trim().isEmpty()) {
+                results[i] = failedTrackResponse(request, "Vehicle ID is required");
+                continue;
+            }
+            indexesByVin.computeIfAbsent(request.getVehicleId(), vin -> new ArrayList<>()).add(i);
+        }
+
+        Map<String, Vehicle> vehiclesByVin = new HashMap<>();
+        if (!indexesByVin.isEmpty()) {
+            for (Vehicle vehicle : vehicleRepository.findAllByVinInWithOwner(indexesByVin.keySet())) {
+                vehiclesByVin.put(vehicle.getVin(), vehicle);
+            }
+        }
+
+        // Idempotency: keys that already exist are reported as tracked
+        Set<String> existingKeyIds = findExistingKeyIds(requests);
+        Map<String, Integer> firstIndexByKeyId = new HashMap<>();
+        Map<Integer, Integer> duplicateOf = new HashMap<>();
+
+        List<DigitalKey> newKeys = new ArrayList<>();
+        List<Integer> newKeyIndexes = new ArrayList<>();
+        int alreadyTracked = 0;
+
+        for (Map.Entry<String, List<Integer>> group : indexesByVin.entrySet()) {
+            Vehicle vehicle = vehiclesByVin.get(group.getKey());
+            String vehicleError = validateVehicleForBatch(group.getKey(), vehicle);
+            List<Integer> candidates = new ArrayList<>();
+
+            for (int index : group.getValue()) {
+                TrackKeyRequest request = requests.get(index);
+                if (vehicleError != null) {
+                    results[index] = failedTrackResponse(request, vehicleError);
+                    continue;
+                }
+                if (request.getKeyId() != null && existingKeyIds.contains(request.getKeyId())) {
+                    results[index] = new TrackKeyResponse(true, "Key already tracked",
+                        request.getKeyId(), request.getKeyId());
+                    alreadyTracked++;
+                    continue;
+                }
+                if (request.getKeyId() != null && firstIndexByKeyId.containsKey(request.getKeyId())) {
+                    // Same key submitted twice in one batch; resolved from the first occurrence below
+                    duplicateOf.put(index, firstIndexByKeyId.get(request.getKeyId()));
+                    continue;
+                }
+                try {
+                    validateBatchTrackKeyRequest(request, vehicle);
+                } catch (RuntimeException e) {
+                    results[index] = failedTrackResponse(request, e.getMessage());
+                    continue;
+                }
+                firstIndexByKeyId.put(request.getKeyId(), index);
+                candidates.add(index);
+            }
+
+            // Take all the slots this vehicle needs in one atomic, limit-checked update
+            int granted = candidates.isEmpty() ? 0 : counterService.reserveKeySlots(vehicle, candidates.size());
+            for (int i = 0; i < candidates.size(); i++) {
+                int index = candidates.get(i);
+                if (i < granted) {
+                    newKeys.add(createDigitalKeyWithBusinessLogic(requests.get(index), vehicle));
+                    newKeyIndexes.add(index);
+                } else {
+                    results[index] = failedTrackResponse(requests.get(index),
+                        KeyManagementException.keyLimitReached(vehicle.getMaxKeysAllowed()).getMessage());
+                }
+            }
+        }
+
+        boolean[] inserted = digitalKeyRepository.batchInsert(newKeys);
+
+        List<DigitalKey> trackedKeys = new ArrayList<>();
+        Map<Long, Integer> unusedSlots = new HashMap<>();
+        for (int i = 0; i < newKeys.size(); i++) {
+            DigitalKey digitalKey = newKeys.get(i);
+            int index = newKeyIndexes.get(i);
+            keyIdFilter.add(digitalKey.getKeyId());
+            if (inserted[i]) {
+                trackedKeys.add(digitalKey);
+                results[index] = new TrackKeyResponse(true, "Key tracked successfully",
+                    digitalKey.getKeyId(), digitalKey.getKeyId());
+            } else {
+                // A concurrent request tracked the same key between our lookup and insert
+                unusedSlots.merge(digitalKey.getVehicle().getId(), 1, Integer::sum);
+                results[index] = new TrackKeyResponse(true, "Key already tracked",
+                    digitalKey.getKeyId(), digitalKey.getKeyId());
+                alreadyTracked++;
+            }
+        }
+        if (!unusedSlots.isEmpty()) {
+            counterService.releaseKeySlots(unusedSlots);
+        }
+
+        for (Map.Entry<Integer, Integer> duplicate : duplicateOf.entrySet()) {
+            TrackKeyResponse first = results[duplicate.getValue()];
+            TrackKeyRequest request = requests.get(duplicate.getKey());
+            if (first.isSuccess()) {
+                results[duplicate.getKey()] = new TrackKeyResponse(true, "Key already tracked",
+                    request.getKeyId(), request.getKeyId());
+                alreadyTracked++;
+            } else {
+                results[duplicate.getKey()] = failedTrackResponse(request, first.getMessage());
+            }
+        }
+
+        if (!trackedKeys.isEmpty()) {
+            List<OutboxEvent> ktsEvents = new ArrayList<>(trackedKeys.size());
+            for (DigitalKey digitalKey : trackedKeys) {
+                ktsEvents.add(outboxService.newEvent(digitalKey.getKeyId(), OutboxEventType.KTS_REGISTER_KEY,
+                    buildKtsRegistration(digitalKey)));
+            }
+            outboxService.enqueueAll(ktsEvents);
+            eventNotificationService.sendKeyTrackedNotifications(trackedKeys);
+        }
+        for (DigitalKey digitalKey : trackedKeys) {
+            auditService.logKeyAction(digitalKey.getKeyId(), "TRACK_KEY", "SYSTEM",
+                "Key tracked for vehicle " + digitalKey.getVehicle().getVin() + " (batch)");
+        }
+
+        return new BatchTrackKeyResponse(Arrays.asList(results), trackedKeys.size(), alreadyTracked);
+    }
+
     @CircuitBreaker(name = "manageKey", fallbackMethod = "manageKeyFallback")
     @Retry(name = "manageKey")
     public ManageKeyResponse manageKey(ManageKeyRequest request) {
@@ -111,44 +280,50 @@ public class DigitalKeyService {
             // Validate action
             validationService.validateKeyAction(request.getAction());
 
-            // Find digital key
-            DigitalKey digitalKey = digitalKeyRepository.findByKeyId(request.getKeyId())
+            // Reject unknown keys and lapsed subscriptions from cache, before touching the database
+            KeyValidity cached = keyValidityCache.getKey(request.getKeyId());
+            keyValidityCache.validateVehicleSubscription(cached.vehicleId());
+
+            // Find digital key; saving it below evicts the cached entry
+            DigitalKey digitalKey = digitalKeyRepository.findByKeyIdWithVehicle(request.getKeyId())
                 .orElseThrow(() -> KeyManagementException.keyNotFound(request.getKeyId()));
 
             // Validate key status transition
             validationService.validateKeyStatusTransition(digitalKey, request.getAction());
 
-            // Validate vehicle subscription is still active for key operations
-            validationService.validateVehicleSubscription(digitalKey.getVehicle());
-
             // Process action with business logic
+            boolean heldKeySlot = digitalKey.holdsKeySlot();
             processKeyActionWithBusinessLogic(digitalKey, request.getAction(), request.getReason(), request.getRequestedBy());
 
             // Save changes
             digitalKeyRepository.save(digitalKey);
 
-            // Update vehicle key count if key was terminated
-            if (digitalKey.getStatus() == KeyStatus.TERMINATED) {
-                Vehicle vehicle = digitalKey.getVehicle();
-                vehicle.decrementKeyCount();
-                vehicleRepository.save(vehicle);
+            // Update vehicle key count if key was terminated or expired; a key that had
+            // already expired gave its slot back at that point
+            if (heldKeySlot && !digitalKey.holdsKeySlot()) {
+                counterService.releaseKeySlot(digitalKey.getVehicle());
             }
 
+            // Record the operation; the downstream steps below are delivered asynchronously
+            String operationId = keyOperationService.start(digitalKey, request.getAction(), request.getRequestedBy());
+
             // Send telematics command to vehicle
-            sendVehicleCommand(digitalKey, request.getAction());
+            sendVehicleCommand(digitalKey, request.getAction(), operationId);
 
             // Update KTS
-            updateKTSStatus(digitalKey);
+            updateKTSStatus(digitalKey, operationId);
 
             // Send event notification
-            eventNotificationService.sendKeyStatusChangedNotification(digitalKey, request.getAction());
+            eventNotificationService.sendKeyStatusChangedNotification(digitalKey, request.getAction(), operationId);
 
             // Log audit trail
             auditService.logKeyAction(digitalKey.getKeyId(), "MANAGE_KEY_" + request.getAction().toUpperCase(),
                 request.getRequestedBy() != null ? request.getRequestedBy() : "SYSTEM", request.getReason());
 
-            return new ManageKeyResponse(true, "Key managed successfully",
+            ManageKeyResponse response = new ManageKeyResponse(true, "Key managed successfully",
                 digitalKey.getKeyId(), digitalKey.getStatus().name());
+            response.setOperationId(operationId);
+            return response;
 
         } catch (BusinessException e) {
             throw e; // Re-throw business exceptions
@@ -157,7 +332,78 @@ public class DigitalKeyService {
         }
     }
 
+    @Transactional(readOnly = true)
+    public Optional<DigitalKeyView> getKey(String keyId) {
+        return digitalKeyRepository.findViewByKeyId(keyId);
+    }
 
+    /**
+     * Lists a vehicle's keys oldest first, one keyset page at a time. The cursor encodes the
+     * (created_at, id) of the last key returned, so each page is an index seek no matter how
+     * deep the caller pages.
+     */
+    @Transactional(readOnly = true)
+    public DigitalKeyPageResponse getVehicleKeys(String vin, String status, String keyType, String cursor, Integer limit) {
+        int pageSize = limit != null ? limit : DEFAULT_PAGE_SIZE;
+        if (pageSize < 1 || pageSize > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("limit must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        KeyStatus statusFilter = parseFilter(KeyStatus.class, status, "status");
+        KeyType typeFilter = parseFilter(KeyType.class, keyType, "type");
+
+        LocalDateTime afterCreatedAt = null;
+        Long afterId = null;
+        if (cursor != null && !cursor.isBlank()) {
+            String[] position = decodeCursor(cursor);
+            afterCreatedAt = LocalDateTime.parse(position[0]);
+            afterId = Long.valueOf(position[1]);
+        }
+
+        // Fetch one extra row to learn whether there is another page
+        List<DigitalKeyView> keys = digitalKeyRepository.findViewsByVehicleVin(vin, statusFilter, typeFilter,
+            afterCreatedAt, afterId, pageSize + 1);
+        if (keys.isEmpty() && afterCreatedAt == null && !vehicleRepository.existsByVin(vin)) {
+            throw new VehicleNotFoundException(vin);
+        }
+
+        String nextCursor = null;
+        if (keys.size() > pageSize) {
+            keys = new ArrayList<>(keys.subList(0, pageSize));
+            DigitalKeyView last = keys.get(pageSize - 1);
+            nextCursor = encodeCursor(last.createdAt(), last.id());
+        }
+        return new DigitalKeyPageResponse(keys, nextCursor, pageSize);
+    }
+
+    static String encodeCursor(LocalDateTime createdAt, Long id) {
+        String position = createdAt + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(position.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String[] decodeCursor(String cursor) {
+        try {
+            String[] position = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split("\\|");
+            if (position.length != 2) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+            LocalDateTime.parse(position[0]);
+            Long.parseLong(position[1]);
+            return position;
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+    }
+
+    private static <E extends Enum<E>> E parseFilter(Class<E> type, String value, String name) {
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        try {
+            return Enum.valueOf(type, value.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid " + name + " filter: " + value);
+        }
+    }
 
     private DigitalKey createDigitalKeyWithBusinessLogic(TrackKeyRequest request, Vehicle vehicle) {
         DigitalKey digitalKey = new DigitalKey();
@@ -200,20 +446,64 @@ public class DigitalKeyService {
         return digitalKey;
     }
 
-    private void registerWithKTS(DigitalKey digitalKey) {
+    private Set<String> findExistingKeyIds(List<TrackKeyRequest> requests) {
+        // Only key ids the filter cannot rule out need a database lookup
+        List<String> keyIds = new ArrayList<>();
+        for (TrackKeyRequest request : requests) {
+            if (request != null && request.getKeyId() != null && keyIdFilter.mightExist(request.getKeyId())) {
+                keyIds.add(request.getKeyId());
+            }
+        }
+
+        Set<String> existing = new HashSet<>();
+        for (int from = 0; from < keyIds.size(); from += KEY_ID_LOOKUP_CHUNK_SIZE) {
+            List<String> chunk = keyIds.subList(from, Math.min(from + KEY_ID_LOOKUP_CHUNK_SIZE, keyIds.size()));
+            existing.addAll(digitalKeyRepository.findExistingKeyIds(chunk));
+        }
+        return existing;
+    }
+
+    private String validateVehicleForBatch(String vin, Vehicle vehicle) {
+        if (vehicle == null) {
+            return new VehicleNotFoundException(vin).getMessage();
+        }
         try {
-            KeyRegistrationRequest ktsRequest = new KeyRegistrationRequest();
-            ktsRequest.setKeyId(digitalKey.getKeyId());
-            ktsRequest.setVehicleId(digitalKey.getVehicle().getVin());
-            ktsRequest.setDeviceId(digitalKey.getDeviceId());
-            ktsRequest.setKeyType(digitalKey.getKeyType().name());
-            ktsRequest.setTimestamp(LocalDateTime.now().format(DateTimeFormatter.ISO_DATE_TIME));
-
-            keyTrackingClient.registerKey(ktsRequest);
-        } catch (Exception e) {
-            // Log error but don't fail the entire operation
-            System.err.println("Failed to register key with KTS: " + e.getMessage());
+            validationService.validateVehicleSubscription(vehicle);
+            validationService.validateOwnerAccount(vehicle.getOwner());
+            return null;
+        } catch (RuntimeException e) {
+            return e.getMessage();
+        }
+    }
+
+    private void validateBatchTrackKeyRequest(TrackKeyRequest request, Vehicle vehicle) {
+        // Single requests get these checks from bean validation; batch items are validated here
+        // so that one malformed entry fails on its own instead of rejecting the whole batch
+        if (request.getDeviceOem() == null || request.getDeviceOem().trim().isEmpty()) {
+            throw new IllegalArgumentException("Device OEM is required");
+        }
+        if (request.getKeyType() == null || request.getKeyType().trim().isEmpty()) {
+            throw new IllegalArgumentException("Key type is required");
         }
+        validationService.validateTrackKeyRequest(request, vehicle);
+    }
+
+    private TrackKeyResponse failedTrackResponse(TrackKeyRequest request, String message) {
+        return new TrackKeyResponse(false, message, request != null ? request.getKeyId() : null, null);
+    }
+
+    private void registerWithKTS(DigitalKey digitalKey) {
+        outboxService.enqueue(digitalKey.getKeyId(), OutboxEventType.KTS_REGISTER_KEY, buildKtsRegistration(digitalKey));
+    }
+
+    private KeyRegistrationRequest buildKtsRegistration(DigitalKey digitalKey) {
+        KeyRegistrationRequest ktsRequest = new KeyRegistrationRequest();
+        ktsRequest.setKeyId(digitalKey.getKeyId());
+        ktsRequest.setVehicleId(digitalKey.getVehicle().getVin());
+        ktsRequest.setDeviceId(digitalKey.getDeviceId());
+        ktsRequest.setKeyType(digitalKey.getKeyType().name());
+        ktsRequest.setTimestamp(LocalDateTime.now().format(DateTimeFormatter.ISO_DATE_TIME));
+        return ktsRequest;
     }
 
     private void processKeyActionWithBusinessLogic(DigitalKey digitalKey, String action, String reason, String requestedBy) {
@@ -249,31 +539,23 @@ public class DigitalKeyService {
         }
     }
 
-    private void sendVehicleCommand(DigitalKey digitalKey, String action) {
-        try {
-            TelematicsCommandRequest telematicsRequest = new TelematicsCommandRequest();
-            telematicsRequest.setVehicleId(digitalKey.getVehicle().getVin());
-            telematicsRequest.setCommand(action);
-            telematicsRequest.setKeyId(digitalKey.getKeyId());
-            telematicsRequest.setTimestamp(LocalDateTime.now().format(DateTimeFormatter.ISO_DATE_TIME));
+    private void sendVehicleCommand(DigitalKey digitalKey, String action, String operationId) {
+        TelematicsCommandRequest telematicsRequest = new TelematicsCommandRequest();
+        telematicsRequest.setVehicleId(digitalKey.getVehicle().getVin());
+        telematicsRequest.setCommand(action);
+        telematicsRequest.setKeyId(digitalKey.getKeyId());
+        telematicsRequest.setTimestamp(LocalDateTime.now().format(DateTimeFormatter.ISO_DATE_TIME));
 
-            vehicleTelematicsClient.sendCommand(telematicsRequest);
-        } catch (Exception e) {
-            System.err.println("Failed to send vehicle command: " + e.getMessage());
-        }
+        outboxService.enqueue(digitalKey.getKeyId(), OutboxEventType.TELEMATICS_COMMAND, telematicsRequest, operationId);
     }
 
-    private void updateKTSStatus(DigitalKey digitalKey) {
-        try {
-            KeyStatusUpdateRequest ktsRequest = new KeyStatusUpdateRequest();
-            ktsRequest.setKeyId(digitalKey.getKeyId());
-            ktsRequest.setNewStatus(digitalKey.getStatus().name());
-            ktsRequest.setTimestamp(LocalDateTime.now().format(DateTimeFormatter.ISO_DATE_TIME));
+    private void updateKTSStatus(DigitalKey digitalKey, String operationId) {
+        KeyStatusUpdateRequest ktsRequest = new KeyStatusUpdateRequest();
+        ktsRequest.setKeyId(digitalKey.getKeyId());
+        ktsRequest.setNewStatus(digitalKey.getStatus().name());
+        ktsRequest.setTimestamp(LocalDateTime.now().format(DateTimeFormatter.ISO_DATE_TIME));
 
-            keyTrackingClient.updateKeyStatus(ktsRequest);
-        } catch (Exception e) {
-            System.err.println("Failed to update KTS status: " + e.getMessage());
-        }
+        outboxService.enqueue(digitalKey.getKeyId(), OutboxEventType.KTS_UPDATE_KEY_STATUS, ktsRequest, operationId);
     }
 
     // Fallback methods
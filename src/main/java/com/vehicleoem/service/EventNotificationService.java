@@ -1,57 +1,60 @@
 package com.vehicleoem.service;
 
 import com.vehicleoem.model.DigitalKey;
-import com.vehicleoem.client.DeviceOemClient;
+import com.vehicleoem.model.OutboxEvent;
+import com.vehicleoem.model.OutboxEventType;
 import com.vehicleoem.dto.EventNotificationRequest;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
-import io.github.resilience4j.circuitbreaker.annotation.CircuitBreaker;
-import io.github.resilience4j.retry.annotation.Retry;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
 
+/**
+ * Device OEM event notifications. Notifications are written to the outbox as part of the
+ * caller's transaction and delivered by {@link OutboxRelay} after commit.
+ */
 @Service
 public class EventNotificationService {
     
     @Autowired
-    private DeviceOemClient deviceOemClient;
+    private OutboxService outboxService;
     
-    @Async
-    @CircuitBreaker(name = "eventNotification")
-    @Retry(name = "eventNotification")
     public void sendKeyTrackedNotification(DigitalKey digitalKey) {
-        try {
-            EventNotificationRequest request = new EventNotificationRequest();
-            request.setEventType("KEY_TRACKED");
-            request.setKeyId(digitalKey.getKeyId());
-            request.setDeviceId(digitalKey.getDeviceId());
-            request.setVehicleId(digitalKey.getVehicle().getVin());
-            request.setTimestamp(LocalDateTime.now().format(DateTimeFormatter.ISO_DATE_TIME));
-            
-            deviceOemClient.sendEventNotification(request);
-        } catch (Exception e) {
-            System.err.println("Failed to send key tracked notification: " + e.getMessage());
-        }
+        outboxService.enqueue(digitalKey.getKeyId(), OutboxEventType.DEVICE_OEM_NOTIFICATION,
+            buildKeyTrackedNotification(digitalKey));
     }
     
-    @Async
-    @CircuitBreaker(name = "eventNotification")
-    @Retry(name = "eventNotification")
-    public void sendKeyStatusChangedNotification(DigitalKey digitalKey, String action) {
-        try {
-            EventNotificationRequest request = new EventNotificationRequest();
-            request.setEventType("KEY_STATUS_CHANGED");
-            request.setKeyId(digitalKey.getKeyId());
-            request.setDeviceId(digitalKey.getDeviceId());
-            request.setVehicleId(digitalKey.getVehicle().getVin());
-            request.setAction(action);
-            request.setNewStatus(digitalKey.getStatus().name());
-            request.setTimestamp(LocalDateTime.now().format(DateTimeFormatter.ISO_DATE_TIME));
-            
-            deviceOemClient.sendEventNotification(request);
-        } catch (Exception e) {
-            System.err.println("Failed to send key status changed notification: " + e.getMessage());
+    public void sendKeyTrackedNotifications(List<DigitalKey> digitalKeys) {
+        List<OutboxEvent> events = new ArrayList<>(digitalKeys.size());
+        for (DigitalKey digitalKey : digitalKeys) {
+            events.add(outboxService.newEvent(digitalKey.getKeyId(), OutboxEventType.DEVICE_OEM_NOTIFICATION,
+                buildKeyTrackedNotification(digitalKey)));
         }
+        outboxService.enqueueAll(events);
+    }
+    
+    public void sendKeyStatusChangedNotification(DigitalKey digitalKey, String action, String operationId) {
+        EventNotificationRequest request = new EventNotificationRequest();
+        request.setEventType("KEY_STATUS_CHANGED");
+        request.setKeyId(digitalKey.getKeyId());
+        request.setDeviceId(digitalKey.getDeviceId());
+        request.setVehicleId(digitalKey.getVehicle().getVin());
+        request.setAction(action);
+        request.setNewStatus(digitalKey.getStatus().name());
+        request.setTimestamp(LocalDateTime.now().format(DateTimeFormatter.ISO_DATE_TIME));
+        
+        outboxService.enqueue(digitalKey.getKeyId(), OutboxEventType.DEVICE_OEM_NOTIFICATION, request, operationId);
+    }
+    
+    private EventNotificationRequest buildKeyTrackedNotification(DigitalKey digitalKey) {
+        EventNotificationRequest request = new EventNotificationRequest();
+        request.setEventType("KEY_TRACKED");
+        request.setKeyId(digitalKey.getKeyId());
+        request.setDeviceId(digitalKey.getDeviceId());
+        request.setVehicleId(digitalKey.getVehicle().getVin());
+        request.setTimestamp(LocalDateTime.now().format(DateTimeFormatter.ISO_DATE_TIME));
+        return request;
     }
 }
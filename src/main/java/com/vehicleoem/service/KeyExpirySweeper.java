@@ -0,0 +1,140 @@
+package com.vehicleoem.service;
+
+import com.vehicleoem.dto.KeyStatusUpdateRequest;
+import com.vehicleoem.model.KeyStatus;
+import com.vehicleoem.model.OutboxEvent;
+import com.vehicleoem.model.OutboxEventType;
+import com.vehicleoem.repository.DigitalKeyRepository;
+import com.vehicleoem.repository.DigitalKeyRepositoryCustom.ExpiredKey;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Persists the EXPIRED status of keys whose expires_at has passed. Otherwise a key only
+ * looks expired to code that calls {@link com.vehicleoem.model.DigitalKey#isExpired()}, and
+ * status queries, vehicle key limits and KTS keep treating it as live.
+ * <p>
+ * Each chunk is one transaction: a set-based {@code UPDATE ... RETURNING} expires the keys,
+ * their slots are returned with one counter update per vehicle, and one KTS status update
+ * per key is written to the outbox in a single batch. Chunks are locked with SKIP LOCKED,
+ * so several instances can sweep at the same time without doing the same work twice.
+ */
+@Component
+public class KeyExpirySweeper {
+
+    @Autowired
+    private DigitalKeyRepository digitalKeyRepository;
+
+    @Autowired
+    private CounterService counterService;
+
+    @Autowired
+    private OutboxService outboxService;
+
+    @Autowired
+    private KeyValidityCache keyValidityCache;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${key-expiry.enabled:true}")
+    private boolean enabled;
+
+    @Value("${key-expiry.chunk-size:500}")
+    private int chunkSize;
+
+    @Value("${key-expiry.max-chunks-per-run:20}")
+    private int maxChunksPerRun;
+
+    private final AtomicLong backlog = new AtomicLong();
+
+    private Timer sweepTimer;
+    private Counter expiredKeys;
+
+    @PostConstruct
+    void registerMetrics() {
+        Gauge.builder("key_expiry.backlog", backlog, AtomicLong::get)
+            .description("Keys past expires_at that are not yet marked EXPIRED")
+            .register(meterRegistry);
+        sweepTimer = Timer.builder("key_expiry.sweep.duration").register(meterRegistry);
+        expiredKeys = Counter.builder("key_expiry.expired")
+            .description("Keys marked EXPIRED by the sweeper")
+            .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${key-expiry.sweep-interval-ms:60000}")
+    public void sweep() {
+        if (!enabled) {
+            return;
+        }
+        Timer.Sample sample = Timer.start(meterRegistry);
+        try {
+            LocalDateTime now = LocalDateTime.now();
+            for (int chunk = 0; chunk < maxChunksPerRun; chunk++) {
+                if (expireChunk(now) < chunkSize) {
+                    break;
+                }
+            }
+            backlog.set(digitalKeyRepository.countDueForExpiry(now));
+        } catch (Exception e) {
+            System.err.println("Key expiry sweep failed: " + e.getMessage());
+        } finally {
+            sample.stop(sweepTimer);
+        }
+    }
+
+    /**
+     * @return number of keys expired
+     */
+    int expireChunk(LocalDateTime now) {
+        Integer expired = transactionTemplate.execute(status -> {
+            List<ExpiredKey> keys = digitalKeyRepository.expireDueKeys(now, chunkSize);
+            if (keys.isEmpty()) {
+                return 0;
+            }
+
+            String timestamp = now.format(DateTimeFormatter.ISO_DATE_TIME);
+            Map<Long, Integer> slotsByVehicleId = new HashMap<>();
+            List<OutboxEvent> ktsUpdates = new ArrayList<>(keys.size());
+            for (ExpiredKey key : keys) {
+                slotsByVehicleId.merge(key.vehicleId(), 1, Integer::sum);
+                ktsUpdates.add(outboxService.newEvent(key.keyId(), OutboxEventType.KTS_UPDATE_KEY_STATUS,
+                    statusUpdate(key.keyId(), timestamp)));
+                keyValidityCache.invalidateKey(key.keyId());
+            }
+
+            counterService.releaseKeySlots(slotsByVehicleId);
+            outboxService.enqueueAll(ktsUpdates);
+            return keys.size();
+        });
+        int count = expired != null ? expired : 0;
+        expiredKeys.increment(count);
+        return count;
+    }
+
+    private static KeyStatusUpdateRequest statusUpdate(String keyId, String timestamp) {
+        KeyStatusUpdateRequest request = new KeyStatusUpdateRequest();
+        request.setKeyId(keyId);
+        request.setNewStatus(KeyStatus.EXPIRED.name());
+        request.setTimestamp(timestamp);
+        return request;
+    }
+}
@@ -0,0 +1,144 @@
+package com.vehicleoem.service;
+
+import com.vehicleoem.repository.DigitalKeyRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * In-memory membership filter over every tracked key_id, used to skip the existence query
+ * for key ids that have definitely never been tracked. Only possible hits go to the database.
+ * <p>
+ * The filter is built from the database after startup and updated as keys are inserted by
+ * this instance. Until the first build completes every key id is reported as possibly
+ * present, so callers always fall back to the database. Keys tracked by other instances are
+ * picked up by the periodic rebuild; in between, the unique constraint on key_id still
+ * rejects a duplicate, and callers report it through {@link #add} so retries hit the database.
+ */
+@Service
+public class KeyIdFilter {
+
+    @Autowired
+    private DigitalKeyRepository digitalKeyRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${key-id-filter.enabled:true}")
+    private boolean enabled;
+
+    @Value("${key-id-filter.initial-capacity:1000000}")
+    private long initialCapacity;
+
+    @Value("${key-id-filter.false-positive-rate:0.001}")
+    private double falsePositiveRate;
+
+    // Null until the first build completes
+    private volatile ScalableBloomFilter filter;
+    // Receives concurrent inserts while a rebuild is streaming key ids
+    private volatile ScalableBloomFilter rebuilding;
+    private final Object rebuildLock = new Object();
+
+    private Counter definitelyAbsent;
+    private Counter possiblyPresent;
+    private Counter falsePositives;
+
+    @PostConstruct
+    void registerMetrics() {
+        Gauge.builder("key_id_filter.size", this, f -> f.filter != null ? f.filter.size() : 0)
+            .description("Key ids recorded in the filter")
+            .register(meterRegistry);
+        Gauge.builder("key_id_filter.memory", this, f -> f.filter != null ? f.filter.bitSizeInBytes() : 0)
+            .baseUnit("bytes")
+            .register(meterRegistry);
+        definitelyAbsent = Counter.builder("key_id_filter.lookups").tag("result", "absent").register(meterRegistry);
+        possiblyPresent = Counter.builder("key_id_filter.lookups").tag("result", "possible").register(meterRegistry);
+        falsePositives = Counter.builder("key_id_filter.false_positives")
+            .description("Possible hits that the database showed to be absent")
+            .register(meterRegistry);
+    }
+
+    @Async
+    @EventListener(ApplicationReadyEvent.class)
+    public void buildOnStartup() {
+        rebuild();
+    }
+
+    @Scheduled(cron = "${key-id-filter.rebuild-cron:0 30 3 * * *}")
+    public void scheduledRebuild() {
+        rebuild();
+    }
+
+    /**
+     * Rebuilds the filter from the database. The current filter keeps answering lookups
+     * until the new one is complete.
+     */
+    public void rebuild() {
+        if (!enabled) {
+            return;
+        }
+        synchronized (rebuildLock) {
+            long startedAt = System.currentTimeMillis();
+            ScalableBloomFilter next = new ScalableBloomFilter(initialCapacity, falsePositiveRate);
+            rebuilding = next;
+            try {
+                Long count = transactionTemplate.execute(status -> digitalKeyRepository.streamKeyIds(next::put));
+                filter = next;
+                System.err.println("Key id filter built with " + count + " key ids in " +
+                    (System.currentTimeMillis() - startedAt) + " ms (" + next.stageCount() + " stages)");
+            } catch (Exception e) {
+                System.err.println("Failed to build key id filter: " + e.getMessage());
+            } finally {
+                rebuilding = null;
+            }
+        }
+    }
+
+    /**
+     * @return {@code false} only if the key id has definitely never been tracked
+     */
+    public boolean mightExist(String keyId) {
+        ScalableBloomFilter current = filter;
+        if (current == null || keyId == null) {
+            return true;
+        }
+        boolean possible = current.mightContain(keyId);
+        (possible ? possiblyPresent : definitelyAbsent).increment();
+        return possible;
+    }
+
+    public void add(String keyId) {
+        if (keyId == null) {
+            return;
+        }
+        ScalableBloomFilter pending = rebuilding;
+        if (pending != null) {
+            pending.put(keyId);
+        }
+        ScalableBloomFilter current = filter;
+        if (current != null) {
+            current.put(keyId);
+        }
+    }
+
+    /** Records that a possible hit turned out not to exist in the database. */
+    public void recordFalsePositive() {
+        falsePositives.increment();
+    }
+
+    public boolean isReady() {
+        return filter != null;
+    }
+}
@@ -0,0 +1,140 @@
+package com.vehicleoem.service;
+
+import com.vehicleoem.dto.KeyOperationResponse;
+import com.vehicleoem.dto.KeyOperationStepResponse;
+import com.vehicleoem.model.DigitalKey;
+import com.vehicleoem.model.KeyOperation;
+import com.vehicleoem.model.OutboxEvent;
+import com.vehicleoem.model.OutboxStatus;
+import com.vehicleoem.repository.KeyOperationRepository;
+import com.vehicleoem.repository.OutboxEventRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Tracks asynchronous key operations. An operation is recorded in the same transaction as
+ * the key status change, and its progress is derived from the outbox events enqueued for it.
+ * Long-poll callers are woken as soon as the local relay settles a step; steps delivered by
+ * another instance are picked up by re-reading at the poll interval.
+ */
+@Service
+public class KeyOperationService {
+
+    @Autowired
+    private KeyOperationRepository keyOperationRepository;
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    @Value("${key-operations.max-wait-seconds:30}")
+    private long maxWaitSeconds;
+
+    @Value("${key-operations.poll-interval-ms:500}")
+    private long pollIntervalMs;
+
+    @Value("${key-operations.retention-hours:72}")
+    private long retentionHours;
+
+    private final ConcurrentHashMap<String, CompletableFuture<Void>> waiters = new ConcurrentHashMap<>();
+
+    @Transactional
+    public String start(DigitalKey digitalKey, String action, String requestedBy) {
+        KeyOperation operation = new KeyOperation(digitalKey.getKeyId(), action.toUpperCase(),
+            digitalKey.getStatus(), requestedBy);
+        return keyOperationRepository.save(operation).getId();
+    }
+
+    public Optional<KeyOperationResponse> getOperation(String operationId) {
+        return keyOperationRepository.findById(operationId)
+            .map(operation -> toResponse(operation, outboxEventRepository.findByOperationIdOrderByIdAsc(operationId)));
+    }
+
+    /**
+     * Returns the operation once it has finished, or its current state when {@code waitSeconds}
+     * (capped at the configured maximum) elapses first.
+     */
+    public Optional<KeyOperationResponse> awaitOperation(String operationId, long waitSeconds) {
+        long waitNanos = TimeUnit.SECONDS.toNanos(Math.max(0, Math.min(waitSeconds, maxWaitSeconds)));
+        long deadline = System.nanoTime() + waitNanos;
+        CompletableFuture<Void> signal = null;
+        try {
+            while (true) {
+                // Register before reading so a step settled in between is not missed
+                signal = waiters.computeIfAbsent(operationId, id -> new CompletableFuture<>());
+                Optional<KeyOperationResponse> operation = getOperation(operationId);
+                long remaining = deadline - System.nanoTime();
+                if (operation.isEmpty() || operation.get().isFinished() || remaining <= 0) {
+                    return operation;
+                }
+                try {
+                    signal.get(Math.min(remaining, TimeUnit.MILLISECONDS.toNanos(pollIntervalMs)), TimeUnit.NANOSECONDS);
+                } catch (TimeoutException | ExecutionException e) {
+                    // Re-read: the step may have been delivered by another instance
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return getOperation(operationId);
+                }
+            }
+        } finally {
+            if (signal != null) {
+                waiters.remove(operationId, signal);
+            }
+        }
+    }
+
+    /**
+     * Called by the outbox relay after each delivery attempt of an operation step.
+     */
+    public void stepProgressed(String operationId) {
+        CompletableFuture<Void> signal = waiters.remove(operationId);
+        if (signal != null) {
+            signal.complete(null);
+        }
+    }
+
+    @Scheduled(cron = "${key-operations.purge-cron:0 20 * * * *}")
+    @Transactional
+    public void purgeExpiredOperations() {
+        try {
+            keyOperationRepository.deleteCreatedBefore(LocalDateTime.now().minusHours(retentionHours));
+        } catch (Exception e) {
+            System.err.println("Key operation purge failed: " + e.getMessage());
+        }
+    }
+
+    private KeyOperationResponse toResponse(KeyOperation operation, List<OutboxEvent> events) {
+        KeyOperationResponse response = new KeyOperationResponse();
+        response.setOperationId(operation.getId());
+        response.setKeyId(operation.getKeyId());
+        response.setAction(operation.getAction());
+        response.setNewStatus(operation.getResultingStatus().name());
+        response.setCreatedAt(operation.getCreatedAt());
+
+        List<KeyOperationStepResponse> steps = new ArrayList<>(events.size());
+        boolean failed = false;
+        boolean pending = false;
+        for (OutboxEvent event : events) {
+            steps.add(new KeyOperationStepResponse(event.getEventType().name(), event.getStatus().name(),
+                event.getAttempts(), event.getLastError(), event.getAcknowledgement(), event.getDispatchedAt()));
+            failed |= event.getStatus() == OutboxStatus.FAILED;
+            pending |= event.getStatus() == OutboxStatus.PENDING;
+        }
+        response.setSteps(steps);
+        // Delivered steps are purged after the outbox retention period; no steps left means done
+        response.setStatus(failed ? KeyOperationResponse.FAILED
+            : pending ? KeyOperationResponse.IN_PROGRESS : KeyOperationResponse.COMPLETED);
+        return response;
+    }
+}
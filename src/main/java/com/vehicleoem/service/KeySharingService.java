@@ -18,6 +18,8 @@ import java.util.UUID;
 @Transactional
 public class KeySharingService {
     
+    private static final int MAX_KEY_ID_ATTEMPTS = 5;
+    
     @Autowired
     private DigitalKeyRepository digitalKeyRepository;
     
@@ -36,6 +38,12 @@ public class KeySharingService {
     @Autowired
     private NotificationService notificationService;
     
+    @Autowired
+    private CounterService counterService;
+    
+    @Autowired
+    private KeyIdFilter keyIdFilter;
+    
     public ShareKeyResponse shareKey(ShareKeyRequest request) {
         // Find the vehicle
         Vehicle vehicle = vehicleRepository.findByVin(request.getVehicleVin())
@@ -80,6 +88,7 @@ public class KeySharingService {
         // Create the friend digital key
         DigitalKey friendKey = createFriendKey(invitation, deviceId, deviceOem);
         friendKey = digitalKeyRepository.save(friendKey);
+        keyIdFilter.add(friendKey.getKeyId());
         
         // Update invitation status
         invitation.setStatus(InvitationStatus.ACCEPTED);
@@ -87,10 +96,9 @@ public class KeySharingService {
         invitation.setDigitalKey(friendKey);
         invitationRepository.save(invitation);
         
-        // Update vehicle key count
+        // Take a key slot; fails atomically if the vehicle reached its key limit meanwhile
         Vehicle vehicle = invitation.getVehicle();
-        vehicle.incrementKeyCount();
-        vehicleRepository.save(vehicle);
+        counterService.reserveKeySlot(vehicle);
         
         // Send confirmation notifications
         notificationService.sendKeyCreatedNotification(vehicle.getOwner(), friendKey);
@@ -111,13 +119,15 @@ public class KeySharingService {
         }
         
         // Revoke the key
+        boolean heldKeySlot = digitalKey.holdsKeySlot();
         digitalKey.revoke(revokedBy, reason);
         digitalKeyRepository.save(digitalKey);
         
-        // Update vehicle key count
+        // Release the key slot, unless the key already gave it back when it expired
         Vehicle vehicle = digitalKey.getVehicle();
-        vehicle.decrementKeyCount();
-        vehicleRepository.save(vehicle);
+        if (heldKeySlot) {
+            counterService.releaseKeySlot(vehicle);
+        }
         
         // Update invitation status if exists
         invitationRepository.findByDigitalKey(digitalKey).ifPresent(invitation -> {
@@ -289,6 +299,17 @@ public class KeySharingService {
     }
     
     private String generateKeyId() {
+        for (int attempt = 1; attempt < MAX_KEY_ID_ATTEMPTS; attempt++) {
+            String keyId = randomKeyId();
+            // Almost every candidate is ruled out by the filter without touching the database
+            if (!keyIdFilter.mightExist(keyId) || !digitalKeyRepository.existsByKeyId(keyId)) {
+                return keyId;
+            }
+        }
+        return randomKeyId();
+    }
+    
+    private String randomKeyId() {
         return "FRIEND-" + UUID.randomUUID().toString().replace("-", "").substring(0, 16).toUpperCase();
     }
 }
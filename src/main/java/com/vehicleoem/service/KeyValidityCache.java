@@ -0,0 +1,233 @@
+package com.vehicleoem.service;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.vehicleoem.exception.KeyManagementException;
+import com.vehicleoem.model.DigitalKey;
+import com.vehicleoem.model.EntityChangedEvent;
+import com.vehicleoem.model.KeyStatus;
+import com.vehicleoem.model.KeyType;
+import com.vehicleoem.model.PermissionLevel;
+import com.vehicleoem.model.Vehicle;
+import com.vehicleoem.model.VehicleStatus;
+import com.vehicleoem.repository.DigitalKeyRepository;
+import com.vehicleoem.repository.VehicleRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+
+/**
+ * Bounded cache of the fields needed to decide whether a key may be used or managed, so
+ * that repeat lock/unlock requests for the same key are answered without a database read.
+ * <p>
+ * Key and vehicle entries are cached separately, so a subscription change invalidates one
+ * vehicle entry rather than every key of that vehicle. Validity windows are stored as
+ * epoch millis and evaluated on every check, so expiry does not depend on the TTL. Entries
+ * are evicted on the {@link EntityChangedEvent} published whenever a key or vehicle is
+ * updated through JPA, and by callers of the bulk SQL updates that change key status. The
+ * TTL bounds how long a change made by another instance can go unnoticed.
+ */
+@Service
+public class KeyValidityCache {
+
+    @Autowired
+    private DigitalKeyRepository digitalKeyRepository;
+
+    @Autowired
+    private VehicleRepository vehicleRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${key-validity-cache.maximum-size:100000}")
+    private long maximumSize;
+
+    @Value("${key-validity-cache.ttl-seconds:30}")
+    private long ttlSeconds;
+
+    private Cache<String, KeyValidity> keys;
+    private Cache<Long, VehicleValidity> vehicles;
+
+    @PostConstruct
+    void init() {
+        keys = Caffeine.newBuilder()
+            .maximumSize(maximumSize)
+            .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+            .recordStats()
+            .build();
+        vehicles = Caffeine.newBuilder()
+            .maximumSize(maximumSize)
+            .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+            .recordStats()
+            .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, keys, "key_validity.keys");
+        CaffeineCacheMetrics.monitor(meterRegistry, vehicles, "key_validity.vehicles");
+    }
+
+    /**
+     * @throws KeyManagementException if no key has this key id
+     */
+    public KeyValidity getKey(String keyId) {
+        KeyValidity key = keys.getIfPresent(keyId);
+        if (key == null) {
+            key = loadKey(keyId);
+            keys.put(keyId, key);
+        }
+        return key;
+    }
+
+    /**
+     * Applies the same checks as {@link DigitalKey#isActive()} followed by
+     * {@link ValidationService#validateVehicleSubscription}, from cached state.
+     */
+    public KeyValidity validateKeyUsage(String keyId) {
+        KeyValidity key = getKey(keyId);
+        long now = currentTimeMillis();
+
+        if (!key.isActive(now)) {
+            throw KeyManagementException.invalidKeyStatus(keyId, key.status().name(), "USE");
+        }
+
+        if (key.isExpired(now)) {
+            throw KeyManagementException.keyExpired(keyId);
+        }
+
+        if (key.usageLimitReached()) {
+            throw KeyManagementException.usageLimitReached(keyId);
+        }
+
+        validateVehicleSubscription(key.vehicleId());
+        return key;
+    }
+
+    public void validateVehicleSubscription(Long vehicleId) {
+        VehicleValidity vehicle = vehicles.getIfPresent(vehicleId);
+        if (vehicle == null) {
+            vehicle = vehicleRepository.findById(vehicleId).map(VehicleValidity::of)
+                .orElseThrow(() -> new IllegalArgumentException("Vehicle not found: " + vehicleId));
+            vehicles.put(vehicleId, vehicle);
+        }
+
+        if (!vehicle.subscriptionActive()) {
+            throw new IllegalArgumentException("Vehicle subscription is not active");
+        }
+
+        if (vehicle.subscriptionExpiresAt() < currentTimeMillis()) {
+            throw new IllegalArgumentException("Vehicle subscription has expired");
+        }
+
+        if (vehicle.vehicleStatus() != VehicleStatus.ACTIVE) {
+            throw new IllegalArgumentException("Vehicle is not in active status: " + vehicle.vehicleStatus());
+        }
+    }
+
+    @EventListener
+    public void onEntityChanged(EntityChangedEvent event) {
+        if (event.entity() instanceof DigitalKey digitalKey) {
+            invalidateKey(digitalKey.getKeyId());
+        } else if (event.entity() instanceof Vehicle vehicle) {
+            invalidateVehicle(vehicle.getId());
+        }
+    }
+
+    /**
+     * Evicts the key now and again once the current transaction completes, so a concurrent
+     * reader cannot re-cache the pre-commit state for a full TTL.
+     */
+    public void invalidateKey(String keyId) {
+        keys.invalidate(keyId);
+        afterCompletion(() -> keys.invalidate(keyId));
+    }
+
+    public void invalidateVehicle(Long vehicleId) {
+        vehicles.invalidate(vehicleId);
+        afterCompletion(() -> vehicles.invalidate(vehicleId));
+    }
+
+    private void afterCompletion(Runnable eviction) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    eviction.run();
+                }
+            });
+        }
+    }
+
+    // Loads outside the cache's own compute, because the query can flush pending entity
+    // changes and the listener then evicts from this same cache
+    private KeyValidity loadKey(String keyId) {
+        DigitalKey digitalKey = digitalKeyRepository.findByKeyIdWithVehicle(keyId)
+            .orElseThrow(() -> KeyManagementException.keyNotFound(keyId));
+        Vehicle vehicle = digitalKey.getVehicle();
+        // The vehicle came back with the key, so cache it too rather than reading it again
+        vehicles.asMap().putIfAbsent(vehicle.getId(), VehicleValidity.of(vehicle));
+        return KeyValidity.of(digitalKey);
+    }
+
+    private static long currentTimeMillis() {
+        return System.currentTimeMillis();
+    }
+
+    private static long toEpochMillis(LocalDateTime time, long ifNull) {
+        return time != null ? time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli() : ifNull;
+    }
+
+    /**
+     * The fields of a {@link DigitalKey} that usage and management decisions depend on.
+     * {@code validFrom} and {@code expiresAt} are epoch millis, open-ended when not set.
+     */
+    public record KeyValidity(Long id, String keyId, Long vehicleId, String vin, String deviceId,
+                              KeyStatus status, KeyType keyType, PermissionLevel permissionLevel,
+                              long validFrom, long expiresAt, Long maxUsageCount,
+                              boolean revoked, boolean usageLimitReached) {
+
+        static KeyValidity of(DigitalKey key) {
+            return new KeyValidity(key.getId(), key.getKeyId(), key.getVehicle().getId(),
+                key.getVehicle().getVin(), key.getDeviceId(), key.getStatus(), key.getKeyType(),
+                key.getPermissionLevel(),
+                toEpochMillis(key.getValidFrom(), Long.MIN_VALUE),
+                toEpochMillis(key.getExpiresAt(), Long.MAX_VALUE),
+                key.getMaxUsageCount(), key.isRevoked(), key.isUsageLimitReached());
+        }
+
+        public boolean isActive(long now) {
+            return status == KeyStatus.ACTIVE && !isExpired(now) && !revoked
+                && validFrom < now && expiresAt > now && !usageLimitReached;
+        }
+
+        public boolean isExpired(long now) {
+            return expiresAt < now;
+        }
+
+        public boolean isLimited() {
+            return maxUsageCount != null;
+        }
+
+        public boolean isFriendKey() {
+            return keyType == KeyType.FRIEND;
+        }
+    }
+
+    /**
+     * The subscription state of a vehicle; {@code subscriptionExpiresAt} is epoch millis.
+     */
+    public record VehicleValidity(Long id, boolean subscriptionActive, long subscriptionExpiresAt,
+                                  VehicleStatus vehicleStatus) {
+
+        static VehicleValidity of(Vehicle vehicle) {
+            return new VehicleValidity(vehicle.getId(), Boolean.TRUE.equals(vehicle.getSubscriptionActive()),
+                toEpochMillis(vehicle.getSubscriptionExpiresAt(), Long.MAX_VALUE), vehicle.getVehicleStatus());
+        }
+    }
+}
@@ -1,14 +1,48 @@
 package com.vehicleoem.service;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.vehicleoem.config.BoundedTaskExecutor;
+import com.vehicleoem.config.SpillableTask;
 import com.vehicleoem.model.*;
-import org.springframework.scheduling.annotation.Async;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.stereotype.Service;
 import java.math.BigDecimal;
 
+/**
+ * Owner and friend notifications. Messages are composed on the calling thread, while the
+ * entities are still attached, and only the email/SMS delivery is handed to
+ * {@code notificationExecutor}. Deliveries are {@link SpillableTask}s, so a saturated
+ * executor writes them to the database rather than dropping them or blocking the caller.
+ */
 @Service
 public class NotificationService {
+
+    private static final String DELIVERY_TASK_TYPE = "notification.delivery";
+
+    @Autowired
+    @Qualifier("notificationExecutor")
+    private BoundedTaskExecutor notificationExecutor;
+
+    @Autowired
+    private TaskSpillService taskSpillService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @PostConstruct
+    void registerSpillHandler() {
+        taskSpillService.registerHandler(DELIVERY_TASK_TYPE, payload -> {
+            try {
+                return new Delivery(objectMapper.readValue(payload, DeliveryMessage.class));
+            } catch (JsonProcessingException e) {
+                throw new IllegalStateException("Unable to read spilled notification", e);
+            }
+        });
+    }
     
-    @Async
     public void sendKeyCreatedNotification(OwnerAccount owner, DigitalKey digitalKey) {
         String subject = "New Digital Key Created";
         String message = String.format(
@@ -27,7 +61,6 @@ public class NotificationService {
         sendSMS(owner.getPhoneNumber(), "New digital key created for your vehicle. Check your email for details.");
     }
     
-    @Async
     public void sendFriendKeyInvitation(String friendEmail, String friendName, OwnerAccount owner, DigitalKey digitalKey) {
         String subject = "You've been invited to access a vehicle";
         String message = String.format(
@@ -51,7 +84,6 @@ public class NotificationService {
         sendEmail(friendEmail, subject, message);
     }
     
-    @Async
     public void sendKeyStatusChangeNotification(OwnerAccount owner, DigitalKey digitalKey, String action) {
         String subject = "Digital Key Status Changed";
         String message = String.format(
@@ -69,7 +101,6 @@ public class NotificationService {
         sendEmail(owner.getEmail(), subject, message);
     }
     
-    @Async
     public void sendSubscriptionUpgradeNotification(OwnerAccount owner, SubscriptionTier oldTier, SubscriptionTier newTier) {
         String subject = "Subscription Upgraded Successfully";
         String message = String.format(
@@ -92,7 +123,6 @@ public class NotificationService {
         sendEmail(owner.getEmail(), subject, message);
     }
     
-    @Async
     public void sendSubscriptionCancellationNotification(OwnerAccount owner, String reason) {
         String subject = "Subscription Cancelled";
         String message = String.format(
@@ -109,7 +139,6 @@ public class NotificationService {
         sendEmail(owner.getEmail(), subject, message);
     }
     
-    @Async
     public void sendPaymentFailureNotification(OwnerAccount owner, BigDecimal amount) {
         String subject = "Payment Failed - Action Required";
         String message = String.format(
@@ -126,7 +155,6 @@ public class NotificationService {
         sendSMS(owner.getPhoneNumber(), String.format("Payment of $%.2f failed. Please update your payment method to avoid service interruption.", amount));
     }
     
-    @Async
     public void sendPaymentReminderNotification(OwnerAccount owner, BigDecimal amount) {
         String subject = "Payment Reminder";
         String message = String.format(
@@ -141,7 +169,6 @@ public class NotificationService {
         sendEmail(owner.getEmail(), subject, message);
     }
     
-    @Async
     public void sendGracePeriodWarningNotification(OwnerAccount owner) {
         String subject = "Urgent: Subscription Grace Period Ending";
         String message = String.format(
@@ -157,7 +184,6 @@ public class NotificationService {
         sendSMS(owner.getPhoneNumber(), "URGENT: Your vehicle subscription grace period is ending. Update payment method now.");
     }
     
-    @Async
     public void sendSubscriptionExpiredNotification(OwnerAccount owner) {
         String subject = "Subscription Expired";
         String message = String.format(
@@ -173,7 +199,6 @@ public class NotificationService {
         sendEmail(owner.getEmail(), subject, message);
     }
     
-    @Async
     public void sendSecurityAlertNotification(OwnerAccount owner, String alertType, String details) {
         String subject = "Security Alert - " + alertType;
         String message = String.format(
@@ -192,14 +217,9 @@ public class NotificationService {
     }
     
     private void sendEmail(String email, String subject, String message) {
-        // In a real implementation, this would integrate with an email service like SendGrid, AWS SES, etc.
-        System.out.println("EMAIL TO: " + email);
-        System.out.println("SUBJECT: " + subject);
-        System.out.println("MESSAGE: " + message);
-        System.out.println("---");
+        notificationExecutor.execute(new Delivery(new DeliveryMessage(Channel.EMAIL, email, subject, message)));
     }
     
-    @Async
     public void sendKeyRevokedNotification(String friendEmail, String friendName, Vehicle vehicle, String reason) {
         String subject = "Vehicle Access Revoked";
         String message = String.format(
@@ -217,7 +237,6 @@ public class NotificationService {
         sendEmail(friendEmail, subject, message);
     }
 
-    @Async
     public void sendPermissionUpdateNotification(String friendEmail, String friendName, Vehicle vehicle,
                                                PermissionLevel oldLevel, PermissionLevel newLevel) {
         String subject = "Vehicle Access Permissions Updated";
@@ -236,7 +255,6 @@ public class NotificationService {
         sendEmail(friendEmail, subject, message);
     }
 
-    @Async
     public void sendKeyRestrictionsUpdateNotification(String friendEmail, String friendName, Vehicle vehicle) {
         String subject = "Vehicle Access Restrictions Updated";
         String message = String.format(
@@ -253,11 +271,55 @@ public class NotificationService {
     }
 
     private void sendSMS(String phoneNumber, String message) {
-        // In a real implementation, this would integrate with an SMS service like Twilio, AWS SNS, etc.
         if (phoneNumber != null && !phoneNumber.trim().isEmpty()) {
-            System.out.println("SMS TO: " + phoneNumber);
-            System.out.println("MESSAGE: " + message);
+            notificationExecutor.execute(new Delivery(new DeliveryMessage(Channel.SMS, phoneNumber, null, message)));
+        }
+    }
+
+    private void deliver(DeliveryMessage delivery) {
+        if (delivery.channel() == Channel.EMAIL) {
+            // In a real implementation, this would integrate with an email service like SendGrid, AWS SES, etc.
+            System.out.println("EMAIL TO: " + delivery.recipient());
+            System.out.println("SUBJECT: " + delivery.subject());
+            System.out.println("MESSAGE: " + delivery.message());
             System.out.println("---");
+        } else {
+            // In a real implementation, this would integrate with an SMS service like Twilio, AWS SNS, etc.
+            System.out.println("SMS TO: " + delivery.recipient());
+            System.out.println("MESSAGE: " + delivery.message());
+            System.out.println("---");
+        }
+    }
+
+    enum Channel { EMAIL, SMS }
+
+    record DeliveryMessage(Channel channel, String recipient, String subject, String message) {
+    }
+
+    private final class Delivery implements SpillableTask {
+        private final DeliveryMessage message;
+
+        private Delivery(DeliveryMessage message) {
+            this.message = message;
+        }
+
+        @Override
+        public void run() {
+            deliver(message);
+        }
+
+        @Override
+        public String spillType() {
+            return DELIVERY_TASK_TYPE;
+        }
+
+        @Override
+        public String spillPayload() {
+            try {
+                return objectMapper.writeValueAsString(message);
+            } catch (JsonProcessingException e) {
+                throw new IllegalStateException("Unable to serialize notification for spilling", e);
+            }
         }
     }
 }
@@ -0,0 +1,184 @@
+package com.vehicleoem.service;
+
+import com.vehicleoem.client.DeviceOemClient;
+import com.vehicleoem.client.KeyTrackingClient;
+import com.vehicleoem.client.VehicleTelematicsClient;
+import com.vehicleoem.dto.EventNotificationRequest;
+import com.vehicleoem.dto.KeyRegistrationRequest;
+import com.vehicleoem.dto.KeyStatusUpdateRequest;
+import com.vehicleoem.dto.TelematicsCommandRequest;
+import com.vehicleoem.dto.TelematicsResponse;
+import com.vehicleoem.model.OutboxEvent;
+import com.vehicleoem.model.OutboxEventType;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Delivers outbox events to KTS, vehicle telematics and device OEM servers outside of any
+ * request transaction. Delivery is at-least-once and ordered per aggregate key.
+ */
+@Component
+public class OutboxRelay {
+
+    @Autowired
+    private OutboxService outboxService;
+
+    @Autowired
+    private KeyTrackingClient keyTrackingClient;
+
+    @Autowired
+    private VehicleTelematicsClient vehicleTelematicsClient;
+
+    @Autowired
+    private DeviceOemClient deviceOemClient;
+
+    @Autowired
+    private KeyOperationService keyOperationService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${outbox.relay.enabled:true}")
+    private boolean enabled;
+
+    @Value("${outbox.relay.batch-size:100}")
+    private int batchSize;
+
+    @Value("${outbox.relay.max-batches-per-run:20}")
+    private int maxBatchesPerRun;
+
+    @Value("${outbox.relay.retention-hours:72}")
+    private long retentionHours;
+
+    private final AtomicLong pendingEvents = new AtomicLong();
+    private final AtomicLong oldestPendingAgeMillis = new AtomicLong();
+
+    @PostConstruct
+    void registerGauges() {
+        Gauge.builder("outbox.events.pending", pendingEvents, AtomicLong::get)
+            .description("Outbox events waiting to be delivered")
+            .register(meterRegistry);
+        Gauge.builder("outbox.lag", oldestPendingAgeMillis, value -> value.get() / 1000.0)
+            .description("Age of the oldest undelivered outbox event")
+            .baseUnit("seconds")
+            .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${outbox.relay.poll-interval-ms:500}")
+    public void relay() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            // Only the head event of each key is claimable, so keep polling while there is work
+            for (int batch = 0; batch < maxBatchesPerRun; batch++) {
+                List<OutboxEvent> events = outboxService.claimDueEvents(batchSize);
+                if (events.isEmpty()) {
+                    break;
+                }
+                for (OutboxEvent event : events) {
+                    dispatch(event);
+                }
+            }
+            refreshBacklogMetrics();
+        } catch (Exception e) {
+            System.err.println("Outbox relay run failed: " + e.getMessage());
+        }
+    }
+
+    @Scheduled(cron = "${outbox.relay.purge-cron:0 15 * * * *}")
+    public void purgeDispatchedEvents() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            outboxService.purgeDispatchedBefore(LocalDateTime.now().minusHours(retentionHours));
+        } catch (Exception e) {
+            System.err.println("Outbox purge failed: " + e.getMessage());
+        }
+    }
+
+    void dispatch(OutboxEvent event) {
+        String eventType = event.getEventType().name();
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "success";
+        try {
+            String acknowledgement = deliver(event);
+            outboxService.markDispatched(event.getId(), acknowledgement);
+
+            Counter.builder("outbox.events.dispatched")
+                .tag("type", eventType)
+                .register(meterRegistry)
+                .increment();
+            Timer.builder("outbox.delivery.latency")
+                .description("Time from enqueue to successful delivery")
+                .tag("type", eventType)
+                .register(meterRegistry)
+                .record(Duration.between(event.getCreatedAt(), LocalDateTime.now()));
+        } catch (Exception e) {
+            boolean gaveUp = outboxService.markFailed(event, e.getMessage());
+            outcome = gaveUp ? "failed" : "retry";
+
+            Counter.builder("outbox.events.failed")
+                .tag("type", eventType)
+                .tag("outcome", outcome)
+                .register(meterRegistry)
+                .increment();
+            System.err.println("Failed to deliver outbox event " + event.getId() + " (" + eventType +
+                ", attempt " + event.getAttempts() + "): " + e.getMessage());
+        } finally {
+            sample.stop(Timer.builder("outbox.dispatch.duration")
+                .tag("type", eventType)
+                .tag("outcome", outcome)
+                .register(meterRegistry));
+            if (event.getOperationId() != null) {
+                keyOperationService.stepProgressed(event.getOperationId());
+            }
+        }
+    }
+
+    /**
+     * Delivers the event and returns the downstream acknowledgement reference, if the
+     * target system provides one.
+     */
+    private String deliver(OutboxEvent event) {
+        OutboxEventType eventType = event.getEventType();
+        switch (eventType) {
+            case KTS_REGISTER_KEY:
+                keyTrackingClient.registerKey(outboxService.readPayload(event, KeyRegistrationRequest.class));
+                return null;
+            case KTS_UPDATE_KEY_STATUS:
+                keyTrackingClient.updateKeyStatus(outboxService.readPayload(event, KeyStatusUpdateRequest.class));
+                return null;
+            case TELEMATICS_COMMAND:
+                TelematicsResponse response =
+                    vehicleTelematicsClient.sendCommand(outboxService.readPayload(event, TelematicsCommandRequest.class));
+                if (response != null && !response.isSuccess()) {
+                    throw new IllegalStateException("Vehicle rejected command: " + response.getMessage());
+                }
+                return response != null ? response.getCommandId() : null;
+            case DEVICE_OEM_NOTIFICATION:
+                deviceOemClient.sendEventNotification(outboxService.readPayload(event, EventNotificationRequest.class));
+                return null;
+            default:
+                throw new IllegalStateException("Unsupported outbox event type: " + eventType);
+        }
+    }
+
+    private void refreshBacklogMetrics() {
+        pendingEvents.set(outboxService.countPending());
+        LocalDateTime oldest = outboxService.findOldestPendingCreatedAt();
+        oldestPendingAgeMillis.set(oldest == null ? 0 : Math.max(0, Duration.between(oldest, LocalDateTime.now()).toMillis()));
+    }
+}
@@ -0,0 +1,134 @@
+package com.vehicleoem.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.vehicleoem.model.OutboxEvent;
+import com.vehicleoem.model.OutboxEventType;
+import com.vehicleoem.model.OutboxStatus;
+import com.vehicleoem.repository.OutboxEventRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Records downstream side effects in the outbox within the caller's transaction, and
+ * provides the claim/complete operations used by {@link OutboxRelay}.
+ */
+@Service
+@Transactional
+public class OutboxService {
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${outbox.relay.max-attempts:10}")
+    private int maxAttempts;
+
+    @Value("${outbox.relay.initial-backoff-ms:1000}")
+    private long initialBackoffMs;
+
+    @Value("${outbox.relay.max-backoff-ms:300000}")
+    private long maxBackoffMs;
+
+    @Value("${outbox.relay.lease-seconds:60}")
+    private long leaseSeconds;
+
+    public OutboxEvent enqueue(String aggregateKey, OutboxEventType eventType, Object payload) {
+        return outboxEventRepository.save(newEvent(aggregateKey, eventType, payload));
+    }
+
+    /**
+     * Enqueues an event as a step of a key operation, so its progress is reported by
+     * {@link KeyOperationService}.
+     */
+    public OutboxEvent enqueue(String aggregateKey, OutboxEventType eventType, Object payload, String operationId) {
+        OutboxEvent event = newEvent(aggregateKey, eventType, payload);
+        event.setOperationId(operationId);
+        return outboxEventRepository.save(event);
+    }
+
+    public List<OutboxEvent> enqueueAll(List<OutboxEvent> events) {
+        return outboxEventRepository.saveAll(events);
+    }
+
+    public OutboxEvent newEvent(String aggregateKey, OutboxEventType eventType, Object payload) {
+        try {
+            return new OutboxEvent(aggregateKey, eventType, objectMapper.writeValueAsString(payload));
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Unable to serialize outbox payload for " + eventType, e);
+        }
+    }
+
+    public <T> T readPayload(OutboxEvent event, Class<T> payloadType) {
+        try {
+            return objectMapper.readValue(event.getPayload(), payloadType);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Unable to deserialize outbox event " + event.getId(), e);
+        }
+    }
+
+    /**
+     * Claims up to {@code limit} deliverable events. Each claimed event keeps its PENDING
+     * status (so later events for the same key stay blocked) but is leased by pushing
+     * next_attempt_at forward; if this instance dies mid-delivery the event is retried
+     * once the lease runs out.
+     */
+    public List<OutboxEvent> claimDueEvents(int limit) {
+        LocalDateTime now = LocalDateTime.now();
+        List<OutboxEvent> events = outboxEventRepository.lockDispatchableEvents(now, limit);
+        for (OutboxEvent event : events) {
+            event.setAttempts(event.getAttempts() + 1);
+            event.setNextAttemptAt(now.plusSeconds(leaseSeconds));
+        }
+        return events;
+    }
+
+    public void markDispatched(Long eventId, String acknowledgement) {
+        outboxEventRepository.markDispatched(eventId, LocalDateTime.now(), acknowledgement);
+    }
+
+    /**
+     * Schedules a retry with exponential backoff, or gives up once the attempt budget is spent.
+     *
+     * @return {@code true} if the event was moved to FAILED and will not be retried
+     */
+    public boolean markFailed(OutboxEvent claimed, String error) {
+        OutboxEvent event = outboxEventRepository.findById(claimed.getId()).orElse(null);
+        if (event == null) {
+            return true;
+        }
+
+        event.setLastError(error != null && error.length() > 500 ? error.substring(0, 500) : error);
+        if (event.getAttempts() >= maxAttempts) {
+            event.setStatus(OutboxStatus.FAILED);
+            return true;
+        }
+        event.setNextAttemptAt(LocalDateTime.now().plusNanos(backoffMillis(event.getAttempts()) * 1_000_000L));
+        return false;
+    }
+
+    public int purgeDispatchedBefore(LocalDateTime before) {
+        return outboxEventRepository.deleteDispatchedBefore(before);
+    }
+
+    @Transactional(readOnly = true)
+    public long countPending() {
+        return outboxEventRepository.countByStatus(OutboxStatus.PENDING);
+    }
+
+    @Transactional(readOnly = true)
+    public LocalDateTime findOldestPendingCreatedAt() {
+        return outboxEventRepository.findOldestPendingCreatedAt();
+    }
+
+    long backoffMillis(int attempts) {
+        int exponent = Math.min(Math.max(attempts - 1, 0), 30);
+        return Math.min(initialBackoffMs << exponent, maxBackoffMs);
+    }
+}
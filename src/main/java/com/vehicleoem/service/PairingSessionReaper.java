@@ -0,0 +1,121 @@
+package com.vehicleoem.service;
+
+import com.vehicleoem.repository.PairingSessionRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.time.LocalDateTime;
+import java.util.function.IntSupplier;
+
+/**
+ * Cleans up pairing sessions in the database. {@link PairingSessionStore} expires the sessions
+ * it holds, but sessions orphaned by a crash, created by another instance or older than the
+ * store otherwise stay INITIATED forever, still carrying their ephemeral private key.
+ * <p>
+ * Each run first marks INITIATED sessions past expires_at as EXPIRED, wiping the private key
+ * in the same statement, then deletes terminal sessions older than the retention period. Both
+ * work in chunks of one bounded statement per transaction, locked with SKIP LOCKED, so runs
+ * on several instances never do the same work twice and no transaction holds many row locks.
+ */
+@Component
+public class PairingSessionReaper {
+
+    @Autowired
+    private PairingSessionRepository pairingSessionRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${pairing-session-reaper.enabled:true}")
+    private boolean enabled;
+
+    @Value("${pairing-session-reaper.chunk-size:500}")
+    private int chunkSize;
+
+    @Value("${pairing-session-reaper.max-chunks-per-run:20}")
+    private int maxChunksPerRun;
+
+    @Value("${pairing-session-reaper.retention-days:30}")
+    private int retentionDays;
+
+    private Timer runTimer;
+    private Counter expiredSessions;
+    private Counter purgedSessions;
+    private DistributionSummary expiredPerRun;
+    private DistributionSummary purgedPerRun;
+
+    @PostConstruct
+    void registerMetrics() {
+        runTimer = Timer.builder("pairing_session_reaper.run.duration").register(meterRegistry);
+        expiredSessions = rowsCounter("expired");
+        purgedSessions = rowsCounter("purged");
+        expiredPerRun = rowsPerRun("expired");
+        purgedPerRun = rowsPerRun("purged");
+    }
+
+    @Scheduled(fixedDelayString = "${pairing-session-reaper.interval-ms:60000}")
+    public void reap() {
+        if (!enabled) {
+            return;
+        }
+        Timer.Sample sample = Timer.start(meterRegistry);
+        try {
+            LocalDateTime now = LocalDateTime.now();
+            int expired = inChunks(() -> pairingSessionRepository.expireDueSessions(now, chunkSize));
+            expiredSessions.increment(expired);
+            expiredPerRun.record(expired);
+
+            LocalDateTime cutoff = now.minusDays(retentionDays);
+            int purged = inChunks(() -> pairingSessionRepository.purgeTerminalSessions(cutoff, chunkSize));
+            purgedSessions.increment(purged);
+            purgedPerRun.record(purged);
+        } catch (Exception e) {
+            System.err.println("Pairing session reaper failed: " + e.getMessage());
+        } finally {
+            sample.stop(runTimer);
+        }
+    }
+
+    /**
+     * Runs the statement, one transaction per chunk, until a chunk comes back short or the
+     * per-run limit is reached.
+     *
+     * @return total rows handled
+     */
+    private int inChunks(IntSupplier chunk) {
+        int total = 0;
+        for (int i = 0; i < maxChunksPerRun; i++) {
+            Integer rows = transactionTemplate.execute(status -> chunk.getAsInt());
+            int count = rows != null ? rows : 0;
+            total += count;
+            if (count < chunkSize) {
+                break;
+            }
+        }
+        return total;
+    }
+
+    private Counter rowsCounter(String action) {
+        return Counter.builder("pairing_session_reaper.rows")
+            .description("Pairing sessions handled by the reaper")
+            .tag("action", action)
+            .register(meterRegistry);
+    }
+
+    private DistributionSummary rowsPerRun(String action) {
+        return DistributionSummary.builder("pairing_session_reaper.rows.per_run")
+            .description("Pairing sessions handled in one reaper run")
+            .tag("action", action)
+            .register(meterRegistry);
+    }
+}
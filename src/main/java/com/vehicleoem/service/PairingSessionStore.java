@@ -0,0 +1,367 @@
+package com.vehicleoem.service;
+
+import com.vehicleoem.model.PairingSession;
+import com.vehicleoem.model.PairingStatus;
+import com.vehicleoem.repository.PairingSessionRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Pairing sessions, held in memory while they are in flight and written to the database
+ * behind the request.
+ * <ul>
+ *   <li>A session is live from creation until it reaches a terminal status or its
+ *       {@code expiresAt} passes. Live sessions are looked up without touching the database,
+ *       and each one has a timer that marks it EXPIRED on time rather than on the next read.</li>
+ *   <li>Every change is queued as a snapshot, one per session with the latest winning, and
+ *       flushed periodically, each session in its own transaction so that one bad row does not
+ *       hold back the others. A snapshot that fails {@code max-flush-attempts} flushes in a row
+ *       is dropped. Up to one flush interval of changes, failed attempt counts included, can be
+ *       lost if the process dies.</li>
+ *   <li>On startup the sessions that were still in flight are reloaded from the database, so a
+ *       restart neither drops them nor leaves them without an expiry timer.</li>
+ * </ul>
+ * Sessions that are not live, such as completed ones being revoked, fall back to the database.
+ * So does a session held by another instance, which is seen as of that instance's last flush.
+ * Changes made to it here are not seen by its owner, so deployments with more than one
+ * instance must route pairing requests for a vehicle to the instance that created its session.
+ */
+@Service
+public class PairingSessionStore {
+
+    private static final Set<PairingStatus> IN_FLIGHT = EnumSet.of(PairingStatus.INITIATED, PairingStatus.ACTIVE);
+
+    @Autowired
+    private PairingSessionRepository pairingSessionRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    // Flushes a snapshot may fail in a row before it is dropped
+    @Value("${pairing-sessions.max-flush-attempts:5}")
+    private int maxFlushAttempts;
+
+    private final ConcurrentHashMap<String, Entry> live = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, PairingSession> pendingWrites = new ConcurrentHashMap<>();
+    // Database ids of sessions inserted by this store, for snapshots taken before the insert
+    private final ConcurrentHashMap<String, Long> ids = new ConcurrentHashMap<>();
+    // Only touched by flush, which is synchronized
+    private final Map<String, Integer> failedFlushes = new HashMap<>();
+    private final List<String> retiringIds = new ArrayList<>();
+
+    private ScheduledThreadPoolExecutor expiryTimer;
+
+    private Timer flushTimer;
+    private Counter flushedRows;
+    private Counter flushFailures;
+    private Counter droppedWrites;
+    private Counter expiredSessions;
+    private Counter memoryLookups;
+    private Counter databaseLookups;
+
+    @PostConstruct
+    void init() {
+        maxFlushAttempts = Math.max(1, maxFlushAttempts);
+        expiryTimer = new ScheduledThreadPoolExecutor(1, runnable -> {
+            Thread thread = new Thread(runnable, "pairing-session-expiry");
+            thread.setDaemon(true);
+            return thread;
+        });
+        expiryTimer.setRemoveOnCancelPolicy(true);
+
+        Gauge.builder("pairing_sessions.live", live, Map::size)
+            .description("Pairing sessions held in memory")
+            .register(meterRegistry);
+        Gauge.builder("pairing_sessions.pending_writes", pendingWrites, Map::size)
+            .description("Pairing session changes not yet flushed")
+            .register(meterRegistry);
+        flushTimer = Timer.builder("pairing_sessions.flush.duration").register(meterRegistry);
+        flushedRows = Counter.builder("pairing_sessions.flush.rows").register(meterRegistry);
+        flushFailures = Counter.builder("pairing_sessions.flush.failures").register(meterRegistry);
+        droppedWrites = Counter.builder("pairing_sessions.flush.dropped")
+            .description("Session changes dropped after failing every flush attempt")
+            .register(meterRegistry);
+        expiredSessions = Counter.builder("pairing_sessions.expired").register(meterRegistry);
+        memoryLookups = lookupCounter("memory");
+        databaseLookups = lookupCounter("database");
+    }
+
+    /**
+     * Adds a new session. Inside a transaction it goes live once that transaction commits, so
+     * a rolled-back request leaves nothing behind.
+     */
+    public PairingSession create(PairingSession session) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    add(session);
+                }
+            });
+        } else {
+            add(session);
+        }
+        return session;
+    }
+
+    /**
+     * Records a change to a session. This takes effect immediately rather than on commit, so a
+     * failed attempt still counts when the request that made it is rejected.
+     */
+    public void update(PairingSession session) {
+        if (!IN_FLIGHT.contains(session.getStatus())) {
+            Entry entry = live.remove(session.getSessionId());
+            if (entry != null) {
+                entry.cancelExpiry();
+            }
+        }
+        enqueue(session);
+    }
+
+    public Optional<PairingSession> findBySessionId(String sessionId) {
+        Entry entry = live.get(sessionId);
+        if (entry != null) {
+            memoryLookups.increment();
+            return Optional.of(entry.session);
+        }
+        // Finished here but not flushed yet, so the database still has the older state
+        PairingSession snapshot = pendingWrites.get(sessionId);
+        if (snapshot != null) {
+            memoryLookups.increment();
+            PairingSession session = copy(snapshot);
+            session.setId(idOf(snapshot));
+            return Optional.of(session);
+        }
+        databaseLookups.increment();
+        return pairingSessionRepository.findBySessionId(sessionId);
+    }
+
+    /**
+     * Finds an unexpired session for the vehicle in the given status: a live one from memory,
+     * otherwise one from the database, such as a session created by another instance.
+     */
+    public Optional<PairingSession> findLiveByVehicle(Long vehicleId, PairingStatus status) {
+        Optional<PairingSession> held = live.values().stream()
+            .map(entry -> entry.session)
+            .filter(session -> session.getStatus() == status)
+            .filter(session -> vehicleId.equals(session.getVehicle().getId()))
+            .findFirst();
+        if (held.isPresent()) {
+            memoryLookups.increment();
+            return held;
+        }
+        databaseLookups.increment();
+        // A session finished here but not flushed yet is still in the old status in the database
+        return pairingSessionRepository
+            .findFirstByVehicleIdAndStatusAndExpiresAtAfterOrderByCreatedAtDesc(vehicleId, status, LocalDateTime.now())
+            .filter(session -> {
+                PairingSession snapshot = pendingWrites.get(session.getSessionId());
+                return snapshot == null || snapshot.getStatus() == status;
+            });
+    }
+
+    public int size() {
+        return live.size();
+    }
+
+    /**
+     * Reloads the sessions still in flight. This runs before the application reports ready;
+     * there are at most one session timeout's worth of them.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void recover() {
+        try {
+            List<PairingSession> sessions = pairingSessionRepository.findInFlightSessions(IN_FLIGHT, LocalDateTime.now());
+            sessions.forEach(session -> {
+                ids.put(session.getSessionId(), session.getId());
+                goLive(session);
+            });
+            System.out.println("Recovered " + sessions.size() + " in-flight pairing sessions");
+        } catch (Exception e) {
+            System.err.println("Failed to recover pairing sessions: " + e.getMessage());
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${pairing-sessions.flush-interval-ms:500}")
+    public synchronized void flush() {
+        // Ids of sessions finished in the previous flush; a reader may have copied one since
+        retiringIds.forEach(ids::remove);
+        retiringIds.clear();
+        if (pendingWrites.isEmpty()) {
+            return;
+        }
+        Timer.Sample sample = Timer.start(meterRegistry);
+        try {
+            for (PairingSession snapshot : new ArrayList<>(pendingWrites.values())) {
+                flush(snapshot);
+            }
+        } finally {
+            sample.stop(flushTimer);
+        }
+    }
+
+    private void flush(PairingSession snapshot) {
+        String sessionId = snapshot.getSessionId();
+        PairingSession saved;
+        try {
+            saved = transactionTemplate.execute(status -> {
+                // Saved as a copy, so a rolled-back insert does not leave an id on the snapshot
+                PairingSession row = copy(snapshot);
+                row.setId(idOf(snapshot));
+                return pairingSessionRepository.save(row);
+            });
+        } catch (Exception e) {
+            flushFailures.increment();
+            int attempts = failedFlushes.merge(sessionId, 1, Integer::sum);
+            if (attempts < maxFlushAttempts) {
+                // Still queued, so the next flush retries it
+                System.err.println("Failed to flush pairing session " + sessionId + ": " + e.getMessage());
+                return;
+            }
+            failedFlushes.remove(sessionId);
+            if (pendingWrites.remove(sessionId, snapshot)) {
+                droppedWrites.increment();
+                System.err.println("Dropped pairing session " + sessionId + " change after "
+                    + attempts + " failed flushes: " + e.getMessage());
+            }
+            return;
+        }
+        failedFlushes.remove(sessionId);
+        ids.put(sessionId, saved.getId());
+        Entry entry = live.get(sessionId);
+        if (entry != null && entry.session.getId() == null) {
+            entry.session.setId(saved.getId());
+        }
+        // Only drop the snapshot if no newer one replaced it during the flush
+        if (pendingWrites.remove(sessionId, snapshot) && !IN_FLIGHT.contains(snapshot.getStatus())) {
+            retiringIds.add(sessionId);
+        }
+        flushedRows.increment();
+    }
+
+    @PreDestroy
+    void shutdown() {
+        expiryTimer.shutdownNow();
+        flush();
+    }
+
+    private void add(PairingSession session) {
+        enqueue(session);
+        if (IN_FLIGHT.contains(session.getStatus()) && !session.isExpired()) {
+            goLive(session);
+        }
+    }
+
+    private void goLive(PairingSession session) {
+        Entry entry = new Entry(session);
+        if (live.putIfAbsent(session.getSessionId(), entry) == null && session.getExpiresAt() != null) {
+            long delay = Duration.between(LocalDateTime.now(), session.getExpiresAt()).toMillis();
+            entry.expiry = expiryTimer.schedule(() -> expire(entry), Math.max(delay, 0), TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private void expire(Entry entry) {
+        // Removing this exact entry decides the race with a request finishing the session
+        if (live.remove(entry.session.getSessionId(), entry)) {
+            PairingSession expired = copy(entry.session);
+            expired.setId(entry.session.getId());
+            expired.setStatus(PairingStatus.EXPIRED);
+            expired.setVehiclePrivateKey(null);
+            pendingWrites.put(expired.getSessionId(), expired);
+            expiredSessions.increment();
+        }
+    }
+
+    private void enqueue(PairingSession session) {
+        PairingSession snapshot = copy(session);
+        snapshot.setId(session.getId());
+        if (!IN_FLIGHT.contains(snapshot.getStatus())) {
+            // The ephemeral key is only needed while the session can still complete
+            snapshot.setVehiclePrivateKey(null);
+        }
+        pendingWrites.put(snapshot.getSessionId(), snapshot);
+    }
+
+    private Long idOf(PairingSession snapshot) {
+        return snapshot.getId() != null ? snapshot.getId() : ids.get(snapshot.getSessionId());
+    }
+
+    private Counter lookupCounter(String source) {
+        return Counter.builder("pairing_sessions.lookups")
+            .description("Pairing session lookups by where they were answered from")
+            .tag("source", source)
+            .register(meterRegistry);
+    }
+
+    private static PairingSession copy(PairingSession session) {
+        PairingSession copy = new PairingSession();
+        copy.setVehicle(session.getVehicle());
+        copy.setSessionId(session.getSessionId());
+        copy.setPairingPassword(session.getPairingPassword());
+        copy.setPairingVerifier(session.getPairingVerifier());
+        copy.setVehiclePublicKey(session.getVehiclePublicKey());
+        copy.setVehiclePrivateKey(session.getVehiclePrivateKey());
+        copy.setDeviceId(session.getDeviceId());
+        copy.setDeviceOem(session.getDeviceOem());
+        copy.setDevicePublicKey(session.getDevicePublicKey());
+        copy.setDeviceCertificate(session.getDeviceCertificate());
+        copy.setCrossSignedCertificate(session.getCrossSignedCertificate());
+        copy.setStatus(session.getStatus());
+        copy.setExpiresAt(session.getExpiresAt());
+        copy.setInitiatedBy(session.getInitiatedBy());
+        copy.setInitiatedAt(session.getInitiatedAt());
+        copy.setCompletedAt(session.getCompletedAt());
+        copy.setFailedAttempts(session.getFailedAttempts());
+        copy.setRevokedAt(session.getRevokedAt());
+        copy.setRevokedBy(session.getRevokedBy());
+        copy.setRevocationReason(session.getRevocationReason());
+        copy.setCreatedAt(session.getCreatedAt());
+        copy.setUpdatedAt(session.getUpdatedAt());
+        return copy;
+    }
+
+    private static final class Entry {
+        final PairingSession session;
+        volatile ScheduledFuture<?> expiry;
+
+        Entry(PairingSession session) {
+            this.session = session;
+        }
+
+        void cancelExpiry() {
+            ScheduledFuture<?> future = expiry;
+            if (future != null) {
+                future.cancel(false);
+            }
+        }
+    }
+}
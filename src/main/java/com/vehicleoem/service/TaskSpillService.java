@@ -0,0 +1,108 @@
+package com.vehicleoem.service;
+
+import com.vehicleoem.config.BoundedTaskExecutor;
+import com.vehicleoem.config.SpillableTask;
+import com.vehicleoem.model.SpilledTask;
+import com.vehicleoem.repository.SpilledTaskRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * Backing store for the SPILL_TO_DB rejection policy. Tasks a saturated executor could not
+ * queue are written here and replayed onto the same executor, oldest first, once it has
+ * capacity again. Replay is at-least-once: a task handed back to its executor is deleted in
+ * the same transaction, so it may run twice if that transaction then fails to commit.
+ */
+@Service
+public class TaskSpillService {
+
+    @Autowired
+    private SpilledTaskRepository spilledTaskRepository;
+
+    @Autowired
+    private List<BoundedTaskExecutor> executors;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${async.spill.replay-batch-size:100}")
+    private int replayBatchSize;
+
+    private final Map<String, Function<String, Runnable>> handlers = new ConcurrentHashMap<>();
+
+    /**
+     * Registers how tasks of the given type are rebuilt from their spilled payload. Tasks of
+     * a type with no handler stay in the table until one is registered.
+     */
+    public void registerHandler(String taskType, Function<String, Runnable> handler) {
+        handlers.put(taskType, handler);
+    }
+
+    /**
+     * Saves the task in a transaction of its own, so the spilled row survives a rollback of
+     * the caller's transaction, and a failed save does not mark the caller's as rollback-only.
+     */
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void spill(String executor, SpillableTask task) {
+        spilledTaskRepository.save(new SpilledTask(executor, task.spillType(), task.spillPayload()));
+    }
+
+    @Scheduled(fixedDelayString = "${async.spill.replay-interval-ms:5000}")
+    public void replay() {
+        for (BoundedTaskExecutor executor : executors) {
+            try {
+                replay(executor);
+            } catch (Exception e) {
+                System.err.println("Failed to replay spilled tasks for executor '" + executor.getName() + "': " +
+                    e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * @return number of tasks handed back to the executor
+     */
+    int replay(BoundedTaskExecutor executor) {
+        if (!executor.hasCapacity()) {
+            return 0;
+        }
+        Integer replayed = transactionTemplate.execute(status -> {
+            int count = 0;
+            for (SpilledTask spilled : spilledTaskRepository.lockOldest(executor.getName(), replayBatchSize)) {
+                if (!executor.hasCapacity()) {
+                    break;
+                }
+                Function<String, Runnable> handler = handlers.get(spilled.getTaskType());
+                if (handler == null) {
+                    System.err.println("No handler registered for spilled task type " + spilled.getTaskType());
+                    continue;
+                }
+                executor.execute(handler.apply(spilled.getPayload()));
+                spilledTaskRepository.delete(spilled);
+                count++;
+            }
+            return count;
+        });
+        int count = replayed != null ? replayed : 0;
+        Counter.builder("async.executor.replayed")
+            .description("Spilled tasks handed back to their executor")
+            .tag("name", executor.getName())
+            .register(meterRegistry)
+            .increment(count);
+        return count;
+    }
+}
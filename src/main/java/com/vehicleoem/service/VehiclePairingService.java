@@ -2,9 +2,9 @@ package com.vehicleoem.service;
 
 import com.vehicleoem.model.*;
 import com.vehicleoem.repository.VehicleRepository;
-import com.vehicleoem.repository.PairingSessionRepository;
 import com.vehicleoem.security.CryptographyService;
 import com.vehicleoem.security.CertificateService;
+import com.vehicleoem.security.KeyPairPool;
 import com.vehicleoem.exception.*;
 import com.vehicleoem.dto.InitiatePairingRequest;
 import com.vehicleoem.dto.InitiatePairingResponse;
@@ -27,7 +27,7 @@ public class VehiclePairingService {
     private VehicleRepository vehicleRepository;
     
     @Autowired
-    private PairingSessionRepository pairingSessionRepository;
+    private PairingSessionStore pairingSessionStore;
     
     @Autowired
     private CryptographyService cryptographyService;
@@ -35,6 +35,9 @@ public class VehiclePairingService {
     @Autowired
     private CertificateService certificateService;
     
+    @Autowired
+    private KeyPairPool keyPairPool;
+    
     @Autowired
     private AuditService auditService;
     
@@ -53,7 +56,7 @@ public class VehiclePairingService {
         validationService.validateOwnerAccount(vehicle.getOwner());
         
         // Check for existing active pairing sessions
-        pairingSessionRepository.findByVehicleAndStatus(vehicle, PairingStatus.ACTIVE)
+        pairingSessionStore.findLiveByVehicle(vehicle.getId(), PairingStatus.ACTIVE)
             .ifPresent(session -> {
                 throw new BusinessException("PAIRING_IN_PROGRESS", 
                     "Vehicle already has an active pairing session");
@@ -63,8 +66,9 @@ public class VehiclePairingService {
         String pairingPassword = cryptographyService.generatePairingPassword();
         String pairingVerifier = cryptographyService.generatePairingVerifier(pairingPassword);
         
-        // Generate ephemeral key pair for this pairing session
-        KeyPair ephemeralKeyPair = cryptographyService.generateECKeyPair();
+        // Take a pre-generated ephemeral key pair for this pairing session
+        KeyPair ephemeralKeyPair = keyPairPool.take();
+        String ephemeralPublicKey = Base64.getEncoder().encodeToString(ephemeralKeyPair.getPublic().getEncoded());
         
         // Create pairing session
         PairingSession pairingSession = new PairingSession();
@@ -72,12 +76,12 @@ public class VehiclePairingService {
         pairingSession.setSessionId(generateSessionId());
         pairingSession.setPairingPassword(pairingPassword);
         pairingSession.setPairingVerifier(pairingVerifier);
-        pairingSession.setVehiclePublicKey(Base64.getEncoder().encodeToString(ephemeralKeyPair.getPublic().getEncoded()));
+        pairingSession.setVehiclePublicKey(ephemeralPublicKey);
         pairingSession.setVehiclePrivateKey(Base64.getEncoder().encodeToString(ephemeralKeyPair.getPrivate().getEncoded()));
         pairingSession.setStatus(PairingStatus.INITIATED);
         pairingSession.setExpiresAt(LocalDateTime.now().plusMinutes(15)); // 15-minute timeout
         pairingSession.setInitiatedBy(request.getInitiatedBy());
-        pairingSession = pairingSessionRepository.save(pairingSession);
+        pairingSession = pairingSessionStore.create(pairingSession);
         
         // Update vehicle with pairing credentials
         vehicle.setPairingPassword(pairingPassword);
@@ -93,12 +97,12 @@ public class VehiclePairingService {
         
         return new InitiatePairingResponse(true, "Pairing initiated successfully", 
             pairingSession.getSessionId(), pairingPassword, 
-            Base64.getEncoder().encodeToString(ephemeralKeyPair.getPublic().getEncoded()));
+            ephemeralPublicKey);
     }
     
     public CompletePairingResponse completePairing(CompletePairingRequest request) {
         // Find pairing session
-        PairingSession pairingSession = pairingSessionRepository.findBySessionId(request.getSessionId())
+        PairingSession pairingSession = pairingSessionStore.findBySessionId(request.getSessionId())
             .orElseThrow(() -> new BusinessException("PAIRING_SESSION_NOT_FOUND", 
                 "Pairing session not found"));
         
@@ -109,12 +113,14 @@ public class VehiclePairingService {
         if (!pairingSession.getPairingPassword().equals(request.getPairingPassword())) {
             // Increment failed attempts
             pairingSession.incrementFailedAttempts();
-            pairingSessionRepository.save(pairingSession);
             
             // Lock session after 3 failed attempts
             if (pairingSession.getFailedAttempts() >= 3) {
                 pairingSession.setStatus(PairingStatus.FAILED);
-                pairingSessionRepository.save(pairingSession);
+            }
+            pairingSessionStore.update(pairingSession);
+            
+            if (pairingSession.getStatus() == PairingStatus.FAILED) {
                 
                 auditService.logSecurityEvent("PAIRING_SESSION", pairingSession.getSessionId(), 
                     "PAIRING_LOCKED", "SYSTEM", "Pairing session locked due to failed attempts");
@@ -143,12 +149,12 @@ public class VehiclePairingService {
         pairingSession.setDevicePublicKey(request.getDevicePublicKey());
         pairingSession.setDeviceCertificate(request.getDeviceCertificate());
         pairingSession.setCrossSignedCertificate(crossSignedCertificate);
-        pairingSessionRepository.save(pairingSession);
+        pairingSessionStore.update(pairingSession);
         
-        // Update vehicle with successful pairing
+        // Record the pairing as vehicle activity. last_activity_at is only written through SQL,
+        // so this also leaves the rest of the vehicle row, possibly changed since, untouched.
         Vehicle vehicle = pairingSession.getVehicle();
-        vehicle.setLastActivityAt(LocalDateTime.now());
-        vehicleRepository.save(vehicle);
+        vehicleRepository.recordActivity(vehicle.getId(), LocalDateTime.now());
         
         // Log audit trail
         auditService.logVehicleAction(vehicle.getVin(), "PAIRING_COMPLETED", 
@@ -159,7 +165,7 @@ public class VehiclePairingService {
     }
     
     public void revokePairingSession(String sessionId, String revokedBy, String reason) {
-        PairingSession pairingSession = pairingSessionRepository.findBySessionId(sessionId)
+        PairingSession pairingSession = pairingSessionStore.findBySessionId(sessionId)
             .orElseThrow(() -> new BusinessException("PAIRING_SESSION_NOT_FOUND", 
                 "Pairing session not found"));
         
@@ -167,7 +173,7 @@ public class VehiclePairingService {
         pairingSession.setRevokedAt(LocalDateTime.now());
         pairingSession.setRevokedBy(revokedBy);
         pairingSession.setRevocationReason(reason);
-        pairingSessionRepository.save(pairingSession);
+        pairingSessionStore.update(pairingSession);
         
         // Log audit trail
         auditService.logSecurityEvent("PAIRING_SESSION", sessionId, "PAIRING_REVOKED", 
@@ -0,0 +1,21 @@
+-- Transactional outbox for downstream side effects (KTS, telematics, device OEM).
+-- Rows are written in the same transaction as the business change and delivered
+-- by the outbox relay, in id order per aggregate key.
+CREATE TABLE IF NOT EXISTS outbox_events (
+    id BIGSERIAL PRIMARY KEY,
+    aggregate_key VARCHAR(100) NOT NULL,
+    event_type VARCHAR(50) NOT NULL CHECK (event_type IN ('KTS_REGISTER_KEY','KTS_UPDATE_KEY_STATUS','TELEMATICS_COMMAND','DEVICE_OEM_NOTIFICATION')),
+    payload TEXT NOT NULL,
+    status VARCHAR(20) NOT NULL DEFAULT 'PENDING' CHECK (status IN ('PENDING','DISPATCHED','FAILED')),
+    attempts INTEGER NOT NULL DEFAULT 0,
+    next_attempt_at TIMESTAMP(6) NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    last_error VARCHAR(500),
+    created_at TIMESTAMP(6) NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    dispatched_at TIMESTAMP(6)
+);
+
+-- Relay polling: due pending events in id order
+CREATE INDEX IF NOT EXISTS idx_outbox_events_pending ON outbox_events(next_attempt_at, id) WHERE status = 'PENDING';
+
+-- Per-key ordering check: earlier pending events for the same aggregate key
+CREATE INDEX IF NOT EXISTS idx_outbox_events_aggregate_pending ON outbox_events(aggregate_key, id) WHERE status = 'PENDING';
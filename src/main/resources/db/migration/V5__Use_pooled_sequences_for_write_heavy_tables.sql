@@ -0,0 +1,31 @@
+-- Move write-heavy tables from IDENTITY/BIGSERIAL ids to pooled sequences.
+-- Hibernate cannot batch inserts for IDENTITY columns because it needs each generated id
+-- back immediately; with a pooled sequence (INCREMENT BY = allocationSize = 50) it reserves
+-- a block of ids with one nextval and sends inserts in JDBC batches.
+--
+-- Hibernate's pooled optimizer treats a nextval result N as the block (N - 49 .. N], so each
+-- sequence is positioned at MAX(id) + 50 to keep the first block clear of existing rows.
+-- Column defaults are switched to the new sequences so plain SQL inserts stay unique too.
+--
+-- outbox_events keeps its BIGSERIAL id: the relay delivers events in id order, which pooled
+-- blocks handed out by several instances would not follow.
+
+CREATE SEQUENCE IF NOT EXISTS digital_keys_seq INCREMENT BY 50;
+SELECT setval('digital_keys_seq', (SELECT COALESCE(MAX(id), 0) + 50 FROM digital_keys), false);
+ALTER TABLE digital_keys ALTER COLUMN id SET DEFAULT nextval('digital_keys_seq');
+
+CREATE SEQUENCE IF NOT EXISTS key_usage_logs_seq INCREMENT BY 50;
+SELECT setval('key_usage_logs_seq', (SELECT COALESCE(MAX(id), 0) + 50 FROM key_usage_logs), false);
+ALTER TABLE key_usage_logs ALTER COLUMN id SET DEFAULT nextval('key_usage_logs_seq');
+
+CREATE SEQUENCE IF NOT EXISTS audit_logs_seq INCREMENT BY 50;
+SELECT setval('audit_logs_seq', (SELECT COALESCE(MAX(id), 0) + 50 FROM audit_logs), false);
+ALTER TABLE audit_logs ALTER COLUMN id SET DEFAULT nextval('audit_logs_seq');
+
+CREATE SEQUENCE IF NOT EXISTS pairing_sessions_seq INCREMENT BY 50;
+SELECT setval('pairing_sessions_seq', (SELECT COALESCE(MAX(id), 0) + 50 FROM pairing_sessions), false);
+ALTER TABLE pairing_sessions ALTER COLUMN id SET DEFAULT nextval('pairing_sessions_seq');
+
+CREATE SEQUENCE IF NOT EXISTS key_sharing_invitations_seq INCREMENT BY 50;
+SELECT setval('key_sharing_invitations_seq', (SELECT COALESCE(MAX(id), 0) + 50 FROM key_sharing_invitations), false);
+ALTER TABLE key_sharing_invitations ALTER COLUMN id SET DEFAULT nextval('key_sharing_invitations_seq');
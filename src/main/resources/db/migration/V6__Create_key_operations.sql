@@ -0,0 +1,19 @@
+-- Asynchronous key management operations. The key status change is committed together
+-- with a key_operations row; the downstream steps are the outbox events carrying its id.
+CREATE TABLE IF NOT EXISTS key_operations (
+    id VARCHAR(36) PRIMARY KEY,
+    key_id VARCHAR(100) NOT NULL,
+    action VARCHAR(20) NOT NULL,
+    resulting_status VARCHAR(20) NOT NULL,
+    requested_by VARCHAR(100),
+    created_at TIMESTAMP(6) NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+CREATE INDEX IF NOT EXISTS idx_key_operations_created_at ON key_operations(created_at);
+
+ALTER TABLE outbox_events ADD COLUMN IF NOT EXISTS operation_id VARCHAR(36);
+-- Reference returned by the downstream system on delivery (e.g. telematics command id)
+ALTER TABLE outbox_events ADD COLUMN IF NOT EXISTS acknowledgement VARCHAR(100);
+
+-- Per-operation step lookup
+CREATE INDEX IF NOT EXISTS idx_outbox_events_operation ON outbox_events(operation_id) WHERE operation_id IS NOT NULL;
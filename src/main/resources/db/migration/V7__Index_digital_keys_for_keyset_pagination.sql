@@ -0,0 +1,6 @@
+-- Keyset pagination of a vehicle's keys on (created_at, id). created_at becomes mandatory
+-- so the seek predicate never has to deal with NULLs.
+UPDATE digital_keys SET created_at = COALESCE(updated_at, CURRENT_TIMESTAMP) WHERE created_at IS NULL;
+ALTER TABLE digital_keys ALTER COLUMN created_at SET NOT NULL;
+
+CREATE INDEX IF NOT EXISTS idx_digital_keys_vehicle_created ON digital_keys(vehicle_id, created_at, id);
@@ -0,0 +1,13 @@
+-- Tasks an executor could not queue under the SPILL_TO_DB rejection policy. They are
+-- replayed in id order once the executor has capacity again, then deleted.
+CREATE SEQUENCE IF NOT EXISTS spilled_tasks_seq INCREMENT BY 50;
+
+CREATE TABLE IF NOT EXISTS spilled_tasks (
+    id BIGINT PRIMARY KEY DEFAULT nextval('spilled_tasks_seq'),
+    executor VARCHAR(50) NOT NULL,
+    task_type VARCHAR(100) NOT NULL,
+    payload TEXT NOT NULL,
+    created_at TIMESTAMP(6) NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+CREATE INDEX IF NOT EXISTS idx_spilled_tasks_executor ON spilled_tasks(executor, id);
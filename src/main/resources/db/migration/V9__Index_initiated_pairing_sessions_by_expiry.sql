@@ -0,0 +1,4 @@
+-- Expiry scan for the pairing session reaper. Only sessions still INITIATED are indexed, so
+-- the index stays as small as the number of sessions in flight.
+CREATE INDEX IF NOT EXISTS idx_pairing_sessions_initiated_expires_at
+    ON pairing_sessions(expires_at) WHERE status = 'INITIATED';
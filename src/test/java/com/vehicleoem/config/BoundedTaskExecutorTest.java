@@ -0,0 +1,162 @@
+package com.vehicleoem.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("BoundedTaskExecutor Unit Tests")
+class BoundedTaskExecutorTest {
+
+    private MeterRegistry meterRegistry;
+    private BoundedTaskExecutor executor;
+    private CountDownLatch release;
+    private final List<String> ran = new CopyOnWriteArrayList<>();
+    private final List<SpillableTask> spilled = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        release = new CountDownLatch(1);
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        release.countDown();
+        if (executor != null) {
+            executor.destroy();
+        }
+    }
+
+    private BoundedTaskExecutor saturated(RejectionPolicy policy) throws InterruptedException {
+        // One thread blocked on the latch and one queued task fill the executor
+        executor = new BoundedTaskExecutor("test", 1, 1, 1, policy, false, (name, task) -> spilled.add(task), meterRegistry);
+        CountDownLatch started = new CountDownLatch(1);
+        executor.execute(() -> {
+            started.countDown();
+            await(release);
+        });
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        executor.execute(() -> ran.add("queued"));
+        assertFalse(executor.hasCapacity());
+        return executor;
+    }
+
+    @Test
+    @DisplayName("Should run rejected tasks on the caller")
+    void shouldRunRejectedTasksOnCaller() throws InterruptedException {
+        saturated(RejectionPolicy.CALLER_RUNS);
+
+        String caller = Thread.currentThread().getName();
+        List<String> threads = new ArrayList<>();
+        executor.execute(() -> threads.add(Thread.currentThread().getName()));
+
+        assertEquals(List.of(caller), threads);
+        assertEquals(1, executor.getQueueDepth());
+        assertEquals(1, executor.getActiveCount());
+        assertEquals(1.0, rejected("caller_runs"));
+        assertEquals(1.0, meterRegistry.get("async.executor.queue.depth").tag("name", "test").gauge().value());
+    }
+
+    @Test
+    @DisplayName("Should drop the oldest queued task to make room")
+    void shouldDropOldestQueuedTask() throws InterruptedException {
+        saturated(RejectionPolicy.DROP_OLDEST);
+
+        executor.execute(() -> ran.add("newest"));
+        release.countDown();
+
+        assertTrue(waitFor(() -> ran.contains("newest")));
+        assertFalse(ran.contains("queued"));
+        assertEquals(1.0, rejected("dropped"));
+    }
+
+    @Test
+    @DisplayName("Should cancel the future of a dropped task")
+    void shouldCancelDroppedFuture() throws InterruptedException {
+        saturated(RejectionPolicy.DROP_OLDEST);
+        // Replace the queued runnable with a submitted one so there is a future to cancel
+        executor.execute(() -> ran.add("newest"));
+        Future<?> dropped = executor.submit(() -> ran.add("submitted"));
+        executor.execute(() -> ran.add("latest"));
+
+        assertTrue(dropped.isCancelled());
+    }
+
+    @Test
+    @DisplayName("Should spill spillable tasks and run other tasks on the caller")
+    void shouldSpillSpillableTasks() throws InterruptedException {
+        saturated(RejectionPolicy.SPILL_TO_DB);
+
+        SpillableTask task = new SpillableTask() {
+            @Override public void run() { ran.add("spillable"); }
+            @Override public String spillType() { return "test.task"; }
+            @Override public String spillPayload() { return "{}"; }
+        };
+        executor.execute(task);
+        executor.execute(() -> ran.add("plain"));
+
+        assertEquals(List.of(task), spilled);
+        assertFalse(ran.contains("spillable"));
+        assertTrue(ran.contains("plain"));
+        assertEquals(1.0, rejected("spilled"));
+        assertEquals(1.0, rejected("caller_runs"));
+    }
+
+    @Test
+    @DisplayName("Should record queue latency and run time")
+    void shouldRecordTaskTimings() throws InterruptedException {
+        executor = new BoundedTaskExecutor("test", 1, 1, 10, RejectionPolicy.CALLER_RUNS, false, null, meterRegistry);
+        CountDownLatch done = new CountDownLatch(3);
+        for (int i = 0; i < 3; i++) {
+            executor.execute(done::countDown);
+        }
+
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        assertTrue(waitFor(() -> meterRegistry.get("async.executor.task.duration").timer().count() == 3));
+        assertEquals(3, meterRegistry.get("async.executor.task.latency").tag("name", "test").timer().count());
+    }
+
+    @Test
+    @DisplayName("Should fall back to a thread pool when virtual threads are unavailable")
+    void shouldFallBackWhenVirtualThreadsUnavailable() throws Exception {
+        executor = new BoundedTaskExecutor("test", 1, 2, 10, RejectionPolicy.CALLER_RUNS, true, null, meterRegistry);
+
+        assertEquals(Runtime.version().feature() >= 21, executor.isVirtual());
+        assertTrue(executor.submit(() -> ran.add("task")).get(5, TimeUnit.SECONDS));
+        assertEquals(List.of("task"), ran);
+    }
+
+    private double rejected(String outcome) {
+        return meterRegistry.get("async.executor.rejected").tag("outcome", outcome).counter().count();
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static boolean waitFor(java.util.function.BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!condition.getAsBoolean()) {
+            if (System.nanoTime() > deadline) {
+                return false;
+            }
+            Thread.sleep(10);
+        }
+        return true;
+    }
+}
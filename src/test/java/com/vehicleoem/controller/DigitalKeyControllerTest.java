@@ -3,6 +3,7 @@ package com.vehicleoem.controller;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.vehicleoem.dto.*;
 import com.vehicleoem.service.DigitalKeyService;
+import com.vehicleoem.service.KeyOperationService;
 import com.vehicleoem.exception.VehicleNotFoundException;
 import com.vehicleoem.exception.KeyManagementException;
 import org.junit.jupiter.api.BeforeEach;
@@ -16,8 +17,13 @@ import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import com.vehicleoem.config.TestSecurityConfig;
 
+import java.util.List;
+import java.util.Optional;
+
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
@@ -32,6 +38,9 @@ class DigitalKeyControllerTest {
     @MockBean
     private DigitalKeyService digitalKeyService;
 
+    @MockBean
+    private KeyOperationService keyOperationService;
+
     @Autowired
     private ObjectMapper objectMapper;
 
@@ -101,6 +110,36 @@ class DigitalKeyControllerTest {
                 .andExpect(jsonPath("$.message").value("Vehicle not found with VIN: 1HGBH41JXMN109186"));
     }
 
+    @Test
+    @DisplayName("Should track keys in bulk with per-key results")
+    void shouldTrackKeysInBulk() throws Exception {
+        // Arrange
+        BatchTrackKeyResponse response = new BatchTrackKeyResponse(List.of(
+                new TrackKeyResponse(true, "Key tracked successfully", "TEST-KEY-001", "TEST-KEY-001"),
+                new TrackKeyResponse(false, "Maximum number of keys reached for this vehicle (5)", "TEST-KEY-002", null)),
+                1, 0);
+        when(digitalKeyService.trackKeys(anyList())).thenReturn(response);
+
+        // Act & Assert
+        mockMvc.perform(post("/api/v1/keys/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(new BatchTrackKeyRequest(List.of(trackKeyRequest, trackKeyRequest)))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.total").value(2))
+                .andExpect(jsonPath("$.tracked").value(1))
+                .andExpect(jsonPath("$.failed").value(1))
+                .andExpect(jsonPath("$.results[1].success").value(false));
+    }
+
+    @Test
+    @DisplayName("Should reject empty bulk track request")
+    void shouldRejectEmptyBulkTrackRequest() throws Exception {
+        mockMvc.perform(post("/api/v1/keys/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(new BatchTrackKeyRequest(List.of()))))
+                .andExpect(status().isBadRequest());
+    }
+
     @Test
     @DisplayName("Should successfully manage key")
     void shouldSuccessfullyManageKey() throws Exception {
@@ -119,6 +158,70 @@ class DigitalKeyControllerTest {
                 .andExpect(jsonPath("$.newStatus").value("SUSPENDED"));
     }
 
+    @Test
+    @DisplayName("Should accept asynchronous manage key requests with an operation id")
+    void shouldAcceptAsyncManageKey() throws Exception {
+        // Arrange
+        ManageKeyResponse response = new ManageKeyResponse(true, "Key managed successfully", "TEST-KEY-001", "SUSPENDED");
+        response.setOperationId("OP-001");
+        when(digitalKeyService.manageKey(any(ManageKeyRequest.class))).thenReturn(response);
+
+        // Act & Assert
+        mockMvc.perform(post("/api/v1/keys/manage")
+                .param("async", "true")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(manageKeyRequest)))
+                .andExpect(status().isAccepted())
+                .andExpect(header().string("Location", "/api/v1/keys/operations/OP-001"))
+                .andExpect(jsonPath("$.operationId").value("OP-001"))
+                .andExpect(jsonPath("$.newStatus").value("SUSPENDED"));
+    }
+
+    @Test
+    @DisplayName("Should report key operation progress")
+    void shouldReportKeyOperationProgress() throws Exception {
+        // Arrange
+        KeyOperationResponse operation = new KeyOperationResponse();
+        operation.setOperationId("OP-001");
+        operation.setStatus(KeyOperationResponse.IN_PROGRESS);
+        operation.setSteps(List.of(
+            new KeyOperationStepResponse("TELEMATICS_COMMAND", "DISPATCHED", 1, null, "CMD-12345", null),
+            new KeyOperationStepResponse("KTS_UPDATE_KEY_STATUS", "PENDING", 2, "Read timed out", null, null)));
+        when(keyOperationService.awaitOperation("OP-001", 5)).thenReturn(Optional.of(operation));
+        when(keyOperationService.awaitOperation("OP-404", 0)).thenReturn(Optional.empty());
+
+        // Act & Assert
+        mockMvc.perform(get("/api/v1/keys/operations/OP-001").param("waitSeconds", "5"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status").value("IN_PROGRESS"))
+                .andExpect(jsonPath("$.steps[0].acknowledgement").value("CMD-12345"))
+                .andExpect(jsonPath("$.steps[1].lastError").value("Read timed out"));
+
+        mockMvc.perform(get("/api/v1/keys/operations/OP-404"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    @DisplayName("Should return a key summary or 404")
+    void shouldGetKey() throws Exception {
+        // Arrange
+        DigitalKeyView view = new DigitalKeyView(7L, "TEST-KEY-001", "1HGBH41JXMN109186", "OWNER", "ACTIVE",
+            "DEVICE-001", "Apple", null, null, "FULL_ACCESS", 3L, null, null, null, null, null, null);
+        when(digitalKeyService.getKey("TEST-KEY-001")).thenReturn(Optional.of(view));
+        when(digitalKeyService.getKey("MISSING-KEY")).thenReturn(Optional.empty());
+
+        // Act & Assert
+        mockMvc.perform(get("/api/v1/keys/TEST-KEY-001"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.keyId").value("TEST-KEY-001"))
+                .andExpect(jsonPath("$.vehicleId").value("1HGBH41JXMN109186"))
+                .andExpect(jsonPath("$.usageCount").value(3))
+                .andExpect(jsonPath("$.id").doesNotExist());
+
+        mockMvc.perform(get("/api/v1/keys/MISSING-KEY"))
+                .andExpect(status().isNotFound());
+    }
+
     @Test
     @DisplayName("Should handle manage key validation errors")
     void shouldHandleManageKeyValidationErrors() throws Exception {
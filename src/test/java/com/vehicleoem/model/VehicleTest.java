@@ -152,41 +152,6 @@ class VehicleTest {
         assertFalse(vehicle.canCreateFriendKeys());
     }
 
-    @Test
-    @DisplayName("Should handle key count operations")
-    void shouldHandleKeyCountOperations() {
-        assertEquals(0, vehicle.getCurrentKeyCount());
-        
-        vehicle.incrementKeyCount();
-        assertEquals(1, vehicle.getCurrentKeyCount());
-        
-        vehicle.incrementKeyCount();
-        assertEquals(2, vehicle.getCurrentKeyCount());
-        
-        vehicle.decrementKeyCount();
-        assertEquals(1, vehicle.getCurrentKeyCount());
-        
-        vehicle.decrementKeyCount();
-        assertEquals(0, vehicle.getCurrentKeyCount());
-        
-        // Should not go below 0
-        vehicle.decrementKeyCount();
-        assertEquals(0, vehicle.getCurrentKeyCount());
-    }
-
-    @Test
-    @DisplayName("Should handle usage tracking")
-    void shouldHandleUsageTracking() {
-        assertEquals(0L, vehicle.getTotalKeyUsageCount());
-        assertNull(vehicle.getLastActivityAt());
-        
-        vehicle.incrementKeyUsage();
-        
-        assertEquals(1L, vehicle.getTotalKeyUsageCount());
-        assertNotNull(vehicle.getLastActivityAt());
-        assertTrue(vehicle.getLastActivityAt().isAfter(LocalDateTime.now().minusSeconds(1)));
-    }
-
     @Test
     @DisplayName("Should validate VIN check digit")
     void shouldValidateVinCheckDigit() {
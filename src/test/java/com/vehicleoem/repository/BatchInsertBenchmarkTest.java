@@ -0,0 +1,137 @@
+package com.vehicleoem.repository;
+
+import com.vehicleoem.model.AuditLog;
+import com.vehicleoem.model.KeyUsageLog;
+import com.vehicleoem.model.KeyUsageType;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.context.TestPropertySource;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Measures JDBC round trips for bulk inserts into the two highest-volume tables. With pooled
+ * sequence ids Hibernate groups inserts into JDBC batches of hibernate.jdbc.batch_size and
+ * fetches ids once per allocation block; with IDENTITY every row was its own statement.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@TestPropertySource(properties = {
+    "spring.jpa.hibernate.ddl-auto=create-drop",
+    "spring.jpa.database-platform=org.hibernate.dialect.PostgreSQLDialect",
+    "spring.jpa.properties.hibernate.generate_statistics=true",
+    "spring.jpa.properties.hibernate.jdbc.batch_size=20",
+    "spring.jpa.properties.hibernate.order_inserts=true"
+})
+@DisplayName("Batched insert benchmark for key_usage_logs and audit_logs")
+class BatchInsertBenchmarkTest {
+
+    private static final int ROWS = 2000;
+    private static final int BATCH_SIZE = 20;
+    private static final int ALLOCATION_SIZE = 50;
+
+    private static EmbeddedPostgres embeddedPostgres;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private KeyUsageLogRepository keyUsageLogRepository;
+
+    @Autowired
+    private AuditLogRepository auditLogRepository;
+
+    private Statistics statistics;
+
+    @BeforeAll
+    static void setUpDatabase() throws IOException {
+        embeddedPostgres = EmbeddedPostgres.builder()
+                .setPort(0)
+                .start();
+    }
+
+    @AfterAll
+    static void tearDownDatabase() throws IOException {
+        if (embeddedPostgres != null) {
+            embeddedPostgres.close();
+        }
+    }
+
+    @DynamicPropertySource
+    static void configureProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", () -> embeddedPostgres.getJdbcUrl("postgres", "postgres"));
+        registry.add("spring.datasource.username", () -> "postgres");
+        registry.add("spring.datasource.password", () -> "");
+        registry.add("spring.datasource.driver-class-name", () -> "org.postgresql.Driver");
+    }
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    @DisplayName("Should batch key_usage_logs inserts")
+    void shouldBatchKeyUsageLogInserts() {
+        List<KeyUsageLog> logs = new ArrayList<>(ROWS);
+        for (int i = 0; i < ROWS; i++) {
+            logs.add(new KeyUsageLog("OWNER-KEY-" + i, "1HGBH41JXMN109186", "DEVICE-" + i, KeyUsageType.UNLOCK));
+        }
+
+        long statements = measure("key_usage_logs", () -> keyUsageLogRepository.saveAll(logs));
+
+        assertEquals(ROWS, keyUsageLogRepository.count());
+        assertTrue(statements <= expectedStatements(), "Expected batched inserts but saw " + statements + " statements");
+    }
+
+    @Test
+    @DisplayName("Should batch audit_logs inserts")
+    void shouldBatchAuditLogInserts() {
+        List<AuditLog> logs = new ArrayList<>(ROWS);
+        for (int i = 0; i < ROWS; i++) {
+            logs.add(new AuditLog("DIGITAL_KEY", "OWNER-KEY-" + i, "TRACK_KEY", "SYSTEM"));
+        }
+
+        long statements = measure("audit_logs", () -> auditLogRepository.saveAll(logs));
+
+        assertEquals(ROWS, auditLogRepository.count());
+        assertTrue(statements <= expectedStatements(), "Expected batched inserts but saw " + statements + " statements");
+    }
+
+    private long measure(String table, Runnable insert) {
+        long start = System.nanoTime();
+        insert.run();
+        entityManager.flush();
+        long elapsedMicros = (System.nanoTime() - start) / 1_000;
+
+        long statements = statistics.getPrepareStatementCount();
+        System.out.printf("%s: %d rows, %d JDBC statements, %d ms, %.0f rows/s%n",
+            table, ROWS, statements, elapsedMicros / 1_000, ROWS * 1_000_000.0 / Math.max(elapsedMicros, 1));
+        return statements;
+    }
+
+    private static long expectedStatements() {
+        // one INSERT batch per BATCH_SIZE rows plus one nextval per ALLOCATION_SIZE ids, with slack
+        return (ROWS / BATCH_SIZE) + (ROWS / ALLOCATION_SIZE) + 5;
+    }
+}
@@ -1,5 +1,6 @@
 package com.vehicleoem.repository;
 
+import com.vehicleoem.dto.DigitalKeyView;
 import com.vehicleoem.model.*;
 import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
 import org.junit.jupiter.api.AfterAll;
@@ -16,6 +17,7 @@ import org.springframework.test.context.DynamicPropertySource;
 import org.springframework.test.context.TestPropertySource;
 import java.io.IOException;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 
@@ -268,4 +270,111 @@ class DigitalKeyRepositoryTest {
         assertEquals(1, expiredKeys.size());
         assertEquals("KEY004", expiredKeys.get(0).getKeyId());
     }
+
+    @Test
+    @DisplayName("Should batch insert keys and skip existing key IDs")
+    void shouldBatchInsertKeysAndSkipExistingKeyIds() {
+        DigitalKey newKey = new DigitalKey("OWNER-KEY-003", "DEVICE003", "Apple", KeyType.OWNER, testVehicle);
+        DigitalKey duplicateKey = new DigitalKey("OWNER-KEY-001", "DEVICE009", "Apple", KeyType.OWNER, testVehicle);
+
+        boolean[] inserted = digitalKeyRepository.batchInsert(List.of(newKey, duplicateKey));
+
+        assertArrayEquals(new boolean[] { true, false }, inserted);
+        assertTrue(digitalKeyRepository.existsByKeyId("OWNER-KEY-003"));
+        assertEquals("DEVICE001", digitalKeyRepository.findByKeyId("OWNER-KEY-001").get().getDeviceId());
+        assertEquals(List.of("OWNER-KEY-003"),
+            digitalKeyRepository.findExistingKeyIds(List.of("OWNER-KEY-003", "OWNER-KEY-404")));
+    }
+
+    @Test
+    @DisplayName("Should report a key ID repeated within one batch as inserted only once")
+    void shouldBatchInsertRepeatedKeyIdOnce() {
+        DigitalKey first = new DigitalKey("OWNER-KEY-005", "DEVICE005", "Apple", KeyType.OWNER, testVehicle);
+        DigitalKey repeat = new DigitalKey("OWNER-KEY-005", "DEVICE006", "Apple", KeyType.OWNER, testVehicle);
+
+        boolean[] inserted = digitalKeyRepository.batchInsert(List.of(first, repeat));
+
+        assertArrayEquals(new boolean[] { true, false }, inserted);
+        assertEquals("DEVICE005", digitalKeyRepository.findByKeyId("OWNER-KEY-005").get().getDeviceId());
+    }
+
+    @Test
+    @DisplayName("Should stream every key id")
+    void shouldStreamAllKeyIds() {
+        List<String> keyIds = new ArrayList<>();
+
+        long count = digitalKeyRepository.streamKeyIds(keyIds::add);
+
+        assertEquals(2, count);
+        assertTrue(keyIds.containsAll(List.of("OWNER-KEY-001", "FRIEND-KEY-002")));
+    }
+
+    @Test
+    @DisplayName("Should page a vehicle's keys by (created_at, id) with filters")
+    void shouldPageVehicleKeysWithKeyset() {
+        // Same created_at as the first key, so the page boundary has to break the tie on id
+        DigitalKey tiedKey = new DigitalKey("OWNER-KEY-003", "DEVICE003", "Google", KeyType.OWNER, testVehicle);
+        tiedKey.setCreatedAt(testKey1.getCreatedAt());
+        tiedKey = digitalKeyRepository.save(tiedKey);
+        entityManager.flush();
+
+        List<DigitalKeyView> firstPage = digitalKeyRepository.findViewsByVehicleVin(
+            "1HGBH41JXMN109186", null, null, null, null, 2);
+        DigitalKeyView last = firstPage.get(1);
+        List<DigitalKeyView> secondPage = digitalKeyRepository.findViewsByVehicleVin(
+            "1HGBH41JXMN109186", null, null, last.createdAt(), last.id(), 2);
+
+        List<String> pagedKeyIds = new ArrayList<>();
+        firstPage.forEach(key -> pagedKeyIds.add(key.keyId()));
+        secondPage.forEach(key -> pagedKeyIds.add(key.keyId()));
+        assertEquals(3, pagedKeyIds.size());
+        assertTrue(pagedKeyIds.containsAll(List.of("OWNER-KEY-001", "FRIEND-KEY-002", "OWNER-KEY-003")));
+        assertEquals("1HGBH41JXMN109186", firstPage.get(0).vehicleId());
+
+        List<DigitalKeyView> suspendedFriendKeys = digitalKeyRepository.findViewsByVehicleVin(
+            "1HGBH41JXMN109186", KeyStatus.SUSPENDED, KeyType.FRIEND, null, null, 10);
+        assertEquals(1, suspendedFriendKeys.size());
+        assertEquals("friend@example.com", suspendedFriendKeys.get(0).friendEmail());
+
+        assertTrue(digitalKeyRepository.findViewByKeyId("OWNER-KEY-003").isPresent());
+        assertTrue(digitalKeyRepository.findViewByKeyId("OWNER-KEY-404").isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should expire overdue slot-holding keys in bounded chunks")
+    void shouldExpireDueKeysInChunks() {
+        LocalDateTime now = LocalDateTime.now();
+        testKey1.setExpiresAt(now.minusDays(2));
+        testKey2.setExpiresAt(now.minusDays(1));
+        DigitalKey terminatedKey = new DigitalKey("OWNER-KEY-003", "DEVICE003", "Google", KeyType.OWNER, testVehicle);
+        terminatedKey.setStatus(KeyStatus.TERMINATED);
+        terminatedKey.setExpiresAt(now.minusDays(3));
+        digitalKeyRepository.save(terminatedKey);
+        entityManager.flush();
+
+        assertEquals(2, digitalKeyRepository.countDueForExpiry(now));
+        List<DigitalKeyRepositoryCustom.ExpiredKey> firstChunk = digitalKeyRepository.expireDueKeys(now, 1);
+        List<DigitalKeyRepositoryCustom.ExpiredKey> secondChunk = digitalKeyRepository.expireDueKeys(now, 1);
+
+        assertEquals("OWNER-KEY-001", firstChunk.get(0).keyId());
+        assertEquals(testVehicle.getId(), firstChunk.get(0).vehicleId());
+        assertEquals("FRIEND-KEY-002", secondChunk.get(0).keyId());
+        assertTrue(digitalKeyRepository.expireDueKeys(now, 1).isEmpty());
+        assertEquals(0, digitalKeyRepository.countDueForExpiry(now));
+
+        entityManager.clear();
+        assertEquals(KeyStatus.EXPIRED, digitalKeyRepository.findByKeyId("FRIEND-KEY-002").get().getStatus());
+        assertEquals(KeyStatus.TERMINATED, digitalKeyRepository.findByKeyId("OWNER-KEY-003").get().getStatus());
+    }
+
+    @Test
+    @DisplayName("Should report the status after consuming a limited use")
+    void shouldConsumeLimitedUsage() {
+        testKey1.setMaxUsageCount(2L);
+        entityManager.flush();
+
+        assertEquals(KeyStatus.ACTIVE, digitalKeyRepository.consumeLimitedUsage(testKey1.getId(), LocalDateTime.now()));
+        assertEquals(KeyStatus.EXPIRED, digitalKeyRepository.consumeLimitedUsage(testKey1.getId(), LocalDateTime.now()));
+        assertNull(digitalKeyRepository.consumeLimitedUsage(testKey1.getId(), LocalDateTime.now()));
+    }
 }
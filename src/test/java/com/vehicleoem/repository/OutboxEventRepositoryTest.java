@@ -0,0 +1,104 @@
+package com.vehicleoem.repository;
+
+import com.vehicleoem.model.OutboxEvent;
+import com.vehicleoem.model.OutboxEventType;
+import com.vehicleoem.model.OutboxStatus;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.context.TestPropertySource;
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@TestPropertySource(properties = {
+    "spring.jpa.hibernate.ddl-auto=create-drop",
+    "spring.jpa.database-platform=org.hibernate.dialect.PostgreSQLDialect"
+})
+@DisplayName("OutboxEventRepository Integration Tests")
+class OutboxEventRepositoryTest {
+
+    private static EmbeddedPostgres embeddedPostgres;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    @BeforeAll
+    static void setUpDatabase() throws IOException {
+        embeddedPostgres = EmbeddedPostgres.builder()
+                .setPort(0)
+                .start();
+    }
+
+    @AfterAll
+    static void tearDownDatabase() throws IOException {
+        if (embeddedPostgres != null) {
+            embeddedPostgres.close();
+        }
+    }
+
+    @DynamicPropertySource
+    static void configureProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", () -> embeddedPostgres.getJdbcUrl("postgres", "postgres"));
+        registry.add("spring.datasource.username", () -> "postgres");
+        registry.add("spring.datasource.password", () -> "");
+        registry.add("spring.datasource.driver-class-name", () -> "org.postgresql.Driver");
+    }
+
+    @Test
+    @DisplayName("Should only claim the oldest pending event per aggregate key")
+    void shouldOnlyClaimOldestPendingEventPerKey() {
+        OutboxEvent firstForKeyA = outboxEventRepository.save(new OutboxEvent("KEY-A", OutboxEventType.TELEMATICS_COMMAND, "{}"));
+        outboxEventRepository.save(new OutboxEvent("KEY-A", OutboxEventType.KTS_UPDATE_KEY_STATUS, "{}"));
+        OutboxEvent firstForKeyB = outboxEventRepository.save(new OutboxEvent("KEY-B", OutboxEventType.KTS_REGISTER_KEY, "{}"));
+        entityManager.flush();
+
+        List<OutboxEvent> claimable = outboxEventRepository.lockDispatchableEvents(LocalDateTime.now().plusSeconds(1), 10);
+
+        assertEquals(List.of(firstForKeyA.getId(), firstForKeyB.getId()),
+            claimable.stream().map(OutboxEvent::getId).toList());
+    }
+
+    @Test
+    @DisplayName("Should hold back later events while the head event is backing off")
+    void shouldHoldBackLaterEventsWhileHeadIsBackingOff() {
+        OutboxEvent head = new OutboxEvent("KEY-A", OutboxEventType.TELEMATICS_COMMAND, "{}");
+        head.setNextAttemptAt(LocalDateTime.now().plusMinutes(5));
+        outboxEventRepository.save(head);
+        outboxEventRepository.save(new OutboxEvent("KEY-A", OutboxEventType.KTS_UPDATE_KEY_STATUS, "{}"));
+        entityManager.flush();
+
+        assertTrue(outboxEventRepository.lockDispatchableEvents(LocalDateTime.now().plusSeconds(1), 10).isEmpty());
+        assertEquals(2, outboxEventRepository.countByStatus(OutboxStatus.PENDING));
+    }
+
+    @Test
+    @DisplayName("Should release the next event once the head is dispatched")
+    void shouldReleaseNextEventOnceHeadIsDispatched() {
+        OutboxEvent head = outboxEventRepository.save(new OutboxEvent("KEY-A", OutboxEventType.TELEMATICS_COMMAND, "{}"));
+        OutboxEvent next = outboxEventRepository.save(new OutboxEvent("KEY-A", OutboxEventType.KTS_UPDATE_KEY_STATUS, "{}"));
+        entityManager.flush();
+
+        outboxEventRepository.markDispatched(head.getId(), LocalDateTime.now(), null);
+        entityManager.clear();
+
+        List<OutboxEvent> claimable = outboxEventRepository.lockDispatchableEvents(LocalDateTime.now().plusSeconds(1), 10);
+        assertEquals(1, claimable.size());
+        assertEquals(next.getId(), claimable.get(0).getId());
+    }
+}
@@ -17,6 +17,7 @@ import org.springframework.test.context.TestPropertySource;
 import java.io.IOException;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -219,8 +220,8 @@ class VehicleRepositoryTest {
         assertEquals(3, vehicle.getCurrentKeyCount());
         assertEquals(20, vehicle.getMaxKeysAllowed()); // Premium tier
         
-        vehicle.incrementKeyCount();
-        vehicleRepository.save(vehicle);
+        vehicleRepository.applyKeyCountDeltas(Map.of(vehicle.getId(), 1));
+        entityManager.clear();
         
         Vehicle updated = vehicleRepository.findByVin("1HGBH41JXMN109186").get();
         assertEquals(4, updated.getCurrentKeyCount());
@@ -232,15 +233,43 @@ class VehicleRepositoryTest {
         Vehicle vehicle = vehicleRepository.findByVin("1HGBH41JXMN109186").get();
         assertEquals(0L, vehicle.getTotalKeyUsageCount());
         
-        vehicle.incrementKeyUsage();
-        vehicle.incrementKeyUsage();
-        vehicleRepository.save(vehicle);
+        vehicleRepository.addKeyUsageCounts(Map.of(vehicle.getId(), 2L), LocalDateTime.now());
+        entityManager.clear();
         
         Vehicle updated = vehicleRepository.findByVin("1HGBH41JXMN109186").get();
         assertEquals(2L, updated.getTotalKeyUsageCount());
         assertNotNull(updated.getLastActivityAt());
     }
 
+    @Test
+    @DisplayName("Should add trip distance to mileage")
+    void shouldAddMileage() {
+        Vehicle vehicle = vehicleRepository.findByVin("1HGBH41JXMN109186").get();
+        vehicle.setMileage(1000);
+        vehicleRepository.saveAndFlush(vehicle);
+        
+        vehicleRepository.addMileage(vehicle.getId(), 12.7);
+        vehicleRepository.addMileage(vehicle.getId(), 30.5);
+        entityManager.clear();
+        
+        Vehicle updated = vehicleRepository.findByVin("1HGBH41JXMN109186").get();
+        assertEquals(1042, updated.getMileage());
+    }
+
+    @Test
+    @DisplayName("Should only move last activity forward")
+    void shouldRecordActivity() {
+        Vehicle vehicle = vehicleRepository.findByVin("1HGBH41JXMN109186").get();
+        LocalDateTime later = LocalDateTime.now().withNano(0);
+        
+        vehicleRepository.recordActivity(vehicle.getId(), later);
+        vehicleRepository.recordActivity(vehicle.getId(), later.minusHours(1));
+        entityManager.clear();
+        
+        Vehicle updated = vehicleRepository.findByVin("1HGBH41JXMN109186").get();
+        assertEquals(later, updated.getLastActivityAt());
+    }
+
     @Test
     @DisplayName("Should handle pairing credentials")
     void shouldHandlePairingCredentials() {
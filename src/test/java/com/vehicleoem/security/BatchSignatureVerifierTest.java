@@ -0,0 +1,150 @@
+package com.vehicleoem.security;
+
+import com.vehicleoem.security.BatchSignatureVerifier.SignedItem;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import java.security.KeyPair;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("BatchSignatureVerifier Unit Tests")
+class BatchSignatureVerifierTest {
+
+    @Spy
+    private CryptographyService cryptographyService = new CryptographyService();
+
+    @Spy
+    private MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @InjectMocks
+    private BatchSignatureVerifier batchSignatureVerifier;
+
+    @AfterEach
+    void tearDown() {
+        batchSignatureVerifier.shutdown();
+    }
+
+    private void init(int parallelism, int sequentialThreshold) {
+        ReflectionTestUtils.setField(batchSignatureVerifier, "parallelism", parallelism);
+        ReflectionTestUtils.setField(batchSignatureVerifier, "sequentialThreshold", sequentialThreshold);
+        batchSignatureVerifier.init();
+    }
+
+    @Test
+    @DisplayName("Should report valid, invalid and malformed items separately")
+    void shouldReportEachOutcome() {
+        // Arrange
+        init(4, 1);
+        KeyPair keyPair = cryptographyService.generateECKeyPair();
+        KeyPair otherKeyPair = cryptographyService.generateECKeyPair();
+        byte[] data = "certificate".getBytes();
+        String signature = cryptographyService.signData(data, keyPair.getPrivate());
+        List<SignedItem> items = Arrays.asList(
+            new SignedItem(data, signature, keyPair.getPublic()),
+            new SignedItem("tampered".getBytes(), signature, keyPair.getPublic()),
+            new SignedItem(data, signature, otherKeyPair.getPublic()),
+            new SignedItem(data, "not base64!", keyPair.getPublic()),
+            new SignedItem(data, "AAECAwQ=", keyPair.getPublic()),
+            new SignedItem(data, signature, null),
+            null);
+
+        // Act
+        BatchVerificationResult result = batchSignatureVerifier.verifyAll(items);
+
+        // Assert
+        assertEquals(7, result.size());
+        assertEquals(SignatureStatus.VALID, result.getStatus(0));
+        assertEquals(SignatureStatus.INVALID, result.getStatus(1));
+        assertEquals(SignatureStatus.INVALID, result.getStatus(2));
+        assertEquals(SignatureStatus.MALFORMED, result.getStatus(3));
+        assertEquals(SignatureStatus.MALFORMED, result.getStatus(4));
+        assertEquals(SignatureStatus.MALFORMED, result.getStatus(5));
+        assertEquals(SignatureStatus.MALFORMED, result.getStatus(6));
+        assertEquals(BitSet.valueOf(new long[]{0b1}), result.getValid());
+        assertEquals(BitSet.valueOf(new long[]{0b1111000}), result.getMalformed());
+        assertEquals(2, result.getInvalidCount());
+        assertFalse(result.allValid());
+        assertEquals(1.0, meterRegistry.get("signature_verification.items").tag("outcome", "valid").counter().count());
+        assertEquals(2.0, meterRegistry.get("signature_verification.items").tag("outcome", "invalid").counter().count());
+        assertEquals(4.0, meterRegistry.get("signature_verification.items").tag("outcome", "malformed").counter().count());
+    }
+
+    @Test
+    @DisplayName("Should keep results in request order across forked ranges")
+    void shouldKeepRequestOrder() {
+        // Arrange
+        init(4, 8);
+        KeyPair keyPair = cryptographyService.generateECKeyPair();
+        List<SignedItem> items = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            byte[] data = ("message-" + i).getBytes();
+            String signature = cryptographyService.signData(data, keyPair.getPrivate());
+            // Every third item is signed over different data
+            byte[] signed = i % 3 == 0 ? ("other-" + i).getBytes() : data;
+            items.add(new SignedItem(signed, signature, keyPair.getPublic()));
+        }
+
+        // Act
+        BatchVerificationResult result = batchSignatureVerifier.verifyAll(items);
+
+        // Assert
+        for (int i = 0; i < 100; i++) {
+            assertEquals(i % 3 != 0, result.isValid(i), "item " + i);
+        }
+        assertEquals(66, result.getValidCount());
+        assertEquals(0, result.getMalformedCount());
+        assertEquals(1, meterRegistry.get("signature_verification.batch.duration").timer().count());
+    }
+
+    @Test
+    @DisplayName("Should verify on its own workers while the crypto executor is saturated")
+    void shouldVerifyWithoutCryptoExecutor() {
+        // Arrange
+        init(4, 8);
+        KeyPair keyPair = cryptographyService.generateECKeyPair();
+        List<SignedItem> items = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            byte[] data = ("message-" + i).getBytes();
+            items.add(new SignedItem(data, cryptographyService.signData(data, keyPair.getPrivate()), keyPair.getPublic()));
+        }
+        CryptoExecutor saturated = mock(CryptoExecutor.class);
+        ReflectionTestUtils.setField(cryptographyService, "cryptoExecutor", saturated);
+
+        // Act
+        BatchVerificationResult result = batchSignatureVerifier.verifyAll(items);
+
+        // Assert
+        assertTrue(result.allValid());
+        verifyNoInteractions(saturated);
+    }
+
+    @Test
+    @DisplayName("Should verify an empty batch")
+    void shouldVerifyEmptyBatch() {
+        // Arrange
+        init(0, 32);
+
+        // Act
+        BatchVerificationResult result = batchSignatureVerifier.verifyAll(List.of());
+
+        // Assert
+        assertEquals(0, result.size());
+        assertTrue(result.allValid());
+        assertThrows(IndexOutOfBoundsException.class, () -> result.getStatus(0));
+        assertThrows(IllegalArgumentException.class, () -> batchSignatureVerifier.verifyAll(null));
+    }
+}
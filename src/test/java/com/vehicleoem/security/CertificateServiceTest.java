@@ -0,0 +1,242 @@
+package com.vehicleoem.security;
+
+import com.vehicleoem.security.CertificateService.FleetIssuanceSummary;
+import com.vehicleoem.security.CertificateService.IssuedCertificate;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import java.security.KeyPair;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("CertificateService Unit Tests")
+class CertificateServiceTest {
+
+    private static final CryptographyService CRYPTO = new CryptographyService();
+
+    @Spy
+    private CryptographyService cryptographyService = new CryptographyService();
+
+    @Mock
+    private KeyPairPool keyPairPool;
+
+    @Spy
+    private MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @InjectMocks
+    private CertificateService certificateService;
+
+    private CryptoExecutor cryptoExecutor;
+
+    @AfterEach
+    void tearDown() {
+        if (cryptoExecutor != null) {
+            cryptoExecutor.shutdown();
+        }
+    }
+
+    private void init(int parallelism, int chunkSize) {
+        cryptoExecutor = new CryptoExecutor();
+        ReflectionTestUtils.setField(cryptoExecutor, "meterRegistry", meterRegistry);
+        ReflectionTestUtils.setField(cryptoExecutor, "enabled", true);
+        ReflectionTestUtils.setField(cryptoExecutor, "threads", parallelism);
+        ReflectionTestUtils.setField(cryptoExecutor, "queueCapacity", 256);
+        cryptoExecutor.init();
+        ReflectionTestUtils.setField(certificateService, "cryptoExecutor", cryptoExecutor);
+        ReflectionTestUtils.setField(certificateService, "parallelism", parallelism);
+        ReflectionTestUtils.setField(certificateService, "chunkSize", chunkSize);
+        certificateService.init();
+    }
+
+    private static List<String> vins(int count) {
+        return IntStream.range(0, count).mapToObj(i -> String.format("1HGBH41JXMN%06d", i)).collect(Collectors.toList());
+    }
+
+    @Test
+    @DisplayName("Should issue one certificate per VIN across chunks and workers")
+    void shouldIssueCertificateForEveryVin() {
+        // Arrange
+        init(4, 3);
+        List<String> vins = vins(50);
+        List<IssuedCertificate> results = new ArrayList<>();
+
+        // Act
+        FleetIssuanceSummary summary = certificateService.issueVehicleCertificates(vins, results::add);
+
+        // Assert
+        assertEquals(50, summary.issued());
+        assertEquals(0, summary.failed());
+        assertEquals(4, summary.workers());
+        assertTrue(summary.getCertificatesPerSecond() > 0);
+        assertEquals(summary.getCertificatesPerSecond() / 4, summary.getCertificatesPerSecondPerWorker(), 1e-9);
+        assertEquals(new HashSet<>(vins), results.stream().map(IssuedCertificate::vin).collect(Collectors.toSet()));
+        for (IssuedCertificate result : results) {
+            assertTrue(result.isIssued());
+            String decoded = new String(Base64.getDecoder().decode(result.certificate()));
+            assertTrue(decoded.startsWith("VIN:" + result.vin() + "|"));
+        }
+        assertEquals(50.0, meterRegistry.get("certificate_issuance.certificates").tag("outcome", "issued").counter().count());
+        assertEquals(1, meterRegistry.get("certificate_issuance.batch.duration").timer().count());
+        verifyNoInteractions(keyPairPool);
+    }
+
+    @Test
+    @DisplayName("Should report failed VINs without stopping the batch")
+    void shouldReportFailuresAndContinue() {
+        // Arrange
+        init(2, 2);
+        List<IssuedCertificate> results = new ArrayList<>();
+
+        // Act
+        FleetIssuanceSummary summary = certificateService.issueVehicleCertificates(
+            Arrays.asList("1HGBH41JXMN109186", "", null, "4T1BF1FK5GU123456"), results::add);
+
+        // Assert
+        assertEquals(2, summary.issued());
+        assertEquals(2, summary.failed());
+        assertEquals(4, results.size());
+        assertEquals(2, results.stream().filter(r -> !r.isIssued() && r.error().contains("VIN")).count());
+        assertEquals(2.0, meterRegistry.get("certificate_issuance.certificates").tag("outcome", "failed").counter().count());
+    }
+
+    @Test
+    @DisplayName("Should sign every certificate with the same OEM key")
+    void shouldSignWithSingleOemKey() {
+        // Arrange
+        init(4, 1);
+        when(keyPairPool.take()).thenAnswer(invocation -> CRYPTO.generateECKeyPair());
+
+        // Act: a batch, a single issue and a cross-signature
+        certificateService.issueVehicleCertificates(vins(20), result -> { });
+        certificateService.generateVehiclePublicKeyCertificate("1HGBH41JXMN109186");
+        String crossSigned = new String(Base64.getDecoder().decode(
+            certificateService.generateDeviceOemCrossSignedCertificate("device-oem-certificate")));
+
+        // Assert: one OEM key was created, and it verifies the cross-signature
+        verify(cryptographyService, times(1 + 20)).generateECKeyPair();
+        String signature = crossSigned.substring(crossSigned.indexOf("|CrossSignature:") + "|CrossSignature:".length());
+        assertTrue(CRYPTO.verifySignature("device-oem-certificate".getBytes(), signature,
+            certificateService.getVehicleOemPublicKey()));
+    }
+
+    @Test
+    @DisplayName("Should cross-sign deterministically with the OEM key")
+    void shouldCrossSignDeterministically() {
+        // Arrange
+        init(1, 1);
+
+        // Act
+        String first = certificateService.generateDeviceOemCrossSignedCertificate("device-oem-certificate");
+        String second = certificateService.generateDeviceOemCrossSignedCertificate("device-oem-certificate");
+
+        // Assert: RFC 6979 nonces; only the timestamps differ
+        assertEquals(signatureOf(first), signatureOf(second));
+        verify(cryptographyService, never()).signData(any(), any());
+    }
+
+    private static String signatureOf(String crossSigned) {
+        String decoded = new String(Base64.getDecoder().decode(crossSigned));
+        return decoded.substring(decoded.indexOf("|CrossSignature:"));
+    }
+
+    @Test
+    @DisplayName("Should create a single OEM key when first used from many threads")
+    void shouldInitializeOemKeyOnce() throws Exception {
+        // Arrange
+        init(1, 1);
+        when(keyPairPool.take()).thenAnswer(invocation -> CRYPTO.generateECKeyPair());
+        int threads = 8;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<String>> futures = new ArrayList<>();
+
+        // Act
+        try {
+            for (int i = 0; i < threads; i++) {
+                String vin = String.format("1HGBH41JXMN%06d", i);
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    return certificateService.generateVehiclePublicKeyCertificate(vin);
+                }));
+            }
+            start.countDown();
+            for (Future<String> future : futures) {
+                assertNotNull(future.get());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        // Assert: one key for the OEM, the vehicle keys come from the pool
+        verify(cryptographyService, times(1)).generateECKeyPair();
+        verify(keyPairPool, times(threads)).take();
+        assertNotNull(ReflectionTestUtils.getField(certificateService, "vehicleOemSigner"));
+    }
+
+    @Test
+    @DisplayName("Should read the vehicle key back from its certificate and sign as the OEM")
+    void shouldReadCertifiedKeyAndSignAsOem() {
+        // Arrange
+        init(1, 1);
+        KeyPair vehicleKey = CRYPTO.generateECKeyPair();
+        when(keyPairPool.take()).thenReturn(vehicleKey);
+        String certificate = certificateService.generateVehiclePublicKeyCertificate("1HGBH41JXMN109186");
+        byte[] data = "handshake".getBytes();
+
+        // Act
+        String certifiedKey = certificateService.getCertifiedPublicKey(certificate);
+        String signature = certificateService.signAsVehicleOem(data);
+
+        // Assert
+        assertEquals(Base64.getEncoder().encodeToString(vehicleKey.getPublic().getEncoded()), certifiedKey);
+        assertTrue(CRYPTO.verifySignature(data, signature, certificateService.getVehicleOemPublicKey()));
+        assertThrows(IllegalArgumentException.class,
+            () -> certificateService.getCertifiedPublicKey(Base64.getEncoder().encodeToString("VIN:X".getBytes())));
+    }
+
+    @Test
+    @DisplayName("Should leave one crypto worker free by default")
+    void shouldLeaveOneWorkerFreeByDefault() {
+        // Arrange
+        init(4, 1);
+        ReflectionTestUtils.setField(certificateService, "parallelism", 0);
+
+        // Act
+        certificateService.init();
+
+        // Assert
+        assertEquals(3, ReflectionTestUtils.getField(certificateService, "workers"));
+    }
+
+    @Test
+    @DisplayName("Should reject a null VIN list or sink")
+    void shouldRejectNullArguments() {
+        // Arrange
+        init(1, 1);
+
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> certificateService.issueVehicleCertificates(null, r -> { }));
+        assertThrows(IllegalArgumentException.class, () -> certificateService.issueVehicleCertificates(vins(1), null));
+    }
+}
@@ -0,0 +1,78 @@
+package com.vehicleoem.security;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("CryptoBuffers Unit Tests")
+class CryptoBuffersTest {
+
+    @Test
+    @DisplayName("Should encode exactly like java.util.Base64")
+    void shouldEncodeLikeJdk() {
+        Random random = new Random(42);
+        ByteBuffer encoded = ByteBuffer.allocate(CryptoBuffers.base64Length(100));
+        StringBuilder builder = new StringBuilder();
+        for (int length = 0; length <= 100; length++) {
+            byte[] data = new byte[length];
+            random.nextBytes(data);
+            String expected = Base64.getEncoder().encodeToString(data);
+
+            encoded.clear();
+            int written = CryptoBuffers.encodeBase64(ByteBuffer.wrap(data), encoded);
+
+            assertEquals(expected.length(), written);
+            assertEquals(expected, new String(encoded.array(), 0, written, StandardCharsets.US_ASCII));
+            assertEquals(expected, CryptoBuffers.encodeBase64(data, builder).toString());
+        }
+    }
+
+    @Test
+    @DisplayName("Should decode what java.util.Base64 encodes, with or without padding")
+    void shouldDecodeLikeJdk() {
+        Random random = new Random(7);
+        ByteBuffer decoded = ByteBuffer.allocate(100);
+        for (int length = 0; length <= 100; length++) {
+            byte[] data = new byte[length];
+            random.nextBytes(data);
+
+            for (String encoded : new String[]{Base64.getEncoder().encodeToString(data),
+                    Base64.getEncoder().withoutPadding().encodeToString(data)}) {
+                decoded.clear();
+                int written = CryptoBuffers.decodeBase64(encoded, decoded);
+
+                assertEquals(length, written);
+                assertTrue(CryptoBuffers.maxDecodedLength(encoded) >= length);
+                assertArrayEquals(data, Arrays.copyOf(decoded.array(), written));
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Should reject invalid Base64")
+    void shouldRejectInvalidBase64() {
+        ByteBuffer decoded = ByteBuffer.allocate(64);
+
+        assertThrows(IllegalArgumentException.class, () -> CryptoBuffers.decodeBase64("invalid-signature-format", decoded));
+        assertThrows(IllegalArgumentException.class, () -> CryptoBuffers.decodeBase64("QUJDR", decoded));
+        assertThrows(IllegalArgumentException.class, () -> CryptoBuffers.decodeBase64("QUI=A", decoded));
+        assertThrows(IllegalArgumentException.class, () -> CryptoBuffers.decodeBase64("QUJDéA==", decoded));
+    }
+
+    @Test
+    @DisplayName("Should not write past a buffer that is too small")
+    void shouldRejectShortBuffers() {
+        ByteBuffer small = ByteBuffer.allocate(3);
+
+        assertThrows(BufferOverflowException.class, () -> CryptoBuffers.encodeBase64(ByteBuffer.wrap(new byte[3]), small));
+        assertThrows(BufferOverflowException.class, () -> CryptoBuffers.decodeBase64("QUJDRA==", small));
+        assertEquals(0, small.position());
+    }
+}
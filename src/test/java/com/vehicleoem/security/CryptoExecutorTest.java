@@ -0,0 +1,145 @@
+package com.vehicleoem.security;
+
+import com.vehicleoem.exception.CryptoSaturatedException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("CryptoExecutor Unit Tests")
+class CryptoExecutorTest {
+
+    @Spy
+    private MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @InjectMocks
+    private CryptoExecutor cryptoExecutor;
+
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        cryptoExecutor.shutdown();
+    }
+
+    private void init(boolean enabled, int threads, int queueCapacity) {
+        ReflectionTestUtils.setField(cryptoExecutor, "enabled", enabled);
+        ReflectionTestUtils.setField(cryptoExecutor, "threads", threads);
+        ReflectionTestUtils.setField(cryptoExecutor, "queueCapacity", queueCapacity);
+        cryptoExecutor.init();
+    }
+
+    // Occupies the only worker until release is counted down
+    private void blockWorker() throws InterruptedException {
+        CountDownLatch started = new CountDownLatch(1);
+        cryptoExecutor.submit(CryptoPriority.CRITICAL, () -> {
+            started.countDown();
+            return release.await(10, TimeUnit.SECONDS);
+        });
+        assertTrue(started.await(10, TimeUnit.SECONDS));
+    }
+
+    @Test
+    @DisplayName("Should run tasks on crypto workers and rethrow their exceptions")
+    void shouldRunOnWorkers() {
+        // Arrange
+        init(true, 2, 16);
+
+        // Act
+        String thread = cryptoExecutor.call(CryptoPriority.INTERACTIVE, () -> Thread.currentThread().getName());
+
+        // Assert
+        assertTrue(thread.startsWith("crypto-"));
+        IllegalStateException e = assertThrows(IllegalStateException.class, () ->
+            cryptoExecutor.call(CryptoPriority.INTERACTIVE, () -> {
+                throw new IllegalStateException("bad key");
+            }));
+        assertEquals("bad key", e.getMessage());
+        assertEquals(2, meterRegistry.get("crypto.executor.queue.time").tag("priority", "interactive").timer().count());
+    }
+
+    @Test
+    @DisplayName("Should start queued tasks in priority order")
+    void shouldStartInPriorityOrder() throws Exception {
+        // Arrange
+        init(true, 1, 16);
+        blockWorker();
+        List<String> order = new CopyOnWriteArrayList<>();
+
+        // Act
+        Future<?> bulk = cryptoExecutor.submit(CryptoPriority.BULK, () -> order.add("bulk"));
+        Future<?> interactive = cryptoExecutor.submit(CryptoPriority.INTERACTIVE, () -> order.add("interactive"));
+        Future<?> critical = cryptoExecutor.submit(CryptoPriority.CRITICAL, () -> order.add("critical"));
+        assertEquals(3, cryptoExecutor.getQueueDepth());
+        release.countDown();
+        bulk.get(10, TimeUnit.SECONDS);
+        interactive.get(10, TimeUnit.SECONDS);
+        critical.get(10, TimeUnit.SECONDS);
+
+        // Assert
+        assertEquals(List.of("critical", "interactive", "bulk"), order);
+    }
+
+    @Test
+    @DisplayName("Should refuse work beyond each priority's share of the queue")
+    void shouldFailFastWhenSaturated() throws Exception {
+        // Arrange: bulk may fill 2 of 4 slots, interactive 3 and critical all 4
+        init(true, 1, 4);
+        blockWorker();
+
+        // Act & Assert
+        cryptoExecutor.submit(CryptoPriority.BULK, () -> null);
+        cryptoExecutor.submit(CryptoPriority.BULK, () -> null);
+        assertFalse(cryptoExecutor.hasCapacity(CryptoPriority.BULK));
+        assertThrows(CryptoSaturatedException.class, () -> cryptoExecutor.submit(CryptoPriority.BULK, () -> null));
+        cryptoExecutor.submit(CryptoPriority.INTERACTIVE, () -> null);
+        assertThrows(CryptoSaturatedException.class, () -> cryptoExecutor.call(CryptoPriority.INTERACTIVE, () -> null));
+        cryptoExecutor.submit(CryptoPriority.CRITICAL, () -> null);
+        CryptoSaturatedException e = assertThrows(CryptoSaturatedException.class, () ->
+            cryptoExecutor.submit(CryptoPriority.CRITICAL, () -> null));
+        assertEquals("CRYPTO_SATURATED", e.getErrorCode());
+        assertEquals(1.0, meterRegistry.get("crypto.executor.rejected").tag("priority", "bulk").counter().count());
+        assertEquals(1.0, meterRegistry.get("crypto.executor.rejected").tag("priority", "critical").counter().count());
+    }
+
+    @Test
+    @DisplayName("Should run nested work inline instead of waiting for a worker")
+    void shouldRunNestedWorkInline() {
+        // Arrange
+        init(true, 1, 1);
+
+        // Act
+        String nested = cryptoExecutor.call(CryptoPriority.BULK, () ->
+            cryptoExecutor.call(CryptoPriority.CRITICAL, () -> Thread.currentThread().getName()));
+
+        // Assert
+        assertEquals("crypto-0", nested);
+    }
+
+    @Test
+    @DisplayName("Should run on the calling thread when disabled")
+    void shouldRunInlineWhenDisabled() throws Exception {
+        // Arrange
+        init(false, 1, 1);
+        Thread caller = Thread.currentThread();
+
+        // Act & Assert
+        assertSame(caller, cryptoExecutor.call(CryptoPriority.INTERACTIVE, Thread::currentThread));
+        assertSame(caller, cryptoExecutor.submit(CryptoPriority.BULK, Thread::currentThread).get());
+    }
+}
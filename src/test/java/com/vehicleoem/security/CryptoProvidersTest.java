@@ -0,0 +1,129 @@
+package com.vehicleoem.security;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import java.security.KeyPair;
+import java.security.Provider;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("CryptoProviders Unit Tests")
+class CryptoProvidersTest {
+
+    @Spy
+    private CryptographyService cryptographyService = new CryptographyService();
+
+    @Spy
+    private MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @InjectMocks
+    private CryptoProviders cryptoProviders;
+
+    private final Map<CryptoOperation, Provider> previous = new EnumMap<>(CryptoOperation.class);
+
+    @BeforeEach
+    void setUp() {
+        // Selections are process-wide; put them back so other tests see the defaults
+        for (CryptoOperation operation : CryptoOperation.values()) {
+            previous.put(operation, CryptoEngines.provider(operation));
+        }
+        ReflectionTestUtils.setField(cryptoProviders, "benchmarkMillis", 5L);
+        configure("BC", "BC", "BC", "BC", "SUN");
+    }
+
+    @AfterEach
+    void tearDown() {
+        previous.forEach(CryptoEngines::select);
+    }
+
+    private void configure(String keyGeneration, String sign, String verify, String ecies, String digest) {
+        ReflectionTestUtils.setField(cryptoProviders, "keyGenerationProvider", keyGeneration);
+        ReflectionTestUtils.setField(cryptoProviders, "signProvider", sign);
+        ReflectionTestUtils.setField(cryptoProviders, "verifyProvider", verify);
+        ReflectionTestUtils.setField(cryptoProviders, "eciesProvider", ecies);
+        ReflectionTestUtils.setField(cryptoProviders, "digestProvider", digest);
+    }
+
+    @Test
+    @DisplayName("Should serve each operation from the configured provider")
+    void shouldUseConfiguredProviders() {
+        // Arrange
+        configure("BC", "SunEC", "SunEC", "BC", "BC");
+
+        // Act
+        cryptoProviders.init();
+        KeyPair keyPair = cryptographyService.generateECKeyPair();
+        String signature = cryptographyService.signData("data".getBytes(), keyPair.getPrivate());
+        boolean valid = cryptographyService.verifySignature("data".getBytes(), signature, keyPair.getPublic());
+
+        // Assert
+        assertTrue(valid);
+        assertEquals("SunEC", cryptoProviders.getProvider(CryptoOperation.SIGN));
+        assertEquals("SunEC", cryptoProviders.getProvider(CryptoOperation.VERIFY));
+        assertEquals("BC", cryptoProviders.getProvider(CryptoOperation.DIGEST));
+        assertTrue(meterRegistry.get("crypto.operations").tag("operation", "sign").tag("provider", "SunEC")
+            .functionCounter().count() >= 1);
+        assertEquals(1.0, meterRegistry.get("crypto.provider.selected").tag("operation", "verify").tag("provider", "SunEC")
+            .gauge().value());
+        assertEquals(0.0, meterRegistry.get("crypto.provider.selected").tag("operation", "verify").tag("provider", "BC")
+            .gauge().value());
+    }
+
+    @Test
+    @DisplayName("Should pick a compliant candidate for every operation in auto mode")
+    void shouldPickCompliantProvidersAutomatically() {
+        // Arrange
+        configure("auto", "auto", "auto", "auto", "auto");
+
+        // Act
+        cryptoProviders.init();
+
+        // Assert
+        for (CryptoOperation operation : CryptoOperation.values()) {
+            assertTrue(Arrays.asList(operation.getCandidates()).contains(cryptoProviders.getProvider(operation)),
+                operation + " served by " + cryptoProviders.getProvider(operation));
+        }
+        // SunEC keys are not BouncyCastle keys, which the ECIES path requires
+        assertEquals("BC", cryptoProviders.getProvider(CryptoOperation.KEY_GENERATION));
+        assertEquals("BC", cryptoProviders.getProvider(CryptoOperation.ECIES));
+        KeyPair keyPair = cryptographyService.generateECKeyPair();
+        assertEquals("hello", cryptographyService.decryptWithECIES(
+            cryptographyService.encryptWithECIES("hello", keyPair.getPublic()), keyPair.getPrivate()));
+    }
+
+    @Test
+    @DisplayName("Should fail startup when a configured provider fails its self-test")
+    void shouldRejectNonCompliantProvider() {
+        // Arrange
+        configure("SunEC", "BC", "BC", "BC", "SUN");
+
+        // Act & Assert
+        IllegalStateException e = assertThrows(IllegalStateException.class, () -> cryptoProviders.init());
+        assertTrue(e.getMessage().contains("key-generation self-test"));
+        assertEquals("BC", CryptoEngines.provider(CryptoOperation.KEY_GENERATION).getName());
+    }
+
+    @Test
+    @DisplayName("Should fail startup when a configured provider is not installed")
+    void shouldRejectMissingProvider() {
+        // Arrange
+        configure("BC", "NoSuchProvider", "BC", "BC", "SUN");
+
+        // Act & Assert
+        IllegalStateException e = assertThrows(IllegalStateException.class, () -> cryptoProviders.init());
+        assertTrue(e.getMessage().contains("not installed"));
+    }
+}
@@ -9,7 +9,15 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import java.security.KeyPair;
 import java.security.PublicKey;
 import java.security.PrivateKey;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Base64;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -209,6 +217,144 @@ class CryptographyServiceTest {
         assertFalse(cryptographyService.verifySignature(testDataBytes, invalidSignature, keyPair.getPublic()));
     }
 
+    @Test
+    @DisplayName("Should tell malformed signatures apart from mismatched ones")
+    void shouldTellMalformedSignaturesApartFromMismatchedOnes() {
+        // Arrange
+        KeyPair keyPair = cryptographyService.generateECKeyPair();
+        byte[] data = "Test data".getBytes();
+        String signature = cryptographyService.signData(data, keyPair.getPrivate());
+
+        // Act & Assert
+        assertEquals(SignatureStatus.VALID, cryptographyService.checkSignature(data, signature, keyPair.getPublic()));
+        assertEquals(SignatureStatus.INVALID, cryptographyService.checkSignature("Other data".getBytes(), signature, keyPair.getPublic()));
+        assertEquals(SignatureStatus.MALFORMED, cryptographyService.checkSignature(data, "invalid-signature-format", keyPair.getPublic()));
+        assertEquals(SignatureStatus.MALFORMED, cryptographyService.checkSignature(data, "AAECAwQ=", keyPair.getPublic()));
+        assertEquals(SignatureStatus.MALFORMED, cryptographyService.checkSignature(data, signature, null));
+        assertEquals(SignatureStatus.VALID, cryptographyService.checkSignatureInline(data, signature, keyPair.getPublic()));
+        assertEquals(SignatureStatus.INVALID, cryptographyService.checkSignatureInline("Other data".getBytes(), signature, keyPair.getPublic()));
+        assertEquals(SignatureStatus.MALFORMED, cryptographyService.checkSignatureInline(data, "AAECAwQ=", keyPair.getPublic()));
+    }
+
+    @Test
+    @DisplayName("Should encrypt and decrypt between caller-supplied buffers")
+    void shouldEncryptAndDecryptBetweenBuffers() {
+        // Arrange
+        KeyPair keyPair = cryptographyService.generateECKeyPair();
+        byte[] plaintext = "Sensitive vehicle data".getBytes();
+        ByteBuffer ciphertext = ByteBuffer.allocate(CryptographyService.eciesCiphertextLength(plaintext.length));
+        ByteBuffer decrypted = ByteBuffer.allocate(ciphertext.capacity());
+
+        // Act
+        int encryptedLength = cryptographyService.encryptWithECIES(ByteBuffer.wrap(plaintext), ciphertext, keyPair.getPublic());
+        ciphertext.flip();
+        int decryptedLength = cryptographyService.decryptWithECIES(ciphertext, decrypted, keyPair.getPrivate());
+
+        // Assert
+        assertEquals(ciphertext.capacity(), encryptedLength);
+        assertArrayEquals(plaintext, Arrays.copyOf(decrypted.array(), decryptedLength));
+        assertEquals(CryptographyService.eciesCiphertextLength(plaintext.length),
+            cryptographyService.encryptWithECIESRaw(plaintext, keyPair.getPublic()).length);
+    }
+
+    @Test
+    @DisplayName("Should encrypt in the compact format and decrypt both formats")
+    void shouldEncryptCompactAndDecryptBothFormats() {
+        // Arrange
+        KeyPair keyPair = cryptographyService.generateECKeyPair();
+        String plaintext = "unlock driver door";
+
+        // Act
+        String legacy = cryptographyService.encryptWithECIES(plaintext, keyPair.getPublic());
+        String compact = cryptographyService.encryptWithECIES(plaintext, keyPair.getPublic(), EciesFormat.COMPACT);
+        byte[] compactRaw = cryptographyService.encryptWithECIESRaw(plaintext.getBytes(), keyPair.getPublic(), EciesFormat.COMPACT);
+
+        // Assert
+        assertEquals(plaintext, cryptographyService.decryptWithECIES(legacy, keyPair.getPrivate()));
+        assertEquals(plaintext, cryptographyService.decryptWithECIES(compact, keyPair.getPrivate()));
+        assertArrayEquals(plaintext.getBytes(), cryptographyService.decryptWithECIESRaw(compactRaw, keyPair.getPrivate()));
+        assertEquals(EciesFormat.COMPACT.ciphertextLength(plaintext.length()), compactRaw.length);
+        assertEquals(EciesFormat.LEGACY.ciphertextLength(plaintext.length()) - 30, compactRaw.length);
+        assertEquals(EciesFormat.HEADER_MARKER, compactRaw[0]);
+        assertEquals((byte) 0x04, Base64.getDecoder().decode(legacy)[0]);
+        assertFalse(compact.contains("=") || compact.contains("+") || compact.contains("/"));
+        assertTrue(compact.length() < legacy.length() - 35);
+    }
+
+    @Test
+    @DisplayName("Should encrypt and decrypt the compact format between buffers")
+    void shouldEncryptCompactBetweenBuffers() {
+        // Arrange
+        KeyPair keyPair = cryptographyService.generateECKeyPair();
+        byte[] plaintext = "Sensitive vehicle data".getBytes();
+        ByteBuffer ciphertext = ByteBuffer.allocate(EciesFormat.COMPACT.ciphertextLength(plaintext.length));
+        ByteBuffer decrypted = ByteBuffer.allocate(ciphertext.capacity());
+
+        // Act
+        int encryptedLength = cryptographyService.encryptWithECIES(ByteBuffer.wrap(plaintext), ciphertext,
+            keyPair.getPublic(), EciesFormat.COMPACT);
+        ciphertext.flip();
+        int decryptedLength = cryptographyService.decryptWithECIES(ciphertext, decrypted, keyPair.getPrivate());
+
+        // Assert
+        assertEquals(ciphertext.capacity(), encryptedLength);
+        assertArrayEquals(plaintext, Arrays.copyOf(decrypted.array(), decryptedLength));
+        assertThrows(RuntimeException.class, () -> cryptographyService.encryptWithECIES(ByteBuffer.wrap(plaintext),
+            ByteBuffer.allocate(10), keyPair.getPublic(), EciesFormat.COMPACT));
+    }
+
+    @Test
+    @DisplayName("Should reject an unknown ciphersuite or a tampered header")
+    void shouldRejectUnknownCiphersuite() {
+        // Arrange
+        KeyPair keyPair = cryptographyService.generateECKeyPair();
+        byte[] compact = cryptographyService.encryptWithECIESRaw("payload".getBytes(), keyPair.getPublic(), EciesFormat.COMPACT);
+        byte[] unknownSuite = compact.clone();
+        unknownSuite[1] = 0x7F;
+        byte[] headerStripped = Arrays.copyOfRange(compact, 1, compact.length);
+
+        // Act & Assert
+        RuntimeException e = assertThrows(RuntimeException.class, () ->
+            cryptographyService.decryptWithECIESRaw(unknownSuite, keyPair.getPrivate()));
+        assertTrue(e.getMessage().contains("ciphersuite"));
+        assertThrows(RuntimeException.class, () -> cryptographyService.decryptWithECIESRaw(headerStripped, keyPair.getPrivate()));
+    }
+
+    @Test
+    @DisplayName("Should interoperate between byte and String forms")
+    void shouldInteroperateBetweenByteAndStringForms() {
+        // Arrange
+        KeyPair keyPair = cryptographyService.generateECKeyPair();
+        byte[] data = "Test data".getBytes();
+
+        // Act
+        byte[] rawSignature = cryptographyService.signDataRaw(ByteBuffer.wrap(data), keyPair.getPrivate());
+        String signature = cryptographyService.signData(data, keyPair.getPrivate());
+        byte[] encrypted = cryptographyService.encryptWithECIESRaw(data, keyPair.getPublic());
+
+        // Assert
+        assertTrue(cryptographyService.verifySignature(data, Base64.getEncoder().encodeToString(rawSignature), keyPair.getPublic()));
+        assertTrue(cryptographyService.verifySignatureRaw(ByteBuffer.wrap(data), Base64.getDecoder().decode(signature), keyPair.getPublic()));
+        assertFalse(cryptographyService.verifySignatureRaw(ByteBuffer.wrap("Other".getBytes()), rawSignature, keyPair.getPublic()));
+        assertEquals("Test data", cryptographyService.decryptWithECIES(Base64.getEncoder().encodeToString(encrypted), keyPair.getPrivate()));
+    }
+
+    @Test
+    @DisplayName("Should decode stored public keys")
+    void shouldDecodeStoredPublicKeys() {
+        // Arrange
+        KeyPair keyPair = cryptographyService.generateECKeyPair();
+        String stored = Base64.getEncoder().encodeToString(keyPair.getPublic().getEncoded());
+
+        // Act
+        PublicKey decoded = cryptographyService.decodePublicKey(stored);
+
+        // Assert
+        assertEquals(keyPair.getPublic(), decoded);
+        assertThrows(RuntimeException.class, () -> cryptographyService.decodePublicKey("invalid-key"));
+        assertThrows(RuntimeException.class, () -> cryptographyService.decodePublicKey(null));
+    }
+
     @Test
     @DisplayName("Should handle invalid encrypted data format")
     void shouldHandleInvalidEncryptedDataFormat() {
@@ -373,4 +519,55 @@ class CryptographyServiceTest {
             fail("Failed to generate RSA key pair for test: " + e.getMessage());
         }
     }
+
+    @Test
+    @DisplayName("Should recover cached engines after a failed operation")
+    void shouldRecoverCachedEnginesAfterFailedOperation() {
+        // Arrange
+        KeyPair keyPair = cryptographyService.generateECKeyPair();
+        KeyPair otherKeyPair = cryptographyService.generateECKeyPair();
+        String encrypted = cryptographyService.encryptWithECIES("payload", keyPair.getPublic());
+        byte[] data = "Test data".getBytes();
+
+        // Act: fail half way through a decryption and a verification on this thread
+        assertThrows(RuntimeException.class, () ->
+            cryptographyService.decryptWithECIES(encrypted, otherKeyPair.getPrivate()));
+        assertFalse(cryptographyService.verifySignature(data, "invalid-signature-format", keyPair.getPublic()));
+
+        // Assert: the same engines still work for the next call
+        assertEquals("payload", cryptographyService.decryptWithECIES(encrypted, keyPair.getPrivate()));
+        String signature = cryptographyService.signData(data, keyPair.getPrivate());
+        assertTrue(cryptographyService.verifySignature(data, signature, keyPair.getPublic()));
+    }
+
+    @Test
+    @DisplayName("Should encrypt, sign and hash concurrently")
+    void shouldEncryptSignAndHashConcurrently() throws Exception {
+        // Arrange
+        KeyPair keyPair = cryptographyService.generateECKeyPair();
+        String expectedVerifier = cryptographyService.generatePairingVerifier("password");
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        List<Future<Boolean>> results = new ArrayList<>();
+
+        // Act
+        try {
+            for (int i = 0; i < 64; i++) {
+                String message = "message-" + i;
+                results.add(executor.submit(() -> {
+                    String encrypted = cryptographyService.encryptWithECIES(message, keyPair.getPublic());
+                    String signature = cryptographyService.signData(message.getBytes(), keyPair.getPrivate());
+                    return message.equals(cryptographyService.decryptWithECIES(encrypted, keyPair.getPrivate()))
+                        && cryptographyService.verifySignature(message.getBytes(), signature, keyPair.getPublic())
+                        && expectedVerifier.equals(cryptographyService.generatePairingVerifier("password"));
+                }));
+            }
+
+            // Assert
+            for (Future<Boolean> result : results) {
+                assertTrue(result.get(30, TimeUnit.SECONDS));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
 }
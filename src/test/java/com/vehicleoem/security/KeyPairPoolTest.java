@@ -0,0 +1,110 @@
+package com.vehicleoem.security;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import java.security.KeyPair;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("KeyPairPool Unit Tests")
+class KeyPairPoolTest {
+
+    private static final CryptographyService CRYPTO = new CryptographyService();
+
+    @Mock
+    private CryptographyService cryptographyService;
+
+    @Spy
+    private MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @InjectMocks
+    private KeyPairPool keyPairPool;
+
+    @AfterEach
+    void tearDown() {
+        keyPairPool.stop();
+    }
+
+    private void start(boolean enabled, int capacity) {
+        ReflectionTestUtils.setField(keyPairPool, "enabled", enabled);
+        ReflectionTestUtils.setField(keyPairPool, "capacity", capacity);
+        keyPairPool.start();
+    }
+
+    @Test
+    @DisplayName("Should generate inline and count a miss when empty")
+    void shouldGenerateInlineWhenEmpty() {
+        // Arrange
+        KeyPair keyPair = CRYPTO.generateECKeyPair();
+        when(cryptographyService.generateECKeyPair()).thenReturn(keyPair);
+        start(false, 4);
+
+        // Act
+        KeyPair taken = keyPairPool.take();
+
+        // Assert
+        assertSame(keyPair, taken);
+        assertEquals(1.0, meterRegistry.get("key_pair_pool.misses").counter().count());
+        assertEquals(0.0, meterRegistry.get("key_pair_pool.hits").counter().count());
+        assertEquals(0.0, meterRegistry.get("key_pair_pool.depth").gauge().value());
+    }
+
+    @Test
+    @DisplayName("Should refill up to capacity and hand out each key pair once")
+    void shouldRefillToCapacity() throws InterruptedException {
+        // Arrange
+        when(cryptographyService.generateECKeyPair(CryptoPriority.BULK)).thenAnswer(invocation -> CRYPTO.generateECKeyPair());
+        start(true, 3);
+        assertTrue(waitForDepth(3));
+
+        // Act
+        KeyPair first = keyPairPool.take();
+        KeyPair second = keyPairPool.take();
+
+        // Assert
+        assertNotSame(first, second);
+        assertNotEquals(first.getPublic(), second.getPublic());
+        assertEquals(2.0, meterRegistry.get("key_pair_pool.hits").counter().count());
+        assertEquals(0.0, meterRegistry.get("key_pair_pool.misses").counter().count());
+        assertTrue(waitForDepth(3));
+        assertEquals(3, keyPairPool.getDepth());
+    }
+
+    @Test
+    @DisplayName("Should keep refilling after a generation failure")
+    void shouldKeepRefillingAfterFailure() throws InterruptedException {
+        // Arrange
+        KeyPair keyPair = CRYPTO.generateECKeyPair();
+        when(cryptographyService.generateECKeyPair(CryptoPriority.BULK))
+            .thenThrow(new RuntimeException("Failed to generate EC key pair"))
+            .thenReturn(keyPair);
+        start(true, 1);
+
+        // Act & Assert
+        assertTrue(waitForDepth(1));
+        assertSame(keyPair, keyPairPool.take());
+    }
+
+    private boolean waitForDepth(int depth) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (keyPairPool.getDepth() < depth) {
+            if (System.nanoTime() > deadline) {
+                return false;
+            }
+            Thread.sleep(10);
+        }
+        return true;
+    }
+}
@@ -0,0 +1,166 @@
+package com.vehicleoem.security;
+
+import org.bouncycastle.asn1.x9.X9ECParameters;
+import org.bouncycastle.crypto.ec.CustomNamedCurves;
+import org.bouncycastle.math.ec.ECMultiplier;
+import org.bouncycastle.math.ec.FixedPointCombMultiplier;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.security.GeneralSecurityException;
+import java.security.KeyFactory;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.interfaces.ECPrivateKey;
+import java.security.spec.ECGenParameterSpec;
+import java.security.spec.ECPrivateKeySpec;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("OemKeySigner Unit Tests")
+class OemKeySignerTest {
+
+    private static final CryptographyService CRYPTO = new CryptographyService();
+
+    @Test
+    @DisplayName("Should produce signatures the existing verifier accepts")
+    void shouldProduceVerifiableSignatures() {
+        // Arrange
+        KeyPair keyPair = CRYPTO.generateECKeyPair();
+        OemKeySigner signer = new OemKeySigner(keyPair);
+        byte[] data = "device-oem-certificate".getBytes();
+
+        // Act
+        String signature = signer.sign(data);
+
+        // Assert
+        assertTrue(CRYPTO.verifySignature(data, signature, keyPair.getPublic()));
+        assertFalse(CRYPTO.verifySignature("tampered".getBytes(), signature, keyPair.getPublic()));
+        assertSame(keyPair.getPublic(), signer.getPublicKey());
+    }
+
+    @Test
+    @DisplayName("Should sign deterministically as in RFC 6979")
+    void shouldSignDeterministically() {
+        // Arrange
+        OemKeySigner signer = new OemKeySigner(CRYPTO.generateECKeyPair());
+
+        // Act & Assert
+        assertEquals(signer.sign("a".getBytes()), signer.sign("a".getBytes()));
+        assertNotEquals(signer.sign("a".getBytes()), signer.sign("b".getBytes()));
+    }
+
+    @Test
+    @DisplayName("Should match the RFC 6979 P-256/SHA-256 test vector")
+    void shouldMatchRfc6979TestVector() {
+        // Arrange: RFC 6979 A.2.5, message "sample"
+        OemKeySigner signer = new OemKeySigner(keyPairWithScalar(
+            new BigInteger("C9AFA9D845BA75166B5C215767B1D6934E50C3DB36E89B127B8A622B120F6721", 16)));
+
+        // Act
+        byte[] der = signer.signRaw("sample".getBytes());
+
+        // Assert: DER SEQUENCE { INTEGER r, INTEGER s }
+        ByteBuffer buffer = ByteBuffer.wrap(der);
+        assertEquals(0x30, buffer.get());
+        buffer.get();
+        assertEquals(new BigInteger("EFD48B2AACB6A8FD1140DD9CD45E81D69D2C877B56AAF991C34D0EA84EAF3716", 16), readInteger(buffer));
+        assertEquals(new BigInteger("F7CB1C942D657C41D436C7A1B6E29F65F3E900DBB9AFF4064DC4AB2F843ACDA8", 16), readInteger(buffer));
+    }
+
+    @Test
+    @DisplayName("Should multiply the base point exactly as BouncyCastle does")
+    void shouldMatchReferenceBaseMultiplication() {
+        // Arrange
+        X9ECParameters p256 = CustomNamedCurves.getByName("secp256r1");
+        BigInteger n = p256.getN();
+        ECMultiplier reference = new FixedPointCombMultiplier();
+        List<BigInteger> scalars = new ArrayList<>(List.of(BigInteger.ONE, BigInteger.TWO, BigInteger.valueOf(31),
+            BigInteger.valueOf(32), n.subtract(BigInteger.ONE), n.subtract(BigInteger.TWO), n.shiftRight(1)));
+        Random random = new Random(6979);
+        for (int i = 0; i < 200; i++) {
+            scalars.add(new BigInteger(256, random).mod(n));
+        }
+
+        // Act & Assert
+        for (BigInteger k : scalars) {
+            assertEquals(reference.multiply(p256.getG(), k).normalize(),
+                OemKeySigner.BaseTable.P256.multiply(p256.getG(), k).normalize(), "k = " + k.toString(16));
+        }
+        assertTrue(OemKeySigner.BaseTable.P256.multiply(p256.getG(), BigInteger.ZERO).isInfinity());
+    }
+
+    @Test
+    @DisplayName("Should give the same signatures when used from many threads")
+    void shouldBeSafeForConcurrentUse() throws Exception {
+        // Arrange
+        KeyPair keyPair = CRYPTO.generateECKeyPair();
+        OemKeySigner signer = new OemKeySigner(keyPair);
+        List<byte[]> messages = new ArrayList<>();
+        List<String> expected = new ArrayList<>();
+        for (int i = 0; i < 64; i++) {
+            byte[] message = ("certificate-" + i).getBytes();
+            messages.add(message);
+            expected.add(signer.sign(message));
+        }
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+
+        // Act
+        List<Future<String>> futures = new ArrayList<>();
+        try {
+            for (int round = 0; round < 4; round++) {
+                for (byte[] message : messages) {
+                    futures.add(executor.submit(() -> signer.sign(message)));
+                }
+            }
+
+            // Assert
+            for (int i = 0; i < futures.size(); i++) {
+                assertEquals(expected.get(i % messages.size()), futures.get(i).get());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    @DisplayName("Should reject keys that are not P-256")
+    void shouldRejectOtherKeys() throws Exception {
+        // Arrange
+        KeyPairGenerator generator = KeyPairGenerator.getInstance("EC", CryptoEngines.BC);
+        generator.initialize(new ECGenParameterSpec("secp384r1"));
+        KeyPair p384 = generator.generateKeyPair();
+        KeyPairGenerator rsa = KeyPairGenerator.getInstance("RSA");
+        rsa.initialize(1024);
+
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> new OemKeySigner(p384));
+        assertThrows(IllegalArgumentException.class, () -> new OemKeySigner(rsa.generateKeyPair()));
+        assertThrows(IllegalArgumentException.class, () -> new OemKeySigner(null));
+        assertThrows(RuntimeException.class, () -> new OemKeySigner(CRYPTO.generateECKeyPair()).sign(new byte[0]));
+    }
+
+    private static KeyPair keyPairWithScalar(BigInteger d) {
+        try {
+            ECPrivateKey template = (ECPrivateKey) CRYPTO.generateECKeyPair().getPrivate();
+            return new KeyPair(null, KeyFactory.getInstance("EC", CryptoEngines.BC)
+                .generatePrivate(new ECPrivateKeySpec(d, template.getParams())));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static BigInteger readInteger(ByteBuffer buffer) {
+        assertEquals(0x02, buffer.get());
+        byte[] value = new byte[buffer.get()];
+        buffer.get(value);
+        return new BigInteger(value);
+    }
+}
@@ -0,0 +1,97 @@
+package com.vehicleoem.security;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.PublicKey;
+import java.util.Base64;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("PublicKeyCache Unit Tests")
+class PublicKeyCacheTest {
+
+    private static final CryptographyService CRYPTO = new CryptographyService();
+
+    @Spy
+    private MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @InjectMocks
+    private PublicKeyCache publicKeyCache;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(publicKeyCache, "maximumSize", 100L);
+        publicKeyCache.init();
+    }
+
+    @Test
+    @DisplayName("Should parse a key once and serve it from the cache afterwards")
+    void shouldParseOnce() {
+        // Arrange
+        KeyPair keyPair = CRYPTO.generateECKeyPair();
+        byte[] encoded = keyPair.getPublic().getEncoded();
+
+        // Act
+        PublicKey first = publicKeyCache.get(Base64.getEncoder().encodeToString(encoded));
+        PublicKey second = publicKeyCache.get(encoded.clone());
+
+        // Assert
+        assertSame(first, second);
+        assertEquals(keyPair.getPublic(), first);
+        assertEquals(1, publicKeyCache.size());
+        assertEquals(1.0, meterRegistry.get("cache.gets").tag("cache", "public_keys").tag("result", "hit").functionCounter().count());
+        assertEquals(1.0, meterRegistry.get("cache.gets").tag("cache", "public_keys").tag("result", "miss").functionCounter().count());
+    }
+
+    @Test
+    @DisplayName("Should fill lazily when a stored key is first used to verify or encrypt")
+    void shouldFillOnFirstUseOfStoredKey() {
+        // Arrange
+        CryptographyService cryptographyService = new CryptographyService();
+        ReflectionTestUtils.setField(cryptographyService, "publicKeyCache", publicKeyCache);
+        KeyPair keyPair = CRYPTO.generateECKeyPair();
+        String storedKey = Base64.getEncoder().encodeToString(keyPair.getPublic().getEncoded());
+        byte[] data = "Test data".getBytes();
+        String signature = CRYPTO.signData(data, keyPair.getPrivate());
+
+        // Act & Assert
+        assertEquals(0, publicKeyCache.size());
+        assertTrue(cryptographyService.verifySignature(data, signature, storedKey));
+        assertEquals(1, publicKeyCache.size());
+        String encrypted = cryptographyService.encryptWithECIES("payload", storedKey);
+        assertEquals("payload", CRYPTO.decryptWithECIES(encrypted, keyPair.getPrivate()));
+        assertEquals(1, publicKeyCache.size());
+        assertEquals(1.0, meterRegistry.get("cache.gets").tag("cache", "public_keys").tag("result", "hit").functionCounter().count());
+
+        // A legacy free-form value verifies nothing and is not cached
+        assertFalse(cryptographyService.verifySignature(data, signature, "device-public-key-base64"));
+        assertEquals(1, publicKeyCache.size());
+    }
+
+    @Test
+    @DisplayName("Should reject encodings that are not EC public keys")
+    void shouldRejectInvalidEncodings() throws Exception {
+        // Arrange
+        KeyPairGenerator rsa = KeyPairGenerator.getInstance("RSA");
+        rsa.initialize(2048);
+        byte[] rsaKey = rsa.generateKeyPair().getPublic().getEncoded();
+
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> publicKeyCache.get("not base64!"));
+        assertThrows(IllegalArgumentException.class, () -> publicKeyCache.get(new byte[]{1, 2, 3}));
+        assertThrows(IllegalArgumentException.class, () -> publicKeyCache.get(rsaKey));
+        assertThrows(IllegalArgumentException.class, () -> publicKeyCache.get((String) null));
+        assertEquals(0, publicKeyCache.size());
+    }
+}
@@ -0,0 +1,173 @@
+package com.vehicleoem.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.vehicleoem.exception.BusinessException;
+import com.vehicleoem.exception.SessionExpiredException;
+import com.vehicleoem.exception.VehicleNotFoundException;
+import com.vehicleoem.model.OwnerAccount;
+import com.vehicleoem.model.Vehicle;
+import com.vehicleoem.repository.VehicleRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import java.nio.charset.StandardCharsets;
+import java.security.KeyPair;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("SessionChannelService Unit Tests")
+class SessionChannelServiceTest {
+
+    private static final CryptographyService CRYPTO = new CryptographyService();
+    private static final String VIN = "1HGBH41JXMN109186";
+    private static final String CERTIFICATE = "vehicle-certificate";
+
+    @Mock
+    private KeyPairPool keyPairPool;
+
+    @Mock
+    private CertificateService certificateService;
+
+    @Mock
+    private VehicleRepository vehicleRepository;
+
+    @Spy
+    private CryptographyService cryptographyService = new CryptographyService();
+
+    @Spy
+    private MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @InjectMocks
+    private SessionChannelService sessionChannelService;
+
+    private KeyPair vehicleKey;
+    private OemKeySigner oemSigner;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(sessionChannelService, "ttlSeconds", 3600L);
+        ReflectionTestUtils.setField(sessionChannelService, "rekeyIntervalSeconds", 600L);
+        ReflectionTestUtils.setField(sessionChannelService, "rekeyMessages", 100L);
+        ReflectionTestUtils.setField(sessionChannelService, "maximumSessions", 2L);
+        sessionChannelService.init();
+        vehicleKey = CRYPTO.generateECKeyPair();
+        oemSigner = new OemKeySigner(CRYPTO.generateECKeyPair());
+    }
+
+    private void registerVehicle(KeyPair certifiedKey) {
+        Vehicle vehicle = new Vehicle(VIN, "Honda", "Civic", 2023,
+            new OwnerAccount("OWNER001", "owner@example.com", "John", "Doe"));
+        vehicle.setPublicKeyCertificate(CERTIFICATE);
+        when(vehicleRepository.findByVin(VIN)).thenReturn(Optional.of(vehicle));
+        when(certificateService.getCertifiedPublicKey(CERTIFICATE))
+            .thenReturn(Base64.getEncoder().encodeToString(certifiedKey.getPublic().getEncoded()));
+    }
+
+    private SessionChannel handshake() {
+        KeyPair ephemeral = CRYPTO.generateECKeyPair();
+        registerVehicle(vehicleKey);
+        when(keyPairPool.take()).thenReturn(ephemeral);
+        doAnswer(invocation -> oemSigner.sign(invocation.getArgument(0))).when(certificateService).signAsVehicleOem(any());
+        SessionChannelService.Handshake handshake = sessionChannelService.open(VIN, vehicleKey.getPublic());
+        assertEquals(Base64.getEncoder().encodeToString(ephemeral.getPublic().getEncoded()), handshake.serverPublicKey());
+        // The vehicle only trusts a server key signed by the OEM for its own request
+        assertTrue(CRYPTO.verifySignature(handshake.signedData(vehicleKey.getPublic()), handshake.signature(), oemSigner.getPublicKey()));
+        assertFalse(CRYPTO.verifySignature(handshake.signedData(CRYPTO.generateECKeyPair().getPublic()), handshake.signature(), oemSigner.getPublicKey()));
+        return SessionChannel.establish(SessionChannel.Role.VEHICLE, Base64.getUrlDecoder().decode(handshake.sessionId()),
+            vehicleKey.getPrivate(), ephemeral.getPublic(), new SessionChannel.Policy(Duration.ofHours(1), Duration.ofMinutes(10), 100));
+    }
+
+    @Test
+    @DisplayName("Should exchange messages after one handshake")
+    void shouldExchangeMessagesAfterHandshake() {
+        // Arrange
+        SessionChannel vehicle = handshake();
+
+        // Act
+        byte[] request = sessionChannelService.decrypt(vehicle.seal("status?".getBytes(StandardCharsets.UTF_8)));
+        byte[] response = vehicle.open(sessionChannelService.encrypt(vehicle.getId(), "parked".getBytes(StandardCharsets.UTF_8)));
+
+        // Assert
+        assertEquals("status?", new String(request, StandardCharsets.UTF_8));
+        assertEquals("parked", new String(response, StandardCharsets.UTF_8));
+        verify(keyPairPool, times(1)).take();
+        assertEquals(1.0, meterRegistry.counter("session_channel.handshakes").count());
+        assertEquals(1.0, meterRegistry.counter("session_channel.messages", "direction", "sent").count());
+        assertEquals(1.0, meterRegistry.counter("session_channel.messages", "direction", "received").count());
+    }
+
+    @Test
+    @DisplayName("Should refuse a handshake from an unknown vehicle or with an uncertified key")
+    void shouldRefuseUnauthenticatedHandshake() {
+        // Arrange
+        registerVehicle(CRYPTO.generateECKeyPair());
+        when(vehicleRepository.findByVin("UNKNOWN")).thenReturn(Optional.empty());
+
+        // Act & Assert
+        BusinessException exception = assertThrows(BusinessException.class,
+            () -> sessionChannelService.open(VIN, vehicleKey.getPublic()));
+        assertEquals("VEHICLE_KEY_NOT_CERTIFIED", exception.getErrorCode());
+        assertThrows(VehicleNotFoundException.class, () -> sessionChannelService.open("UNKNOWN", vehicleKey.getPublic()));
+        verifyNoInteractions(keyPairPool);
+        verify(certificateService, never()).signAsVehicleOem(any());
+        assertEquals(0, sessionChannelService.size());
+    }
+
+    @Test
+    @DisplayName("Should count replayed messages as rejected")
+    void shouldRejectReplay() {
+        // Arrange
+        SessionChannel vehicle = handshake();
+        byte[] message = vehicle.seal(new byte[]{1});
+        sessionChannelService.decrypt(message);
+
+        // Act & Assert
+        assertThrows(RuntimeException.class, () -> sessionChannelService.decrypt(message));
+        assertThrows(RuntimeException.class, () -> sessionChannelService.decrypt(new byte[3]));
+        assertEquals(2.0, meterRegistry.counter("session_channel.rejected").count());
+    }
+
+    @Test
+    @DisplayName("Should report closed and unknown sessions as expired")
+    void shouldRejectClosedSession() {
+        // Arrange
+        SessionChannel vehicle = handshake();
+        byte[] message = vehicle.seal(new byte[]{1});
+
+        // Act
+        sessionChannelService.close(vehicle.getId());
+
+        // Assert
+        assertThrows(SessionExpiredException.class, () -> sessionChannelService.decrypt(message));
+        assertThrows(SessionExpiredException.class, () -> sessionChannelService.encrypt("unknown", new byte[]{1}));
+    }
+
+    @Test
+    @DisplayName("Should evict sessions beyond the maximum")
+    void shouldEvictBeyondMaximum() {
+        // Arrange
+        for (int i = 0; i < 3; i++) {
+            handshake();
+        }
+
+        // Act
+        ((Cache<?, ?>) ReflectionTestUtils.getField(sessionChannelService, "sessions")).cleanUp();
+
+        // Assert
+        assertEquals(2, sessionChannelService.size());
+    }
+}
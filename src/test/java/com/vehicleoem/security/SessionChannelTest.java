@@ -0,0 +1,223 @@
+package com.vehicleoem.security;
+
+import com.vehicleoem.exception.SessionExpiredException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.KeyPair;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("SessionChannel Unit Tests")
+class SessionChannelTest {
+
+    private static final CryptographyService CRYPTO = new CryptographyService();
+    private static final SessionChannel.Policy POLICY =
+        new SessionChannel.Policy(Duration.ofHours(1), Duration.ofMinutes(10), 3);
+
+    private final AtomicLong clock = new AtomicLong();
+    private final AtomicInteger rekeys = new AtomicInteger();
+    private SessionChannel oem;
+    private SessionChannel vehicle;
+
+    @BeforeEach
+    void setUp() {
+        KeyPair oemKey = CRYPTO.generateECKeyPair();
+        KeyPair vehicleKey = CRYPTO.generateECKeyPair();
+        byte[] sessionId = new byte[SessionChannel.SESSION_ID_LENGTH];
+        sessionId[0] = 42;
+        oem = SessionChannel.establish(SessionChannel.Role.OEM, sessionId, oemKey.getPrivate(),
+            vehicleKey.getPublic(), POLICY, clock::get, rekeys::incrementAndGet);
+        vehicle = SessionChannel.establish(SessionChannel.Role.VEHICLE, sessionId, vehicleKey.getPrivate(),
+            oemKey.getPublic(), POLICY, clock::get, () -> { });
+    }
+
+    private static byte[] text(String s) {
+        return s.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static int epochOf(byte[] message) {
+        return ByteBuffer.wrap(message, 1 + SessionChannel.SESSION_ID_LENGTH, 4).getInt();
+    }
+
+    @Test
+    @DisplayName("Should exchange messages in both directions")
+    void shouldRoundTripBothDirections() {
+        // Act
+        byte[] toVehicle = oem.seal(text("unlock"));
+        byte[] toOem = vehicle.seal(text("unlocked"));
+
+        // Assert
+        assertArrayEquals(text("unlock"), vehicle.open(toVehicle));
+        assertArrayEquals(text("unlocked"), oem.open(toOem));
+        assertEquals(oem.getId(), SessionChannel.sessionIdOf(toVehicle));
+        assertEquals(SessionChannel.HEADER_LENGTH + 6 + SessionChannel.TAG_LENGTH, toVehicle.length);
+    }
+
+    @Test
+    @DisplayName("Should not open a message on the channel that sealed it")
+    void shouldUseSeparateKeysPerDirection() {
+        // Arrange
+        byte[] message = oem.seal(text("unlock"));
+
+        // Act & Assert
+        assertThrows(RuntimeException.class, () -> oem.open(message));
+    }
+
+    @Test
+    @DisplayName("Should reject replayed messages but accept reordered ones")
+    void shouldRejectReplay() {
+        // Arrange
+        byte[] first = vehicle.seal(text("1"));
+        byte[] second = vehicle.seal(text("2"));
+
+        // Act
+        oem.open(second);
+        oem.open(first);
+
+        // Assert
+        RuntimeException e = assertThrows(RuntimeException.class, () -> oem.open(second));
+        assertTrue(e.getMessage().contains("replayed"));
+        assertThrows(RuntimeException.class, () -> oem.open(first));
+    }
+
+    @Test
+    @DisplayName("Should reject tampered headers and ciphertext")
+    void shouldRejectTampering() {
+        // Arrange
+        byte[] message = vehicle.seal(text("lock"));
+        byte[] body = message.clone();
+        body[body.length - 1] ^= 1;
+        byte[] counter = message.clone();
+        counter[SessionChannel.HEADER_LENGTH - 1] ^= 1;
+
+        // Act & Assert
+        assertThrows(RuntimeException.class, () -> oem.open(body));
+        assertThrows(RuntimeException.class, () -> oem.open(counter));
+        assertArrayEquals(text("lock"), oem.open(message));
+    }
+
+    @Test
+    @DisplayName("Should rekey after the configured number of messages")
+    void shouldRekeyByVolume() {
+        // Act
+        byte[][] messages = new byte[7][];
+        for (int i = 0; i < messages.length; i++) {
+            messages[i] = oem.seal(text("m" + i));
+        }
+
+        // Assert
+        assertEquals(0, epochOf(messages[2]));
+        assertEquals(1, epochOf(messages[3]));
+        assertEquals(2, epochOf(messages[6]));
+        assertEquals(2, rekeys.get());
+        for (int i = 0; i < messages.length; i++) {
+            assertArrayEquals(text("m" + i), vehicle.open(messages[i]));
+        }
+    }
+
+    @Test
+    @DisplayName("Should reject a message from the previous epoch replayed after a rekey")
+    void shouldRejectReplayFromPreviousEpoch() {
+        // Arrange
+        byte[][] messages = new byte[4][];
+        for (int i = 0; i < messages.length; i++) {
+            messages[i] = oem.seal(text("m" + i));
+        }
+        for (byte[] message : messages) {
+            vehicle.open(message);
+        }
+
+        // Act & Assert
+        assertEquals(1, epochOf(messages[3]));
+        RuntimeException e = assertThrows(RuntimeException.class, () -> vehicle.open(messages[0]));
+        assertTrue(e.getMessage().contains("replayed"));
+    }
+
+    @Test
+    @DisplayName("Should rekey once the rekey interval has passed")
+    void shouldRekeyByTime() {
+        // Arrange
+        byte[] before = oem.seal(text("before"));
+
+        // Act
+        clock.addAndGet(Duration.ofMinutes(11).toNanos());
+        byte[] after = oem.seal(text("after"));
+
+        // Assert
+        assertEquals(0, epochOf(before));
+        assertEquals(1, epochOf(after));
+        assertArrayEquals(text("after"), vehicle.open(after));
+        assertArrayEquals(text("before"), vehicle.open(before), "previous epoch still accepted");
+    }
+
+    @Test
+    @DisplayName("Should follow a sender several epochs ahead only once a message authenticates")
+    void shouldSkipEpochsOnAuthenticatedMessage() {
+        // Arrange: vehicle's messages to the OEM run three epochs ahead
+        for (int i = 0; i < 9; i++) {
+            vehicle.seal(text("lost"));
+        }
+        byte[] ahead = vehicle.seal(text("ahead"));
+        byte[] forged = ahead.clone();
+        forged[forged.length - 1] ^= 1;
+
+        // Act & Assert
+        assertEquals(3, epochOf(ahead));
+        assertThrows(RuntimeException.class, () -> oem.open(forged));
+        assertEquals(0, rekeys.get());
+        assertArrayEquals(text("ahead"), oem.open(ahead));
+        assertEquals(1, rekeys.get());
+    }
+
+    @Test
+    @DisplayName("Should refuse all messages once the TTL has passed")
+    void shouldExpireAfterTtl() {
+        // Arrange
+        byte[] message = vehicle.seal(text("late"));
+
+        // Act
+        clock.addAndGet(Duration.ofHours(1).toNanos());
+
+        // Assert
+        assertTrue(oem.isExpired());
+        assertThrows(SessionExpiredException.class, () -> oem.open(message));
+        assertThrows(SessionExpiredException.class, () -> oem.seal(text("late")));
+    }
+
+    @Test
+    @DisplayName("Should not seal or open after being destroyed")
+    void shouldRefuseAfterDestroy() {
+        // Arrange
+        byte[] message = vehicle.seal(text("x"));
+
+        // Act
+        oem.destroy();
+
+        // Assert
+        assertThrows(RuntimeException.class, () -> oem.seal(text("x")));
+        assertThrows(RuntimeException.class, () -> oem.open(message));
+    }
+
+    @Test
+    @DisplayName("Should reject malformed messages and another session's messages")
+    void shouldRejectForeignMessages() {
+        // Arrange
+        KeyPair a = CRYPTO.generateECKeyPair();
+        KeyPair b = CRYPTO.generateECKeyPair();
+        SessionChannel other = SessionChannel.establish(SessionChannel.Role.VEHICLE,
+            new byte[SessionChannel.SESSION_ID_LENGTH], a.getPrivate(), b.getPublic(), POLICY);
+
+        // Act & Assert
+        assertThrows(RuntimeException.class, () -> oem.open(other.seal(text("x"))));
+        assertThrows(RuntimeException.class, () -> oem.open(new byte[10]));
+        assertNull(SessionChannel.sessionIdOf(new byte[10]));
+        assertThrows(IllegalArgumentException.class, () -> SessionChannel.establish(SessionChannel.Role.OEM,
+            new byte[4], a.getPrivate(), b.getPublic(), POLICY));
+    }
+}
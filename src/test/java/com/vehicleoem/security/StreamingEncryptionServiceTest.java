@@ -0,0 +1,194 @@
+package com.vehicleoem.security;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.security.KeyPair;
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("StreamingEncryptionService Unit Tests")
+class StreamingEncryptionServiceTest {
+
+    private static final CryptographyService CRYPTO = new CryptographyService();
+    private static final int CHUNK_SIZE = 64;
+
+    @Mock
+    private KeyPairPool keyPairPool;
+
+    @InjectMocks
+    private StreamingEncryptionService streamingEncryptionService;
+
+    private KeyPair recipient;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(streamingEncryptionService, "chunkSize", CHUNK_SIZE);
+        recipient = CRYPTO.generateECKeyPair();
+    }
+
+    private byte[] encrypt(byte[] plaintext) throws IOException {
+        when(keyPairPool.take()).thenReturn(CRYPTO.generateECKeyPair());
+        ByteArrayOutputStream sealed = new ByteArrayOutputStream();
+        streamingEncryptionService.encrypt(new ByteArrayInputStream(plaintext), sealed, recipient.getPublic());
+        return sealed.toByteArray();
+    }
+
+    private byte[] decrypt(byte[] sealed, KeyPair keyPair) throws IOException {
+        ByteArrayOutputStream plaintext = new ByteArrayOutputStream();
+        streamingEncryptionService.decrypt(new ByteArrayInputStream(sealed), plaintext, keyPair.getPrivate());
+        return plaintext.toByteArray();
+    }
+
+    private static byte[] payload(int length) {
+        byte[] data = new byte[length];
+        new Random(length).nextBytes(data);
+        return data;
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {0, 1, CHUNK_SIZE - 1, CHUNK_SIZE, CHUNK_SIZE + 1, 3 * CHUNK_SIZE, 10_000})
+    @DisplayName("Should round-trip payloads across chunk boundaries")
+    void shouldRoundTripPayloads(int length) throws IOException {
+        // Arrange
+        byte[] plaintext = payload(length);
+
+        // Act
+        byte[] sealed = encrypt(plaintext);
+
+        // Assert
+        assertArrayEquals(plaintext, decrypt(sealed, recipient));
+        assertFalse(length > 16 && indexOf(sealed, Arrays.copyOf(plaintext, 16)) >= 0, "plaintext leaked into output");
+    }
+
+    @Test
+    @DisplayName("Should encrypt incrementally written data and decrypt through channels")
+    void shouldStreamThroughWritersAndChannels() throws IOException {
+        // Arrange
+        when(keyPairPool.take()).thenReturn(CRYPTO.generateECKeyPair());
+        byte[] plaintext = payload(1000);
+        ByteArrayOutputStream sealed = new ByteArrayOutputStream();
+
+        // Act
+        try (OutputStream out = streamingEncryptionService.encryptingStream(sealed, recipient.getPublic())) {
+            for (byte b : Arrays.copyOf(plaintext, 10)) {
+                out.write(b);
+            }
+            out.write(plaintext, 10, plaintext.length - 10);
+        }
+        ByteArrayOutputStream decrypted = new ByteArrayOutputStream();
+        streamingEncryptionService.decrypt(Channels.newChannel(new ByteArrayInputStream(sealed.toByteArray())),
+            Channels.newChannel(decrypted), recipient.getPrivate());
+
+        // Assert
+        assertArrayEquals(plaintext, decrypted.toByteArray());
+    }
+
+    @Test
+    @DisplayName("Should do one key agreement per stream")
+    void shouldUseOneEphemeralKeyPerStream() throws IOException {
+        // Act
+        encrypt(payload(10_000));
+
+        // Assert
+        verify(keyPairPool, times(1)).take();
+    }
+
+    @Test
+    @DisplayName("Should reject a stream with the final chunk missing")
+    void shouldRejectTruncatedStream() throws IOException {
+        // Arrange: drop the last frame (flag, length, a full chunk and its tag)
+        byte[] sealed = encrypt(payload(2 * CHUNK_SIZE));
+        byte[] truncated = Arrays.copyOf(sealed, sealed.length - (1 + 4 + CHUNK_SIZE + 16));
+
+        // Act & Assert
+        IOException e = assertThrows(IOException.class, () -> decrypt(truncated, recipient));
+        assertTrue(e.getMessage().contains("Truncated"));
+    }
+
+    @Test
+    @DisplayName("Should reject tampered ciphertext")
+    void shouldRejectTamperedCiphertext() throws IOException {
+        // Arrange
+        byte[] sealed = encrypt(payload(500));
+        sealed[sealed.length - 40] ^= 1;
+
+        // Act & Assert
+        IOException e = assertThrows(IOException.class, () -> decrypt(sealed, recipient));
+        assertTrue(e.getMessage().contains("Authentication failed"));
+    }
+
+    @Test
+    @DisplayName("Should reject a stream with a final flag set early")
+    void shouldRejectForgedFinalFlag() throws IOException {
+        // Arrange: the first frame starts right after the header
+        byte[] sealed = encrypt(payload(500));
+        int firstFrame = 3 + 1 + 4 + 2 + ((sealed[8] & 0xFF) << 8 | (sealed[9] & 0xFF)) + 7;
+        sealed[firstFrame] = 1;
+
+        // Act & Assert
+        assertThrows(IOException.class, () -> decrypt(sealed, recipient));
+    }
+
+    @Test
+    @DisplayName("Should reject a header chunk size above the configured one before allocating it")
+    void shouldRejectOversizedChunkSize() throws IOException {
+        // Arrange: chunk size sits right after magic and version
+        byte[] sealed = encrypt(payload(100));
+        sealed[4] = 0x01;
+
+        // Act & Assert
+        IOException e = assertThrows(IOException.class, () -> decrypt(sealed, recipient));
+        assertTrue(e.getMessage().contains("Invalid chunk size"));
+    }
+
+    @Test
+    @DisplayName("Should fail to decrypt with the wrong private key")
+    void shouldFailWithWrongKey() throws IOException {
+        // Arrange
+        byte[] sealed = encrypt(payload(100));
+
+        // Act & Assert
+        assertThrows(IOException.class, () -> decrypt(sealed, CRYPTO.generateECKeyPair()));
+    }
+
+    @Test
+    @DisplayName("Should reject input that is not an encrypted stream")
+    void shouldRejectUnknownFormat() {
+        // Act & Assert
+        assertThrows(IOException.class, () -> decrypt("not an encrypted stream".getBytes(), recipient));
+        assertThrows(IOException.class, () -> decrypt(new byte[]{'V', 'S'}, recipient));
+        assertThrows(RuntimeException.class, () ->
+            streamingEncryptionService.decryptingStream(InputStream.nullInputStream(), null));
+    }
+
+    private static int indexOf(byte[] haystack, byte[] needle) {
+        outer:
+        for (int i = 0; i <= haystack.length - needle.length; i++) {
+            for (int j = 0; j < needle.length; j++) {
+                if (haystack[i + j] != needle[j]) {
+                    continue outer;
+                }
+            }
+            return i;
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,179 @@
+package com.vehicleoem.service;
+
+import com.vehicleoem.exception.KeyManagementException;
+import com.vehicleoem.model.*;
+import com.vehicleoem.repository.DigitalKeyRepository;
+import com.vehicleoem.repository.DigitalKeyRepositoryCustom.UsageDelta;
+import com.vehicleoem.repository.VehicleRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.util.Map;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("CounterService Unit Tests")
+class CounterServiceTest {
+
+    @Mock
+    private VehicleRepository vehicleRepository;
+
+    @Mock
+    private DigitalKeyRepository digitalKeyRepository;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @Mock
+    private KeyValidityCache keyValidityCache;
+
+    @Spy
+    private MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @InjectMocks
+    private CounterService counterService;
+
+    private Vehicle testVehicle;
+    private DigitalKey unlimitedKey;
+    private DigitalKey otherKey;
+
+    @BeforeEach
+    void setUp() {
+        counterService.registerMetrics();
+
+        OwnerAccount owner = new OwnerAccount("OWNER001", "owner@example.com", "John", "Doe");
+        testVehicle = new Vehicle("1HGBH41JXMN109186", "Honda", "Civic", 2023, owner);
+        testVehicle.setId(1L);
+        testVehicle.setMaxKeysAllowed(5);
+
+        unlimitedKey = new DigitalKey("OWNER-KEY-001", "DEVICE001", "Apple", KeyType.OWNER, testVehicle);
+        unlimitedKey.setId(10L);
+        otherKey = new DigitalKey("OWNER-KEY-002", "DEVICE002", "Apple", KeyType.OWNER, testVehicle);
+        otherKey.setId(11L);
+    }
+
+    @SuppressWarnings("unchecked")
+    private void runTransactionsInline() {
+        doAnswer(invocation -> {
+            ((Consumer<TransactionStatus>) invocation.getArgument(0)).accept(null);
+            return null;
+        }).when(transactionTemplate).executeWithoutResult(any());
+    }
+
+    @Test
+    @DisplayName("Should only count usage once the surrounding transaction commits")
+    void shouldCountUsageAfterCommit() {
+        runTransactionsInline();
+
+        // A use whose transaction rolls back
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            counterService.recordKeyUsage(unlimitedKey);
+            counterService.flush();
+            TransactionSynchronizationManager.getSynchronizations()
+                .forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        counterService.flush();
+        verifyNoInteractions(transactionTemplate);
+
+        // A use whose transaction commits
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            counterService.recordKeyUsage(unlimitedKey);
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        counterService.flush();
+        verify(vehicleRepository).addKeyUsageCounts(eq(Map.of(1L, 1L)), any());
+    }
+
+    @Test
+    @DisplayName("Should aggregate usage in memory and flush one delta per vehicle and key")
+    @SuppressWarnings("unchecked")
+    void shouldAggregateUsageAndFlushDeltas() {
+        runTransactionsInline();
+
+        counterService.recordKeyUsage(unlimitedKey);
+        counterService.recordKeyUsage(unlimitedKey);
+        counterService.recordKeyUsage(otherKey);
+        counterService.flush();
+
+        verify(vehicleRepository).addKeyUsageCounts(eq(Map.of(1L, 3L)), any());
+        ArgumentCaptor<Map<Long, UsageDelta>> keyDeltas = ArgumentCaptor.forClass(Map.class);
+        verify(digitalKeyRepository).addUsageCounts(keyDeltas.capture());
+        assertEquals(2L, keyDeltas.getValue().get(10L).getCount());
+        assertEquals(1L, keyDeltas.getValue().get(11L).getCount());
+        assertNotNull(keyDeltas.getValue().get(10L).getLastUsedAt());
+
+        // Nothing left to flush
+        counterService.flush();
+        verify(vehicleRepository, times(1)).addKeyUsageCounts(any(), any());
+    }
+
+    @Test
+    @DisplayName("Should keep deltas for the next flush when a flush fails")
+    void shouldRetainDeltasWhenFlushFails() {
+        runTransactionsInline();
+        doThrow(new RuntimeException("connection refused"))
+            .doNothing()
+            .when(vehicleRepository).addKeyUsageCounts(any(), any());
+
+        counterService.recordKeyUsage(unlimitedKey);
+        counterService.flush();
+        counterService.recordKeyUsage(unlimitedKey);
+        counterService.flush();
+
+        verify(vehicleRepository).addKeyUsageCounts(eq(Map.of(1L, 2L)), any());
+        assertEquals(1.0, meterRegistry.get("counters.flush.failures").counter().count());
+    }
+
+    @Test
+    @DisplayName("Should count limited keys strictly and reject exhausted keys")
+    void shouldCountLimitedKeysStrictly() {
+        unlimitedKey.setMaxUsageCount(3L);
+        when(digitalKeyRepository.consumeLimitedUsage(eq(10L), any()))
+            .thenReturn(KeyStatus.ACTIVE, KeyStatus.EXPIRED, null);
+
+        counterService.recordKeyUsage(unlimitedKey);
+        verify(vehicleRepository, never()).releaseKeySlot(any());
+        // The last use expires the key and gives its slot back
+        counterService.recordKeyUsage(unlimitedKey);
+        verify(vehicleRepository).releaseKeySlot(1L);
+        assertThrows(KeyManagementException.class, () -> counterService.recordKeyUsage(unlimitedKey));
+        verify(keyValidityCache, times(3)).invalidateKey(unlimitedKey.getKeyId());
+
+        runTransactionsInline();
+        counterService.flush();
+        verify(vehicleRepository).addKeyUsageCounts(eq(Map.of(1L, 2L)), any());
+        verify(digitalKeyRepository).addUsageCounts(Map.of());
+    }
+
+    @Test
+    @DisplayName("Should reject key slot reservation at the key limit")
+    void shouldRejectKeySlotReservationAtLimit() {
+        when(vehicleRepository.tryReserveKeySlot(1L)).thenReturn(0);
+
+        KeyManagementException exception = assertThrows(KeyManagementException.class,
+            () -> counterService.reserveKeySlot(testVehicle));
+        assertEquals("Maximum number of keys reached for this vehicle (5)", exception.getMessage());
+    }
+}
@@ -14,7 +14,9 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
 import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -34,15 +36,9 @@ class DigitalKeyServiceTest {
     @Mock
     private OwnerAccountRepository ownerAccountRepository;
 
-    @Mock
-    private KeyTrackingClient keyTrackingClient;
-
     @Mock
     private DeviceOemClient deviceOemClient;
 
-    @Mock
-    private VehicleTelematicsClient vehicleTelematicsClient;
-
     @Mock
     private CryptographyService cryptographyService;
 
@@ -58,6 +54,21 @@ class DigitalKeyServiceTest {
     @Mock
     private AuditService auditService;
 
+    @Mock
+    private OutboxService outboxService;
+
+    @Mock
+    private CounterService counterService;
+
+    @Mock
+    private KeyOperationService keyOperationService;
+
+    @Mock
+    private KeyIdFilter keyIdFilter;
+
+    @Mock
+    private KeyValidityCache keyValidityCache;
+
     @InjectMocks
     private DigitalKeyService digitalKeyService;
 
@@ -102,9 +113,7 @@ class DigitalKeyServiceTest {
     void shouldSuccessfullyTrackNewKey() {
         // Arrange
         when(vehicleRepository.findByVin("1HGBH41JXMN109186")).thenReturn(Optional.of(testVehicle));
-        when(digitalKeyRepository.findByKeyId("KEY001")).thenReturn(Optional.empty());
-        when(digitalKeyRepository.save(any(DigitalKey.class))).thenReturn(testKey);
-        when(vehicleRepository.save(any(Vehicle.class))).thenReturn(testVehicle);
+        when(digitalKeyRepository.saveAndFlush(any(DigitalKey.class))).thenReturn(testKey);
         doNothing().when(validationService).validateTrackKeyRequest(any(), any());
         doNothing().when(validationService).validateVehicleSubscription(any());
         doNothing().when(validationService).validateKeyLimits(any());
@@ -118,9 +127,12 @@ class DigitalKeyServiceTest {
         assertEquals("Key tracked successfully", response.getMessage());
         assertEquals("KEY001", response.getKeyId());
 
-        verify(digitalKeyRepository).save(any(DigitalKey.class));
-        verify(vehicleRepository).save(testVehicle);
-        verify(keyTrackingClient).registerKey(any(KeyRegistrationRequest.class));
+        // The filter ruled the key id out, so no existence query was needed
+        verify(digitalKeyRepository, never()).findByKeyId(anyString());
+        verify(digitalKeyRepository).saveAndFlush(any(DigitalKey.class));
+        verify(keyIdFilter).add("KEY001");
+        verify(counterService).reserveKeySlot(testVehicle);
+        verify(outboxService).enqueue(eq("KEY001"), eq(OutboxEventType.KTS_REGISTER_KEY), any(KeyRegistrationRequest.class));
         verify(eventNotificationService).sendKeyTrackedNotification(any(DigitalKey.class));
         verify(auditService).logKeyAction(eq("KEY001"), eq("TRACK_KEY"), eq("SYSTEM"), anyString());
     }
@@ -130,6 +142,7 @@ class DigitalKeyServiceTest {
     void shouldHandleDuplicateKeyTracking() {
         // Arrange
         when(vehicleRepository.findByVin("1HGBH41JXMN109186")).thenReturn(Optional.of(testVehicle));
+        when(keyIdFilter.mightExist("KEY001")).thenReturn(true);
         when(digitalKeyRepository.findByKeyId("KEY001")).thenReturn(Optional.of(testKey));
         doNothing().when(validationService).validateTrackKeyRequest(any(), any());
         doNothing().when(validationService).validateVehicleSubscription(any());
@@ -144,10 +157,26 @@ class DigitalKeyServiceTest {
         assertEquals("Key already tracked", response.getMessage());
         assertEquals("KEY001", response.getKeyId());
 
-        verify(digitalKeyRepository, never()).save(any(DigitalKey.class));
+        verify(digitalKeyRepository, never()).saveAndFlush(any(DigitalKey.class));
         verify(vehicleRepository, never()).save(any(Vehicle.class));
     }
 
+    @Test
+    @DisplayName("Should report a key tracked concurrently elsewhere and remember it in the filter")
+    void shouldRememberKeyRejectedByUniqueConstraint() {
+        // Arrange
+        when(vehicleRepository.findByVin("1HGBH41JXMN109186")).thenReturn(Optional.of(testVehicle));
+        when(digitalKeyRepository.saveAndFlush(any(DigitalKey.class)))
+            .thenThrow(new DataIntegrityViolationException("duplicate key value violates unique constraint"));
+
+        // Act & Assert
+        KeyManagementException exception = assertThrows(KeyManagementException.class,
+            () -> digitalKeyService.trackKey(trackKeyRequest));
+        assertEquals("Digital key already exists: KEY001", exception.getMessage());
+        verify(keyIdFilter).add("KEY001");
+        verify(counterService, never()).reserveKeySlot(any());
+    }
+
     @Test
     @DisplayName("Should throw exception when vehicle not found")
     void shouldThrowExceptionWhenVehicleNotFound() {
@@ -162,15 +191,91 @@ class DigitalKeyServiceTest {
         verify(digitalKeyRepository, never()).save(any(DigitalKey.class));
     }
 
+    @Test
+    @DisplayName("Should track keys in bulk with one count update per vehicle")
+    void shouldTrackKeysInBulk() {
+        // Arrange
+        testVehicle.setId(1L);
+        TrackKeyRequest secondKey = new TrackKeyRequest();
+        secondKey.setKeyId("KEY002");
+        secondKey.setDeviceId("DEVICE002");
+        secondKey.setDeviceOem("Samsung");
+        secondKey.setVehicleId("1HGBH41JXMN109186");
+        secondKey.setKeyType("OWNER");
+        TrackKeyRequest existingKey = new TrackKeyRequest();
+        existingKey.setKeyId("KEY003");
+        existingKey.setVehicleId("1HGBH41JXMN109186");
+
+        when(vehicleRepository.findAllByVinInWithOwner(any())).thenReturn(List.of(testVehicle));
+        when(keyIdFilter.mightExist(anyString())).thenAnswer(invocation -> "KEY003".equals(invocation.getArgument(0)));
+        when(digitalKeyRepository.findExistingKeyIds(List.of("KEY003"))).thenReturn(List.of("KEY003"));
+        when(counterService.reserveKeySlots(testVehicle, 2)).thenReturn(2);
+        when(digitalKeyRepository.batchInsert(anyList())).thenReturn(new boolean[] { true, true });
+
+        // Act
+        BatchTrackKeyResponse response = digitalKeyService.trackKeys(
+            List.of(trackKeyRequest, secondKey, existingKey, trackKeyRequest));
+
+        // Assert
+        assertEquals(4, response.getTotal());
+        assertEquals(2, response.getTracked());
+        assertEquals(2, response.getAlreadyTracked());
+        assertEquals(0, response.getFailed());
+        assertEquals("Key tracked successfully", response.getResults().get(0).getMessage());
+        assertEquals("Key already tracked", response.getResults().get(2).getMessage());
+        assertEquals("Key already tracked", response.getResults().get(3).getMessage());
+
+        verify(vehicleRepository, times(1)).findAllByVinInWithOwner(any());
+        verify(counterService, times(1)).reserveKeySlots(testVehicle, 2);
+        verify(counterService, never()).releaseKeySlots(any());
+        verify(vehicleRepository, never()).save(any(Vehicle.class));
+        verify(outboxService).enqueueAll(argThat(events -> events.size() == 2));
+        verify(eventNotificationService).sendKeyTrackedNotifications(argThat(keys -> keys.size() == 2));
+    }
+
+    @Test
+    @DisplayName("Should report per-key failures in bulk tracking")
+    void shouldReportPerKeyFailuresInBulkTracking() {
+        // Arrange
+        testVehicle.setId(1L);
+        TrackKeyRequest overLimitKey = new TrackKeyRequest();
+        overLimitKey.setKeyId("KEY002");
+        overLimitKey.setDeviceId("DEVICE002");
+        overLimitKey.setDeviceOem("Samsung");
+        overLimitKey.setVehicleId("1HGBH41JXMN109186");
+        overLimitKey.setKeyType("OWNER");
+        TrackKeyRequest unknownVehicleKey = new TrackKeyRequest();
+        unknownVehicleKey.setKeyId("KEY003");
+        unknownVehicleKey.setVehicleId("2HGBH41JXMN109186");
+
+        when(vehicleRepository.findAllByVinInWithOwner(any())).thenReturn(List.of(testVehicle));
+        when(counterService.reserveKeySlots(testVehicle, 2)).thenReturn(1);
+        when(digitalKeyRepository.batchInsert(anyList())).thenReturn(new boolean[] { true });
+
+        // Act
+        BatchTrackKeyResponse response = digitalKeyService.trackKeys(
+            List.of(trackKeyRequest, overLimitKey, unknownVehicleKey));
+
+        // Assert
+        assertEquals(1, response.getTracked());
+        assertEquals(2, response.getFailed());
+        assertTrue(response.getResults().get(0).isSuccess());
+        assertEquals("Maximum number of keys reached for this vehicle (20)", response.getResults().get(1).getMessage());
+        assertEquals("Vehicle not found with VIN: 2HGBH41JXMN109186", response.getResults().get(2).getMessage());
+        verify(digitalKeyRepository, never()).findExistingKeyIds(any());
+    }
+
     @Test
     @DisplayName("Should successfully manage key - suspend")
     void shouldSuccessfullyManageKeySuspend() {
         // Arrange
-        when(digitalKeyRepository.findByKeyId("KEY001")).thenReturn(Optional.of(testKey));
+        testVehicle.setId(1L);
+        when(keyValidityCache.getKey("KEY001")).thenReturn(KeyValidityCache.KeyValidity.of(testKey));
+        when(digitalKeyRepository.findByKeyIdWithVehicle("KEY001")).thenReturn(Optional.of(testKey));
         when(digitalKeyRepository.save(any(DigitalKey.class))).thenReturn(testKey);
         doNothing().when(validationService).validateKeyAction(anyString());
         doNothing().when(validationService).validateKeyStatusTransition(any(), anyString());
-        doNothing().when(validationService).validateVehicleSubscription(any());
+        when(keyOperationService.start(testKey, "SUSPEND", "ADMIN")).thenReturn("OP-001");
 
         // Act
         ManageKeyResponse response = digitalKeyService.manageKey(manageKeyRequest);
@@ -179,11 +284,60 @@ class DigitalKeyServiceTest {
         assertTrue(response.isSuccess());
         assertEquals("Key managed successfully", response.getMessage());
         assertEquals("KEY001", response.getKeyId());
+        assertEquals("OP-001", response.getOperationId());
 
+        verify(keyValidityCache).validateVehicleSubscription(1L);
         verify(digitalKeyRepository).save(testKey);
-        verify(vehicleTelematicsClient).sendCommand(any(TelematicsCommandRequest.class));
-        verify(keyTrackingClient).updateKeyStatus(any(KeyStatusUpdateRequest.class));
-        verify(eventNotificationService).sendKeyStatusChangedNotification(any(DigitalKey.class), eq("SUSPEND"));
+        verify(outboxService).enqueue(eq("KEY001"), eq(OutboxEventType.TELEMATICS_COMMAND), any(TelematicsCommandRequest.class), eq("OP-001"));
+        verify(outboxService).enqueue(eq("KEY001"), eq(OutboxEventType.KTS_UPDATE_KEY_STATUS), any(KeyStatusUpdateRequest.class), eq("OP-001"));
+        verify(eventNotificationService).sendKeyStatusChangedNotification(any(DigitalKey.class), eq("SUSPEND"), eq("OP-001"));
         verify(auditService).logKeyAction(eq("KEY001"), eq("MANAGE_KEY_SUSPEND"), eq("ADMIN"), eq("Security concern"));
     }
+
+    @Test
+    @DisplayName("Should return a cursor only when there is another page of keys")
+    void shouldPageVehicleKeys() {
+        // Arrange
+        LocalDateTime createdAt = LocalDateTime.of(2024, 1, 15, 10, 30, 0, 123456000);
+        DigitalKeyView first = keyView(1L, "KEY001", createdAt);
+        DigitalKeyView second = keyView(2L, "KEY002", createdAt.plusSeconds(1));
+        DigitalKeyView third = keyView(3L, "KEY003", createdAt.plusSeconds(2));
+        when(digitalKeyRepository.findViewsByVehicleVin("1HGBH41JXMN109186", KeyStatus.ACTIVE, null, null, null, 3))
+            .thenReturn(List.of(first, second, third));
+
+        // Act
+        DigitalKeyPageResponse page = digitalKeyService.getVehicleKeys("1HGBH41JXMN109186", "active", null, null, 2);
+
+        // Assert
+        assertEquals(2, page.getKeys().size());
+        assertEquals(DigitalKeyService.encodeCursor(second.createdAt(), 2L), page.getNextCursor());
+
+        // The cursor seeks past the last key of the previous page
+        when(digitalKeyRepository.findViewsByVehicleVin("1HGBH41JXMN109186", KeyStatus.ACTIVE, null,
+            second.createdAt(), 2L, 3)).thenReturn(List.of(third));
+        DigitalKeyPageResponse lastPage = digitalKeyService.getVehicleKeys("1HGBH41JXMN109186", "ACTIVE", null,
+            page.getNextCursor(), 2);
+        assertEquals(1, lastPage.getKeys().size());
+        assertNull(lastPage.getNextCursor());
+    }
+
+    @Test
+    @DisplayName("Should reject invalid key listing parameters")
+    void shouldRejectInvalidKeyListingParameters() {
+        when(vehicleRepository.existsByVin("UNKNOWNVIN")).thenReturn(false);
+
+        assertThrows(IllegalArgumentException.class,
+            () -> digitalKeyService.getVehicleKeys("1HGBH41JXMN109186", null, null, null, 500));
+        assertThrows(IllegalArgumentException.class,
+            () -> digitalKeyService.getVehicleKeys("1HGBH41JXMN109186", "BROKEN", null, null, null));
+        assertThrows(IllegalArgumentException.class,
+            () -> digitalKeyService.getVehicleKeys("1HGBH41JXMN109186", null, null, "not-a-cursor", null));
+        assertThrows(VehicleNotFoundException.class,
+            () -> digitalKeyService.getVehicleKeys("UNKNOWNVIN", null, null, null, null));
+    }
+
+    private DigitalKeyView keyView(Long id, String keyId, LocalDateTime createdAt) {
+        return new DigitalKeyView(id, keyId, "1HGBH41JXMN109186", "OWNER", "ACTIVE", "DEVICE001", "Apple",
+            null, null, "FULL_ACCESS", 0L, null, null, createdAt, null, null, createdAt);
+    }
 }
@@ -0,0 +1,108 @@
+package com.vehicleoem.service;
+
+import com.vehicleoem.dto.KeyStatusUpdateRequest;
+import com.vehicleoem.model.OutboxEvent;
+import com.vehicleoem.model.OutboxEventType;
+import com.vehicleoem.repository.DigitalKeyRepository;
+import com.vehicleoem.repository.DigitalKeyRepositoryCustom.ExpiredKey;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("KeyExpirySweeper Unit Tests")
+class KeyExpirySweeperTest {
+
+    @Mock
+    private DigitalKeyRepository digitalKeyRepository;
+
+    @Mock
+    private CounterService counterService;
+
+    @Mock
+    private OutboxService outboxService;
+
+    @Mock
+    private KeyValidityCache keyValidityCache;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @Spy
+    private MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @InjectMocks
+    private KeyExpirySweeper keyExpirySweeper;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        ReflectionTestUtils.setField(keyExpirySweeper, "enabled", true);
+        ReflectionTestUtils.setField(keyExpirySweeper, "chunkSize", 2);
+        ReflectionTestUtils.setField(keyExpirySweeper, "maxChunksPerRun", 10);
+        keyExpirySweeper.registerMetrics();
+
+        when(transactionTemplate.execute(any())).thenAnswer(invocation ->
+            ((TransactionCallback<Integer>) invocation.getArgument(0)).doInTransaction(null));
+        when(outboxService.newEvent(anyString(), eq(OutboxEventType.KTS_UPDATE_KEY_STATUS), any()))
+            .thenAnswer(invocation -> new OutboxEvent(invocation.getArgument(0), OutboxEventType.KTS_UPDATE_KEY_STATUS, "{}"));
+    }
+
+    @Test
+    @DisplayName("Should expire keys chunk by chunk and release slots per vehicle")
+    @SuppressWarnings("unchecked")
+    void shouldExpireKeysInChunks() {
+        when(digitalKeyRepository.expireDueKeys(any(), eq(2)))
+            .thenReturn(List.of(new ExpiredKey(1L, "KEY-001", 100L), new ExpiredKey(2L, "KEY-002", 100L)))
+            .thenReturn(List.of(new ExpiredKey(3L, "KEY-003", 200L)));
+        when(digitalKeyRepository.countDueForExpiry(any())).thenReturn(0L);
+
+        keyExpirySweeper.sweep();
+
+        // The short second chunk means the backlog is drained, so no third query
+        verify(digitalKeyRepository, times(2)).expireDueKeys(any(), eq(2));
+        verify(counterService).releaseKeySlots(Map.of(100L, 2));
+        verify(counterService).releaseKeySlots(Map.of(200L, 1));
+
+        ArgumentCaptor<KeyStatusUpdateRequest> payload = ArgumentCaptor.forClass(KeyStatusUpdateRequest.class);
+        verify(outboxService, times(3)).newEvent(anyString(), eq(OutboxEventType.KTS_UPDATE_KEY_STATUS), payload.capture());
+        assertTrue(payload.getAllValues().stream().allMatch(request -> "EXPIRED".equals(request.getNewStatus())));
+        ArgumentCaptor<List<OutboxEvent>> batches = ArgumentCaptor.forClass(List.class);
+        verify(outboxService, times(2)).enqueueAll(batches.capture());
+        assertEquals(2, batches.getAllValues().get(0).size());
+
+        verify(keyValidityCache).invalidateKey("KEY-003");
+        assertEquals(3.0, meterRegistry.get("key_expiry.expired").counter().count());
+        assertEquals(1L, meterRegistry.get("key_expiry.sweep.duration").timer().count());
+    }
+
+    @Test
+    @DisplayName("Should stop after the per-run chunk limit and report the remaining backlog")
+    void shouldReportBacklogWhenChunkLimitIsReached() {
+        ReflectionTestUtils.setField(keyExpirySweeper, "maxChunksPerRun", 1);
+        when(digitalKeyRepository.expireDueKeys(any(), eq(2)))
+            .thenReturn(List.of(new ExpiredKey(1L, "KEY-001", 100L), new ExpiredKey(2L, "KEY-002", 100L)));
+        when(digitalKeyRepository.countDueForExpiry(any())).thenReturn(40L);
+
+        keyExpirySweeper.sweep();
+
+        verify(digitalKeyRepository, times(1)).expireDueKeys(any(), eq(2));
+        assertEquals(40.0, meterRegistry.get("key_expiry.backlog").gauge().value());
+    }
+}
@@ -0,0 +1,94 @@
+package com.vehicleoem.service;
+
+import com.vehicleoem.dto.KeyOperationResponse;
+import com.vehicleoem.model.KeyOperation;
+import com.vehicleoem.model.KeyStatus;
+import com.vehicleoem.model.OutboxEvent;
+import com.vehicleoem.model.OutboxEventType;
+import com.vehicleoem.model.OutboxStatus;
+import com.vehicleoem.repository.KeyOperationRepository;
+import com.vehicleoem.repository.OutboxEventRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("KeyOperationService Unit Tests")
+class KeyOperationServiceTest {
+
+    @Mock
+    private KeyOperationRepository keyOperationRepository;
+
+    @Mock
+    private OutboxEventRepository outboxEventRepository;
+
+    @InjectMocks
+    private KeyOperationService keyOperationService;
+
+    private KeyOperation operation;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(keyOperationService, "maxWaitSeconds", 30L);
+        // Long enough that the long-poll test only finishes early if it is woken up
+        ReflectionTestUtils.setField(keyOperationService, "pollIntervalMs", 60_000L);
+
+        operation = new KeyOperation("OWNER-KEY-001", "SUSPEND", KeyStatus.SUSPENDED, "ADMIN");
+        when(keyOperationRepository.findById(operation.getId())).thenReturn(Optional.of(operation));
+    }
+
+    private OutboxEvent step(OutboxEventType type, OutboxStatus status) {
+        OutboxEvent event = new OutboxEvent("OWNER-KEY-001", type, "{}");
+        event.setOperationId(operation.getId());
+        event.setStatus(status);
+        return event;
+    }
+
+    @Test
+    @DisplayName("Should derive overall status from the operation steps")
+    void shouldDeriveOverallStatusFromSteps() {
+        when(outboxEventRepository.findByOperationIdOrderByIdAsc(operation.getId())).thenReturn(
+            List.of(step(OutboxEventType.TELEMATICS_COMMAND, OutboxStatus.DISPATCHED),
+                    step(OutboxEventType.KTS_UPDATE_KEY_STATUS, OutboxStatus.PENDING)),
+            List.of(step(OutboxEventType.TELEMATICS_COMMAND, OutboxStatus.DISPATCHED),
+                    step(OutboxEventType.KTS_UPDATE_KEY_STATUS, OutboxStatus.DISPATCHED)),
+            List.of(step(OutboxEventType.TELEMATICS_COMMAND, OutboxStatus.FAILED),
+                    step(OutboxEventType.KTS_UPDATE_KEY_STATUS, OutboxStatus.PENDING)));
+
+        KeyOperationResponse inProgress = keyOperationService.getOperation(operation.getId()).orElseThrow();
+        assertEquals(KeyOperationResponse.IN_PROGRESS, inProgress.getStatus());
+        assertEquals("SUSPENDED", inProgress.getNewStatus());
+        assertEquals(2, inProgress.getSteps().size());
+        assertEquals(KeyOperationResponse.COMPLETED, keyOperationService.getOperation(operation.getId()).orElseThrow().getStatus());
+        assertEquals(KeyOperationResponse.FAILED, keyOperationService.getOperation(operation.getId()).orElseThrow().getStatus());
+    }
+
+    @Test
+    @DisplayName("Should return from a long-poll as soon as the last step is delivered")
+    void shouldWakeLongPollWhenStepProgresses() throws Exception {
+        when(outboxEventRepository.findByOperationIdOrderByIdAsc(operation.getId())).thenReturn(
+            List.of(step(OutboxEventType.TELEMATICS_COMMAND, OutboxStatus.PENDING)),
+            List.of(step(OutboxEventType.TELEMATICS_COMMAND, OutboxStatus.DISPATCHED)));
+
+        CompletableFuture<Optional<KeyOperationResponse>> poll =
+            CompletableFuture.supplyAsync(() -> keyOperationService.awaitOperation(operation.getId(), 30));
+        // Wait for the poller to take its first snapshot before signalling
+        verify(outboxEventRepository, timeout(5000)).findByOperationIdOrderByIdAsc(operation.getId());
+        keyOperationService.stepProgressed(operation.getId());
+
+        KeyOperationResponse finished = poll.get(10, TimeUnit.SECONDS).orElseThrow();
+        assertEquals(KeyOperationResponse.COMPLETED, finished.getStatus());
+    }
+}
@@ -0,0 +1,139 @@
+package com.vehicleoem.service;
+
+import com.vehicleoem.exception.KeyManagementException;
+import com.vehicleoem.model.*;
+import com.vehicleoem.repository.DigitalKeyRepository;
+import com.vehicleoem.repository.VehicleRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("KeyValidityCache Unit Tests")
+class KeyValidityCacheTest {
+
+    @Mock
+    private DigitalKeyRepository digitalKeyRepository;
+
+    @Mock
+    private VehicleRepository vehicleRepository;
+
+    @Spy
+    private MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @InjectMocks
+    private KeyValidityCache keyValidityCache;
+
+    private Vehicle testVehicle;
+    private DigitalKey testKey;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(keyValidityCache, "maximumSize", 100L);
+        ReflectionTestUtils.setField(keyValidityCache, "ttlSeconds", 30L);
+        keyValidityCache.init();
+
+        OwnerAccount owner = new OwnerAccount("OWNER001", "owner@example.com", "John", "Doe");
+        testVehicle = new Vehicle("1HGBH41JXMN109186", "Honda", "Civic", 2023, owner);
+        testVehicle.setId(1L);
+        testVehicle.setSubscriptionActive(true);
+
+        testKey = new DigitalKey("KEY001", "DEVICE001", "Apple", KeyType.OWNER, testVehicle);
+        testKey.setId(10L);
+        testKey.activate();
+        testKey.setValidFrom(LocalDateTime.now().minusDays(1));
+    }
+
+    @Test
+    @DisplayName("Should serve repeat validations without reading the database")
+    void shouldServeRepeatValidationsFromCache() {
+        when(digitalKeyRepository.findByKeyIdWithVehicle("KEY001")).thenReturn(Optional.of(testKey));
+
+        KeyValidityCache.KeyValidity first = keyValidityCache.validateKeyUsage("KEY001");
+        KeyValidityCache.KeyValidity second = keyValidityCache.validateKeyUsage("KEY001");
+
+        assertSame(first, second);
+        assertEquals("1HGBH41JXMN109186", first.vin());
+        assertEquals(1L, first.vehicleId());
+        verify(digitalKeyRepository, times(1)).findByKeyIdWithVehicle("KEY001");
+        verifyNoInteractions(vehicleRepository);
+        assertEquals(1.0, meterRegistry.get("cache.gets").tag("cache", "key_validity.keys")
+            .tag("result", "hit").functionCounter().count());
+    }
+
+    @Test
+    @DisplayName("Should reload a key after it is invalidated")
+    void shouldReloadKeyAfterInvalidation() {
+        when(digitalKeyRepository.findByKeyIdWithVehicle("KEY001")).thenReturn(Optional.of(testKey));
+        keyValidityCache.validateKeyUsage("KEY001");
+
+        testKey.setStatus(KeyStatus.SUSPENDED);
+        keyValidityCache.invalidateKey("KEY001");
+
+        KeyManagementException exception = assertThrows(KeyManagementException.class,
+            () -> keyValidityCache.validateKeyUsage("KEY001"));
+        assertEquals("Cannot perform action 'USE' on key KEY001 with status SUSPENDED", exception.getMessage());
+        verify(digitalKeyRepository, times(2)).findByKeyIdWithVehicle("KEY001");
+    }
+
+    @Test
+    @DisplayName("Should reload only the vehicle after a subscription change")
+    void shouldReloadVehicleAfterInvalidation() {
+        when(digitalKeyRepository.findByKeyIdWithVehicle("KEY001")).thenReturn(Optional.of(testKey));
+        when(vehicleRepository.findById(1L)).thenReturn(Optional.of(testVehicle));
+        keyValidityCache.validateKeyUsage("KEY001");
+
+        testVehicle.setSubscriptionExpiresAt(LocalDateTime.now().minusMinutes(1));
+        keyValidityCache.invalidateVehicle(1L);
+
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+            () -> keyValidityCache.validateKeyUsage("KEY001"));
+        assertEquals("Vehicle subscription has expired", exception.getMessage());
+        verify(digitalKeyRepository, times(1)).findByKeyIdWithVehicle("KEY001");
+    }
+
+    @Test
+    @DisplayName("Should evict a key when its entity changes")
+    void shouldEvictKeyOnEntityChangedEvent() {
+        when(digitalKeyRepository.findByKeyIdWithVehicle("KEY001")).thenReturn(Optional.of(testKey));
+        keyValidityCache.validateKeyUsage("KEY001");
+
+        keyValidityCache.onEntityChanged(new EntityChangedEvent(testKey));
+        keyValidityCache.validateKeyUsage("KEY001");
+
+        verify(digitalKeyRepository, times(2)).findByKeyIdWithVehicle("KEY001");
+    }
+
+    @Test
+    @DisplayName("Should evaluate the validity window on every check")
+    void shouldEvaluateValidityWindowOnEveryCheck() {
+        testKey.setExpiresAt(LocalDateTime.now().minusSeconds(1));
+        when(digitalKeyRepository.findByKeyIdWithVehicle("KEY001")).thenReturn(Optional.of(testKey));
+
+        assertThrows(KeyManagementException.class, () -> keyValidityCache.validateKeyUsage("KEY001"));
+        assertTrue(keyValidityCache.getKey("KEY001").isExpired(System.currentTimeMillis()));
+    }
+
+    @Test
+    @DisplayName("Should report unknown keys as not found")
+    void shouldReportUnknownKeys() {
+        when(digitalKeyRepository.findByKeyIdWithVehicle("MISSING")).thenReturn(Optional.empty());
+
+        KeyManagementException exception = assertThrows(KeyManagementException.class,
+            () -> keyValidityCache.getKey("MISSING"));
+        assertEquals("Digital key not found: MISSING", exception.getMessage());
+    }
+}
@@ -0,0 +1,126 @@
+package com.vehicleoem.service;
+
+import com.vehicleoem.client.DeviceOemClient;
+import com.vehicleoem.client.KeyTrackingClient;
+import com.vehicleoem.client.VehicleTelematicsClient;
+import com.vehicleoem.dto.KeyRegistrationRequest;
+import com.vehicleoem.dto.TelematicsCommandRequest;
+import com.vehicleoem.dto.TelematicsResponse;
+import com.vehicleoem.model.OutboxEvent;
+import com.vehicleoem.model.OutboxEventType;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("OutboxRelay Unit Tests")
+class OutboxRelayTest {
+
+    @Mock
+    private OutboxService outboxService;
+
+    @Mock
+    private KeyTrackingClient keyTrackingClient;
+
+    @Mock
+    private VehicleTelematicsClient vehicleTelematicsClient;
+
+    @Mock
+    private DeviceOemClient deviceOemClient;
+
+    @Mock
+    private KeyOperationService keyOperationService;
+
+    @Spy
+    private MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @InjectMocks
+    private OutboxRelay outboxRelay;
+
+    private OutboxEvent registerEvent;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(outboxRelay, "enabled", true);
+        ReflectionTestUtils.setField(outboxRelay, "batchSize", 100);
+        ReflectionTestUtils.setField(outboxRelay, "maxBatchesPerRun", 5);
+        outboxRelay.registerGauges();
+
+        registerEvent = new OutboxEvent("OWNER-KEY-001", OutboxEventType.KTS_REGISTER_KEY, "{}");
+        registerEvent.setId(1L);
+        registerEvent.setAttempts(1);
+    }
+
+    @Test
+    @DisplayName("Should deliver claimed events and mark them dispatched")
+    void shouldDeliverClaimedEvents() {
+        KeyRegistrationRequest payload = new KeyRegistrationRequest();
+        when(outboxService.claimDueEvents(100)).thenReturn(List.of(registerEvent), List.of());
+        when(outboxService.readPayload(registerEvent, KeyRegistrationRequest.class)).thenReturn(payload);
+        when(outboxService.countPending()).thenReturn(0L);
+
+        outboxRelay.relay();
+
+        verify(keyTrackingClient).registerKey(payload);
+        verify(outboxService).markDispatched(1L, null);
+        verify(outboxService, never()).markFailed(any(), any());
+        assertEquals(1.0, meterRegistry.get("outbox.events.dispatched").tag("type", "KTS_REGISTER_KEY").counter().count());
+        assertEquals(0.0, meterRegistry.get("outbox.events.pending").gauge().value());
+    }
+
+    @Test
+    @DisplayName("Should schedule a retry when delivery fails")
+    void shouldScheduleRetryWhenDeliveryFails() {
+        when(outboxService.readPayload(registerEvent, KeyRegistrationRequest.class)).thenReturn(new KeyRegistrationRequest());
+        when(keyTrackingClient.registerKey(any())).thenThrow(new RuntimeException("KTS unavailable"));
+        when(outboxService.markFailed(registerEvent, "KTS unavailable")).thenReturn(false);
+
+        outboxRelay.dispatch(registerEvent);
+
+        verify(outboxService, never()).markDispatched(any(), any());
+        assertEquals(1.0, meterRegistry.get("outbox.events.failed").tag("outcome", "retry").counter().count());
+    }
+
+    @Test
+    @DisplayName("Should record the vehicle command acknowledgement and wake operation waiters")
+    void shouldRecordCommandAcknowledgement() {
+        OutboxEvent commandEvent = new OutboxEvent("OWNER-KEY-001", OutboxEventType.TELEMATICS_COMMAND, "{}");
+        commandEvent.setId(2L);
+        commandEvent.setAttempts(1);
+        commandEvent.setOperationId("OP-001");
+        TelematicsCommandRequest payload = new TelematicsCommandRequest();
+        TelematicsResponse ack = new TelematicsResponse();
+        ack.setSuccess(true);
+        ack.setCommandId("CMD-12345");
+        when(outboxService.readPayload(commandEvent, TelematicsCommandRequest.class)).thenReturn(payload);
+        when(vehicleTelematicsClient.sendCommand(payload)).thenReturn(ack);
+
+        outboxRelay.dispatch(commandEvent);
+
+        verify(outboxService).markDispatched(2L, "CMD-12345");
+        verify(keyOperationService).stepProgressed("OP-001");
+    }
+
+    @Test
+    @DisplayName("Should not poll when relay is disabled")
+    void shouldNotPollWhenRelayDisabled() {
+        ReflectionTestUtils.setField(outboxRelay, "enabled", false);
+
+        outboxRelay.relay();
+
+        verifyNoInteractions(outboxService);
+    }
+}
@@ -0,0 +1,97 @@
+package com.vehicleoem.service;
+
+import com.vehicleoem.repository.PairingSessionRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("PairingSessionReaper Unit Tests")
+class PairingSessionReaperTest {
+
+    @Mock
+    private PairingSessionRepository pairingSessionRepository;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @Spy
+    private MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @InjectMocks
+    private PairingSessionReaper pairingSessionReaper;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        ReflectionTestUtils.setField(pairingSessionReaper, "enabled", true);
+        ReflectionTestUtils.setField(pairingSessionReaper, "chunkSize", 2);
+        ReflectionTestUtils.setField(pairingSessionReaper, "maxChunksPerRun", 10);
+        ReflectionTestUtils.setField(pairingSessionReaper, "retentionDays", 30);
+        pairingSessionReaper.registerMetrics();
+
+        when(transactionTemplate.execute(any())).thenAnswer(invocation ->
+            ((TransactionCallback<Integer>) invocation.getArgument(0)).doInTransaction(null));
+    }
+
+    @Test
+    @DisplayName("Should expire and purge sessions chunk by chunk and record rows per run")
+    void shouldExpireAndPurgeInChunks() {
+        when(pairingSessionRepository.expireDueSessions(any(), eq(2))).thenReturn(2, 1);
+        when(pairingSessionRepository.purgeTerminalSessions(any(), eq(2))).thenReturn(0);
+
+        pairingSessionReaper.reap();
+
+        // The short second chunk means the backlog is drained, so no third statement
+        verify(pairingSessionRepository, times(2)).expireDueSessions(any(), eq(2));
+        verify(pairingSessionRepository, times(1)).purgeTerminalSessions(any(), eq(2));
+        assertEquals(3.0, meterRegistry.get("pairing_session_reaper.rows").tag("action", "expired").counter().count());
+        assertEquals(3.0, meterRegistry.get("pairing_session_reaper.rows.per_run")
+            .tag("action", "expired").summary().totalAmount());
+        assertEquals(1L, meterRegistry.get("pairing_session_reaper.rows.per_run")
+            .tag("action", "purged").summary().count());
+        assertEquals(1L, meterRegistry.get("pairing_session_reaper.run.duration").timer().count());
+    }
+
+    @Test
+    @DisplayName("Should stop after the per-run chunk limit and purge only past the retention period")
+    void shouldBoundWorkPerRun() {
+        ReflectionTestUtils.setField(pairingSessionReaper, "maxChunksPerRun", 1);
+        when(pairingSessionRepository.expireDueSessions(any(), eq(2))).thenReturn(2);
+        when(pairingSessionRepository.purgeTerminalSessions(any(), eq(2))).thenReturn(2);
+
+        pairingSessionReaper.reap();
+
+        verify(pairingSessionRepository, times(1)).expireDueSessions(any(), eq(2));
+        ArgumentCaptor<LocalDateTime> cutoff = ArgumentCaptor.forClass(LocalDateTime.class);
+        verify(pairingSessionRepository, times(1)).purgeTerminalSessions(cutoff.capture(), eq(2));
+        assertTrue(cutoff.getValue().isBefore(LocalDateTime.now().minusDays(29)));
+        assertEquals(2.0, meterRegistry.get("pairing_session_reaper.rows").tag("action", "purged").counter().count());
+    }
+
+    @Test
+    @DisplayName("Should do nothing when disabled")
+    void shouldDoNothingWhenDisabled() {
+        ReflectionTestUtils.setField(pairingSessionReaper, "enabled", false);
+        reset(transactionTemplate);
+
+        pairingSessionReaper.reap();
+
+        verifyNoInteractions(pairingSessionRepository, transactionTemplate);
+    }
+}
@@ -0,0 +1,294 @@
+package com.vehicleoem.service;
+
+import com.vehicleoem.model.*;
+import com.vehicleoem.repository.PairingSessionRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("PairingSessionStore Unit Tests")
+class PairingSessionStoreTest {
+
+    @Mock
+    private PairingSessionRepository pairingSessionRepository;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @Spy
+    private MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @InjectMocks
+    private PairingSessionStore pairingSessionStore;
+
+    private Vehicle testVehicle;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(pairingSessionStore, "maxFlushAttempts", 3);
+        pairingSessionStore.init();
+
+        OwnerAccount owner = new OwnerAccount("OWNER001", "owner@example.com", "John", "Doe");
+        testVehicle = new Vehicle("1HGBH41JXMN109186", "Honda", "Civic", 2023, owner);
+        testVehicle.setId(1L);
+    }
+
+    @AfterEach
+    void tearDown() {
+        pairingSessionStore.shutdown();
+    }
+
+    private PairingSession session(String sessionId, LocalDateTime expiresAt) {
+        PairingSession session = new PairingSession();
+        session.setVehicle(testVehicle);
+        session.setSessionId(sessionId);
+        session.setPairingPassword("123456");
+        session.setPairingVerifier("verifier");
+        session.setVehiclePrivateKey("private-key");
+        session.setStatus(PairingStatus.INITIATED);
+        session.setExpiresAt(expiresAt);
+        return session;
+    }
+
+    @SuppressWarnings("unchecked")
+    private void runTransactionsInline() {
+        when(transactionTemplate.execute(any()))
+            .thenAnswer(invocation -> ((TransactionCallback<Object>) invocation.getArgument(0)).doInTransaction(null));
+    }
+
+    private void assignIdsOnSave() {
+        when(pairingSessionRepository.save(any(PairingSession.class))).thenAnswer(invocation -> {
+            PairingSession row = invocation.getArgument(0);
+            if (row.getId() == null) {
+                row.setId(100L);
+            }
+            return row;
+        });
+    }
+
+    @Test
+    @DisplayName("Should serve live sessions from memory and write them behind")
+    void shouldServeLiveSessionsFromMemory() {
+        // Arrange
+        runTransactionsInline();
+        assignIdsOnSave();
+        PairingSession session = session("PAIR-1", LocalDateTime.now().plusMinutes(15));
+
+        // Act
+        pairingSessionStore.create(session);
+
+        // Assert
+        assertSame(session, pairingSessionStore.findBySessionId("PAIR-1").orElseThrow());
+        assertSame(session, pairingSessionStore.findLiveByVehicle(1L, PairingStatus.INITIATED).orElseThrow());
+        verifyNoInteractions(pairingSessionRepository);
+
+        pairingSessionStore.flush();
+        verify(pairingSessionRepository).save(argThat(row -> row != session && "PAIR-1".equals(row.getSessionId())));
+        // The live session learns its id from the insert
+        assertEquals(100L, session.getId());
+
+        // Nothing left to flush
+        pairingSessionStore.flush();
+        verify(pairingSessionRepository, times(1)).save(any());
+    }
+
+    @Test
+    @DisplayName("Should drop finished sessions from memory and write the latest state once")
+    void shouldWriteLatestStateOfFinishedSession() {
+        // Arrange
+        runTransactionsInline();
+        assignIdsOnSave();
+        PairingSession session = session("PAIR-1", LocalDateTime.now().plusMinutes(15));
+        pairingSessionStore.create(session);
+
+        // Act
+        session.incrementFailedAttempts();
+        pairingSessionStore.update(session);
+        session.setStatus(PairingStatus.COMPLETED);
+        pairingSessionStore.update(session);
+
+        // Assert
+        assertEquals(0, pairingSessionStore.size());
+        // Still answered from memory until the flush
+        assertEquals(PairingStatus.COMPLETED, pairingSessionStore.findBySessionId("PAIR-1").orElseThrow().getStatus());
+
+        pairingSessionStore.flush();
+        ArgumentCaptor<PairingSession> saved = ArgumentCaptor.forClass(PairingSession.class);
+        verify(pairingSessionRepository).save(saved.capture());
+        assertEquals(PairingStatus.COMPLETED, saved.getValue().getStatus());
+        assertEquals(1, saved.getValue().getFailedAttempts());
+        assertNull(saved.getValue().getVehiclePrivateKey());
+    }
+
+    @Test
+    @DisplayName("Should update an inserted session by id even if the snapshot predates the insert")
+    void shouldReuseIdOfInsertedSession() {
+        // Arrange
+        runTransactionsInline();
+        assignIdsOnSave();
+        PairingSession session = session("PAIR-1", LocalDateTime.now().plusMinutes(15));
+        pairingSessionStore.create(session);
+        pairingSessionStore.flush();
+
+        // Act
+        PairingSession staleCopy = session("PAIR-1", session.getExpiresAt());
+        staleCopy.setStatus(PairingStatus.REVOKED);
+        pairingSessionStore.update(staleCopy);
+        pairingSessionStore.flush();
+
+        // Assert
+        ArgumentCaptor<PairingSession> saved = ArgumentCaptor.forClass(PairingSession.class);
+        verify(pairingSessionRepository, times(2)).save(saved.capture());
+        assertEquals(100L, saved.getAllValues().get(1).getId());
+        assertEquals(PairingStatus.REVOKED, saved.getAllValues().get(1).getStatus());
+    }
+
+    @Test
+    @DisplayName("Should keep changes queued when a flush fails")
+    void shouldRetainChangesWhenFlushFails() {
+        // Arrange
+        runTransactionsInline();
+        when(pairingSessionRepository.save(any(PairingSession.class)))
+            .thenThrow(new RuntimeException("connection refused"))
+            .thenAnswer(invocation -> {
+                PairingSession row = invocation.getArgument(0);
+                row.setId(100L);
+                return row;
+            });
+        pairingSessionStore.create(session("PAIR-1", LocalDateTime.now().plusMinutes(15)));
+
+        // Act
+        pairingSessionStore.flush();
+        pairingSessionStore.flush();
+
+        // Assert
+        verify(pairingSessionRepository, times(2)).save(any());
+        assertEquals(1.0, meterRegistry.get("pairing_sessions.flush.failures").counter().count());
+        assertEquals(0.0, meterRegistry.get("pairing_sessions.pending_writes").gauge().value());
+    }
+
+    @Test
+    @DisplayName("Should flush other sessions past a failing one and drop it after repeated failures")
+    void shouldIsolateAndDropFailingSession() {
+        // Arrange
+        runTransactionsInline();
+        when(pairingSessionRepository.save(any(PairingSession.class))).thenAnswer(invocation -> {
+            PairingSession row = invocation.getArgument(0);
+            if ("PAIR-BAD".equals(row.getSessionId())) {
+                throw new DataIntegrityViolationException("violates foreign key constraint");
+            }
+            row.setId(100L);
+            return row;
+        });
+        pairingSessionStore.create(session("PAIR-BAD", LocalDateTime.now().plusMinutes(15)));
+        pairingSessionStore.create(session("PAIR-1", LocalDateTime.now().plusMinutes(15)));
+
+        // Act
+        pairingSessionStore.flush();
+
+        // Assert
+        verify(pairingSessionRepository).save(argThat(row -> "PAIR-1".equals(row.getSessionId())));
+        assertEquals(1.0, meterRegistry.get("pairing_sessions.pending_writes").gauge().value());
+
+        pairingSessionStore.flush();
+        pairingSessionStore.flush();
+        pairingSessionStore.flush();
+        verify(pairingSessionRepository, times(3)).save(argThat(row -> "PAIR-BAD".equals(row.getSessionId())));
+        assertEquals(3.0, meterRegistry.get("pairing_sessions.flush.failures").counter().count());
+        assertEquals(1.0, meterRegistry.get("pairing_sessions.flush.dropped").counter().count());
+        assertEquals(0.0, meterRegistry.get("pairing_sessions.pending_writes").gauge().value());
+    }
+
+    @Test
+    @DisplayName("Should expire sessions on their timer")
+    void shouldExpireSessionsOnTimer() throws Exception {
+        // Arrange
+        runTransactionsInline();
+        assignIdsOnSave();
+        pairingSessionStore.create(session("PAIR-1", LocalDateTime.now().plusNanos(50_000_000)));
+
+        // Act
+        long deadline = System.currentTimeMillis() + 5000;
+        while (pairingSessionStore.size() > 0 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        pairingSessionStore.flush();
+
+        // Assert
+        assertEquals(0, pairingSessionStore.size());
+        assertEquals(1.0, meterRegistry.get("pairing_sessions.expired").counter().count());
+        verify(pairingSessionRepository).save(argThat(row -> row.getStatus() == PairingStatus.EXPIRED));
+    }
+
+    @Test
+    @DisplayName("Should fall back to the database for sessions not held in memory")
+    void shouldFallBackToDatabase() {
+        // Arrange
+        PairingSession completed = session("PAIR-2", LocalDateTime.now().minusMinutes(5));
+        completed.setStatus(PairingStatus.COMPLETED);
+        when(pairingSessionRepository.findBySessionId("PAIR-2")).thenReturn(Optional.of(completed));
+
+        // Act & Assert
+        assertSame(completed, pairingSessionStore.findBySessionId("PAIR-2").orElseThrow());
+        assertEquals(1.0, meterRegistry.get("pairing_sessions.lookups").tag("source", "database").counter().count());
+    }
+
+    @Test
+    @DisplayName("Should find a vehicle's session held by another instance in the database")
+    void shouldFindVehicleSessionInDatabase() {
+        // Arrange
+        PairingSession elsewhere = session("PAIR-4", LocalDateTime.now().plusMinutes(10));
+        when(pairingSessionRepository.findFirstByVehicleIdAndStatusAndExpiresAtAfterOrderByCreatedAtDesc(
+            eq(1L), eq(PairingStatus.INITIATED), any())).thenReturn(Optional.of(elsewhere));
+
+        // Act & Assert
+        assertSame(elsewhere, pairingSessionStore.findLiveByVehicle(1L, PairingStatus.INITIATED).orElseThrow());
+        assertEquals(1.0, meterRegistry.get("pairing_sessions.lookups").tag("source", "database").counter().count());
+
+        // Finished here but not flushed yet, so the database row is out of date
+        runTransactionsInline();
+        assignIdsOnSave();
+        elsewhere.setStatus(PairingStatus.REVOKED);
+        pairingSessionStore.update(elsewhere);
+        assertTrue(pairingSessionStore.findLiveByVehicle(1L, PairingStatus.INITIATED).isEmpty());
+        pairingSessionStore.flush();
+    }
+
+    @Test
+    @DisplayName("Should recover in-flight sessions on startup")
+    void shouldRecoverInFlightSessions() {
+        // Arrange
+        PairingSession session = session("PAIR-3", LocalDateTime.now().plusMinutes(10));
+        session.setId(7L);
+        when(pairingSessionRepository.findInFlightSessions(anyCollection(), any())).thenReturn(List.of(session));
+
+        // Act
+        pairingSessionStore.recover();
+
+        // Assert
+        assertEquals(1, pairingSessionStore.size());
+        assertSame(session, pairingSessionStore.findBySessionId("PAIR-3").orElseThrow());
+        verify(pairingSessionRepository, never()).findBySessionId(any());
+    }
+}
@@ -0,0 +1,55 @@
+package com.vehicleoem.service;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("ScalableBloomFilter Unit Tests")
+class ScalableBloomFilterTest {
+
+    @Test
+    @DisplayName("Should never report an added value as absent, across stage growth")
+    void shouldHaveNoFalseNegatives() {
+        ScalableBloomFilter filter = new ScalableBloomFilter(1_000, 0.01);
+
+        for (int i = 0; i < 20_000; i++) {
+            filter.put("OWNER-KEY-" + i);
+        }
+
+        assertTrue(filter.stageCount() > 1, "filter should have grown beyond its initial capacity");
+        assertEquals(20_000, filter.size());
+        for (int i = 0; i < 20_000; i++) {
+            assertTrue(filter.mightContain("OWNER-KEY-" + i));
+        }
+    }
+
+    @Test
+    @DisplayName("Should keep the false positive rate within the configured bound after growing")
+    void shouldBoundFalsePositiveRate() {
+        ScalableBloomFilter filter = new ScalableBloomFilter(1_000, 0.01);
+        for (int i = 0; i < 20_000; i++) {
+            filter.put("OWNER-KEY-" + i);
+        }
+
+        int falsePositives = 0;
+        int probes = 100_000;
+        for (int i = 0; i < probes; i++) {
+            if (filter.mightContain("FRIEND-KEY-" + i)) {
+                falsePositives++;
+            }
+        }
+
+        assertTrue(falsePositives < probes * 0.01, "false positive rate was " + (double) falsePositives / probes);
+    }
+
+    @Test
+    @DisplayName("Should report values that were never added as absent when empty")
+    void shouldReportAbsentWhenEmpty() {
+        ScalableBloomFilter filter = new ScalableBloomFilter(100, 0.001);
+
+        assertFalse(filter.mightContain("OWNER-KEY-1"));
+        assertThrows(IllegalArgumentException.class, () -> new ScalableBloomFilter(0, 0.01));
+        assertThrows(IllegalArgumentException.class, () -> new ScalableBloomFilter(100, 1.0));
+    }
+}